@@ -0,0 +1,43 @@
+package com.whi5p3r.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * @description: 基准测试入口。接受JMH的全部命令行参数，默认开启分配分析（-prof gc），
+ *               并将结果以JSON写入 target/jmh/result-时间戳.json，便于不同运行之间对比。
+ *               传入 -rff 可指定结果文件，设置 -Dbench.noGcProfiler=true 可关闭默认的gc分析。
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLine);
+
+        if (!Boolean.getBoolean("bench.noGcProfiler")) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            File dir = new File("target/jmh");
+            dir.mkdirs();
+            String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+            builder.result(new File(dir, "result-" + timestamp + ".json").getPath());
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
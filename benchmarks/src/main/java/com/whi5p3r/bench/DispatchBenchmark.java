@@ -0,0 +1,69 @@
+package com.whi5p3r.bench;
+
+import com.whi5p3r.bench.fixture.WebConfig;
+import com.whi5p3r.sample.stub.StubHttpServletRequest;
+import com.whi5p3r.sample.stub.StubHttpServletResponse;
+import com.whi5p3r.sample.stub.StubServletConfig;
+import com.whi5p3r.spring.WhDispatchServlet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: WhDispatchServlet.doDispatch的开销，请求和响应都是内存中的桩；
+ *               metricsEnabled对比开启和关闭路由指标时的差异，用于证明指标记录的开销可以忽略
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DispatchBenchmark {
+    @Param({"true", "false"})
+    public String metricsEnabled;
+
+    private WhDispatchServlet servlet;
+    private StubHttpServletRequest hello;
+    private StubHttpServletRequest notFound;
+    private StubHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws ServletException {
+        servlet = new WhDispatchServlet();
+        servlet.init(new StubServletConfig("bench")
+                .initParameter(WhDispatchServlet.CONFIG_CLASS_PARAM, WebConfig.class.getName())
+                .initParameter(WhDispatchServlet.METRICS_ENABLED_PARAM, metricsEnabled));
+        hello = new StubHttpServletRequest("GET", "", "/bench/hello").addParameter("name", "whi5p3r");
+        notFound = new StubHttpServletRequest("GET", "", "/bench/missing");
+        response = new StubHttpServletResponse();
+    }
+
+    @Benchmark
+    public long dispatch() throws ServletException, IOException {
+        response.reset();
+        servlet.service(hello, response);
+        return response.getWrittenChars();
+    }
+
+    @Benchmark
+    public long dispatchNotFound() throws ServletException, IOException {
+        response.reset();
+        servlet.service(notFound, response);
+        return response.getWrittenChars();
+    }
+}
@@ -0,0 +1,79 @@
+package com.whi5p3r.bench;
+
+import com.whi5p3r.bench.fixture.EventConfig;
+import com.whi5p3r.bench.fixture.ProxiedListenerConfig;
+import com.whi5p3r.bench.fixture.event.OrderPlacedEvent;
+import com.whi5p3r.bench.fixture.event.OrderService;
+import com.whi5p3r.bench.fixture.proxied.AuditLog;
+import com.whi5p3r.spring.context.WhAnnotationApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 请求线程上通知三个下游的耗时：直接同步调用与发布事件（异步监听方法，有界队列满时由调用方执行）的对比；
+ *               单核机器上异步监听方法与请求线程争抢CPU，看不出差别
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:00
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventBenchmark {
+    private WhAnnotationApplicationContext context;
+    private OrderService orderService;
+    private long orderId;
+
+    @Setup
+    public void setUp() {
+        context = new WhAnnotationApplicationContext(EventConfig.class);
+        orderService = (OrderService) context.getBean("orderService");
+        checkProxiedListener();
+    }
+
+    /**
+     * 带有@Async方法的Bean被包装为代理，其上的监听方法要通过代理收到事件
+     */
+    private static void checkProxiedListener() {
+        WhAnnotationApplicationContext proxied = new WhAnnotationApplicationContext(ProxiedListenerConfig.class);
+        try {
+            proxied.publishEvent(new OrderPlacedEvent(1L));
+            AuditLog auditLog = (AuditLog) proxied.getBean("auditLog");
+            if (auditLog.getReceived() != 1L) {
+                throw new IllegalStateException("Listener on the @Async proxied bean received " + auditLog.getReceived() + " events, expected 1.");
+            }
+        } finally {
+            proxied.close();
+        }
+    }
+
+    @Benchmark
+    public void directFanOut() {
+        orderService.placeDirect(++ orderId);
+    }
+
+    @Benchmark
+    public void publishEvent() {
+        orderService.placeWithEvent(++ orderId);
+    }
+
+    /**
+     * 没有监听方法的事件类型：只有取分发列表的开销
+     */
+    @Benchmark
+    public void publishUnobservedEvent() {
+        context.publishEvent(Long.valueOf(++ orderId));
+    }
+}
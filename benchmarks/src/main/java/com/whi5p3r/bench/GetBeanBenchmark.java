@@ -0,0 +1,80 @@
+package com.whi5p3r.bench;
+
+import com.whi5p3r.bench.fixture.CoreConfig;
+import com.whi5p3r.spring.WhApplicationContext;
+import com.whi5p3r.spring.context.WhAnnotationApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: getBean的开销：两种容器上的单例查找、prototype创建和注入较多的prototype创建（populateBean），
+ *               以及同样的依赖通过构造器注入、通过配置类上的@Bean方法创建时的开销
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GetBeanBenchmark {
+    private WhAnnotationApplicationContext annotationContext;
+    private WhApplicationContext applicationContext;
+
+    @Setup
+    public void setUp() {
+        annotationContext = new WhAnnotationApplicationContext(CoreConfig.class);
+        applicationContext = new WhApplicationContext(CoreConfig.class);
+    }
+
+    @Benchmark
+    public Object annotationSingleton() {
+        return annotationContext.getBean("singletonService");
+    }
+
+    @Benchmark
+    public Object annotationPrototype() {
+        return annotationContext.getBean("prototypeService");
+    }
+
+    @Benchmark
+    public Object annotationInjectionHeavyPrototype() {
+        return annotationContext.getBean("injectionHeavyPrototype");
+    }
+
+    @Benchmark
+    public Object annotationConstructorInjectedPrototype() {
+        return annotationContext.getBean("constructorInjectedPrototype");
+    }
+
+    @Benchmark
+    public Object annotationFactoryMethodPrototype() {
+        return annotationContext.getBean("factoryMethodPrototype");
+    }
+
+    @Benchmark
+    public Object applicationSingleton() {
+        return applicationContext.getBean("singletonService");
+    }
+
+    @Benchmark
+    public Object applicationPrototype() {
+        return applicationContext.getBean("prototypeService");
+    }
+
+    @Benchmark
+    public Object applicationInjectionHeavyPrototype() {
+        return applicationContext.getBean("injectionHeavyPrototype");
+    }
+}
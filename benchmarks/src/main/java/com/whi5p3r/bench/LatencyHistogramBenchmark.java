@@ -0,0 +1,55 @@
+package com.whi5p3r.bench;
+
+import com.whi5p3r.spring.metrics.LatencyHistogram;
+import com.whi5p3r.spring.metrics.RouteMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 路由指标的记录开销：单线程和多线程竞争同一个直方图/路由时的耗时
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatencyHistogramBenchmark {
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final RouteMetrics routeMetrics = new RouteMetrics("/bench");
+
+    @Benchmark
+    public void record() {
+        histogram.record(ThreadLocalRandom.current().nextLong(1_000_000L));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        histogram.record(ThreadLocalRandom.current().nextLong(1_000_000L));
+    }
+
+    @Benchmark
+    public void routeStartComplete() {
+        routeMetrics.onComplete(routeMetrics.onStart(), false);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void routeStartCompleteContended() {
+        routeMetrics.onComplete(routeMetrics.onStart(), false);
+    }
+}
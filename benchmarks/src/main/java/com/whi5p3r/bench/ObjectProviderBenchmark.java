@@ -0,0 +1,55 @@
+package com.whi5p3r.bench;
+
+import com.whi5p3r.bench.fixture.ProviderConfig;
+import com.whi5p3r.bench.fixture.provider.ReportBuilder;
+import com.whi5p3r.bench.fixture.provider.ReportService;
+import com.whi5p3r.spring.context.WhAnnotationApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 单例反复获取新的prototype：通过注入的ObjectProvider（预先绑定beanId）与持有容器按名字、按类型getBean的对比
+ * @author: whi5p3r
+ * @date: 2026年10月19日 21:50
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObjectProviderBenchmark {
+    private WhAnnotationApplicationContext context;
+    private ReportService reportService;
+
+    @Setup
+    public void setUp() {
+        context = new WhAnnotationApplicationContext(ProviderConfig.class);
+        reportService = (ReportService) context.getBean("reportService");
+    }
+
+    @Benchmark
+    public Object objectProvider() {
+        return reportService.newBuilder();
+    }
+
+    @Benchmark
+    public Object getBeanByName() {
+        return context.getBean("reportBuilder");
+    }
+
+    @Benchmark
+    public Object getBeanByType() {
+        return context.getBean(ReportBuilder.class);
+    }
+}
@@ -0,0 +1,58 @@
+package com.whi5p3r.bench;
+
+import com.whi5p3r.bench.fixture.CoreConfig;
+import com.whi5p3r.bench.fixture.core.AbstractFormatter;
+import com.whi5p3r.spring.context.WhAnnotationApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 创建代价较高的Bean：每次getBean新建（prototype）与从对象池借出再归还（pooled）的对比，
+ *               多线程下的争用可以通过 -t 指定线程数观察
+ * @author: whi5p3r
+ * @date: 2026年10月19日 18:50
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PooledScopeBenchmark {
+    private WhAnnotationApplicationContext context;
+    private int prototypeId;
+    private int pooledId;
+
+    @Setup
+    public void setUp() {
+        context = new WhAnnotationApplicationContext(CoreConfig.class);
+        prototypeId = context.getBeanId("prototypeFormatter");
+        pooledId = context.getBeanId("pooledFormatter");
+    }
+
+    @Benchmark
+    public String prototype() {
+        AbstractFormatter formatter = (AbstractFormatter) context.getBean(prototypeId);
+        return formatter.format("answer", 42);
+    }
+
+    @Benchmark
+    public String pooled() {
+        AbstractFormatter formatter = (AbstractFormatter) context.getBean(pooledId);
+        try {
+            return formatter.format("answer", 42);
+        } finally {
+            context.releaseBean(pooledId, formatter);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.whi5p3r.bench;
+
+import com.whi5p3r.bench.fixture.CoreConfig;
+import com.whi5p3r.bench.fixture.ProcessedConfig;
+import com.whi5p3r.spring.WhApplicationContext;
+import com.whi5p3r.spring.context.WhAnnotationApplicationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: BeanPostProcessor调用链的开销：同一个prototype分别在没有后处理器（core）和有4个原样返回的后处理器（processed）的容器中创建
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostProcessorChainBenchmark {
+    @Param({"core", "processed"})
+    public String config;
+
+    private WhAnnotationApplicationContext annotationContext;
+    private WhApplicationContext applicationContext;
+
+    @Setup
+    public void setUp() {
+        Class<?> configClass = "processed".equals(config) ? ProcessedConfig.class : CoreConfig.class;
+        annotationContext = new WhAnnotationApplicationContext(configClass);
+        applicationContext = new WhApplicationContext(configClass);
+    }
+
+    @Benchmark
+    public Object annotationPrototype() {
+        return annotationContext.getBean("prototypeService");
+    }
+
+    @Benchmark
+    public Object applicationPrototype() {
+        return applicationContext.getBean("prototypeService");
+    }
+}
@@ -0,0 +1,31 @@
+package com.whi5p3r.bench.fixture;
+
+import com.whi5p3r.bench.fixture.core.ConstructorInjectedPrototype;
+import com.whi5p3r.bench.fixture.core.Dep1;
+import com.whi5p3r.bench.fixture.core.Dep2;
+import com.whi5p3r.bench.fixture.core.Dep3;
+import com.whi5p3r.bench.fixture.core.Dep4;
+import com.whi5p3r.bench.fixture.core.Dep5;
+import com.whi5p3r.bench.fixture.core.Dep6;
+import com.whi5p3r.bench.fixture.core.Dep7;
+import com.whi5p3r.bench.fixture.core.Dep8;
+import com.whi5p3r.spring.annotations.Bean;
+import com.whi5p3r.spring.annotations.ComponentScan;
+import com.whi5p3r.spring.annotations.Scope;
+import com.whi5p3r.spring.beans.config.ScopeType;
+
+/**
+ * @description: 只扫描core包：单例、prototype和注入较多的prototype；
+ *               另有一个@Bean方法创建的prototype，依赖与ConstructorInjectedPrototype相同，与构造器注入对比
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@ComponentScan(basePackages = "com.whi5p3r.bench.fixture.core")
+public class CoreConfig {
+    @Bean
+    @Scope(ScopeType.PROTOTYPE)
+    public ConstructorInjectedPrototype factoryMethodPrototype(Dep1 dep1, Dep2 dep2, Dep3 dep3, Dep4 dep4,
+                                                               Dep5 dep5, Dep6 dep6, Dep7 dep7, Dep8 dep8) {
+        return new ConstructorInjectedPrototype(dep1, dep2, dep3, dep4, dep5, dep6, dep7, dep8);
+    }
+}
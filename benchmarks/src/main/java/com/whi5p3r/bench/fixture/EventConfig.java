@@ -0,0 +1,12 @@
+package com.whi5p3r.bench.fixture;
+
+import com.whi5p3r.spring.annotations.ComponentScan;
+
+/**
+ * @description: 只扫描event包：下单后通知多个下游，直接同步调用与发布事件的对比
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:00
+ */
+@ComponentScan(basePackages = "com.whi5p3r.bench.fixture.event")
+public class EventConfig {
+}
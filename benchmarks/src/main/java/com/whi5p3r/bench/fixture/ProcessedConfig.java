@@ -0,0 +1,12 @@
+package com.whi5p3r.bench.fixture;
+
+import com.whi5p3r.spring.annotations.ComponentScan;
+
+/**
+ * @description: 扫描全部fixture，core包中的Bean会经过processors包中的BeanPostProcessor
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@ComponentScan(basePackages = "com.whi5p3r.bench.fixture")
+public class ProcessedConfig {
+}
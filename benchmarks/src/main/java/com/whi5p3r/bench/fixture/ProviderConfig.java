@@ -0,0 +1,12 @@
+package com.whi5p3r.bench.fixture;
+
+import com.whi5p3r.spring.annotations.ComponentScan;
+
+/**
+ * @description: 只扫描provider包：通过ObjectProvider反复获取prototype的单例
+ * @author: whi5p3r
+ * @date: 2026年10月19日 21:50
+ */
+@ComponentScan(basePackages = "com.whi5p3r.bench.fixture.provider")
+public class ProviderConfig {
+}
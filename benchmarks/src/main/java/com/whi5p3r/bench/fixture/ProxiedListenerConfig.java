@@ -0,0 +1,12 @@
+package com.whi5p3r.bench.fixture;
+
+import com.whi5p3r.spring.annotations.ComponentScan;
+
+/**
+ * @description: 只扫描proxied包：同时带有@Async方法和@EventListener方法的Bean（被包装为JDK动态代理）
+ * @author: whi5p3r
+ * @date: 2026年10月20日 02:40
+ */
+@ComponentScan(basePackages = "com.whi5p3r.bench.fixture.proxied")
+public class ProxiedListenerConfig {
+}
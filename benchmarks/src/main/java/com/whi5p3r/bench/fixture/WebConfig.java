@@ -0,0 +1,12 @@
+package com.whi5p3r.bench.fixture;
+
+import com.whi5p3r.spring.annotations.ComponentScan;
+
+/**
+ * @description: 只扫描web包：Controller及其依赖
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@ComponentScan(basePackages = "com.whi5p3r.bench.fixture.web")
+public class WebConfig {
+}
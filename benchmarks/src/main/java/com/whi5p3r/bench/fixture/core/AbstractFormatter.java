@@ -0,0 +1,28 @@
+package com.whi5p3r.bench.fixture.core;
+
+/**
+ * @description: 基准测试用的创建代价较高、非线程安全的Bean：持有一块缓冲区
+ * @author: whi5p3r
+ * @date: 2026年10月19日 18:50
+ */
+public abstract class AbstractFormatter {
+    private final char[] buffer = new char[8192];
+    private int length;
+
+    public String format(String name, int value) {
+        length = 0;
+        append(name);
+        append("=");
+        append(Integer.toString(value));
+        return new String(buffer, 0, length);
+    }
+
+    private void append(String s) {
+        s.getChars(0, s.length(), buffer, length);
+        length += s.length();
+    }
+
+    protected void clear() {
+        length = 0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.whi5p3r.bench.fixture.core;
+
+import com.whi5p3r.spring.annotations.Autowired;
+import com.whi5p3r.spring.annotations.Component;
+import com.whi5p3r.spring.annotations.Scope;
+import com.whi5p3r.spring.beans.config.ScopeType;
+
+/**
+ * @description: 基准测试用的prototype，与InjectionHeavyPrototype有相同的8个单例依赖，但通过构造器注入到final字段，
+ *               与字段注入对比。WhApplicationContext只支持无参构造器，为它保留了public的无参构造器
+ * @author: whi5p3r
+ * @date: 2026年10月19日 21:30
+ */
+@Component("constructorInjectedPrototype")
+@Scope(ScopeType.PROTOTYPE)
+public class ConstructorInjectedPrototype {
+    private final Dep1 dep1;
+    private final Dep2 dep2;
+    private final Dep3 dep3;
+    private final Dep4 dep4;
+    private final Dep5 dep5;
+    private final Dep6 dep6;
+    private final Dep7 dep7;
+    private final Dep8 dep8;
+
+    public ConstructorInjectedPrototype() {
+        this(null, null, null, null, null, null, null, null);
+    }
+
+    @Autowired
+    public ConstructorInjectedPrototype(Dep1 dep1, Dep2 dep2, Dep3 dep3, Dep4 dep4, Dep5 dep5, Dep6 dep6, Dep7 dep7, Dep8 dep8) {
+        this.dep1 = dep1;
+        this.dep2 = dep2;
+        this.dep3 = dep3;
+        this.dep4 = dep4;
+        this.dep5 = dep5;
+        this.dep6 = dep6;
+        this.dep7 = dep7;
+        this.dep8 = dep8;
+    }
+}
@@ -0,0 +1,12 @@
+package com.whi5p3r.bench.fixture.core;
+
+import com.whi5p3r.spring.annotations.Component;
+
+/**
+ * @description: 基准测试用的无依赖单例
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@Component("dep3")
+public class Dep3 {
+}
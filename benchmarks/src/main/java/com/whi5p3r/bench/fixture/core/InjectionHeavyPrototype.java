@@ -0,0 +1,39 @@
+package com.whi5p3r.bench.fixture.core;
+
+import com.whi5p3r.spring.annotations.Autowired;
+import com.whi5p3r.spring.annotations.Component;
+import com.whi5p3r.spring.annotations.Scope;
+import com.whi5p3r.spring.beans.config.ScopeType;
+
+/**
+ * @description: 基准测试用的prototype，有8个需要注入的单例依赖，测量populateBean
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@Component("injectionHeavyPrototype")
+@Scope(ScopeType.PROTOTYPE)
+public class InjectionHeavyPrototype {
+    @Autowired
+    private Dep1 dep1;
+
+    @Autowired
+    private Dep2 dep2;
+
+    @Autowired
+    private Dep3 dep3;
+
+    @Autowired
+    private Dep4 dep4;
+
+    @Autowired
+    private Dep5 dep5;
+
+    @Autowired
+    private Dep6 dep6;
+
+    @Autowired
+    private Dep7 dep7;
+
+    @Autowired
+    private Dep8 dep8;
+}
@@ -0,0 +1,19 @@
+package com.whi5p3r.bench.fixture.core;
+
+import com.whi5p3r.spring.annotations.Component;
+import com.whi5p3r.spring.annotations.Pooled;
+import com.whi5p3r.spring.beans.config.PooledBean;
+
+/**
+ * @description: 基准测试用的池化格式化器，与PrototypeFormatter相同，只是从对象池中借出
+ * @author: whi5p3r
+ * @date: 2026年10月19日 18:50
+ */
+@Component("pooledFormatter")
+@Pooled(maxSize = 64)
+public class PooledFormatter extends AbstractFormatter implements PooledBean {
+    @Override
+    public void reset() {
+        clear();
+    }
+}
@@ -0,0 +1,15 @@
+package com.whi5p3r.bench.fixture.core;
+
+import com.whi5p3r.spring.annotations.Component;
+import com.whi5p3r.spring.annotations.Scope;
+import com.whi5p3r.spring.beans.config.ScopeType;
+
+/**
+ * @description: 基准测试用的prototype格式化器，每次getBean都新建并分配缓冲区
+ * @author: whi5p3r
+ * @date: 2026年10月19日 18:50
+ */
+@Component("prototypeFormatter")
+@Scope(ScopeType.PROTOTYPE)
+public class PrototypeFormatter extends AbstractFormatter {
+}
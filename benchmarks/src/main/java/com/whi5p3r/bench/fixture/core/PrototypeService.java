@@ -0,0 +1,15 @@
+package com.whi5p3r.bench.fixture.core;
+
+import com.whi5p3r.spring.annotations.Component;
+import com.whi5p3r.spring.annotations.Scope;
+import com.whi5p3r.spring.beans.config.ScopeType;
+
+/**
+ * @description: 基准测试用的无依赖prototype，测量prototype getBean的固定开销
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@Component("prototypeService")
+@Scope(ScopeType.PROTOTYPE)
+public class PrototypeService {
+}
@@ -0,0 +1,15 @@
+package com.whi5p3r.bench.fixture.core;
+
+import com.whi5p3r.spring.annotations.Autowired;
+import com.whi5p3r.spring.annotations.Component;
+
+/**
+ * @description: 基准测试用的单例，测量单例getBean
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@Component("singletonService")
+public class SingletonService {
+    @Autowired
+    private Dep1 dep1;
+}
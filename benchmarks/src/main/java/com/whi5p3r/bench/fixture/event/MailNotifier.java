@@ -0,0 +1,23 @@
+package com.whi5p3r.bench.fixture.event;
+
+import com.whi5p3r.spring.annotations.EventListener;
+import com.whi5p3r.spring.annotations.Service;
+
+/**
+ * @description: 下游通知：可以被直接调用，也作为异步监听方法接收OrderPlacedEvent
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:00
+ */
+@Service("mailNotifier")
+public class MailNotifier {
+    private volatile long last;
+
+    @EventListener(async = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        last = Notifications.work(event.getOrderId());
+    }
+
+    public long getLast() {
+        return last;
+    }
+}
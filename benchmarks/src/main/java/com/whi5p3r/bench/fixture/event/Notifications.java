@@ -0,0 +1,21 @@
+package com.whi5p3r.bench.fixture.event;
+
+/**
+ * @description: 模拟下游通知的处理开销（约数微秒的计算）
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:00
+ */
+final class Notifications {
+    private static final int WORK = 2000;
+
+    private Notifications() {
+    }
+
+    static long work(long seed) {
+        long x = seed;
+        for (int i = 0; i < WORK; ++i) {
+            x = x * 6364136223846793005L + 1442695040888963407L;
+        }
+        return x;
+    }
+}
@@ -0,0 +1,18 @@
+package com.whi5p3r.bench.fixture.event;
+
+/**
+ * @description: 基准测试用的事件
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:00
+ */
+public class OrderPlacedEvent {
+    private final long orderId;
+
+    public OrderPlacedEvent(long orderId) {
+        this.orderId = orderId;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+}
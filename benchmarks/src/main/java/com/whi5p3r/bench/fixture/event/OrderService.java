@@ -0,0 +1,33 @@
+package com.whi5p3r.bench.fixture.event;
+
+import com.whi5p3r.spring.annotations.Autowired;
+import com.whi5p3r.spring.annotations.Service;
+import com.whi5p3r.spring.context.event.ApplicationEventPublisher;
+
+/**
+ * @description: 下单后通知三个下游：直接同步调用，或者发布OrderPlacedEvent交给异步监听方法
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:00
+ */
+@Service("orderService")
+public class OrderService {
+    @Autowired
+    private ApplicationEventPublisher publisher;
+    @Autowired
+    private MailNotifier mailNotifier;
+    @Autowired
+    private InventoryNotifier inventoryNotifier;
+    @Autowired
+    private AnalyticsNotifier analyticsNotifier;
+
+    public void placeDirect(long orderId) {
+        OrderPlacedEvent event = new OrderPlacedEvent(orderId);
+        mailNotifier.onOrderPlaced(event);
+        inventoryNotifier.onOrderPlaced(event);
+        analyticsNotifier.onOrderPlaced(event);
+    }
+
+    public void placeWithEvent(long orderId) {
+        publisher.publishEvent(new OrderPlacedEvent(orderId));
+    }
+}
@@ -0,0 +1,20 @@
+package com.whi5p3r.bench.fixture.processors;
+
+import com.whi5p3r.spring.beans.config.BeanPostProcessor;
+
+/**
+ * @description: 基准测试用的BeanPostProcessor，原样返回Bean，只产生调用链本身的开销
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+public abstract class AbstractPassThroughPostProcessor implements BeanPostProcessor {
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean;
+    }
+}
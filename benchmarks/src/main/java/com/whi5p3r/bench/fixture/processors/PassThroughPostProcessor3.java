@@ -0,0 +1,12 @@
+package com.whi5p3r.bench.fixture.processors;
+
+import com.whi5p3r.spring.annotations.Component;
+
+/**
+ * @description: 基准测试用的BeanPostProcessor
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@Component("passThroughPostProcessor3")
+public class PassThroughPostProcessor3 extends AbstractPassThroughPostProcessor {
+}
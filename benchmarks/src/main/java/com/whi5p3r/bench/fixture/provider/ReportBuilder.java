@@ -0,0 +1,25 @@
+package com.whi5p3r.bench.fixture.provider;
+
+import com.whi5p3r.spring.annotations.Component;
+import com.whi5p3r.spring.annotations.Scope;
+import com.whi5p3r.spring.beans.config.ScopeType;
+
+/**
+ * @description: 基准测试用的有状态prototype，每次使用都需要新的实例
+ * @author: whi5p3r
+ * @date: 2026年10月19日 21:50
+ */
+@Component("reportBuilder")
+@Scope(ScopeType.PROTOTYPE)
+public class ReportBuilder {
+    private final StringBuilder buffer = new StringBuilder();
+
+    public ReportBuilder append(String line) {
+        buffer.append(line).append('\n');
+        return this;
+    }
+
+    public String build() {
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package com.whi5p3r.bench.fixture.provider;
+
+import com.whi5p3r.spring.annotations.Service;
+import com.whi5p3r.spring.core.ObjectProvider;
+
+/**
+ * @description: 基准测试用的单例，每次使用时通过ObjectProvider取新的ReportBuilder
+ * @author: whi5p3r
+ * @date: 2026年10月19日 21:50
+ */
+@Service("reportService")
+public class ReportService {
+    private final ObjectProvider<ReportBuilder> builders;
+
+    public ReportService(ObjectProvider<ReportBuilder> builders) {
+        this.builders = builders;
+    }
+
+    public ReportBuilder newBuilder() {
+        return builders.getObject();
+    }
+}
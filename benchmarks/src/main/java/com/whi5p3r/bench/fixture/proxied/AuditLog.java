@@ -0,0 +1,16 @@
+package com.whi5p3r.bench.fixture.proxied;
+
+import com.whi5p3r.bench.fixture.event.OrderPlacedEvent;
+
+/**
+ * @description: 审计日志：异步刷盘，同时监听OrderPlacedEvent。监听方法声明在接口中，通过代理调用
+ * @author: whi5p3r
+ * @date: 2026年10月20日 02:40
+ */
+public interface AuditLog {
+    void flush();
+
+    void onOrderPlaced(OrderPlacedEvent event);
+
+    long getReceived();
+}
@@ -0,0 +1,32 @@
+package com.whi5p3r.bench.fixture.proxied;
+
+import com.whi5p3r.bench.fixture.event.OrderPlacedEvent;
+import com.whi5p3r.spring.annotations.Async;
+import com.whi5p3r.spring.annotations.EventListener;
+import com.whi5p3r.spring.annotations.Service;
+
+/**
+ * @description: 带有@Async方法的Bean被包装为代理，其上的同步监听方法仍然要收到事件
+ * @author: whi5p3r
+ * @date: 2026年10月20日 02:40
+ */
+@Service("auditLog")
+public class AuditLogImpl implements AuditLog {
+    private volatile long received;
+
+    @Async
+    @Override
+    public void flush() {
+    }
+
+    @EventListener
+    @Override
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        ++ received;
+    }
+
+    @Override
+    public long getReceived() {
+        return received;
+    }
+}
@@ -0,0 +1,27 @@
+package com.whi5p3r.bench.fixture.web;
+
+import com.whi5p3r.spring.annotations.Autowired;
+import com.whi5p3r.spring.annotations.Controller;
+import com.whi5p3r.spring.annotations.RequestMapping;
+import com.whi5p3r.spring.annotations.RequestParam;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * @description: 基准测试用的Controller，测量doDispatch
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@Controller("benchController")
+@RequestMapping("/bench")
+public class BenchController {
+    @Autowired
+    private GreetingService greetingService;
+
+    @RequestMapping("/hello")
+    public void hello(HttpServletRequest req, HttpServletResponse resp, @RequestParam("name") String name) throws IOException {
+        resp.getWriter().write(greetingService.greet(name));
+    }
+}
@@ -0,0 +1,15 @@
+package com.whi5p3r.bench.fixture.web;
+
+import com.whi5p3r.spring.annotations.Service;
+
+/**
+ * @description: 基准测试用的Service
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+@Service("greetingService")
+public class GreetingService {
+    public String greet(String name) {
+        return "hello " + name;
+    }
+}
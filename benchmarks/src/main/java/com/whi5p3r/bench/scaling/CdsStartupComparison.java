@@ -0,0 +1,160 @@
+package com.whi5p3r.bench.scaling;
+
+import com.whi5p3r.sample.CdsTraining;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @description: 冷启动对比：先用CdsTraining训练出AppCDS归档和启动计划，再在全新的JVM中按四种方式启动配置类（取多次运行的中位数）：
+ *               default（JDK自带的CDS）、plan（启动计划）、appcds（AppCDS归档）、appcds+plan，记录进程墙钟耗时和容器就绪耗时。
+ *               AppCDS只归档jar中的类，派生的JVM只使用classpath中的jar（框架和示例在mini-spring的jar中），默认启动示例配置类。
+ *
+ *               参数（均可选）：--config com.whi5p3r.sample.MyConfig --warmup /metrics --repeats 5 --jvm-args "-Xmx512m"
+ *                             --out target/cds
+ * @author: whi5p3r
+ * @date: 2026年10月20日 01:10
+ */
+public class CdsStartupComparison {
+    private static final String HEADER = "mode,wallMs,readyMs";
+    private static final String[] MODES = {"default", "plan", "appcds", "appcds+plan"};
+
+    private String configClassName = "com.whi5p3r.sample.MyConfig";
+    private String warmup = "/metrics";
+    private int repeats = 5;
+    private String jvmArgs = "";
+    private File out = new File("target/cds");
+
+    public static void main(String[] args) throws Exception {
+        CdsStartupComparison comparison = new CdsStartupComparison();
+        comparison.parse(args);
+        comparison.run();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--config":
+                    configClassName = value;
+                    break;
+                case "--warmup":
+                    warmup = value;
+                    break;
+                case "--repeats":
+                    repeats = Integer.parseInt(value);
+                    break;
+                case "--jvm-args":
+                    jvmArgs = value;
+                    break;
+                case "--out":
+                    out = new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        List<String> jars = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (new File(entry).isFile()) { jars.add(new File(entry).getAbsolutePath()); }
+        }
+        String classpath = String.join(File.pathSeparator, jars);
+        File archive = new File(out, CdsTraining.ARCHIVE_FILE).getAbsoluteFile();
+        File plan = new File(out, CdsTraining.PLAN_FILE).getAbsoluteFile();
+
+        List<String> training = javaCommand(classpath);
+        training.add(CdsTraining.class.getName());
+        training.addAll(Arrays.asList(configClassName, "--warmup", warmup, "--out", out.getAbsolutePath()));
+        if (!jvmArgs.trim().isEmpty()) {
+            training.addAll(Arrays.asList("--jvm-args", jvmArgs));
+        }
+        launch(training);
+
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        System.out.println(HEADER);
+        for (String mode : MODES) {
+            List<String> command = javaCommand(classpath);
+            if (mode.startsWith("appcds")) {
+                command.add(1, "-XX:SharedArchiveFile=" + archive.getPath());
+            }
+            if (mode.endsWith("plan")) {
+                command.add(1, "-Dwhspring.aot.plan=" + plan.getPath());
+            }
+            command.addAll(Arrays.asList(CdsTraining.class.getName(), configClassName, "--run", "--warmup", warmup));
+
+            double[] wall = new double[repeats];
+            double[] ready = new double[repeats];
+            for (int i = 0; i < repeats; ++i) {
+                long start = System.nanoTime();
+                ready[i] = launch(command);
+                wall[i] = (System.nanoTime() - start) / 1e6;
+            }
+            String line = mode + "," + format(median(wall)) + "," + format(median(ready));
+            lines.add(line);
+            System.out.println(line);
+        }
+
+        try (PrintWriter writer = new PrintWriter(new File(out, "startup.csv"), StandardCharsets.UTF_8.name())) {
+            for (String line : lines) {
+                writer.println(line);
+            }
+        }
+        System.out.println("Startup comparison is saved to " + new File(out, "startup.csv").getPath());
+    }
+
+    private List<String> javaCommand(String classpath) {
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin" + File.separator + "java").getPath());
+        for (String arg : jvmArgs.trim().split("\\s+")) {
+            if (!arg.isEmpty()) { command.add(arg); }
+        }
+        command.add("-cp");
+        command.add(classpath);
+        return command;
+    }
+
+    /**
+     * 运行命令直到结束
+     * @return 输出中RESULT行的就绪耗时，没有时为NaN
+     */
+    private static double launch(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        double result = Double.NaN;
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(CdsTraining.RESULT_PREFIX)) {
+                    result = Double.parseDouble(line.substring(CdsTraining.RESULT_PREFIX.length()));
+                }
+                output.append(line).append('\n');
+            }
+        }
+        int exit = process.waitFor();
+        if (exit != 0) {
+            throw new IllegalStateException("Command failed (exit " + exit + "): " + String.join(" ", command) + "\n" + output);
+        }
+        return result;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static String format(double value) {
+        return String.format("%.3f", value);
+    }
+}
@@ -0,0 +1,174 @@
+package com.whi5p3r.bench.scaling;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @description: 启动伸缩性测试：对每个组件规模生成合成应用，在全新的JVM中分别启动两种容器（取多次运行的中位数），
+ *               记录扫描耗时、BeanDefinition数量、预实例化耗时、驻留堆和加载的类数量，输出为CSV格式的伸缩曲线。
+ *               每一行附带相对上一规模的增长指数 log(t2/t1)/log(n2/n1)，明显大于1说明存在超线性行为。
+ *
+ *               参数（均可选）：--sizes 100,1000,5000 --fan-out 3 --interface-ratio 0.3 --prototype-ratio 0.1
+ *                             --contexts annotation,application --repeats 3 --jvm-args "-Xmx2g" --out target/scaling/scaling.csv
+ * @author: whi5p3r
+ * @date: 2026年10月19日 17:10
+ */
+public class ScalingHarness {
+    private static final String HEADER = "context,components,definitions,scanMs,loadBeanDefinitionMs,preInstantiateMs,totalMs,"
+            + "retainedHeapBytes,loadedClasses,totalGrowthExponent,heapGrowthExponent";
+
+    private int[] sizes = {100, 500, 1000, 2000, 5000, 10000, 20000};
+    private int fanOut = 3;
+    private double interfaceRatio = 0.3;
+    private double prototypeRatio = 0.1;
+    private String[] contexts = {"annotation", "application"};
+    private int repeats = 3;
+    private String jvmArgs = "-Xmx2g";
+    private File out = new File("target/scaling/scaling.csv");
+
+    public static void main(String[] args) throws Exception {
+        ScalingHarness harness = new ScalingHarness();
+        harness.parse(args);
+        harness.run();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--sizes":
+                    sizes = Arrays.stream(value.split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+                    break;
+                case "--fan-out":
+                    fanOut = Integer.parseInt(value);
+                    break;
+                case "--interface-ratio":
+                    interfaceRatio = Double.parseDouble(value);
+                    break;
+                case "--prototype-ratio":
+                    prototypeRatio = Double.parseDouble(value);
+                    break;
+                case "--contexts":
+                    contexts = value.split(",");
+                    break;
+                case "--repeats":
+                    repeats = Integer.parseInt(value);
+                    break;
+                case "--jvm-args":
+                    jvmArgs = value;
+                    break;
+                case "--out":
+                    out = new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        File workDir = new File(out.getAbsoluteFile().getParentFile(), "apps");
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        System.out.println(HEADER);
+
+        for (String context : contexts) {
+            double[] previous = null;
+            for (int size : sizes) {
+                SyntheticAppGenerator generator = new SyntheticAppGenerator(size, fanOut, interfaceRatio, prototypeRatio, 42L);
+                File classes = generator.generate(workDir);
+
+                List<double[]> runs = new ArrayList<>();
+                for (int i = 0; i < repeats; ++i) {
+                    runs.add(probe(context, generator.configClassName(), classes));
+                }
+                double[] median = median(runs);
+
+                String line = context + "," + size + "," + (long) median[2] + ","
+                        + format(median[0]) + "," + format(median[1]) + "," + format(median[3]) + "," + format(median[4]) + ","
+                        + (long) median[5] + "," + (long) median[6] + ","
+                        + (previous == null ? "" : format(exponent(previous[7], size, previous[4], median[4]))) + ","
+                        + (previous == null ? "" : format(exponent(previous[7], size, previous[5], median[5])));
+                lines.add(line);
+                System.out.println(line);
+
+                previous = Arrays.copyOf(median, 8);
+                previous[7] = size;
+            }
+        }
+
+        out.getAbsoluteFile().getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(out, StandardCharsets.UTF_8.name())) {
+            for (String line : lines) {
+                writer.println(line);
+            }
+        }
+        System.out.println("Scaling curve is saved to " + out.getPath());
+    }
+
+    /**
+     * 在新的JVM中启动一次容器
+     * @return scanMs, loadMs, definitions, preInstantiateMs, totalMs, retainedHeapBytes, loadedClasses
+     */
+    private double[] probe(String context, String configClassName, File classes) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin" + File.separator + "java").getPath());
+        for (String arg : jvmArgs.trim().split("\\s+")) {
+            if (!arg.isEmpty()) { command.add(arg); }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path") + File.pathSeparator + classes.getAbsolutePath());
+        command.add(ScalingProbe.class.getName());
+        command.add(context);
+        command.add(configClassName);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String result = null;
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(ScalingProbe.RESULT_PREFIX)) {
+                    result = line.substring(ScalingProbe.RESULT_PREFIX.length());
+                } else {
+                    output.append(line).append('\n');
+                }
+            }
+        }
+        int exit = process.waitFor();
+        if (exit != 0 || result == null) {
+            throw new IllegalStateException("Probe of " + context + " on " + configClassName + " failed (exit " + exit + "):\n" + output);
+        }
+        return Arrays.stream(result.split(",")).mapToDouble(Double::parseDouble).toArray();
+    }
+
+    private static double[] median(List<double[]> runs) {
+        int width = runs.get(0).length;
+        double[] median = new double[width];
+        for (int i = 0; i < width; ++i) {
+            double[] column = new double[runs.size()];
+            for (int j = 0; j < runs.size(); ++j) {
+                column[j] = runs.get(j)[i];
+            }
+            Arrays.sort(column);
+            median[i] = column[column.length / 2];
+        }
+        return median;
+    }
+
+    private static double exponent(double previousSize, double size, double previousValue, double value) {
+        if (previousValue <= 0 || value <= 0) { return Double.NaN; }
+        return Math.log(value / previousValue) / Math.log(size / previousSize);
+    }
+
+    private static String format(double value) {
+        return String.format("%.3f", value);
+    }
+}
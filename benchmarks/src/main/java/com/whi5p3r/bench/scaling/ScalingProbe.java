@@ -0,0 +1,75 @@
+package com.whi5p3r.bench.scaling;
+
+import com.whi5p3r.spring.WhApplicationContext;
+import com.whi5p3r.spring.context.WhAnnotationApplicationContext;
+import com.whi5p3r.spring.context.startup.StartupReport;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * @description: 在独立的JVM中启动一次容器并输出测量结果，由ScalingHarness派生进程调用。
+ *               输出一行：RESULT,scanMs,loadMs,definitions,preInstantiateMs,totalMs,retainedHeapBytes,loadedClasses
+ * @author: whi5p3r
+ * @date: 2026年10月19日 17:10
+ */
+public class ScalingProbe {
+    public static final String RESULT_PREFIX = "RESULT,";
+
+    /**
+     * @param args [0] annotation | application，[1] 配置类全类名
+     */
+    public static void main(String[] args) throws Exception {
+        String contextType = args[0];
+        Class<?> configClass = Class.forName(args[1]);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        long heapBefore = usedHeapAfterGc(memory);
+        int classesBefore = classLoading.getLoadedClassCount();
+
+        long start = System.nanoTime();
+        Object context;
+        StartupReport report;
+        if ("application".equals(contextType)) {
+            WhApplicationContext applicationContext = new WhApplicationContext(configClass);
+            context = applicationContext;
+            report = applicationContext.getStartupReport();
+        } else {
+            WhAnnotationApplicationContext annotationContext = new WhAnnotationApplicationContext(configClass);
+            context = annotationContext;
+            report = annotationContext.getStartupReport();
+        }
+        long total = System.nanoTime() - start;
+
+        long retained = usedHeapAfterGc(memory) - heapBefore;
+        int loadedClasses = classLoading.getLoadedClassCount() - classesBefore;
+        int definitions = report.getPhases().stream()
+                .filter(phase -> phase.getPhase().equals("registration"))
+                .mapToInt(StartupReport.PhaseTiming::getCount).findFirst().orElse(-1);
+
+        System.out.println(RESULT_PREFIX
+                + millis(report.getPhaseNanos("scan")) + ","
+                + millis(report.getPhaseNanos("loadBeanDefinition")) + ","
+                + definitions + ","
+                + millis(report.getPhaseNanos("preInstantiation")) + ","
+                + millis(total) + ","
+                + retained + ","
+                + loadedClasses);
+        // 保证测量期间容器不被回收
+        System.out.println(context.getClass().getSimpleName() + " is up");
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) throws InterruptedException {
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1e6);
+    }
+}
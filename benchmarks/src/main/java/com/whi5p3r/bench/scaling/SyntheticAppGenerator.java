@@ -0,0 +1,179 @@
+package com.whi5p3r.bench.scaling;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @description: 生成并编译合成的组件包，用于测量容器启动随组件数量的伸缩性。
+ *               组件按编号排列，每个组件只依赖编号更小的组件（无环），依赖数量为fanOut；
+ *               interfaceRatio比例的组件实现自己的接口，依赖方通过接口类型的字段注入；prototypeRatio比例的组件为prototype。
+ *               每1000个组件放在一个子包中，配置类GeneratedConfig扫描整个根包。
+ * @author: whi5p3r
+ * @date: 2026年10月19日 17:10
+ */
+public class SyntheticAppGenerator {
+    private static final int CLASSES_PER_PACKAGE = 1000;
+
+    private final int size;
+    private final int fanOut;
+    private final double interfaceRatio;
+    private final double prototypeRatio;
+    private final long seed;
+
+    public SyntheticAppGenerator(int size, int fanOut, double interfaceRatio, double prototypeRatio, long seed) {
+        this.size = size;
+        this.fanOut = fanOut;
+        this.interfaceRatio = interfaceRatio;
+        this.prototypeRatio = prototypeRatio;
+        this.seed = seed;
+    }
+
+    /**
+     * 生成的根包名，参数不同的应用使用不同的包
+     */
+    public String basePackage() {
+        return String.format("gen.s%d_f%d_i%d_p%d", size, fanOut,
+                Math.round(interfaceRatio * 100), Math.round(prototypeRatio * 100));
+    }
+
+    public String configClassName() {
+        return basePackage() + ".GeneratedConfig";
+    }
+
+    /**
+     * 生成源码并编译到 workDir/&lt;basePackage&gt;/classes，已经编译过则直接返回
+     * @param workDir 工作目录
+     * @return 编译产物所在的classpath目录
+     */
+    public File generate(File workDir) throws IOException {
+        File root = new File(workDir, basePackage());
+        File classes = new File(root, "classes");
+        File marker = new File(root, "COMPLETE");
+        if (marker.isFile()) {
+            return classes;
+        }
+        File sources = new File(root, "src");
+        List<File> files = writeSources(sources);
+        compile(files, classes);
+        Files.write(marker.toPath(), new byte[0]);
+        return classes;
+    }
+
+    private List<File> writeSources(File sources) throws IOException {
+        Random random = new Random(seed);
+        boolean[] hasInterface = new boolean[size];
+        boolean[] prototype = new boolean[size];
+        for (int i = 0; i < size; ++i) {
+            hasInterface[i] = random.nextDouble() < interfaceRatio;
+            prototype[i] = random.nextDouble() < prototypeRatio;
+        }
+
+        List<File> files = new ArrayList<>(size * 2 + 1);
+        String base = basePackage();
+        files.add(write(sources, base, "GeneratedConfig",
+                "package " + base + ";\n\n"
+                        + "import com.whi5p3r.spring.annotations.ComponentScan;\n\n"
+                        + "@ComponentScan(basePackages = \"" + base + "\")\n"
+                        + "public class GeneratedConfig {\n}\n"));
+
+        for (int i = 0; i < size; ++i) {
+            String pkg = packageOf(i);
+            StringBuilder sb = new StringBuilder();
+            sb.append("package ").append(pkg).append(";\n\n");
+            sb.append("import com.whi5p3r.spring.annotations.Autowired;\n");
+            sb.append("import com.whi5p3r.spring.annotations.Component;\n");
+            sb.append("import com.whi5p3r.spring.annotations.Scope;\n");
+            sb.append("import com.whi5p3r.spring.beans.config.ScopeType;\n\n");
+            sb.append("@Component(\"c").append(i).append("\")\n");
+            if (prototype[i]) {
+                sb.append("@Scope(ScopeType.PROTOTYPE)\n");
+            }
+            sb.append("public class C").append(i);
+            if (hasInterface[i]) {
+                sb.append(" implements ").append(packageOf(i)).append(".IC").append(i);
+            }
+            sb.append(" {\n");
+            for (int dependency : dependenciesOf(i, random)) {
+                // 字段名与beanName一致，两种容器（按类型简单名/按字段名注入）都能找到依赖
+                if (hasInterface[dependency]) {
+                    sb.append("    @Autowired(\"c").append(dependency).append("\")\n");
+                    sb.append("    private ").append(packageOf(dependency)).append(".IC").append(dependency);
+                } else {
+                    sb.append("    @Autowired\n");
+                    sb.append("    private ").append(packageOf(dependency)).append(".C").append(dependency);
+                }
+                sb.append(" c").append(dependency).append(";\n");
+            }
+            sb.append("}\n");
+            files.add(write(sources, pkg, "C" + i, sb.toString()));
+
+            if (hasInterface[i]) {
+                files.add(write(sources, pkg, "IC" + i, "package " + pkg + ";\n\npublic interface IC" + i + " {\n}\n"));
+            }
+        }
+        return files;
+    }
+
+    private int[] dependenciesOf(int index, Random random) {
+        int count = Math.min(fanOut, index);
+        int[] dependencies = new int[count];
+        int found = 0;
+        while (found < count) {
+            int candidate = random.nextInt(index);
+            boolean duplicate = false;
+            for (int j = 0; j < found; ++j) {
+                duplicate |= dependencies[j] == candidate;
+            }
+            if (!duplicate) {
+                dependencies[found++] = candidate;
+            }
+        }
+        Arrays.sort(dependencies);
+        return dependencies;
+    }
+
+    private String packageOf(int index) {
+        return basePackage() + ".p" + (index / CLASSES_PER_PACKAGE);
+    }
+
+    private static File write(File sources, String pkg, String simpleName, String content) throws IOException {
+        File dir = new File(sources, pkg.replace('.', File.separatorChar));
+        dir.mkdirs();
+        File file = new File(dir, simpleName + ".java");
+        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)) {
+            writer.write(content);
+        }
+        return file;
+    }
+
+    private static void compile(List<File> files, File classes) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("No system Java compiler, run the harness on a JDK");
+        }
+        classes.mkdirs();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+            List<String> options = Arrays.asList(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", classes.getPath(),
+                    "-nowarn", "-g:none");
+            Boolean success = compiler.getTask(null, fileManager, null, options, null, units).call();
+            if (!Boolean.TRUE.equals(success)) {
+                throw new IllegalStateException("Failed to compile generated sources into " + classes);
+            }
+        }
+    }
+}
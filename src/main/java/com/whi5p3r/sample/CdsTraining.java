@@ -0,0 +1,204 @@
+package com.whi5p3r.sample;
+
+import com.whi5p3r.sample.stub.StubHttpServletRequest;
+import com.whi5p3r.sample.stub.StubHttpServletResponse;
+import com.whi5p3r.sample.stub.StubServletConfig;
+import com.whi5p3r.spring.WhDispatchServlet;
+import com.whi5p3r.spring.context.WhAnnotationApplicationContext;
+import com.whi5p3r.spring.context.aot.ContextPlan;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @description: AppCDS训练：在派生的JVM中启动配置类（可选地通过WhDispatchServlet执行预热请求），记录加载的类列表，
+ *               再用类列表生成AppCDS归档，同时写出启动计划（ContextPlan）。之后按打印的命令启动即可使用归档。
+ *               需要JDK 10及以上（JEP 310）；AppCDS只归档jar中的类，classpath中不能有非空目录（先mvn package，使用target下的jar）。
+ *
+ *               参数：CdsTraining 配置类全类名 [--warmup /path?a=1,/metrics] [--out target/cds] [--jvm-args "-Xmx512m"]
+ *               --run：在当前JVM中启动并执行预热请求，输出一行 RESULT,启动耗时ms（训练和启动对比测试使用）
+ * @author: whi5p3r
+ * @date: 2026年10月20日 01:10
+ */
+public class CdsTraining {
+    public static final String RESULT_PREFIX = "RESULT,";
+    public static final String CLASS_LIST_FILE = "classes.lst";
+    public static final String ARCHIVE_FILE = "app.jsa";
+    public static final String PLAN_FILE = "context.plan";
+
+    private String configClassName;
+    private List<String> warmups = new ArrayList<>();
+    private File out = new File("target/cds");
+    private String jvmArgs = "";
+    private boolean run;
+
+    public static void main(String[] args) throws Exception {
+        CdsTraining training = new CdsTraining();
+        training.parse(args);
+        if (training.run) {
+            training.runInThisJvm();
+        } else {
+            training.train();
+        }
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; ++i) {
+            switch (args[i]) {
+                case "--run":
+                    run = true;
+                    break;
+                case "--warmup":
+                    warmups = Arrays.asList(args[++i].split(","));
+                    break;
+                case "--out":
+                    out = new File(args[++i]);
+                    break;
+                case "--jvm-args":
+                    jvmArgs = args[++i];
+                    break;
+                default:
+                    if (args[i].startsWith("--") || configClassName != null) {
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                    }
+                    configClassName = args[i];
+            }
+        }
+        if (configClassName == null) {
+            throw new IllegalArgumentException("Usage: CdsTraining <config class> [--warmup /path,...] [--out dir] [--jvm-args \"...\"]");
+        }
+    }
+
+    /**
+     * 1. 训练运行，记录类列表并写出启动计划；2. 按类列表生成归档；3. 打印使用归档的启动方式
+     */
+    private void train() throws IOException, InterruptedException {
+        checkJavaVersion();
+        String classpath = System.getProperty("java.class.path");
+        for (String entry : classpath.split(File.pathSeparator)) {
+            String[] children = new File(entry).list();
+            if (children != null && children.length > 0) {
+                throw new IllegalStateException("AppCDS only archives classes from jar files, replace the directory "
+                        + entry + " on the classpath with a jar (mvn package).");
+            }
+        }
+        if (!out.isDirectory() && !out.mkdirs()) {
+            throw new IOException("Cannot create " + out);
+        }
+        File classList = new File(out, CLASS_LIST_FILE);
+        File archive = new File(out, ARCHIVE_FILE);
+        File plan = new File(out, PLAN_FILE);
+        // 训练时重新扫描，类列表中包含扫描用到的类，启动计划过期回退到扫描时同样受益
+        Files.deleteIfExists(ContextPlan.getPlanFile(plan, configClassName).toPath());
+
+        List<String> training = javaCommand(classpath);
+        training.add("-XX:DumpLoadedClassList=" + classList.getPath());
+        training.add("-D" + ContextPlan.PLAN_PROPERTY + "=" + plan.getPath());
+        training.add(CdsTraining.class.getName());
+        training.add(configClassName);
+        training.add("--run");
+        if (!warmups.isEmpty()) {
+            training.add("--warmup");
+            training.add(String.join(",", warmups));
+        }
+        execute(training, null);
+
+        List<String> dump = javaCommand(classpath);
+        dump.add("-Xshare:dump");
+        dump.add("-XX:SharedClassListFile=" + classList.getPath());
+        dump.add("-XX:SharedArchiveFile=" + archive.getPath());
+        execute(dump, new File(out, "dump.log"));
+
+        System.out.println("Class list: " + classList.getPath());
+        System.out.println("Archive:    " + archive.getPath() + " (" + archive.length() / 1024 + " KiB)");
+        System.out.println("Plan:       " + ContextPlan.getPlanFile(plan, configClassName).getPath());
+        System.out.println("Launch with the same classpath:");
+        System.out.println("  java -XX:SharedArchiveFile=" + archive.getPath() + " -D" + ContextPlan.PLAN_PROPERTY + "="
+                + plan.getPath() + " -cp " + classpath + " <main class>");
+    }
+
+    /**
+     * 归档应用类（-XX:SharedClassListFile中classpath上的类）需要JDK 10及以上，JDK 8/9的AppCDS是商业特性，只能归档JDK自身的类
+     */
+    private static void checkJavaVersion() {
+        String version = System.getProperty("java.specification.version");
+        // JDK 8及以前为1.x
+        int feature = version.startsWith("1.") ? Integer.parseInt(version.substring(2)) : Integer.parseInt(version.split("\\.")[0]);
+        if (feature < 10) {
+            throw new IllegalStateException("AppCDS of application classes requires JDK 10 or later, running on Java " + version
+                    + " (" + System.getProperty("java.home") + "). Run CdsTraining with a JDK 10+ java.");
+        }
+    }
+
+    private List<String> javaCommand(String classpath) {
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin" + File.separator + "java").getPath());
+        for (String arg : jvmArgs.trim().split("\\s+")) {
+            if (!arg.isEmpty()) { command.add(arg); }
+        }
+        command.add("-cp");
+        command.add(classpath);
+        return command;
+    }
+
+    private static void execute(List<String> command, File log) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        if (log == null) {
+            builder.inheritIO();
+        } else {
+            builder.redirectErrorStream(true).redirectOutput(log);
+        }
+        int exit = builder.start().waitFor();
+        if (exit != 0) {
+            throw new IllegalStateException("Command failed (exit " + exit + ")"
+                    + (log == null ? "" : ", see " + log.getPath()) + ": " + String.join(" ", command));
+        }
+    }
+
+    /**
+     * 启动配置类：有预热请求时通过WhDispatchServlet启动并依次分发预热请求，否则直接创建容器
+     */
+    private void runInThisJvm() throws Exception {
+        long start = System.nanoTime();
+        Class<?> configClass = Class.forName(configClassName);
+        if (warmups.isEmpty()) {
+            new WhAnnotationApplicationContext(configClass);
+            System.out.println(RESULT_PREFIX + millis(System.nanoTime() - start));
+            return;
+        }
+
+        WhDispatchServlet servlet = new WhDispatchServlet();
+        servlet.init(new StubServletConfig(CdsTraining.class.getSimpleName())
+                .initParameter(WhDispatchServlet.CONFIG_CLASS_PARAM, configClassName));
+        long ready = System.nanoTime() - start;
+        for (String warmup : warmups) {
+            StubHttpServletResponse response = new StubHttpServletResponse();
+            servlet.service(request(warmup.trim()), response);
+            System.out.println("Warm-up " + warmup.trim() + ": " + response.getStatus() + ", " + response.getWrittenChars() + " chars");
+        }
+        System.out.println(RESULT_PREFIX + millis(ready));
+    }
+
+    /**
+     * GET请求，url中可以带查询参数：/path?a=1&b=2
+     */
+    private static StubHttpServletRequest request(String url) {
+        int query = url.indexOf('?');
+        StubHttpServletRequest request = new StubHttpServletRequest("GET", "", query < 0 ? url : url.substring(0, query));
+        if (query >= 0) {
+            for (String pair : url.substring(query + 1).split("&")) {
+                int eq = pair.indexOf('=');
+                request.addParameter(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+            }
+        }
+        return request;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,47 @@
+package com.whi5p3r.sample.stub;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @description: 内存中的ServletConfig桩，用于以给定的init-param初始化WhDispatchServlet
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:40
+ */
+public class StubServletConfig implements ServletConfig {
+    private final String servletName;
+    private final Map<String, String> initParameters = new LinkedHashMap<>();
+
+    public StubServletConfig(String servletName) {
+        this.servletName = servletName;
+    }
+
+    public StubServletConfig initParameter(String name, String value) {
+        initParameters.put(name, value);
+        return this;
+    }
+
+    @Override
+    public String getServletName() {
+        return servletName;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return null;
+    }
+
+    @Override
+    public String getInitParameter(String name) {
+        return initParameters.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getInitParameterNames() {
+        return Collections.enumeration(initParameters.keySet());
+    }
+}
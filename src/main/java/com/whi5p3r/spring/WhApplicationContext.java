@@ -3,11 +3,18 @@ package com.whi5p3r.spring;
 import com.whi5p3r.spring.annotations.Autowired;
 import com.whi5p3r.spring.annotations.Component;
 import com.whi5p3r.spring.annotations.ComponentScan;
+import com.whi5p3r.spring.annotations.Pooled;
 import com.whi5p3r.spring.annotations.Scope;
 import com.whi5p3r.spring.beans.config.BeanDefinition;
 import com.whi5p3r.spring.beans.config.BeanPostProcessor;
 import com.whi5p3r.spring.beans.config.InitializingBean;
 import com.whi5p3r.spring.beans.config.ScopeType;
+import com.whi5p3r.spring.beans.support.BeanPostProcessorChain;
+import com.whi5p3r.spring.beans.support.OrderComparator;
+import com.whi5p3r.spring.beans.support.SingletonDestroyer;
+import com.whi5p3r.spring.context.startup.StartupRecorder;
+import com.whi5p3r.spring.core.env.Environment;
+import com.whi5p3r.spring.context.startup.StartupReport;
 import com.whi5p3r.spring.utils.StringUtil;
 
 import java.io.File;
@@ -15,16 +22,20 @@ import java.lang.reflect.Field;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @description: IoC容器
  * @author: whi5p3r
  * @date: 2023年04月11日 14:01
  */
-public class WhApplicationContext {
+public class WhApplicationContext implements AutoCloseable {
     private final ClassLoader classLoader;
     private Class<?> configClazz;
     /**
@@ -43,32 +54,88 @@ public class WhApplicationContext {
     private ConcurrentHashMap<String,Object> singletonObjects = new ConcurrentHashMap<>();
 
     /**
-     * beanPostProcessor, 存储容器所有的BeanPostProcessor
+     * beanPostProcessor, 存储容器所有的BeanPostProcessor（已按order排序）
      */
     private List<BeanPostProcessor> beanPostProcessorList = new ArrayList<>();
+
+    /**
+     * postProcessorChains, 按beanName预先计算的后处理器链，后处理器全部创建之后才计算
+     */
+    private Map<String, BeanPostProcessor[]> postProcessorChains = new HashMap<>();
+
+    /**
+     * startupRecorder, 记录启动各阶段以及每个Bean创建的耗时
+     */
+    private final StartupRecorder startupRecorder;
+
+    /**
+     * environment, 运行环境（系统属性、环境变量），关闭容器时读取whspring.shutdown.*
+     */
+    private final Environment environment = new Environment();
+
+    /**
+     * closed, 容器是否已经关闭（close只执行一次）
+     */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
     public WhApplicationContext(Class<?> clz) {
         this.configClazz = clz;
         this.classLoader = WhApplicationContext.class.getClassLoader();
+        this.startupRecorder = new StartupRecorder(getClass().getSimpleName() + "(" + clz.getName() + ")");
 
         scan(clz);   // 解析配置类
 
-        preInstantiateSingletons();   // 实例化单例对象
+        StartupRecorder.Phase phase = startupRecorder.beginPhase("registerBeanPostProcessors");
+        int postProcessorCount = registerBeanPostProcessors();   // 先创建后处理器
+        startupRecorder.endPhase(phase, postProcessorCount);
+
+        phase = startupRecorder.beginPhase("preInstantiation");
+        int count = preInstantiateSingletons();   // 实例化单例对象
+        startupRecorder.endPhase(phase, count);
+
+        startupRecorder.finish();
+    }
+
+    /**
+     * 通过容器创建所有的BeanPostProcessor并按order排序，再为每个BeanDefinition计算适用的后处理器链
+     * @return 后处理器的数量
+     */
+    private int registerBeanPostProcessors(){
+        // 同一个类可能同时以类名和接口名注册，按类去重
+        Map<Class<?>, String> postProcessorBeans = new LinkedHashMap<>();
+        for(Map.Entry<String,BeanDefinition> entry :beanDefinitionMap.entrySet()) {
+            Class<?> clz = entry.getValue().getBeanClass();
+            if(BeanPostProcessor.class.isAssignableFrom(clz) && !postProcessorBeans.containsKey(clz)){
+                postProcessorBeans.put(clz, entry.getKey());
+            }
+        }
+        for(String beanName : postProcessorBeans.values()){
+            beanPostProcessorList.add((BeanPostProcessor) getBean(beanName));
+        }
+        beanPostProcessorList.sort(OrderComparator.INSTANCE);
+
+        for(Map.Entry<String,BeanDefinition> entry :beanDefinitionMap.entrySet()) {
+            postProcessorChains.put(entry.getKey(),
+                    BeanPostProcessorChain.resolve(entry.getValue().getBeanClass(), beanPostProcessorList));
+        }
+        return beanPostProcessorList.size();
     }
 
     /**
      * 初始化所有单例Bean
+     * @return 初始化的单例Bean数量
      */
-    private void preInstantiateSingletons(){
+    private int preInstantiateSingletons(){
         for(Map.Entry<String,BeanDefinition> entry :beanDefinitionMap.entrySet()) {
             String beanName = entry.getKey();
             BeanDefinition beanDefinition = entry.getValue();
 
-            if(beanDefinition.getScope().equals(ScopeType.SINGLETON)){
-                // 创建Bean
-                Object object = createBean(beanName,beanDefinition);
-                singletonObjects.put(beanName,object);
+            if(beanDefinition.getScope().equals(ScopeType.SINGLETON) && !singletonObjects.containsKey(beanName)){
+                // 创建Bean（作为其他Bean的依赖时可能已经创建）
+                getBean(beanName);
             }
         }
+        return singletonObjects.size();
     }
 
     /**
@@ -98,7 +165,6 @@ public class WhApplicationContext {
 
         assert resource != null;
         File file = new File(resource.getFile());
-        System.out.println(file);
         File[] files = file.listFiles();
 
         assert files != null;
@@ -106,11 +172,11 @@ public class WhApplicationContext {
         dfs(file,fileResult);
 
         for(File f: fileResult){
-            //        -> 根据File对象获取其全限定类名
-            String fileName = f.getAbsolutePath();
-            if(fileName.endsWith(".class")) {
-                String className = fileName.substring(fileName.indexOf("com"), fileName.indexOf(".class"));
-                className = className.replace("\\", ".");
+            //        -> 根据File对象相对于包根目录的路径获取其全限定类名（与平台的路径分隔符无关）
+            String relativePath = file.toURI().relativize(f.toURI()).getPath();
+            if(relativePath.endsWith(".class")) {
+                String className = (basePackage + "/" + relativePath.substring(0, relativePath.length() - ".class".length()))
+                        .replace("/", ".");
 
                 this.registryBeanClasses.add(className);
             }
@@ -119,21 +185,15 @@ public class WhApplicationContext {
 
     /**
      * 根据在包中扫描所得的所有BeanDefinition中，扫描注解为组件的，放入beanDefinitionMap中
+     * @param beanDefinitionList 扫描所得的所有BeanDefinition
      */
-    private void scanComponent(){
-        List<BeanDefinition> beanDefinitionList = loadBeanDefinition();
-
+    private void scanComponent(List<BeanDefinition> beanDefinitionList){
         for(BeanDefinition beanDefinition : beanDefinitionList){
             try{
                 Class<?> clz = classLoader.loadClass(beanDefinition.getBeanClassName());
                 beanDefinition.setBeanClass(clz);
                 if(clz.isAnnotationPresent(Component.class)){
-                    // 如果当前Component是BeanPostProcessor接口的实现类则直接添加到容器的后处理器集合中
-                    if(BeanPostProcessor.class.isAssignableFrom(clz)){
-                        BeanPostProcessor beanPostProcessor = (BeanPostProcessor) clz.newInstance();
-                        beanPostProcessorList.add(beanPostProcessor);
-                    }
-
+                    // BeanPostProcessor也作为普通的Bean注册，由registerBeanPostProcessors先于其他Bean创建
                     String beanName = beanDefinition.getBeanName();
                     Component component = clz.getAnnotation(Component.class);
 
@@ -149,13 +209,13 @@ public class WhApplicationContext {
                     }else{
                         beanDefinition.setScope(ScopeType.SINGLETON);
                     }
+                    // 该容器不支持对象池，池化的Bean按prototype处理（每次getBean都创建新的实例）
+                    if(clz.isAnnotationPresent(Pooled.class)){
+                        beanDefinition.setScope(ScopeType.POOLED);
+                    }
 
                     beanDefinitionMap.put(beanName, beanDefinition);
                 }
-            } catch (InstantiationException e) {
-                throw new RuntimeException(e);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
             } catch (ClassNotFoundException e) {
                 throw new RuntimeException(e);
             }
@@ -172,9 +232,17 @@ public class WhApplicationContext {
             String basePackage = componentScan.basePackages();
             basePackage = basePackage.replace(".","/");
 
+            StartupRecorder.Phase phase = startupRecorder.beginPhase("scan");
             scanPackage(basePackage);
+            startupRecorder.endPhase(phase, registryBeanClasses.size());
+
+            phase = startupRecorder.beginPhase("loadBeanDefinition");
+            List<BeanDefinition> beanDefinitionList = loadBeanDefinition();
+            startupRecorder.endPhase(phase, beanDefinitionList.size());
 
-            scanComponent();
+            phase = startupRecorder.beginPhase("registration");
+            scanComponent(beanDefinitionList);
+            startupRecorder.endPhase(phase, beanDefinitionMap.size());
         }
     }
 
@@ -192,8 +260,13 @@ public class WhApplicationContext {
                 // 是单例则直接从singletonObjects中取
                 instance = singletonObjects.get(beanName);
             }else{
-                // 否则（多例）直接创建该Bean的实例返回
-                instance = createBean(beanName,beanDefinitionMap.get(beanName));
+                // 否则（多例，或尚未创建的单例）直接创建该Bean的实例返回
+                BeanDefinition beanDefinition = beanDefinitionMap.get(beanName);
+                instance = createBean(beanName,beanDefinition);
+                // 单例在第一次被依赖时创建，创建后放入singletonObjects，避免被每个依赖方重复创建
+                if(beanDefinition.getScope().equals(ScopeType.SINGLETON)){
+                    singletonObjects.put(beanName, instance);
+                }
             }
         }else{
             // 容器中没有该Bean的定义
@@ -211,9 +284,11 @@ public class WhApplicationContext {
     private Object createBean(String beanName, BeanDefinition beanDefinition){
         Class<?> clz = beanDefinition.getBeanClass();
         Object instance = null;
+        startupRecorder.beginBean(beanName, clz);
         try {
             // 实例化
             instance = clz.newInstance();
+            startupRecorder.instantiated();
 
             // 依赖注入
             Field[] fields = clz.getDeclaredFields();
@@ -232,10 +307,15 @@ public class WhApplicationContext {
                     field.set(instance, fieldBean);
                 }
             }
+            startupRecorder.populated();
+
+            // 后处理器链尚未计算（正在创建后处理器本身）或没有适用的后处理器时为空，跳过后处理
+            BeanPostProcessor[] chain = postProcessorChains.get(beanName);
+            boolean postProcess = chain != null && chain.length > 0;
 
             // 初始化前
-            for(BeanPostProcessor postProcessor:beanPostProcessorList){
-                instance = postProcessor.postProcessBeforeInitialization(instance,beanName);
+            if(postProcess){
+                instance = BeanPostProcessorChain.applyBeforeInitialization(chain, instance, beanName);
             }
             // 初始化
             if(instance instanceof InitializingBean){
@@ -243,14 +323,20 @@ public class WhApplicationContext {
             }
 
             // 初始化后
-            for(BeanPostProcessor postProcessor:beanPostProcessorList){
-                instance = postProcessor.postProcessAfterInitialization(instance, beanName);
+            if(postProcess){
+                instance = BeanPostProcessorChain.applyAfterInitialization(chain, instance, beanName);
             }
+            startupRecorder.endBean();
 
         } catch (InstantiationException e) {
+            startupRecorder.abortBean();
             throw new RuntimeException(e);
         } catch (IllegalAccessException e) {
+            startupRecorder.abortBean();
             throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            startupRecorder.abortBean();
+            throw e;
         }
         return instance;
     }
@@ -295,6 +381,41 @@ public class WhApplicationContext {
         return beanDefinition;
     }
 
+    /**
+     * 返回启动报告（各阶段耗时，以及按自身耗时排序的Bean创建耗时）
+     * @return
+     */
+    public StartupReport getStartupReport(){
+        return this.startupRecorder.getReport();
+    }
+
+    /**
+     * 关闭容器：按@Autowired字段的依赖关系逆序并行调用单例的DisposableBean.destroy()，
+     * 总时间由运行环境中的whspring.shutdown.timeout-millis指定（默认10秒，也可以用环境变量WHSPRING_SHUTDOWN_TIMEOUT_MILLIS）。只执行一次
+     */
+    @Override
+    public void close() {
+        if(!closed.compareAndSet(false, true)) { return; }
+        // 同一个实例可能同时以类名和接口名注册，按实例去重
+        SingletonDestroyer destroyer = new SingletonDestroyer();
+        Map<Object, Integer> indexes = new IdentityHashMap<>();
+        for(Map.Entry<String,Object> entry : singletonObjects.entrySet()){
+            if(!indexes.containsKey(entry.getValue())){
+                indexes.put(entry.getValue(), destroyer.register(entry.getKey(), entry.getValue(), null));
+            }
+        }
+        for(Map.Entry<String,Object> entry : singletonObjects.entrySet()){
+            for(Field field : beanDefinitionMap.get(entry.getKey()).getBeanClass().getDeclaredFields()){
+                if(!field.isAnnotationPresent(Autowired.class)) { continue; }
+                Object dependency = singletonObjects.get(field.getName());
+                if(dependency != null){
+                    destroyer.addDependency(indexes.get(entry.getValue()), indexes.get(dependency));
+                }
+            }
+        }
+        destroyer.destroy(SingletonDestroyer.getTimeoutMillis(environment), TimeUnit.MILLISECONDS, SingletonDestroyer.getThreads(environment));
+    }
+
 
 
 }
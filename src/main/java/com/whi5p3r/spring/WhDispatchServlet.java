@@ -2,9 +2,17 @@ package com.whi5p3r.spring;
 
 import com.whi5p3r.spring.annotations.*;
 import com.whi5p3r.spring.context.WhAnnotationApplicationContext;
+import com.whi5p3r.spring.context.reload.ClassDirectoryWatcher;
+import com.whi5p3r.spring.context.reload.RefreshEvent;
+import com.whi5p3r.spring.metrics.MetricsRegistry;
+import com.whi5p3r.spring.metrics.PrometheusTextWriter;
+import com.whi5p3r.spring.metrics.RouteMetrics;
+import com.whi5p3r.spring.tracing.Span;
+import com.whi5p3r.spring.tracing.Tracer;
 import com.whi5p3r.spring.utils.StringUtil;
 
 import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -19,40 +27,175 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * @description: TODO
+ * @description: 前端控制器。init时按init-param创建WhAnnotationApplicationContext（可选地共享同一个父容器），
+ *               把@Controller中@RequestMapping的方法解析为按url索引的处理计划；请求到达时按url分发给处理方法，
+ *               注入@RequestParam参数、请求和响应，并记录路由指标和请求追踪的根跨度。
+ *               支持暴露Prometheus格式的指标、增量重新加载时原子地替换路由，destroy时先排空处理中的请求再关闭容器。
+ *               容器、路由表和计数器都是运行时状态，不参与序列化（transient），由init重新建立
  * @author: whi5p3r
  * @date: 2023年04月12日 11:59
  */
 public class WhDispatchServlet extends HttpServlet {
-    private final Properties contextConfig = new Properties();
-    private Class<?> configClass = null;
-    private WhAnnotationApplicationContext context;
-    private final Map<String, Method> mappingHandler = new HashMap<>();
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * init-param：配置类的全类名
+     */
+    public static final String CONFIG_CLASS_PARAM = "contextConfigClass";
+    /**
+     * init-param：父容器配置类的全类名。同一个web应用中父容器配置类相同的Servlet共享同一个父容器（存放在ServletContext的属性中），
+     * 父容器只扫描、创建一次，各Servlet自己的容器只需扫描各自的Controller
+     */
+    public static final String PARENT_CONFIG_CLASS_PARAM = "parentContextConfigClass";
+    /**
+     * 共享的父容器在ServletContext中的属性名前缀，后接父容器配置类的全类名
+     */
+    public static final String PARENT_CONTEXT_ATTRIBUTE_PREFIX = WhDispatchServlet.class.getName() + ".PARENT_CONTEXT.";
+    /**
+     * init-param：是否开启路由指标（默认开启），设为false时既不记录也不暴露指标路由
+     */
+    public static final String METRICS_ENABLED_PARAM = "metricsEnabled";
+    /**
+     * init-param：指标路由的路径（默认 /metrics）
+     */
+    public static final String METRICS_PATH_PARAM = "metricsPath";
+    /**
+     * init-param：是否开启增量重新加载（默认关闭），开启后class文件变化时只重新加载受影响的Bean，并原子地替换受影响的路由
+     */
+    public static final String HOT_RELOAD_PARAM = "hotReload";
+    /**
+     * init-param：销毁Servlet的总时间（毫秒，默认10000），先等待处理中的请求结束，剩余的时间用于关闭容器
+     */
+    public static final String SHUTDOWN_TIMEOUT_PARAM = "shutdownTimeoutMillis";
+
+    /**
+     * init-param，init时读取
+     */
+    private transient Properties contextConfig;
+    private transient Class<?> configClass = null;
+    private transient WhAnnotationApplicationContext context;
+    /**
+     * url -> 处理计划。不可变的Map，增量重新加载时整体替换，分发时不加锁
+     */
+    private transient volatile Map<String, Handler> mappingHandler = Collections.emptyMap();
+    private transient ClassDirectoryWatcher reloadWatcher;
+    private transient boolean metricsEnabled = true;
+    private transient String metricsPath = "/metrics";
+    private transient RouteMetrics unmatchedMetrics;
+    private transient Tracer tracer;
+    /**
+     * 共享的父容器在ServletContext中的属性名，父容器不共享时为null；parentContext为null时没有父容器
+     */
+    private transient ServletContext servletContext;
+    private transient String parentAttribute;
+    private transient WhAnnotationApplicationContext parentContext;
+    /**
+     * inFlight：处理中的请求数，init时创建；draining：正在销毁，不再接受新的请求
+     */
+    private transient LongAdder inFlight;
+    private transient volatile boolean draining;
+    private transient long shutdownTimeoutMillis = 10000L;
+
+    /**
+     * 路由的处理计划：处理方法、Controller的beanId、每个形参的取值来源，以及该路由的指标，都在初始化时解析好，
+     * 分发时不再反射读取参数注解，也不再按名字查找Controller
+     */
+    private static final class Handler {
+        private final Method method;
+        private final int beanId;
+        private final RouteMetrics metrics;
+        /**
+         * 处理方法的名字（Controller类名.方法名），记录在跨度的handler标签中
+         */
+        private final String name;
+        /**
+         * 第i个形参对应的请求参数名，不是@RequestParam参数时为null
+         */
+        private final String[] paramNames;
+        private final int requestIndex;
+        private final int responseIndex;
+
+        private Handler(Method method, int beanId, RouteMetrics metrics) {
+            this.method = method;
+            this.beanId = beanId;
+            this.metrics = metrics;
+            this.name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+
+            // 建立形参的位置和参数的名字建立映射关系（RequestParam中的）
+            // 一个方法上可以有多个参数(第一维），而一个参数上可能有多个注解（第二维）,因此是个二维数组
+            Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+            Parameter[] parameters = method.getParameters();
+            this.paramNames = new String[parameters.length];
+            for(int i = 0;i < parameterAnnotations.length; ++ i){   // 第 i 个参数
+                for(Annotation a:parameterAnnotations[i]){   // 第i个参数上的的注解
+                    if(a instanceof RequestParam){
+                        String paramName = parameters[i].getName();
+                        if(!"".equals(((RequestParam) a).value())){
+                            paramName = ((RequestParam) a).value();
+                        }
+                        paramNames[i] = paramName;
+                    }
+                }
+            }
+            // 没有注解的参数
+            int requestIndex = -1;
+            int responseIndex = -1;
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            for(int i = 0;i < parameterTypes.length; ++ i){
+                if(parameterTypes[i] == HttpServletRequest.class) { requestIndex = i; }
+                if(parameterTypes[i] == HttpServletResponse.class) { responseIndex = i; }
+            }
+            this.requestIndex = requestIndex;
+            this.responseIndex = responseIndex;
+        }
+    }
+
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-        try {
-            doDispatch(req,resp);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        dispatchInRequestScope(req, resp);
     }
 
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         // 6. 委派URL给具体的调用方法
+        dispatchInRequestScope(req, resp);
+    }
+
+    /**
+     * 在请求作用域中分发：分发期间REQUEST作用域的Bean每个只创建一次，请求结束时销毁
+     * @param req
+     * @param resp
+     * @throws IOException
+     */
+    private void dispatchInRequestScope(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        // 先计数再检查draining，destroy看到计数为0之后到达的请求一定会看到draining
+        inFlight.increment();
+        if(draining) {
+            inFlight.decrement();
+            resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            resp.getWriter().write("503 service unavailable");
+            return;
+        }
         try {
-            doDispatch(req,resp);
-        } catch (InvocationTargetException | IllegalAccessException e) {
+            context.callInRequestScope(() -> {
+                doDispatch(req, resp);
+                return null;
+            });
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            inFlight.decrement();
         }
     }
 
     /**
-     * 分发
+     * 分发：按采样率开启一个trace，根跨度覆盖整个分发，处理方法中经过代理的Bean调用都是它的子跨度
      * @param req
      * @param resp
      * @throws IOException
@@ -62,102 +205,285 @@ public class WhDispatchServlet extends HttpServlet {
     private void doDispatch(HttpServletRequest req, HttpServletResponse resp) throws IOException, InvocationTargetException, IllegalAccessException {
         String url = req.getRequestURI();             // 请求路径
         String contextPath = req.getContextPath();    // app的根路径
-        Map<String, String[]> parameterMap = req.getParameterMap();
 
         // 统一url规则：去掉contextPath，将连续多个斜杠变成一个斜杠，与mappingHandler中存储的格式对应
         url = url.replaceAll(contextPath, "").replaceAll("/+", "/");
-        if(!mappingHandler.containsKey(url)) {
+        Handler handler = this.mappingHandler.get(url);
+        Span span = tracer.startTrace(req.getMethod(), url, Span.KIND_SERVER);
+        if(span.isSampled()) {
+            span.tag("http.method", req.getMethod()).tag("http.path", url).tag("handler", handler == null ? null : handler.name);
+        }
+        try {
+            dispatch(handler, url, req, resp);
+        } catch (InvocationTargetException e) {
+            span.error(e.getTargetException());
+            throw e;
+        } catch (IOException | IllegalAccessException | RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.close();
+        }
+    }
+
+    private void dispatch(Handler handler, String url, HttpServletRequest req, HttpServletResponse resp) throws IOException, InvocationTargetException, IllegalAccessException {
+        Map<String, String[]> parameterMap = req.getParameterMap();
+        if(handler == null) {
+            if(metricsEnabled && metricsPath.equals(url)) {
+                writeMetrics(resp);
+                return;
+            }
+            long start = metricsEnabled ? unmatchedMetrics.onStart() : 0L;
             resp.getWriter().write("404 not found");
+            if(metricsEnabled) { unmatchedMetrics.onComplete(start, false); }
+            return;
+        }
+        if(!metricsEnabled) {
+            invokeHandler(handler, req, resp, parameterMap);
             return;
         }
 
-        Method method = this.mappingHandler.get(url);
-        // 1. 建立形参的位置和参数的名字建立映射关系（RequestParam中的）
-        Map<String, Integer> paramIndexMapping = new HashMap<>();
-
-        // 一个方法上可以有多个参数(第一维），而一个参数上可能有多个注解（第二维）,因此是个二维数组
-        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
-        Parameter[] parameters = method.getParameters();
-
-        for(int i = 0;i < parameterAnnotations.length; ++ i){   // 第 i 个参数
-            for(Annotation a:parameterAnnotations[i]){   // 第i个参数上的的注解
-                if(a instanceof RequestParam){
-                    String paramName = parameters[i].getName();
-                    if(!"".equals(((RequestParam) a).value())){
-                        paramName = ((RequestParam) a).value();
-                    }
+        // 记录该路由的请求数、错误数、处理中请求数和耗时
+        RouteMetrics metrics = handler.metrics;
+        long start = metrics.onStart();
+        boolean failed = true;
+        try {
+            invokeHandler(handler, req, resp, parameterMap);
+            failed = false;
+        } finally {
+            metrics.onComplete(start, failed);
+        }
+    }
 
-                    paramIndexMapping.put(paramName, i);
-                }
+    /**
+     * 按处理计划组装实参并调用处理方法
+     */
+    private void invokeHandler(Handler handler, HttpServletRequest req, HttpServletResponse resp, Map<String, String[]> parameterMap) throws InvocationTargetException, IllegalAccessException {
+        // 根据参数位置匹配参数名，从url中取参数的值
+        String[] paramNames = handler.paramNames;
+        Object[] paramsValues = new Object[paramNames.length];
+        for(int i = 0; i < paramNames.length; ++ i){
+            if(paramNames[i] == null) { continue; }
+            String[] values = parameterMap.get(paramNames[i]);
+            if(values != null) {
+                paramsValues[i] = joinValues(values);
             }
         }
-        // 没有注解的参数
-        Class<?>[] parameterTypes = method.getParameterTypes();
-        for(int i = 0;i < parameterTypes.length; ++ i){
-            Class<?> type = parameterTypes[i];
-            if(type == HttpServletRequest.class || type == HttpServletResponse.class){
-                paramIndexMapping.put(type.getName(), i);
-            }
+        if(handler.requestIndex >= 0){
+            paramsValues[handler.requestIndex] = req;
+        }
+        if(handler.responseIndex >= 0){
+            paramsValues[handler.responseIndex] = resp;
         }
 
-        // 2. 根据参数位置匹配参数名，从url中取参数的值
-        Object[] paramsValues = new Object[parameterTypes.length];
+        // 按预先解析的beanId取Controller并调用
+        handler.method.invoke(context.getBean(handler.beanId), paramsValues);
+    }
 
-        for(Map.Entry<String, String[]> param : parameterMap.entrySet()){
-            String value = Arrays.toString(param.getValue())
-                    .replaceAll("\\[|\\]","")
-                    .replaceAll("\\s","");
+    /**
+     * 多个同名参数的值以逗号连接，并去掉其中的空白字符
+     */
+    private static String joinValues(String[] values) {
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < values.length; ++ i){
+            if(i > 0) { sb.append(','); }
+            String value = values[i];
+            if(value == null) { sb.append("null"); continue; }
+            for(int j = 0; j < value.length(); ++ j){
+                char c = value.charAt(j);
+                if(!Character.isWhitespace(c)) { sb.append(c); }
+            }
+        }
+        return sb.toString();
+    }
 
-            if(!paramIndexMapping.containsKey(param.getKey())){ continue; }
+    /**
+     * 以Prometheus文本格式输出容器指标
+     */
+    private void writeMetrics(HttpServletResponse resp) throws IOException {
+        PrometheusTextWriter writer = new PrometheusTextWriter();
+        context.getMetricsRegistry().writeTo(writer);
+        resp.setContentType(PrometheusTextWriter.CONTENT_TYPE);
+        writer.writeTo(resp.getWriter());
+    }
 
-            int index = paramIndexMapping.get(param.getKey());
-            paramsValues[index] = value;
+    @Override
+    public void init(ServletConfig config) throws ServletException {
+        super.init(config);
+        contextConfig = new Properties();
+        inFlight = new LongAdder();
+        draining = false;
+        // 读取init-param
+        Enumeration<String> names = config.getInitParameterNames();
+        while(names != null && names.hasMoreElements()) {
+            String name = names.nextElement();
+            contextConfig.setProperty(name, config.getInitParameter(name));
         }
-        if(paramIndexMapping.containsKey(HttpServletRequest.class.getName())){
-            int index = paramIndexMapping.get(HttpServletRequest.class.getName());
-            paramsValues[index] = req;
+        String configClassName = contextConfig.getProperty(CONFIG_CLASS_PARAM);
+        if(!StringUtil.isEmpty(configClassName)) {
+            try {
+                configClass = Class.forName(configClassName);
+            } catch (ClassNotFoundException e) {
+                throw new ServletException(e);
+            }
         }
-        if(paramIndexMapping.containsKey(HttpServletResponse.class.getName())){
-            int index = paramIndexMapping.get(HttpServletResponse.class.getName());
-            paramsValues[index] = resp;
+        metricsEnabled = !"false".equalsIgnoreCase(contextConfig.getProperty(METRICS_ENABLED_PARAM, "true").trim());
+        metricsPath = contextConfig.getProperty(METRICS_PATH_PARAM, metricsPath).trim();
+        shutdownTimeoutMillis = Long.parseLong(contextConfig.getProperty(SHUTDOWN_TIMEOUT_PARAM, String.valueOf(shutdownTimeoutMillis)).trim());
+
+        servletContext = config.getServletContext();
+        String parentConfigClassName = contextConfig.getProperty(PARENT_CONFIG_CLASS_PARAM);
+        if(!StringUtil.isEmpty(parentConfigClassName)) {
+            parentConfigClassName = parentConfigClassName.trim();
+            parentAttribute = servletContext == null ? null : PARENT_CONTEXT_ATTRIBUTE_PREFIX + parentConfigClassName;
+            parentContext = getOrCreateParentContext(servletContext, parentConfigClassName);
         }
+        context = new WhAnnotationApplicationContext(configClass, parentContext);
+        unmatchedMetrics = context.getMetricsRegistry().routeMetrics(MetricsRegistry.UNMATCHED_ROUTE);
+        tracer = context.getTracer();
+        // 5. 初始化MappingHandler
+        doInitMappingHandler();
 
+        if("true".equalsIgnoreCase(contextConfig.getProperty(HOT_RELOAD_PARAM, "false").trim())) {
+            context.addRefreshListener(this::onRefresh);
+            try {
+                reloadWatcher = context.enableHotReload();
+            } catch (IOException e) {
+                throw new ServletException(e);
+            }
+        }
+    }
 
-        // 3. 组成动态实际参数列表
-        String beanName = StringUtil.toLowerFirstCase(method.getDeclaringClass().getSimpleName());
-        method.invoke(context.getBean(beanName), paramsValues);
+    /**
+     * 取出ServletContext中共享的父容器（引用计数加1），还没有时创建并放入。没有ServletContext时创建不共享的父容器
+     * @param servletContext
+     * @param parentConfigClassName 父容器配置类的全类名
+     * @return 父容器
+     * @throws ServletException
+     */
+    private static WhAnnotationApplicationContext getOrCreateParentContext(ServletContext servletContext, String parentConfigClassName) throws ServletException {
+        Class<?> parentConfigClass;
+        try {
+            parentConfigClass = Class.forName(parentConfigClassName);
+        } catch (ClassNotFoundException e) {
+            throw new ServletException(e);
+        }
+        if(servletContext == null) {
+            return new WhAnnotationApplicationContext(parentConfigClass);
+        }
 
+        String attribute = PARENT_CONTEXT_ATTRIBUTE_PREFIX + parentConfigClassName;
+        synchronized (servletContext) {
+            Object parent = servletContext.getAttribute(attribute);
+            if(parent == null) {
+                parent = new WhAnnotationApplicationContext(parentConfigClass);
+                servletContext.setAttribute(attribute, parent);
+            }
+            Integer references = (Integer) servletContext.getAttribute(attribute + ".references");
+            servletContext.setAttribute(attribute + ".references", references == null ? 1 : references + 1);
+            return (WhAnnotationApplicationContext) parent;
+        }
     }
 
+    /**
+     * 销毁：不再接受新的请求（返回503），等待处理中的请求结束，再关闭容器；
+     * 最后一个使用共享父容器的Servlet关闭父容器。总时间由init-param shutdownTimeoutMillis限制
+     */
     @Override
-    public void init(ServletConfig config) throws ServletException {
-        context = new WhAnnotationApplicationContext(configClass);
-        // 5. 初始化MappingHandler
-        doInitMappingHandler();
+    public void destroy() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        if(reloadWatcher != null) {
+            try {
+                reloadWatcher.close();
+            } catch (IOException ignored) {
+            }
+        }
+        draining = true;
+        try {
+            while(inFlight.sum() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if(inFlight.sum() > 0) {
+            System.err.println("[whspring] " + inFlight.sum() + " requests were still in flight after " + shutdownTimeoutMillis + "ms, closing the context anyway.");
+        }
+        if(context != null) {
+            context.close(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        if(parentContext != null && releaseParentContext()) {
+            parentContext.close(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        super.destroy();
+    }
+
+    /**
+     * 父容器的引用计数减1
+     * @return 是否由这个Servlet关闭父容器（父容器不共享，或者是最后一个引用）
+     */
+    private boolean releaseParentContext() {
+        if(parentAttribute == null) { return true; }
+        synchronized (servletContext) {
+            Integer references = (Integer) servletContext.getAttribute(parentAttribute + ".references");
+            if(references != null && references > 1) {
+                servletContext.setAttribute(parentAttribute + ".references", references - 1);
+                return false;
+            }
+            servletContext.removeAttribute(parentAttribute + ".references");
+            servletContext.removeAttribute(parentAttribute);
+            return true;
+        }
+    }
+
+    /**
+     * 增量重新加载后，只替换受影响的Controller的路由：复制当前的路由表，去掉这些Controller的路由，再按新的类重新解析
+     */
+    private void onRefresh(RefreshEvent event) {
+        Map<String, Handler> handlers = new HashMap<>();
+        for(Map.Entry<String, Handler> entry : mappingHandler.entrySet()) {
+            if(!event.getRefreshedBeanIds().contains(entry.getValue().beanId)) {
+                handlers.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for(int beanId : event.getRefreshedBeanIds()) {
+            addHandlers(handlers, beanId);
+        }
+        this.mappingHandler = Collections.unmodifiableMap(handlers);
     }
 
     private void doInitMappingHandler() {
         if(this.context.beanDefinitionCount() == 0) { return; }
 
+        Map<String, Handler> handlers = new HashMap<>();
         for(String beanName: this.context.getBeanDefinitionNames()) {
-            Object instance = context.getBean(beanName);
-            Class<?> clazz = instance.getClass();
+            addHandlers(handlers, context.getBeanId(beanName));
+        }
+        this.mappingHandler = Collections.unmodifiableMap(handlers);
+    }
 
-            if(!clazz.isAnnotationPresent(Controller.class)) { continue; }
+    /**
+     * 解析一个Controller的所有路由，放入handlers
+     * @param handlers 路由表
+     * @param beanId Bean的beanId，不是Controller或已被删除时忽略
+     */
+    private void addHandlers(Map<String, Handler> handlers, int beanId) {
+        // 只按类型判断，不创建Bean（prototype、池化、请求作用域的Bean在这里不应被创建）
+        Class<?> clazz = context.getType(beanId);
 
-            String baseUrl = "";
-            if(clazz.isAnnotationPresent(RequestMapping.class)){
-                baseUrl = clazz.getAnnotation(RequestMapping.class).value();
-            }
+        if(clazz == null || !clazz.isAnnotationPresent(Controller.class)) { return; }
 
-            // 只迭代public方法
-            for(Method method: clazz.getMethods()){
-                if(!method.isAnnotationPresent(RequestMapping.class)) { continue; }
+        String baseUrl = "";
+        if(clazz.isAnnotationPresent(RequestMapping.class)){
+            baseUrl = clazz.getAnnotation(RequestMapping.class).value();
+        }
 
-                String url = baseUrl + method.getAnnotation(RequestMapping.class).value();
-                mappingHandler.put(url, method);
-            }
+        // 只迭代public方法
+        for(Method method: clazz.getMethods()){
+            if(!method.isAnnotationPresent(RequestMapping.class)) { continue; }
 
+            String url = baseUrl + method.getAnnotation(RequestMapping.class).value();
+            handlers.put(url, new Handler(method, beanId, context.getMetricsRegistry().routeMetrics(url)));
         }
     }
 
@@ -0,0 +1,20 @@
+package com.whi5p3r.spring.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * @description: 异步方法：调用立即返回，方法体在指定名字的执行器中执行。返回类型只能是void、CompletableFuture、CompletionStage或Future，
+ *               调用方拿到的是CompletableFuture。标注在类上时，类实现的接口中的所有方法都是异步的。
+ *               Bean通过JDK动态代理包装，异步方法必须声明在Bean实现的接口中，按接口类型注入
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:30
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Async {
+    /**
+     * 执行器的名字（配置类上的@AsyncExecutor或Executor类型的Bean），为空时使用名为default的执行器
+     */
+    String value() default "";
+}
@@ -0,0 +1,35 @@
+package com.whi5p3r.spring.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * @description: 在配置类上声明@Async使用的有界执行器，可以重复标注。没有声明名为default的执行器时，
+ *               使用CPU核数个线程、队列容量1024的默认执行器
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:30
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Repeatable(AsyncExecutors.class)
+public @interface AsyncExecutor {
+    /**
+     * 执行器的名字，与@Async的value对应
+     */
+    String name();
+
+    /**
+     * 平台线程数，小于等于0时为CPU核数；使用虚拟线程时忽略
+     */
+    int threads() default 0;
+
+    /**
+     * 平台线程：等待队列的容量；虚拟线程：同时执行的最大任务数。超出时调用方收到RejectedExecutionException
+     */
+    int queueCapacity() default 1024;
+
+    /**
+     * 每个任务一个虚拟线程（需要JDK 21+）
+     */
+    boolean virtualThreads() default false;
+}
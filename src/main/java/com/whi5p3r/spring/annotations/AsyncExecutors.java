@@ -0,0 +1,15 @@
+package com.whi5p3r.spring.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * @description: @AsyncExecutor的容器注解
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:30
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AsyncExecutors {
+    AsyncExecutor[] value();
+}
@@ -5,8 +5,12 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * 标注在字段上：实例化之后注入；标注在构造器上：通过该构造器实例化，按形参注入（类只有一个构造器时可省略）；
+ * 标注在构造器的形参上：指定该形参的beanName和required
+ */
 @Retention(RetentionPolicy.RUNTIME)
-@Target(ElementType.FIELD)
+@Target({ElementType.FIELD, ElementType.CONSTRUCTOR, ElementType.PARAMETER})
 public @interface Autowired {
     boolean required() default true;
     String value() default "";
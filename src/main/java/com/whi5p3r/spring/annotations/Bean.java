@@ -0,0 +1,30 @@
+package com.whi5p3r.spring.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * @description: 配置类上的工厂方法：返回值注册为Bean，形参按类型的简单类名（或形参上的@Autowired）注入，
+ *               方法上的@Scope、@Pooled指定作用域。配置类中的@Bean方法互相调用时返回容器中的Bean（单例即同一个对象）。
+ *               单例在容器关闭时调用destroyMethod
+ * @author: whi5p3r
+ * @date: 2026年10月19日 23:30
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bean {
+    /**
+     * destroyMethod的默认值：返回的对象有public无参的close()或shutdown()方法时调用它
+     */
+    String INFER_METHOD = "(inferred)";
+
+    /**
+     * beanName，为空时为方法名
+     */
+    String value() default "";
+
+    /**
+     * 容器关闭时调用的返回对象上public无参的方法名，为空时不调用
+     */
+    String destroyMethod() default INFER_METHOD;
+}
@@ -0,0 +1,21 @@
+package com.whi5p3r.spring.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * @description: 只在所有指定的类都在classpath上时注册（组件类或@Bean方法）。
+ *               组件类上的条件从class文件中读取，value中的类不存在时也不会报错；只检查class文件是否存在，不加载这些类
+ * @author: whi5p3r
+ * @date: 2026年10月20日 00:10
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalOnClass {
+    Class<?>[] value() default {};
+
+    /**
+     * 全限定类名，适用于不希望在源码中引用的类
+     */
+    String[] name() default {};
+}
@@ -0,0 +1,19 @@
+package com.whi5p3r.spring.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * @description: 只在容器中还没有指定类型的Bean时注册（组件类或@Bean方法），用于提供可以被覆盖的默认实现。
+ *               在其他BeanDefinition都读取完之后按读取顺序判断，只看同一个容器（不看父容器）
+ * @author: whi5p3r
+ * @date: 2026年10月20日 00:10
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalOnMissingBean {
+    /**
+     * 类型，为空时为该Bean自身的类型（组件类或@Bean方法的返回类型）
+     */
+    Class<?>[] value() default {};
+}
@@ -0,0 +1,28 @@
+package com.whi5p3r.spring.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * @description: 只在属性（系统属性，其次是环境变量）满足条件时注册（组件类或@Bean方法）
+ * @author: whi5p3r
+ * @date: 2026年10月20日 00:10
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalOnProperty {
+    /**
+     * 属性名，如 feature.audit.enabled；对应的环境变量为 FEATURE_AUDIT_ENABLED
+     */
+    String name();
+
+    /**
+     * 属性需要等于的值（忽略大小写）；为空时属性存在且不为false即可
+     */
+    String havingValue() default "";
+
+    /**
+     * 属性不存在时是否注册
+     */
+    boolean matchIfMissing() default false;
+}
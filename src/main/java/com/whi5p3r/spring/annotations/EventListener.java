@@ -0,0 +1,20 @@
+package com.whi5p3r.spring.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * @description: 事件监听方法：方法只有一个参数，参数类型即监听的事件类型（包括其子类）。
+ *               Bean的类在BeanDefinitionReader中读取时发现监听方法，容器按事件类型预先计算分发列表；
+ *               同一事件的同步监听方法按@Order排序，在发布线程中依次调用
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:00
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EventListener {
+    /**
+     * 是否异步：在事件执行器中调用，发布线程不等待，监听方法抛出的异常不会传给发布方
+     */
+    boolean async() default false;
+}
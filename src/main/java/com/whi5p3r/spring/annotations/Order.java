@@ -0,0 +1,12 @@
+package com.whi5p3r.spring.annotations;
+
+import com.whi5p3r.spring.beans.config.Ordered;
+
+import java.lang.annotation.*;
+
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Order {
+    int value() default Ordered.LOWEST_PRECEDENCE;
+}
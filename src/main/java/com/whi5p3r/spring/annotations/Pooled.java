@@ -0,0 +1,24 @@
+package com.whi5p3r.spring.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * @description: 池化的Bean（作用域为ScopeType.POOLED）：适用于创建代价高、非线程安全的Bean（解析器、格式化器、缓冲区等）。
+ *               getBean从池中借出，用完必须通过releaseBean归还；实现PooledBean时归还前会调用reset()。
+ * @author: whi5p3r
+ * @date: 2026年10月19日 18:50
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Pooled {
+    /**
+     * 池中最多同时存在的实例数，小于等于0时为CPU核数的两倍
+     */
+    int maxSize() default 0;
+
+    /**
+     * 池耗尽时借出的最长等待时间（毫秒），超时抛出PoolExhaustedException
+     */
+    long maxWaitMillis() default 1000;
+}
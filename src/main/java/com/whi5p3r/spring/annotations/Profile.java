@@ -0,0 +1,16 @@
+package com.whi5p3r.spring.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * @description: 只在指定的profile激活时注册（组件类或@Bean方法），任意一个匹配即可；"!dev"表示dev未激活时注册。
+ *               激活的profile由系统属性whspring.profiles.active（逗号分隔）指定，没有指定时为default
+ * @author: whi5p3r
+ * @date: 2026年10月20日 00:10
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Profile {
+    String[] value();
+}
@@ -0,0 +1,40 @@
+package com.whi5p3r.spring.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * @description: 定时执行的方法（无参数，只能在单例中）：cron、fixedRate、fixedDelay三者选其一。
+ *               容器在单例创建完成后登记，所有任务共享一个时间轮，到期后交给有界的工作线程池执行；
+ *               fixedRate和cron任务上一次还在排队或执行时跳过本次并计为overrun
+ * @author: whi5p3r
+ * @date: 2026年10月19日 23:00
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Scheduled {
+    /**
+     * cron表达式：秒 分 时 日 月 周（6段），也可以省略秒（5段）
+     */
+    String cron() default "";
+
+    /**
+     * cron表达式使用的时区，为空时为系统默认时区
+     */
+    String zone() default "";
+
+    /**
+     * 按固定频率执行的周期（毫秒），以计划时间而不是实际开始时间计算下一次
+     */
+    long fixedRate() default -1;
+
+    /**
+     * 上一次执行结束后间隔多久（毫秒）再执行
+     */
+    long fixedDelay() default -1;
+
+    /**
+     * fixedRate、fixedDelay第一次执行前的延迟（毫秒）
+     */
+    long initialDelay() default 0;
+}
@@ -2,6 +2,8 @@ package com.whi5p3r.spring.beans.config;
 
 import lombok.Data;
 
+import java.lang.reflect.Method;
+
 /**
  * @description: TODO
  * @author: whi5p3r
@@ -15,4 +17,32 @@ public class BeanDefinition {
     private String beanClassName;
     private ScopeType scope;
     private Class<?> beanClass;
+    /**
+     * POOLED作用域：池中最多同时存在的实例数
+     */
+    private int poolMaxSize;
+    /**
+     * POOLED作用域：池耗尽时借出的最长等待时间（毫秒）
+     */
+    private long poolMaxWaitMillis;
+    /**
+     * 类中的@EventListener方法，读取BeanDefinition时发现，没有时为空数组
+     */
+    private Method[] eventListenerMethods;
+    /**
+     * 类中的@Scheduled方法，读取BeanDefinition时发现，没有时为空数组
+     */
+    private Method[] scheduledMethods;
+    /**
+     * 配置类上的@Bean方法创建的Bean：工厂方法，组件类的Bean为null
+     */
+    private Method factoryMethod;
+    /**
+     * 实例@Bean方法所在的配置类Bean的beanName，静态@Bean方法和组件类的Bean为null
+     */
+    private String factoryBeanName;
+    /**
+     * 配置类Bean：各个实例@Bean方法（ConfigurationClassEnhancer.getBeanMethods的顺序）创建的Bean的beanName，其他Bean为null
+     */
+    private String[] beanMethodNames;
 }
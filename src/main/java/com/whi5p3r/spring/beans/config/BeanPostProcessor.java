@@ -1,6 +1,26 @@
 package com.whi5p3r.spring.beans.config;
 
+/**
+ * @description: Bean后处理器。后处理器本身也是容器中的Bean，先于其他Bean创建，按Ordered/@Order排序；
+ *               容器为每个BeanDefinition预先计算一次适用的后处理器链，没有适用后处理器的Bean完全跳过该流程。
+ * @author: whi5p3r
+ * @date: 2023年04月11日 17:40
+ */
 public interface BeanPostProcessor {
-    Object postProcessBeforeInitialization(Object bean, String beanName);
-    Object postProcessAfterInitialization(Object  bean, String beanName);
+    default Object postProcessBeforeInitialization(Object bean, String beanName) {
+        return bean;
+    }
+
+    default Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean;
+    }
+
+    /**
+     * 声明该后处理器适用于哪些Bean类型，默认适用于所有Bean。容器在创建Bean之前按BeanDefinition调用一次并缓存结果
+     * @param beanClass bean的类型
+     * @return 是否需要处理该类型的Bean
+     */
+    default boolean supports(Class<?> beanClass) {
+        return true;
+    }
 }
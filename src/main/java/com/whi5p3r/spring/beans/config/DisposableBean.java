@@ -0,0 +1,10 @@
+package com.whi5p3r.spring.beans.config;
+
+/**
+ * @description: 单例的销毁回调，容器关闭时调用：在依赖它的单例都销毁之后、它的依赖销毁之前调用，用于释放连接、线程等资源
+ * @author: whi5p3r
+ * @date: 2026年10月20日 02:10
+ */
+public interface DisposableBean {
+    void destroy() throws Exception;
+}
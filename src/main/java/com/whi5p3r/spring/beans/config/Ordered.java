@@ -0,0 +1,13 @@
+package com.whi5p3r.spring.beans.config;
+
+/**
+ * @description: 可排序的组件（如BeanPostProcessor），order越小越先执行；也可以用@Order注解声明
+ * @author: whi5p3r
+ * @date: 2026年10月19日 18:20
+ */
+public interface Ordered {
+    int HIGHEST_PRECEDENCE = Integer.MIN_VALUE;
+    int LOWEST_PRECEDENCE = Integer.MAX_VALUE;
+
+    int getOrder();
+}
@@ -0,0 +1,10 @@
+package com.whi5p3r.spring.beans.config;
+
+/**
+ * @description: 池化Bean的重置钩子，归还到池中之前调用，用于清理上一次使用留下的状态；抛出异常时该实例被丢弃
+ * @author: whi5p3r
+ * @date: 2026年10月19日 18:50
+ */
+public interface PooledBean {
+    void reset();
+}
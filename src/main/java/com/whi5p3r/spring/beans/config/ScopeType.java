@@ -4,9 +4,28 @@ import com.whi5p3r.spring.annotations.Scope;
 
 public enum ScopeType {
     SINGLETON(1),
-    PROTOTYPE(2)
+    PROTOTYPE(2),
+    /**
+     * 池化：getBean从该Bean的对象池中借出实例，用完通过releaseBean归还，见@Pooled
+     */
+    POOLED(3),
+    /**
+     * 请求作用域：同一次请求（callInRequestScope期间）内共享一个实例，请求结束时销毁
+     */
+    REQUEST(4),
+    /**
+     * 线程作用域：同一个线程内共享一个实例
+     */
+    THREAD(5)
     ;
     final int key;
+
+    /**
+     * 是否为需要通过作用域代理注入的作用域
+     */
+    public boolean isScopedProxyRequired(){
+        return this == REQUEST || this == THREAD;
+    }
     ScopeType(int key){
         this.key = key;
     }
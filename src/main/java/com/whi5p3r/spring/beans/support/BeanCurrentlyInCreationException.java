@@ -0,0 +1,56 @@
+package com.whi5p3r.spring.beans.support;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * @description: 构造器注入无法满足的循环依赖：Bean在构造器执行之前（还没有可以提前暴露的实例）又被依赖。
+ *               异常沿创建链向上传播时，每一层正在创建的Bean把自己加到依赖路径的前面，回到循环的起点时路径闭合
+ * @author: whi5p3r
+ * @date: 2026年10月19日 21:05
+ */
+public class BeanCurrentlyInCreationException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String beanName;
+    private final LinkedList<String> path = new LinkedList<>();
+    private boolean closed;
+
+    /**
+     * @param beanName 再次被依赖的、正在构造的Bean
+     */
+    public BeanCurrentlyInCreationException(String beanName) {
+        this.beanName = beanName;
+        this.path.add(beanName);
+    }
+
+    /**
+     * 由依赖路径上正在创建的Bean调用
+     * @param beanName 正在创建的Bean
+     */
+    public void addBean(String beanName) {
+        if (closed) {
+            return;
+        }
+        path.addFirst(beanName);
+        closed = this.beanName.equals(beanName);
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    /**
+     * @return 依赖路径，首尾都是beanName
+     */
+    public List<String> getPath() {
+        return new ArrayList<>(path);
+    }
+
+    @Override
+    public String getMessage() {
+        return "Circular dependency that constructor injection cannot resolve: " + String.join(" -> ", path)
+                + ". " + beanName + " is requested again before its constructor has returned; inject one of these dependencies through a field instead.";
+    }
+}
@@ -3,13 +3,29 @@ package com.whi5p3r.spring.beans.support;
 import com.whi5p3r.spring.annotations.*;
 import com.whi5p3r.spring.beans.config.BeanDefinition;
 import com.whi5p3r.spring.beans.config.ScopeType;
+import com.whi5p3r.spring.core.env.Environment;
 import com.whi5p3r.spring.utils.StringUtil;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 /**
  * @description: TODO
@@ -17,81 +33,435 @@ import java.util.List;
  * @date: 2023年04月12日 10:54
  */
 public class BeanDefinitionReader {
+    private static final long DEFAULT_POOL_MAX_WAIT_MILLIS = 1000;
+    private static final Method[] NO_METHODS = new Method[0];
+
     private final List<String> registryBeanClasses = new ArrayList<>();
+    /**
+     * registryBeanClasses中每个类对应的class文件（扫描目录时）或jar中的条目名（扫描jar时）
+     */
+    private final List<File> registryBeanFiles = new ArrayList<>();
+    private final List<String> registryBeanEntries = new ArrayList<>();
+    /**
+     * 接口名 -> 实现类的beanName；同一接口有多个实现时无法确定，不注册该别名
+     */
+    private final Map<String, String> aliases = new LinkedHashMap<>();
+    private final Set<String> ambiguousAliases = new HashSet<>();
+    private final ClassLoader classLoader;
+    private final Class<?> configClass;
+    private final Environment environment;
+    private final ConditionEvaluator conditionEvaluator;
+    /**
+     * 条件不满足而没有注册的组件类或@Bean方法 -> 不满足的条件
+     */
+    private final Map<String, String> excludedBeans = new LinkedHashMap<>();
+    private File scanRoot;
+    /**
+     * basePackage所在的jar文件，basePackage在目录中时为null
+     */
+    private File scanJar;
+    private String basePackage;
+
     public BeanDefinitionReader(Class<?> configClass){
+        this(configClass, configClass.getClassLoader());
+    }
+
+    /**
+     * @param configClass 配置类
+     * @param classLoader 扫描和加载组件类使用的类加载器
+     */
+    public BeanDefinitionReader(Class<?> configClass, ClassLoader classLoader){
+        this(configClass, classLoader, new Environment());
+    }
+
+    /**
+     * @param configClass 配置类
+     * @param classLoader 扫描和加载组件类使用的类加载器
+     * @param environment 判断@Profile、@ConditionalOnProperty使用的运行环境
+     */
+    public BeanDefinitionReader(Class<?> configClass, ClassLoader classLoader, Environment environment){
+        this.classLoader = classLoader;
+        this.configClass = configClass;
+        this.environment = environment;
+        this.conditionEvaluator = new ConditionEvaluator(environment, classLoader);
         // 读取配置类中ComponentScan设定的basePackage
-        if (!configClass.isAnnotationPresent(ComponentScan.class)) {
+        File location = findScanLocation(configClass, classLoader);
+        if (location == null) {
             return;
         }
-
-        ComponentScan componentScan = configClass.getAnnotation(ComponentScan.class);
-        String basePackage = componentScan.basePackages();
+        this.basePackage = configClass.getAnnotation(ComponentScan.class).basePackages();
         // 扫描baskPackage中的所有.class文件，存入registryBeanClasses中
-        doScanner(basePackage);
+        if (location.isDirectory()) {
+            this.scanRoot = location;
+            doScanner(basePackage, scanRoot);
+        } else {
+            this.scanJar = location;
+            doScanJar(basePackage, scanJar);
+        }
+
+    }
+
+    /**
+     * 返回配置类的@ComponentScan指定的basePackage所在的位置：basePackage对应的class目录，basePackage在jar中时为jar文件
+     * @param configClass 配置类
+     * @param classLoader 类加载器
+     * @return 目录或jar文件，配置类没有@ComponentScan或basePackage不在本地目录、jar中时返回null
+     */
+    public static File findScanLocation(Class<?> configClass, ClassLoader classLoader){
+        if (!configClass.isAnnotationPresent(ComponentScan.class)) {
+            return null;
+        }
+        String basePackage = configClass.getAnnotation(ComponentScan.class).basePackages();
+        URL resource = classLoader.getResource(basePackage.replace(".","/"));
+        assert resource != null;
+        return toFile(resource);
+    }
+
+    /**
+     * 返回file:协议的资源对应的文件，jar:file:协议的资源所在的jar文件。URL.getFile()是URL编码的（空格为%20），
+     * 需要经过URI解码才是文件系统中的路径
+     * @param resource 类加载器返回的资源
+     * @return 文件，其他协议或无法解析时返回null
+     */
+    public static File toFile(URL resource){
+        try {
+            if ("file".equals(resource.getProtocol())) {
+                return new File(resource.toURI());
+            }
+            String file = resource.getFile();
+            if ("jar".equals(resource.getProtocol()) && file.startsWith("file:") && file.contains("!/")) {
+                return new File(new URI(file.substring(0, file.indexOf("!/"))));
+            }
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+        return null;
+    }
 
+    /**
+     * 扫描jar中basePackage下所有.class的全限定类名，存入registryBeanClasses
+     * @param basePackage
+     * @param jar basePackage所在的jar文件
+     */
+    private void doScanJar(String basePackage, File jar) {
+        String prefix = basePackage.replace('.', '/') + "/";
+        try (JarFile jarFile = new JarFile(jar)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if(!name.startsWith(prefix) || !name.endsWith(".class")) { continue; }
+                this.registryBeanClasses.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+                this.registryBeanEntries.add(name);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     /**
      * 扫描basePackage下所有.class的全限定类名，存入registryBeanClasses
      * @param basePackage
+     * @param base basePackage对应的目录
      */
-    private void doScanner(String basePackage) {
-        URL resource = this.getClass().getClassLoader().getResource(basePackage.replace(".","/"));
-        assert resource != null;
-        File base = new File(resource.getFile());
+    private void doScanner(String basePackage, File base) {
 
         for(File file: base.listFiles()){
             if(file.isDirectory()){
-                doScanner(basePackage + "." + file.getName());
+                doScanner(basePackage + "." + file.getName(), file);
                 continue;
             }
             if(!file.getName().endsWith(".class")) { continue; }
             String className = (basePackage + "." + file.getName().replace(".class", ""));
             this.registryBeanClasses.add(className);
+            this.registryBeanFiles.add(file);
+        }
+    }
+
+    /**
+     * 返回扫描到的类的数量
+     * @return
+     */
+    public int getRegistryBeanClassCount(){
+        return this.registryBeanClasses.size();
+    }
+
+    /**
+     * 返回basePackage对应的class目录，配置类没有@ComponentScan或basePackage在jar中时返回null
+     * @return
+     */
+    public File getScanRoot(){
+        return this.scanRoot;
+    }
+
+    /**
+     * 返回scanRoot所在的classpath根目录（scanRoot去掉basePackage对应的各级目录），配置类没有@ComponentScan时返回null
+     * @return
+     */
+    public File getClassRoot(){
+        if(this.scanRoot == null) { return null; }
+        File root = this.scanRoot;
+        for(int i = 0; i < basePackage.split("\\.").length; ++ i){
+            root = root.getParentFile();
         }
+        return root;
+    }
+
+    /**
+     * 返回扫描和加载组件类使用的类加载器
+     * @return
+     */
+    public ClassLoader getClassLoader(){
+        return this.classLoader;
     }
 
     /**
-     * 筛选出属于组件的类，存入List<BeanDefinition>中返回
+     * 筛选出属于组件且条件满足的类，存入List<BeanDefinition>中返回。
+     * 先从class文件元数据判断是否为组件以及@Profile、@ConditionalOnProperty、@ConditionalOnClass，不满足的类不加载；
+     * 标注了@ConditionalOnMissingBean的在其他BeanDefinition都读取完之后按顺序判断
      * @return
      */
     public List<BeanDefinition> loadBeanDefinition(){
         List<BeanDefinition> beanDefinitionList = new ArrayList<>();
+        List<BeanDefinition> onMissingBean = new ArrayList<>();
 
-        try {
-            for (String beanClassName : registryBeanClasses) {
-                Class<?> beanClass = Class.forName(beanClassName);
-                // 如果不是组件，则不创建BeanDefinition
-                if(! (beanClass.isAnnotationPresent(Controller.class) ||
-                        beanClass.isAnnotationPresent(Service.class) ||
-                        beanClass.isAnnotationPresent(Component.class))){
+        try (JarFile jarFile = scanJar == null ? null : new JarFile(scanJar)) {
+            // 配置类上的@Bean方法，配置类同时是组件时以增强后的配置类Bean为准
+            boolean configRegistered = loadBeanMethodDefinitions(beanDefinitionList, onMissingBean);
+            for (int i = 0; i < registryBeanClasses.size(); ++ i) {
+                String beanClassName = registryBeanClasses.get(i);
+                if(configRegistered && beanClassName.equals(configClass.getName())) { continue; }
+                ClassMetadata metadata = readMetadata(jarFile, i);
+                // 如果不是组件或是接口类型，则跳过
+                if(!isComponent(metadata) || metadata.isInterface()) { continue; }
+                String reason = conditionEvaluator.evaluate(metadata);
+                if(reason != null){
+                    excludedBeans.put(beanClassName, reason);
                     continue;
                 }
 
-                // 如果是接口类型，则跳过
-                if(beanClass.isInterface()){
+                Class<?> beanClass = Class.forName(beanClassName, true, classLoader);
+                BeanDefinition beanDefinition = doCreateBeanDefinition(getBeanName(beanClass), beanClass.getName(), beanClass);
+                if(beanClass.isAnnotationPresent(ConditionalOnMissingBean.class)){
+                    onMissingBean.add(beanDefinition);
                     continue;
                 }
-
-                // 是一个普通的类
-                String beanName = getBeanName(beanClass);
-                BeanDefinition beanDefinition = doCreateBeanDefinition(beanName,beanClassName,beanClass);
-                beanDefinitionList.add(beanDefinition);
-
-                // 假如该类实现了接口, 则BeanDefinition中的beanName为接口名，beanClassName为实现类的全类名
-                for(Class<?> i: beanClass.getInterfaces()){
-                    String interfaceName = getBeanName(i);
-                    doCreateBeanDefinition(interfaceName, beanClassName, beanClass);
-                }
-
+                addBeanDefinition(beanDefinitionList, beanDefinition);
             }
         }catch(Exception e){
             throw new RuntimeException(e);
         }
 
+        for(BeanDefinition beanDefinition : onMissingBean){
+            BeanDefinition existing = findBeanOfMissingType(beanDefinitionList, beanDefinition);
+            if(existing != null){
+                excludedBeans.put(describe(beanDefinition),
+                        "@ConditionalOnMissingBean: found " + existing.getBeanName() + " (" + existing.getBeanClassName() + ")");
+                continue;
+            }
+            addBeanDefinition(beanDefinitionList, beanDefinition);
+        }
         return beanDefinitionList;
     }
 
+    private ClassMetadata readMetadata(JarFile jarFile, int index) throws IOException {
+        if(jarFile == null){
+            return ClassMetadataReader.read(registryBeanFiles.get(index));
+        }
+        try (InputStream in = jarFile.getInputStream(jarFile.getEntry(registryBeanEntries.get(index)))) {
+            return ClassMetadataReader.read(in);
+        }
+    }
+
+    /**
+     * 加入BeanDefinition并注册别名：假如该类实现了接口, 则将接口名注册为该Bean的别名，按接口注入时找到的是同一个Bean；
+     * @Bean方法的返回类型是接口时，接口名也注册为别名
+     */
+    private void addBeanDefinition(List<BeanDefinition> beanDefinitionList, BeanDefinition beanDefinition){
+        beanDefinitionList.add(beanDefinition);
+        Class<?> beanClass = beanDefinition.getBeanClass();
+        if(beanDefinition.getFactoryMethod() != null && beanClass.isInterface()){
+            registerAlias(StringUtil.toLowerFirstCase(beanClass.getSimpleName()), beanDefinition.getBeanName());
+        }
+        for(String alias: getInterfaceAliases(beanClass)){
+            registerAlias(alias, beanDefinition.getBeanName());
+        }
+    }
+
+    /**
+     * 找出已注册的、类型满足@ConditionalOnMissingBean的Bean
+     * @return 找到的BeanDefinition，没有时返回null
+     */
+    private static BeanDefinition findBeanOfMissingType(List<BeanDefinition> beanDefinitionList, BeanDefinition candidate){
+        AnnotatedElement source = candidate.getFactoryMethod() != null ? candidate.getFactoryMethod() : candidate.getBeanClass();
+        Class<?>[] types;
+        try {
+            types = source.getAnnotation(ConditionalOnMissingBean.class).value();
+        } catch (TypeNotPresentException e) {
+            // 类型本身不在classpath上，不可能有该类型的Bean
+            return null;
+        }
+        if(types.length == 0){
+            types = new Class<?>[]{candidate.getBeanClass()};
+        }
+        for(BeanDefinition beanDefinition : beanDefinitionList){
+            for(Class<?> type : types){
+                if(type.isAssignableFrom(beanDefinition.getBeanClass())) { return beanDefinition; }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isComponent(ClassMetadata metadata){
+        return metadata.hasAnnotation(Controller.class) || metadata.hasAnnotation(Service.class)
+                || metadata.hasAnnotation(Component.class);
+    }
+
+    private static String describe(BeanDefinition beanDefinition){
+        Method factoryMethod = beanDefinition.getFactoryMethod();
+        return factoryMethod == null ? beanDefinition.getBeanClassName()
+                : factoryMethod.getDeclaringClass().getName() + "." + factoryMethod.getName() + "()";
+    }
+
+    /**
+     * 为单个类创建BeanDefinition（增量重新加载时使用），条件通过反射判断，不判断@ConditionalOnMissingBean
+     * @param beanClass 类
+     * @return BeanDefinition，不是组件、是接口或条件不满足时返回null
+     */
+    public BeanDefinition loadBeanDefinition(Class<?> beanClass){
+        // 如果不是组件，则不创建BeanDefinition
+        if(! (beanClass.isAnnotationPresent(Controller.class) ||
+                beanClass.isAnnotationPresent(Service.class) ||
+                beanClass.isAnnotationPresent(Component.class))){
+            return null;
+        }
+
+        // 如果是接口类型，则跳过
+        if(beanClass.isInterface()){
+            return null;
+        }
+
+        String reason = conditionEvaluator.evaluate(beanClass);
+        if(reason != null){
+            excludedBeans.put(beanClass.getName(), reason);
+            return null;
+        }
+        excludedBeans.remove(beanClass.getName());
+
+        // 是一个普通的类
+        return doCreateBeanDefinition(getBeanName(beanClass), beanClass.getName(), beanClass);
+    }
+
+    /**
+     * 为配置类上的@Bean方法创建BeanDefinition：有实例@Bean方法时先注册配置类本身（增强后的子类，单例），
+     * 再为每个条件满足的@Bean方法注册一个Bean，beanName为@Bean的value或方法名，类型为方法的返回类型，作用域取方法上的@Scope、@Pooled
+     * @param beanDefinitionList 加入的列表
+     * @param onMissingBean 标注了@ConditionalOnMissingBean的，最后判断
+     * @return 是否注册了配置类本身
+     */
+    private boolean loadBeanMethodDefinitions(List<BeanDefinition> beanDefinitionList, List<BeanDefinition> onMissingBean){
+        Method[] instanceMethods = ConfigurationClassEnhancer.getBeanMethods(configClass);
+        String configBeanName = null;
+        if(instanceMethods.length > 0){
+            configBeanName = StringUtil.toLowerFirstCase(configClass.getSimpleName());
+            BeanDefinition config = doCreateBeanDefinition(configBeanName, configClass.getName(),
+                    ConfigurationClassEnhancer.enhance(configClass), configClass);
+            // 配置类总是单例，@Bean方法互相调用时依赖它拿到容器中的Bean
+            config.setScope(ScopeType.SINGLETON);
+            String[] beanMethodNames = new String[instanceMethods.length];
+            for(int i = 0; i < instanceMethods.length; ++ i){
+                beanMethodNames[i] = getBeanName(instanceMethods[i]);
+            }
+            config.setBeanMethodNames(beanMethodNames);
+            beanDefinitionList.add(config);
+        }
+
+        for(Method method : configClass.getDeclaredMethods()){
+            if(!method.isAnnotationPresent(Bean.class) || method.isBridge()) { continue; }
+            Class<?> beanClass = method.getReturnType();
+            if(beanClass.isPrimitive()){
+                throw new IllegalStateException("@Bean method " + configClass.getName() + "." + method.getName()
+                        + " must return an object.");
+            }
+            String reason = conditionEvaluator.evaluate(method);
+            if(reason != null){
+                excludedBeans.put(configClass.getName() + "." + method.getName() + "()", reason);
+                continue;
+            }
+            BeanDefinition beanDefinition = doCreateBeanDefinition(getBeanName(method), beanClass.getName(), beanClass, method);
+            beanDefinition.setFactoryMethod(method);
+            beanDefinition.setFactoryBeanName(Modifier.isStatic(method.getModifiers()) ? null : configBeanName);
+            if(method.isAnnotationPresent(ConditionalOnMissingBean.class)){
+                onMissingBean.add(beanDefinition);
+                continue;
+            }
+            addBeanDefinition(beanDefinitionList, beanDefinition);
+        }
+        return configBeanName != null;
+    }
+
+    /**
+     * 返回判断@Profile、@ConditionalOnProperty使用的运行环境
+     * @return
+     */
+    public Environment getEnvironment(){
+        return this.environment;
+    }
+
+    /**
+     * 返回条件不满足而没有注册的组件类或@Bean方法，以及不满足的条件
+     * @return
+     */
+    public Map<String, String> getExcludedBeans(){
+        return excludedBeans;
+    }
+
+    /**
+     * 返回判断条件使用的ConditionEvaluator，其中记录了判断时读取的属性和类
+     * @return
+     */
+    public ConditionEvaluator getConditionEvaluator(){
+        return this.conditionEvaluator;
+    }
+
+    /**
+     * 返回配置类
+     * @return
+     */
+    public Class<?> getConfigClass(){
+        return this.configClass;
+    }
+
+    /**
+     * 类实现的接口对应的别名（接口名首字母小写）
+     * @param beanClass 类
+     * @return 别名
+     */
+    public List<String> getInterfaceAliases(Class<?> beanClass){
+        List<String> result = new ArrayList<>();
+        for(Class<?> i: beanClass.getInterfaces()){
+            result.add(getBeanName(i));
+        }
+        return result;
+    }
+
+    private void registerAlias(String alias, String beanName){
+        if(ambiguousAliases.contains(alias)) { return; }
+        if(aliases.containsKey(alias)){
+            aliases.remove(alias);
+            ambiguousAliases.add(alias);
+            return;
+        }
+        aliases.put(alias, beanName);
+    }
+
+    /**
+     * 返回loadBeanDefinition过程中收集的别名（接口名 -> 唯一实现类的beanName）
+     * @return
+     */
+    public Map<String, String> getAliases(){
+        return aliases;
+    }
+
     /**
      * 根据bean的类和其注解上的value获取beanName（优先注解上的value）
      * @param beanClass
@@ -100,27 +470,86 @@ public class BeanDefinitionReader {
 
     private String getBeanName(Class<?> beanClass){
         String beanName = StringUtil.toLowerFirstCase(beanClass.getSimpleName());
+        String value = "";
         if(beanClass.isAnnotationPresent(Component.class)){
-            beanName = beanClass.getAnnotation(Component.class).value();
+            value = beanClass.getAnnotation(Component.class).value();
         }
         if(beanClass.isAnnotationPresent(Service.class)){
-            beanName = beanClass.getAnnotation(Service.class).value();
+            value = beanClass.getAnnotation(Service.class).value();
         }
         if(beanClass.isAnnotationPresent(Controller.class)){
-            beanName = beanClass.getAnnotation(Controller.class).value();
+            value = beanClass.getAnnotation(Controller.class).value();
+        }
+        // 注解上没有指定value时，使用类名首字母小写
+        if(!StringUtil.isEmpty(value)){
+            beanName = value;
         }
         return beanName;
     }
 
+    /**
+     * @Bean方法创建的Bean的beanName：@Bean上的value，没有时为方法名
+     */
+    private static String getBeanName(Method beanMethod){
+        String value = beanMethod.getAnnotation(Bean.class).value();
+        return StringUtil.isEmpty(value) ? beanMethod.getName() : value;
+    }
+
     private BeanDefinition doCreateBeanDefinition(String beanName,String beanClassName,Class<?> beanClass){
+        return doCreateBeanDefinition(beanName, beanClassName, beanClass, beanClass);
+    }
+
+    /**
+     * @param scopeSource 读取@Scope、@Pooled的类或@Bean方法
+     */
+    private BeanDefinition doCreateBeanDefinition(String beanName,String beanClassName,Class<?> beanClass,AnnotatedElement scopeSource){
         BeanDefinition beanDefinition = new BeanDefinition();
         beanDefinition.setBeanClassName(beanClassName);
         beanDefinition.setBeanName(beanName);
         beanDefinition.setScope(ScopeType.SINGLETON);
-        if(beanClass.isAnnotationPresent(Scope.class)){
-            beanDefinition.setScope(beanClass.getAnnotation(Scope.class).value());
+        if(scopeSource.isAnnotationPresent(Scope.class)){
+            beanDefinition.setScope(scopeSource.getAnnotation(Scope.class).value());
+        }
+        // 标注了@Pooled即为池化作用域，@Scope(ScopeType.POOLED)而没有@Pooled时使用默认的池配置
+        Pooled pooled = scopeSource.getAnnotation(Pooled.class);
+        if(pooled != null){
+            beanDefinition.setScope(ScopeType.POOLED);
+        }
+        if(beanDefinition.getScope() == ScopeType.POOLED){
+            int maxSize = pooled == null ? 0 : pooled.maxSize();
+            beanDefinition.setPoolMaxSize(maxSize > 0 ? maxSize : Runtime.getRuntime().availableProcessors() * 2);
+            beanDefinition.setPoolMaxWaitMillis(pooled == null ? DEFAULT_POOL_MAX_WAIT_MILLIS : pooled.maxWaitMillis());
         }
         beanDefinition.setBeanClass(beanClass);
+        beanDefinition.setEventListenerMethods(findAnnotatedMethods(beanClass, EventListener.class));
+        beanDefinition.setScheduledMethods(findAnnotatedMethods(beanClass, Scheduled.class));
         return beanDefinition;
     }
+
+    /**
+     * 找出类及其父类中声明的所有标注了annotationType的方法（@EventListener、@Scheduled），子类覆盖的方法只保留子类的
+     * @param beanClass Bean的类
+     * @param annotationType 方法上的注解
+     * @return 方法，没有时返回共享的空数组
+     */
+    private static Method[] findAnnotatedMethods(Class<?> beanClass, Class<? extends Annotation> annotationType){
+        List<Method> result = null;
+        for(Class<?> c = beanClass; c != null && c != Object.class; c = c.getSuperclass()){
+            for(Method method : c.getDeclaredMethods()){
+                if(!method.isAnnotationPresent(annotationType) || method.isBridge()) { continue; }
+                if(result == null) { result = new ArrayList<>(); }
+                if(!isOverridden(result, method)) { result.add(method); }
+            }
+        }
+        return result == null ? NO_METHODS : result.toArray(NO_METHODS);
+    }
+
+    private static boolean isOverridden(List<Method> found, Method method){
+        for(Method m : found){
+            if(m.getName().equals(method.getName()) && Arrays.equals(m.getParameterTypes(), method.getParameterTypes())){
+                return true;
+            }
+        }
+        return false;
+    }
 }
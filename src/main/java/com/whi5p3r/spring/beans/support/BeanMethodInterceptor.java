@@ -0,0 +1,15 @@
+package com.whi5p3r.spring.beans.support;
+
+/**
+ * @description: 增强后的配置类中@Bean方法的拦截器：配置类内部调用@Bean方法时不执行方法体，而是从容器中取对应的Bean
+ * @author: whi5p3r
+ * @date: 2026年10月19日 23:30
+ */
+public interface BeanMethodInterceptor {
+    /**
+     * @param methodIndex @Bean方法在ConfigurationClassEnhancer.enhance的beanMethods中的下标
+     * @param arguments 调用时传入的实参（由容器解析形参，忽略这里的实参）
+     * @return 容器中的Bean
+     */
+    Object intercept(int methodIndex, Object[] arguments);
+}
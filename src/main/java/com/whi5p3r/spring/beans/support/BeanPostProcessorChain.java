@@ -0,0 +1,63 @@
+package com.whi5p3r.spring.beans.support;
+
+import com.whi5p3r.spring.beans.config.BeanPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @description: 某个BeanDefinition适用的后处理器链。容器在所有后处理器创建并排序之后，按BeanDefinition计算一次，
+ *               创建Bean时直接遍历数组；链为空时调用方应跳过整个后处理流程。
+ * @author: whi5p3r
+ * @date: 2026年10月19日 18:20
+ */
+public final class BeanPostProcessorChain {
+    public static final BeanPostProcessor[] EMPTY = new BeanPostProcessor[0];
+
+    private BeanPostProcessorChain() {
+    }
+
+    /**
+     * 从已排序的后处理器中筛选出适用于beanClass的后处理器，保持原有顺序
+     * @param beanClass bean的类型
+     * @param sortedPostProcessors 已按order排序的后处理器
+     * @return 适用的后处理器链，没有时返回EMPTY
+     */
+    public static BeanPostProcessor[] resolve(Class<?> beanClass, List<BeanPostProcessor> sortedPostProcessors) {
+        List<BeanPostProcessor> chain = new ArrayList<>();
+        for (BeanPostProcessor postProcessor : sortedPostProcessors) {
+            if (postProcessor.supports(beanClass)) {
+                chain.add(postProcessor);
+            }
+        }
+        return chain.isEmpty() ? EMPTY : chain.toArray(EMPTY);
+    }
+
+    /**
+     * 依次执行初始化前的后处理，某个后处理器返回null时沿用上一个结果
+     */
+    public static Object applyBeforeInitialization(BeanPostProcessor[] chain, Object bean, String beanName) {
+        Object current = bean;
+        for (BeanPostProcessor postProcessor : chain) {
+            Object result = postProcessor.postProcessBeforeInitialization(current, beanName);
+            if (result != null) {
+                current = result;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 依次执行初始化后的后处理，某个后处理器返回null时沿用上一个结果
+     */
+    public static Object applyAfterInitialization(BeanPostProcessor[] chain, Object bean, String beanName) {
+        Object current = bean;
+        for (BeanPostProcessor postProcessor : chain) {
+            Object result = postProcessor.postProcessAfterInitialization(current, beanName);
+            if (result != null) {
+                current = result;
+            }
+        }
+        return current;
+    }
+}
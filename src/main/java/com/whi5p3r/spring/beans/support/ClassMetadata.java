@@ -0,0 +1,133 @@
+package com.whi5p3r.spring.beans.support;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 从class文件中读取的类的元数据：访问标志和类上的运行时注解（注解类名 -> 元素名 -> 值），
+ *               不需要加载该类，也不会加载注解中引用的类。class文件中只有显式写出的元素，getAttribute对其余元素返回注解类型上的默认值。
+ *               元素值：字符串、枚举常量名、类名（与Class.getName()相同）为String，基本类型为对应的包装类，数组为List，嵌套注解为Map
+ * @author: whi5p3r
+ * @date: 2026年10月20日 00:10
+ */
+public final class ClassMetadata {
+    private final String className;
+    private final int access;
+    private final Map<String, Map<String, Object>> annotations;
+
+    ClassMetadata(String className, int access, Map<String, Map<String, Object>> annotations) {
+        this.className = className;
+        this.access = access;
+        this.annotations = annotations;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public boolean isInterface() {
+        return Modifier.isInterface(access);
+    }
+
+    public boolean isAbstract() {
+        return Modifier.isAbstract(access);
+    }
+
+    public boolean hasAnnotation(Class<? extends Annotation> annotationType) {
+        return annotations.containsKey(annotationType.getName());
+    }
+
+    /**
+     * @return 注解中显式写出的元素，类上没有该注解时返回null
+     */
+    public Map<String, Object> getAnnotationAttributes(Class<? extends Annotation> annotationType) {
+        return annotations.get(annotationType.getName());
+    }
+
+    /**
+     * 注解元素的值，class文件中没有写出时为注解类型上声明的默认值
+     * @param annotationType 注解类型
+     * @param name 元素名
+     * @return 值，类上没有该注解时返回null
+     */
+    public Object getAttribute(Class<? extends Annotation> annotationType, String name) {
+        Map<String, Object> attributes = annotations.get(annotationType.getName());
+        if (attributes == null) {
+            return null;
+        }
+        Object value = attributes.get(name);
+        if (value != null) {
+            return value;
+        }
+        try {
+            value = annotationType.getMethod(name).getDefaultValue();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(annotationType.getName() + " has no element " + name + ".", e);
+        }
+        // 默认值转换为与class文件中读取的值相同的表示
+        return toAttributeValue(value);
+    }
+
+    /**
+     * 字符串数组或类数组元素的值（类为全限定类名）
+     */
+    public String[] getStringArrayAttribute(Class<? extends Annotation> annotationType, String name) {
+        Object value = getAttribute(annotationType, name);
+        if (value == null) {
+            return null;
+        }
+        List<?> values = (List<?>) value;
+        String[] result = new String[values.size()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = (String) values.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * 反射得到的注解元素值：类转换为类名，枚举转换为常量名，数组转换为List，嵌套注解转换为元素名 -> 值的Map
+     */
+    private static Object toAttributeValue(Object value) {
+        if (value instanceof Class) {
+            return ((Class<?>) value).getName();
+        }
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            if (length == 0) {
+                return Collections.emptyList();
+            }
+            List<Object> values = new ArrayList<>(length);
+            for (int i = 0; i < length; ++i) {
+                values.add(toAttributeValue(Array.get(value, i)));
+            }
+            return values;
+        }
+        if (value instanceof Annotation) {
+            Map<String, Object> attributes = new HashMap<>();
+            for (Method element : ((Annotation) value).annotationType().getDeclaredMethods()) {
+                try {
+                    attributes.put(element.getName(), toAttributeValue(element.invoke(value)));
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return attributes;
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return className + annotations.keySet();
+    }
+}
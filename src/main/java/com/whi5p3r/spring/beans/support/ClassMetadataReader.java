@@ -0,0 +1,230 @@
+package com.whi5p3r.spring.beans.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 解析class文件，读取ClassMetadata：只解析常量池、访问标志和类上的RuntimeVisibleAnnotations属性，
+ *               字段和方法整体跳过，常量池中的字符串用到时才解码
+ * @author: whi5p3r
+ * @date: 2026年10月20日 00:10
+ */
+public final class ClassMetadataReader {
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private final ByteBuffer buffer;
+    /**
+     * 常量池中每一项在class文件中的偏移（指向tag之后）
+     */
+    private final int[] offsets;
+    private final String[] strings;
+
+    private ClassMetadataReader(byte[] bytes) {
+        this.buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != 0xCAFEBABE) {
+            throw new IllegalArgumentException("Not a class file.");
+        }
+        buffer.getShort();
+        buffer.getShort();
+        int count = u2();
+        this.offsets = new int[count];
+        this.strings = new String[count];
+        for (int i = 1; i < count; ++i) {
+            int tag = buffer.get();
+            offsets[i] = buffer.position();
+            switch (tag) {
+                case 1:
+                    skip(u2());
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    skip(4);
+                    break;
+                case 5: case 6:
+                    skip(8);
+                    // long和double占两项
+                    ++i;
+                    break;
+                case 7: case 8: case 16: case 19: case 20:
+                    skip(2);
+                    break;
+                case 15:
+                    skip(3);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown constant pool tag " + tag + ".");
+            }
+        }
+    }
+
+    /**
+     * 读取扫描到的class文件
+     */
+    public static ClassMetadata read(File classFile) throws IOException {
+        return new ClassMetadataReader(Files.readAllBytes(classFile.toPath())).readClass();
+    }
+
+    public static ClassMetadata read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        byte[] chunk = new byte[4096];
+        for (int n; (n = in.read(chunk)) > 0; ) {
+            out.write(chunk, 0, n);
+        }
+        return new ClassMetadataReader(out.toByteArray()).readClass();
+    }
+
+    private ClassMetadata readClass() throws IOException {
+        int access = u2();
+        String className = classNameAt(u2()).replace('/', '.');
+        // 父类、接口
+        u2();
+        skip(2 * u2());
+        // 字段、方法
+        for (int members = 0; members < 2; ++members) {
+            for (int count = u2(); count > 0; --count) {
+                skip(6);
+                skipAttributes();
+            }
+        }
+        Map<String, Map<String, Object>> annotations = Collections.emptyMap();
+        for (int count = u2(); count > 0; --count) {
+            String name = utf8(u2());
+            int length = buffer.getInt();
+            if (!RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                skip(length);
+                continue;
+            }
+            annotations = new LinkedHashMap<>();
+            for (int n = u2(); n > 0; --n) {
+                String type = typeName(utf8(u2()));
+                annotations.put(type, readAnnotationElements());
+            }
+        }
+        return new ClassMetadata(className, access, annotations);
+    }
+
+    private Map<String, Object> readAnnotationElements() throws IOException {
+        int count = u2();
+        if (count == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> elements = new HashMap<>();
+        for (int i = 0; i < count; ++i) {
+            String name = utf8(u2());
+            elements.put(name, readElementValue());
+        }
+        return elements;
+    }
+
+    private Object readElementValue() throws IOException {
+        int tag = buffer.get();
+        switch (tag) {
+            case 's':
+                return utf8(u2());
+            case 'Z':
+                return buffer.getInt(offsets[u2()]) != 0;
+            case 'B':
+                return (byte) buffer.getInt(offsets[u2()]);
+            case 'C':
+                return (char) buffer.getInt(offsets[u2()]);
+            case 'S':
+                return (short) buffer.getInt(offsets[u2()]);
+            case 'I':
+                return buffer.getInt(offsets[u2()]);
+            case 'J':
+                return buffer.getLong(offsets[u2()]);
+            case 'F':
+                return buffer.getFloat(offsets[u2()]);
+            case 'D':
+                return buffer.getDouble(offsets[u2()]);
+            case 'e':
+                u2();
+                return utf8(u2());
+            case 'c':
+                return className(utf8(u2()));
+            case '@':
+                u2();
+                return readAnnotationElements();
+            case '[':
+                int count = u2();
+                List<Object> values = new ArrayList<>(count);
+                for (int i = 0; i < count; ++i) {
+                    values.add(readElementValue());
+                }
+                return values;
+            default:
+                throw new IllegalArgumentException("Unknown element value tag " + (char) tag + ".");
+        }
+    }
+
+    private void skipAttributes() {
+        for (int count = u2(); count > 0; --count) {
+            skip(2);
+            skip(buffer.getInt());
+        }
+    }
+
+    private int u2() {
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    private void skip(int length) {
+        buffer.position(buffer.position() + length);
+    }
+
+    private String classNameAt(int index) throws IOException {
+        return utf8(buffer.getShort(offsets[index]) & 0xFFFF);
+    }
+
+    private String utf8(int index) throws IOException {
+        String value = strings[index];
+        if (value == null) {
+            int offset = offsets[index];
+            int length = buffer.getShort(offset) & 0xFFFF;
+            // 常量池使用modified UTF-8，与DataInput.readUTF的格式相同
+            value = new DataInputStream(new ByteArrayInputStream(buffer.array(), offset, length + 2)).readUTF();
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * 字段描述符 Lcom/foo/Bar; 转换为全限定类名，基本类型和数组保持描述符
+     */
+    private static String typeName(String descriptor) {
+        if (descriptor.startsWith("L") && descriptor.endsWith(";")) {
+            return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+        }
+        return descriptor;
+    }
+
+    /**
+     * 类元素的返回描述符转换为与Class.getName()相同的类名：int、[I、[Ljava.lang.String;、java.lang.String
+     */
+    private static String className(String descriptor) {
+        switch (descriptor) {
+            case "Z": return "boolean";
+            case "B": return "byte";
+            case "C": return "char";
+            case "S": return "short";
+            case "I": return "int";
+            case "J": return "long";
+            case "F": return "float";
+            case "D": return "double";
+            case "V": return "void";
+            default:
+                return descriptor.startsWith("[") ? descriptor.replace('/', '.') : typeName(descriptor);
+        }
+    }
+}
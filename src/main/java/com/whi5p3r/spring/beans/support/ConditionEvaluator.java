@@ -0,0 +1,138 @@
+package com.whi5p3r.spring.beans.support;
+
+import com.whi5p3r.spring.annotations.ConditionalOnClass;
+import com.whi5p3r.spring.annotations.ConditionalOnProperty;
+import com.whi5p3r.spring.annotations.Profile;
+import com.whi5p3r.spring.core.env.Environment;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 判断组件类或@Bean方法上的@Profile、@ConditionalOnProperty、@ConditionalOnClass。
+ *               组件类从class文件元数据判断，条件不满足的类不会被加载；@Bean方法和增量重新加载的类通过反射判断。
+ *               @ConditionalOnMissingBean依赖其他BeanDefinition，由BeanDefinitionReader在最后判断。
+ *               判断时读取的属性和检查的类被记录下来，启动计划（ContextPlan）据此判断环境是否变化
+ * @author: whi5p3r
+ * @date: 2026年10月20日 00:10
+ */
+public final class ConditionEvaluator {
+    private final Environment environment;
+    private final ClassLoader classLoader;
+    /**
+     * 判断时读取的属性 -> 值（不存在时为null）
+     */
+    private final Map<String, String> checkedProperties = new LinkedHashMap<>();
+    /**
+     * 判断时检查的类 -> 是否存在
+     */
+    private final Map<String, Boolean> checkedClasses = new LinkedHashMap<>();
+
+    /**
+     * @param environment 属性和激活的profile
+     * @param classLoader 判断@ConditionalOnClass中的类是否存在
+     */
+    public ConditionEvaluator(Environment environment, ClassLoader classLoader) {
+        this.environment = environment;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 从class文件元数据判断类上的条件
+     * @param metadata 类的元数据
+     * @return 不满足的条件的描述，全部满足时返回null
+     */
+    public String evaluate(ClassMetadata metadata) {
+        String[] profiles = metadata.getStringArrayAttribute(Profile.class, "value");
+        if (profiles != null && !environment.acceptsProfiles(profiles)) {
+            return describeProfiles(profiles);
+        }
+        if (metadata.hasAnnotation(ConditionalOnProperty.class)) {
+            String reason = evaluateProperty((String) metadata.getAttribute(ConditionalOnProperty.class, "name"),
+                    (String) metadata.getAttribute(ConditionalOnProperty.class, "havingValue"),
+                    (Boolean) metadata.getAttribute(ConditionalOnProperty.class, "matchIfMissing"));
+            if (reason != null) {
+                return reason;
+            }
+        }
+        if (metadata.hasAnnotation(ConditionalOnClass.class)) {
+            List<String> classNames = new ArrayList<>(Arrays.asList(metadata.getStringArrayAttribute(ConditionalOnClass.class, "value")));
+            classNames.addAll(Arrays.asList(metadata.getStringArrayAttribute(ConditionalOnClass.class, "name")));
+            return evaluateClasses(classNames);
+        }
+        return null;
+    }
+
+    /**
+     * 通过反射判断类或@Bean方法上的条件
+     * @param element 类或@Bean方法
+     * @return 不满足的条件的描述，全部满足时返回null
+     */
+    public String evaluate(AnnotatedElement element) {
+        Profile profile = element.getAnnotation(Profile.class);
+        if (profile != null && !environment.acceptsProfiles(profile.value())) {
+            return describeProfiles(profile.value());
+        }
+        ConditionalOnProperty property = element.getAnnotation(ConditionalOnProperty.class);
+        if (property != null) {
+            String reason = evaluateProperty(property.name(), property.havingValue(), property.matchIfMissing());
+            if (reason != null) {
+                return reason;
+            }
+        }
+        ConditionalOnClass onClass = element.getAnnotation(ConditionalOnClass.class);
+        if (onClass != null) {
+            List<String> classNames = new ArrayList<>(Arrays.asList(onClass.name()));
+            try {
+                for (Class<?> type : onClass.value()) {
+                    classNames.add(type.getName());
+                }
+            } catch (TypeNotPresentException e) {
+                checkedClasses.put(e.typeName(), false);
+                return "@ConditionalOnClass: " + e.typeName() + " is not present";
+            }
+            return evaluateClasses(classNames);
+        }
+        return null;
+    }
+
+    private String evaluateProperty(String name, String havingValue, boolean matchIfMissing) {
+        String value = environment.getProperty(name);
+        checkedProperties.put(name, value);
+        if (value == null) {
+            return matchIfMissing ? null : "@ConditionalOnProperty: " + name + " is not set";
+        }
+        boolean matches = havingValue.isEmpty() ? !"false".equalsIgnoreCase(value) : havingValue.equalsIgnoreCase(value);
+        return matches ? null : "@ConditionalOnProperty: " + name + "=" + value;
+    }
+
+    /**
+     * 只检查class文件是否存在，不加载
+     */
+    private String evaluateClasses(List<String> classNames) {
+        for (String className : classNames) {
+            boolean present = classLoader.getResource(className.replace('.', '/') + ".class") != null;
+            checkedClasses.put(className, present);
+            if (!present) {
+                return "@ConditionalOnClass: " + className + " is not present";
+            }
+        }
+        return null;
+    }
+
+    public Map<String, String> getCheckedProperties() {
+        return checkedProperties;
+    }
+
+    public Map<String, Boolean> getCheckedClasses() {
+        return checkedClasses;
+    }
+
+    private String describeProfiles(String[] profiles) {
+        return "@Profile" + Arrays.toString(profiles) + ": active profiles are " + environment.getActiveProfiles();
+    }
+}
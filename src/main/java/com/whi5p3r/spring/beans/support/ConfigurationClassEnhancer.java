@@ -0,0 +1,495 @@
+package com.whi5p3r.spring.beans.support;
+
+import com.whi5p3r.spring.annotations.Bean;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 为带有实例@Bean方法的配置类生成子类 Config$$WhEnhanced（直接写出class文件，不依赖字节码库）：
+ *               每个@Bean方法被覆盖为调用BeanMethodInterceptor，配置类内部调用@Bean方法时拿到的是容器中的Bean；
+ *               另外为每个@Bean方法生成公有的 方法名$$whSuper 访问器，通过invokespecial执行原方法体，供容器创建Bean时调用。
+ *               生成的方法都没有分支，因此不需要StackMapTable。每个配置类只生成一次，按类缓存
+ * @author: whi5p3r
+ * @date: 2026年10月19日 23:30
+ */
+public final class ConfigurationClassEnhancer {
+    private static final String ENHANCED_SUFFIX = "$$WhEnhanced";
+    private static final String SUPER_ACCESSOR_SUFFIX = "$$whSuper";
+    private static final String INTERCEPTOR_FIELD = "$$interceptor";
+    private static final Method[] NO_METHODS = new Method[0];
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_SUPER = 0x0020;
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int ILOAD = 0x15;
+    private static final int LLOAD = 0x16;
+    private static final int FLOAD = 0x17;
+    private static final int DLOAD = 0x18;
+    private static final int ALOAD = 0x19;
+    private static final int AASTORE = 0x53;
+    private static final int DUP = 0x59;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int ANEWARRAY = 0xbd;
+    private static final int CHECKCAST = 0xc0;
+
+    private static final ClassValue<Enhancement> ENHANCEMENTS = new ClassValue<Enhancement>() {
+        @Override
+        protected Enhancement computeValue(Class<?> configClass) {
+            return new Enhancement(configClass);
+        }
+    };
+
+    /**
+     * 某个配置类的实例@Bean方法和生成的子类
+     */
+    private static final class Enhancement {
+        private final Method[] beanMethods;
+        private final Class<?> enhancedClass;
+
+        private Enhancement(Class<?> configClass) {
+            this.beanMethods = findBeanMethods(configClass);
+            this.enhancedClass = beanMethods.length == 0 ? configClass : define(configClass, beanMethods);
+        }
+    }
+
+    private ConfigurationClassEnhancer() {
+    }
+
+    /**
+     * 返回配置类中声明的实例@Bean方法（按方法名和形参排序），下标即BeanMethodInterceptor.intercept的methodIndex
+     * @param configClass 配置类
+     * @return @Bean方法，没有时返回空数组；不要修改
+     */
+    public static Method[] getBeanMethods(Class<?> configClass) {
+        return ENHANCEMENTS.get(configClass).beanMethods;
+    }
+
+    /**
+     * 返回配置类增强后的子类，没有实例@Bean方法时返回配置类本身
+     * @param configClass 配置类
+     * @return 增强后的子类
+     */
+    public static Class<?> enhance(Class<?> configClass) {
+        return ENHANCEMENTS.get(configClass).enhancedClass;
+    }
+
+    /**
+     * 是否为enhance生成的子类
+     */
+    public static boolean isEnhanced(Class<?> beanClass) {
+        return EnhancedConfiguration.class.isAssignableFrom(beanClass);
+    }
+
+    /**
+     * 返回增强后的子类中执行@Bean方法原方法体的访问器
+     * @param enhancedClass enhance生成的子类
+     * @param beanMethod 配置类中的实例@Bean方法
+     * @return 公有的访问器
+     */
+    public static Method getSuperAccessor(Class<?> enhancedClass, Method beanMethod) {
+        try {
+            return enhancedClass.getMethod(beanMethod.getName() + SUPER_ACCESSOR_SUFFIX, beanMethod.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(enhancedClass.getName() + " does not enhance " + beanMethod + ".", e);
+        }
+    }
+
+    /**
+     * 生成的@Bean方法调用的入口
+     * @param interceptor 配置类实例上设置的拦截器
+     * @param methodIndex @Bean方法的下标
+     * @param arguments 调用时传入的实参
+     * @return 容器中的Bean
+     */
+    public static Object interceptBeanMethod(BeanMethodInterceptor interceptor, int methodIndex, Object[] arguments) {
+        if (interceptor == null) {
+            throw new IllegalStateException("@Bean method #" + methodIndex
+                    + " was called before the configuration instance was registered with the container.");
+        }
+        return interceptor.intercept(methodIndex, arguments);
+    }
+
+    private static Method[] findBeanMethods(Class<?> configClass) {
+        List<Method> methods = new ArrayList<>();
+        for (Method method : configClass.getDeclaredMethods()) {
+            if (!method.isAnnotationPresent(Bean.class) || method.isBridge() || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            checkEnhanceable(configClass, method);
+            methods.add(method);
+        }
+        if (methods.isEmpty()) {
+            return NO_METHODS;
+        }
+        methods.sort(Comparator.comparing(Method::getName).thenComparing(ConfigurationClassEnhancer::methodDescriptor));
+        return methods.toArray(NO_METHODS);
+    }
+
+    private static void checkEnhanceable(Class<?> configClass, Method method) {
+        int modifiers = configClass.getModifiers();
+        if (!Modifier.isPublic(modifiers) || Modifier.isFinal(modifiers) || configClass.isInterface()) {
+            throw new IllegalStateException("Configuration class " + configClass.getName()
+                    + " declares instance @Bean methods and must be public and non-final, or make the methods static.");
+        }
+        try {
+            int constructorModifiers = configClass.getDeclaredConstructor().getModifiers();
+            if (!Modifier.isPublic(constructorModifiers) && !Modifier.isProtected(constructorModifiers)) {
+                throw new NoSuchMethodException();
+            }
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Configuration class " + configClass.getName()
+                    + " declares instance @Bean methods and must have a public or protected no-arg constructor.");
+        }
+        int methodModifiers = method.getModifiers();
+        if (Modifier.isFinal(methodModifiers) || !(Modifier.isPublic(methodModifiers) || Modifier.isProtected(methodModifiers))) {
+            throw new IllegalStateException("@Bean method " + configClass.getName() + "." + method.getName()
+                    + " must be public or protected and non-final so that calls between @Bean methods can be intercepted.");
+        }
+        if (method.getReturnType().isPrimitive()) {
+            throw new IllegalStateException("@Bean method " + configClass.getName() + "." + method.getName()
+                    + " must return an object.");
+        }
+        // 增强子类由自己的类加载器定义，与配置类不在同一个运行时包中，只能访问public的类型
+        checkAccessible(configClass, method, method.getReturnType());
+        for (Class<?> type : method.getParameterTypes()) {
+            checkAccessible(configClass, method, type);
+        }
+    }
+
+    private static void checkAccessible(Class<?> configClass, Method method, Class<?> type) {
+        Class<?> elementType = type;
+        while (elementType.isArray()) {
+            elementType = elementType.getComponentType();
+        }
+        if (!elementType.isPrimitive() && !Modifier.isPublic(elementType.getModifiers())) {
+            throw new IllegalStateException("@Bean method " + configClass.getName() + "." + method.getName()
+                    + " uses non-public type " + elementType.getName() + ", which the enhanced subclass cannot access;"
+                    + " make the type public or the method static.");
+        }
+    }
+
+    private static Class<?> define(Class<?> configClass, Method[] beanMethods) {
+        String enhancedName = configClass.getName() + ENHANCED_SUFFIX;
+        try {
+            byte[] bytes = generate(configClass, enhancedName, beanMethods);
+            return new EnhancedClassLoader(configClass.getClassLoader())
+                    .define(enhancedName, bytes, configClass.getProtectionDomain());
+        } catch (IOException | LinkageError e) {
+            throw new IllegalStateException("Cannot enhance configuration class " + configClass.getName() + ".", e);
+        }
+    }
+
+    /**
+     * 生成 Config$$WhEnhanced 的class文件（版本52，即Java 8）
+     */
+    private static byte[] generate(Class<?> configClass, String enhancedName, Method[] beanMethods) throws IOException {
+        ConstantPool pool = new ConstantPool();
+        String thisName = internalName(enhancedName);
+        String superName = internalName(configClass.getName());
+        int thisClass = pool.classRef(thisName);
+        int superClass = pool.classRef(superName);
+        int enhancedInterface = pool.classRef(internalName(EnhancedConfiguration.class.getName()));
+        String interceptorDescriptor = typeDescriptor(BeanMethodInterceptor.class);
+        int interceptorField = pool.fieldRef(thisName, INTERCEPTOR_FIELD, interceptorDescriptor);
+        int interceptorFieldName = pool.utf8(INTERCEPTOR_FIELD);
+        int interceptorFieldDescriptor = pool.utf8(interceptorDescriptor);
+        int code = pool.utf8("Code");
+
+        ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+        DataOutputStream methods = new DataOutputStream(methodBytes);
+        int methodCount = 0;
+
+        // 无参构造器：调用父类的无参构造器
+        Bytecode constructor = new Bytecode();
+        constructor.op(ALOAD_0);
+        constructor.op(INVOKESPECIAL).u2(pool.methodRef(superName, "<init>", "()V", false));
+        constructor.op(RETURN);
+        writeMethod(methods, ACC_PUBLIC, pool.utf8("<init>"), pool.utf8("()V"), code, 1, 1, constructor);
+        ++methodCount;
+
+        // EnhancedConfiguration.setBeanMethodInterceptor
+        Bytecode setter = new Bytecode();
+        setter.op(ALOAD_0).op(ALOAD_1);
+        setter.op(PUTFIELD).u2(interceptorField);
+        setter.op(RETURN);
+        writeMethod(methods, ACC_PUBLIC, pool.utf8("setBeanMethodInterceptor"),
+                pool.utf8("(" + interceptorDescriptor + ")V"), code, 2, 2, setter);
+        ++methodCount;
+
+        int objectClass = pool.classRef("java/lang/Object");
+        int intercept = pool.methodRef(internalName(ConfigurationClassEnhancer.class.getName()), "interceptBeanMethod",
+                "(" + interceptorDescriptor + "I[Ljava/lang/Object;)Ljava/lang/Object;", false);
+        for (int i = 0; i < beanMethods.length; ++i) {
+            Method method = beanMethods[i];
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            String descriptor = methodDescriptor(method);
+            int slots = 1;
+            for (Class<?> type : parameterTypes) {
+                slots += type == long.class || type == double.class ? 2 : 1;
+            }
+
+            // 覆盖@Bean方法：interceptBeanMethod($$interceptor, i, new Object[]{实参...})，再转换为返回类型
+            Bytecode override = new Bytecode();
+            override.op(ALOAD_0).op(GETFIELD).u2(interceptorField);
+            override.pushInt(i);
+            override.pushInt(parameterTypes.length);
+            override.op(ANEWARRAY).u2(objectClass);
+            int slot = 1;
+            for (int j = 0; j < parameterTypes.length; ++j) {
+                override.op(DUP);
+                override.pushInt(j);
+                override.load(parameterTypes[j], slot);
+                if (parameterTypes[j].isPrimitive()) {
+                    Class<?> wrapper = wrapperType(parameterTypes[j]);
+                    override.op(INVOKESTATIC).u2(pool.methodRef(internalName(wrapper.getName()), "valueOf",
+                            "(" + typeDescriptor(parameterTypes[j]) + ")" + typeDescriptor(wrapper), false));
+                }
+                override.op(AASTORE);
+                slot += parameterTypes[j] == long.class || parameterTypes[j] == double.class ? 2 : 1;
+            }
+            override.op(INVOKESTATIC).u2(intercept);
+            override.op(CHECKCAST).u2(pool.classRef(internalName(method.getReturnType())));
+            override.op(ARETURN);
+            writeMethod(methods, method.getModifiers() & (Modifier.PUBLIC | Modifier.PROTECTED), pool.utf8(method.getName()),
+                    pool.utf8(descriptor), code, 7, slots, override);
+
+            // 访问器：invokespecial 父类的@Bean方法
+            Bytecode accessor = new Bytecode();
+            accessor.op(ALOAD_0);
+            slot = 1;
+            for (Class<?> type : parameterTypes) {
+                accessor.load(type, slot);
+                slot += type == long.class || type == double.class ? 2 : 1;
+            }
+            accessor.op(INVOKESPECIAL).u2(pool.methodRef(superName, method.getName(), descriptor, false));
+            accessor.op(ARETURN);
+            writeMethod(methods, ACC_PUBLIC | ACC_SYNTHETIC, pool.utf8(method.getName() + SUPER_ACCESSOR_SUFFIX),
+                    pool.utf8(descriptor), code, slots, slots, accessor);
+            methodCount += 2;
+        }
+
+        ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(classBytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(52);
+        pool.writeTo(out);
+        out.writeShort(ACC_PUBLIC | ACC_SUPER | ACC_SYNTHETIC);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(1);
+        out.writeShort(enhancedInterface);
+        // private BeanMethodInterceptor $$interceptor;
+        out.writeShort(1);
+        out.writeShort(ACC_PRIVATE | ACC_SYNTHETIC);
+        out.writeShort(interceptorFieldName);
+        out.writeShort(interceptorFieldDescriptor);
+        out.writeShort(0);
+        out.writeShort(methodCount);
+        methods.flush();
+        methodBytes.writeTo(out);
+        out.writeShort(0);
+        out.flush();
+        return classBytes.toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream out, int access, int name, int descriptor, int codeAttribute,
+                                    int maxStack, int maxLocals, Bytecode code) throws IOException {
+        out.writeShort(access);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeAttribute);
+        out.writeInt(12 + code.size());
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.size());
+        code.writeTo(out);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private static String internalName(String className) {
+        return className.replace('.', '/');
+    }
+
+    /**
+     * checkcast使用的类名：数组为其描述符
+     */
+    private static String internalName(Class<?> type) {
+        return internalName(type.getName());
+    }
+
+    private static String methodDescriptor(Method method) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Class<?> type : method.getParameterTypes()) {
+            descriptor.append(typeDescriptor(type));
+        }
+        return descriptor.append(')').append(typeDescriptor(method.getReturnType())).toString();
+    }
+
+    private static String typeDescriptor(Class<?> type) {
+        if (type.isArray()) { return internalName(type.getName()); }
+        if (type == boolean.class) { return "Z"; }
+        if (type == byte.class) { return "B"; }
+        if (type == char.class) { return "C"; }
+        if (type == short.class) { return "S"; }
+        if (type == int.class) { return "I"; }
+        if (type == long.class) { return "J"; }
+        if (type == float.class) { return "F"; }
+        if (type == double.class) { return "D"; }
+        if (type == void.class) { return "V"; }
+        return "L" + internalName(type.getName()) + ";";
+    }
+
+    private static Class<?> wrapperType(Class<?> type) {
+        if (type == boolean.class) { return Boolean.class; }
+        if (type == byte.class) { return Byte.class; }
+        if (type == char.class) { return Character.class; }
+        if (type == short.class) { return Short.class; }
+        if (type == int.class) { return Integer.class; }
+        if (type == long.class) { return Long.class; }
+        if (type == float.class) { return Float.class; }
+        return Double.class;
+    }
+
+    /**
+     * 方法体的字节码
+     */
+    private static final class Bytecode extends ByteArrayOutputStream {
+        Bytecode op(int opcode) {
+            write(opcode);
+            return this;
+        }
+
+        Bytecode u2(int value) {
+            write(value >>> 8);
+            write(value);
+            return this;
+        }
+
+        void pushInt(int value) {
+            if (value <= 5) {
+                op(ICONST_0 + value);
+            } else if (value <= Byte.MAX_VALUE) {
+                op(BIPUSH).write(value);
+            } else {
+                op(SIPUSH).u2(value);
+            }
+        }
+
+        void load(Class<?> type, int slot) {
+            int opcode = !type.isPrimitive() ? ALOAD : type == long.class ? LLOAD
+                    : type == float.class ? FLOAD : type == double.class ? DLOAD : ILOAD;
+            op(opcode).write(slot);
+        }
+    }
+
+    /**
+     * 常量池：相同的常量只写一次
+     */
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) throws IOException {
+            String key = "Utf8 " + value;
+            Integer index = indexes.get(key);
+            if (index != null) { return index; }
+            out.writeByte(1);
+            out.writeUTF(value);
+            return put(key);
+        }
+
+        int classRef(String internalName) throws IOException {
+            String key = "Class " + internalName;
+            Integer index = indexes.get(key);
+            if (index != null) { return index; }
+            int name = utf8(internalName);
+            out.writeByte(7);
+            out.writeShort(name);
+            return put(key);
+        }
+
+        int fieldRef(String owner, String name, String descriptor) throws IOException {
+            return memberRef(9, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor, boolean isInterface) throws IOException {
+            return memberRef(isInterface ? 11 : 10, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) throws IOException {
+            String key = tag + " " + owner + "." + name + descriptor;
+            Integer index = indexes.get(key);
+            if (index != null) { return index; }
+            int ownerClass = classRef(owner);
+            int nameAndType = nameAndType(name, descriptor);
+            out.writeByte(tag);
+            out.writeShort(ownerClass);
+            out.writeShort(nameAndType);
+            return put(key);
+        }
+
+        private int nameAndType(String name, String descriptor) throws IOException {
+            String key = "NameAndType " + name + descriptor;
+            Integer index = indexes.get(key);
+            if (index != null) { return index; }
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            out.writeByte(12);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            return put(key);
+        }
+
+        private int put(String key) {
+            int index = count++;
+            indexes.put(key, index);
+            return index;
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            out.flush();
+            target.writeShort(count);
+            bytes.writeTo(target);
+        }
+    }
+
+    /**
+     * 定义增强子类的类加载器，父加载器为配置类的类加载器
+     */
+    private static final class EnhancedClassLoader extends ClassLoader {
+        EnhancedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytes, ProtectionDomain protectionDomain) {
+            return defineClass(name, bytes, 0, bytes.length, protectionDomain);
+        }
+    }
+}
@@ -3,27 +3,136 @@ package com.whi5p3r.spring.beans.support;
 import com.whi5p3r.spring.beans.config.BeanDefinition;
 import com.whi5p3r.spring.core.BeanFactory;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * @description: TODO
+ * @description: BeanDefinition注册表。注册阶段使用可变的Map，freezeConfiguration()之后冻结为
+ *               按beanId索引的FrozenBeanRegistry，此后不再接受注册，查找只经过一次哈希探测。
  * @author: whi5p3r
  * @date: 2023年04月12日 17:23
  */
 public class DefaultListableBeanFactory implements BeanFactory {
-    public final Map<String, BeanDefinition> beanDefinitionMap = new HashMap<>();
+    private Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+
+    /**
+     * 别名 -> beanName，如接口名 -> 实现类的beanName
+     */
+    private Map<String, String> aliasMap = new LinkedHashMap<>();
+
+    private volatile FrozenBeanRegistry frozenRegistry;
 
     public void registerBeanDefinition(List<BeanDefinition> beanDefinitionList){
         for(BeanDefinition beanDefinition: beanDefinitionList){
-            String beanName = beanDefinition.getBeanName();
-            if(this.beanDefinitionMap.containsKey(beanName)){
-                throw new RuntimeException(beanName  + " is already exists!");
-            }
-            this.beanDefinitionMap.put(beanName, beanDefinition);
+            registerBeanDefinition(beanDefinition);
+        }
+    }
+
+    public void registerBeanDefinition(BeanDefinition beanDefinition){
+        assertNotFrozen();
+        String beanName = beanDefinition.getBeanName();
+        if(this.beanDefinitionMap.containsKey(beanName)){
+            throw new RuntimeException(beanName  + " is already exists!");
+        }
+        this.beanDefinitionMap.put(beanName, beanDefinition);
+    }
+
+    /**
+     * 注册别名，别名与已有的beanName相同时以beanName为准
+     * @param alias 别名
+     * @param beanName 目标beanName
+     */
+    public void registerAlias(String alias, String beanName){
+        assertNotFrozen();
+        this.aliasMap.put(alias, beanName);
+    }
+
+    public void registerAliases(Map<String, String> aliases){
+        for(Map.Entry<String, String> alias: aliases.entrySet()){
+            registerAlias(alias.getKey(), alias.getValue());
+        }
+    }
+
+    /**
+     * 冻结注册表：生成按beanId索引的只读结构，并释放注册阶段使用的Map
+     * @return 冻结后的注册表
+     */
+    public FrozenBeanRegistry freezeConfiguration(){
+        assertNotFrozen();
+        FrozenBeanRegistry frozen = new FrozenBeanRegistry(beanDefinitionMap, aliasMap);
+        this.beanDefinitionMap = null;
+        this.aliasMap = null;
+        this.frozenRegistry = frozen;
+        return frozen;
+    }
+
+    /**
+     * 冻结之后，替换为增量重新加载派生出的注册表（见FrozenBeanRegistry.toBuilder()）
+     * @param frozen 新的注册表
+     */
+    public void replaceFrozenRegistry(FrozenBeanRegistry frozen){
+        if(this.frozenRegistry == null){
+            throw new IllegalStateException("Bean registry is not frozen yet.");
+        }
+        this.frozenRegistry = frozen;
+    }
+
+    public boolean isConfigurationFrozen(){
+        return this.frozenRegistry != null;
+    }
+
+    public FrozenBeanRegistry getFrozenRegistry(){
+        return this.frozenRegistry;
+    }
+
+    private void assertNotFrozen(){
+        if(this.frozenRegistry != null){
+            throw new IllegalStateException("Bean registry is frozen, no more bean definitions can be registered.");
+        }
+    }
+
+    /**
+     * 根据beanName或别名查找beanId
+     * @param beanName beanName或别名
+     * @return beanId，不存在或尚未冻结时返回-1
+     */
+    public int getBeanId(String beanName){
+        FrozenBeanRegistry frozen = this.frozenRegistry;
+        return frozen == null ? -1 : frozen.getBeanId(beanName);
+    }
+
+    public boolean containsBeanDefinition(String beanName){
+        FrozenBeanRegistry frozen = this.frozenRegistry;
+        if(frozen != null){
+            return frozen.getBeanId(beanName) >= 0;
         }
+        return this.beanDefinitionMap.containsKey(beanName) || this.aliasMap.containsKey(beanName);
     }
+
+    public BeanDefinition getBeanDefinition(String beanName){
+        FrozenBeanRegistry frozen = this.frozenRegistry;
+        if(frozen != null){
+            int beanId = frozen.getBeanId(beanName);
+            return beanId < 0 ? null : frozen.getBeanDefinition(beanId);
+        }
+        BeanDefinition beanDefinition = this.beanDefinitionMap.get(beanName);
+        if(beanDefinition == null && this.aliasMap.containsKey(beanName)){
+            beanDefinition = this.beanDefinitionMap.get(this.aliasMap.get(beanName));
+        }
+        return beanDefinition;
+    }
+
+    public int getBeanDefinitionCount(){
+        FrozenBeanRegistry frozen = this.frozenRegistry;
+        return frozen == null ? this.beanDefinitionMap.size() : frozen.count();
+    }
+
+    public String[] getBeanDefinitionNames(){
+        FrozenBeanRegistry frozen = this.frozenRegistry;
+        return frozen == null ? this.beanDefinitionMap.keySet().toArray(new String[0]) : frozen.getBeanNames();
+    }
+
     @Override
     public Object getBean(String beanName) {
         return null;
@@ -0,0 +1,10 @@
+package com.whi5p3r.spring.beans.support;
+
+/**
+ * @description: ConfigurationClassEnhancer生成的配置类子类实现的接口，容器实例化配置类之后通过它设置拦截器
+ * @author: whi5p3r
+ * @date: 2026年10月19日 23:30
+ */
+public interface EnhancedConfiguration {
+    void setBeanMethodInterceptor(BeanMethodInterceptor interceptor);
+}
@@ -0,0 +1,402 @@
+package com.whi5p3r.spring.beans.support;
+
+import com.whi5p3r.spring.beans.config.BeanDefinition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @description: 冻结后的Bean注册表。每个BeanDefinition分配一个从0开始的连续整数ID（beanId），
+ *               beanName和别名通过一张开放寻址的哈希表映射到beanId（通常一次探测即可命中），
+ *               BeanDefinition和单例对象都按beanId存放在数组中。除单例数组外，结构创建后不再改变；
+ *               增量重新加载时通过toBuilder()派生新的注册表，已有Bean的beanId保持不变，删除的Bean留下空位。
+ * @author: whi5p3r
+ * @date: 2026年10月19日 17:40
+ */
+public final class FrozenBeanRegistry {
+    /**
+     * 按beanId存放的beanName，被删除的Bean为null
+     */
+    private final String[] beanNames;
+    private final BeanDefinition[] beanDefinitions;
+    /**
+     * 单例对象，按beanId存放。懒加载的单例和增量重新加载的单例在容器对外发布之后才写入，
+     * 由其他线程读取，读写都通过volatile语义的AtomicReferenceArray，保证读到的单例已完成注入和初始化
+     */
+    private final AtomicReferenceArray<Object> singletonObjects;
+    private final int count;
+
+    /**
+     * 开放寻址哈希表：槽位存放 (beanId + 1)，0表示空槽；keys与槽位一一对应，存放beanName或别名。
+     * 别名的槽位直接存放目标Bean的beanId，keys[i]与beanNames[table[i] - 1]不同的即为别名
+     */
+    private final int[] table;
+    private final String[] keys;
+    private final int mask;
+    /**
+     * 哈希表中的键数（beanName和别名）
+     */
+    private final int entries;
+
+    FrozenBeanRegistry(Map<String, BeanDefinition> beanDefinitionMap, Map<String, String> aliasMap) {
+        this.beanNames = beanDefinitionMap.keySet().toArray(new String[0]);
+        this.beanDefinitions = beanDefinitionMap.values().toArray(new BeanDefinition[0]);
+        this.singletonObjects = new AtomicReferenceArray<>(beanDefinitionMap.size());
+        this.count = beanNames.length;
+
+        int capacity = capacityFor(count + aliasMap.size());
+        this.table = new int[capacity];
+        this.keys = new String[capacity];
+        this.mask = capacity - 1;
+
+        int entries = 0;
+        for (int id = 0; id < beanNames.length; ++id) {
+            put(table, keys, mask, beanNames[id], id);
+            ++entries;
+        }
+        for (Map.Entry<String, String> alias : aliasMap.entrySet()) {
+            int target = getBeanId(alias.getValue());
+            if (target >= 0 && getBeanId(alias.getKey()) < 0) {
+                put(table, keys, mask, alias.getKey(), target);
+                ++entries;
+            }
+        }
+        this.entries = entries;
+    }
+
+    private FrozenBeanRegistry(String[] beanNames, BeanDefinition[] beanDefinitions, Object[] singletonObjects,
+                               int count, int[] table, String[] keys, int entries) {
+        this.beanNames = beanNames;
+        this.beanDefinitions = beanDefinitions;
+        this.singletonObjects = new AtomicReferenceArray<>(singletonObjects);
+        this.count = count;
+        this.table = table;
+        this.keys = keys;
+        this.mask = table.length - 1;
+        this.entries = entries;
+    }
+
+    /**
+     * 负载因子不超过1/2的最小2的幂
+     */
+    private static int capacityFor(int entries) {
+        return Integer.highestOneBit(Math.max(4, entries * 2 - 1)) << 1;
+    }
+
+    private static void put(int[] table, String[] keys, int mask, String key, int id) {
+        int index = spread(key.hashCode()) & mask;
+        while (table[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        table[index] = id + 1;
+        keys[index] = key;
+    }
+
+    /**
+     * 删除键，并把同一探测序列上后面的键前移填补空槽（线性探测的后移删除，不需要墓碑）
+     * @return 是否删除了键
+     */
+    private static boolean delete(int[] table, String[] keys, int mask, String key) {
+        int index = spread(key.hashCode()) & mask;
+        while (table[index] != 0 && !keys[index].equals(key)) {
+            index = (index + 1) & mask;
+        }
+        if (table[index] == 0) {
+            return false;
+        }
+        table[index] = 0;
+        keys[index] = null;
+        int next = (index + 1) & mask;
+        while (table[next] != 0) {
+            int home = spread(keys[next].hashCode()) & mask;
+            // next上的键的探测序列经过空槽index时，前移到index
+            if (((next - home) & mask) >= ((next - index) & mask)) {
+                table[index] = table[next];
+                keys[index] = keys[next];
+                table[next] = 0;
+                keys[next] = null;
+                index = next;
+            }
+            next = (next + 1) & mask;
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * 根据beanName或别名查找beanId
+     * @param name beanName或别名
+     * @return beanId，不存在时返回-1
+     */
+    public int getBeanId(String name) {
+        int index = spread(name.hashCode()) & mask;
+        int slot;
+        while ((slot = table[index]) != 0) {
+            String key = keys[index];
+            if (key == name || key.equals(name)) {
+                return slot - 1;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * beanId的上限（不含），包括被删除的Bean留下的空位，遍历时需跳过getBeanDefinition为null的beanId
+     */
+    public int size() {
+        return beanNames.length;
+    }
+
+    /**
+     * 有效的BeanDefinition数量
+     */
+    public int count() {
+        return count;
+    }
+
+    public String getBeanName(int beanId) {
+        return beanNames[beanId];
+    }
+
+    public BeanDefinition getBeanDefinition(int beanId) {
+        return beanDefinitions[beanId];
+    }
+
+    public Object getSingleton(int beanId) {
+        return singletonObjects.get(beanId);
+    }
+
+    public void setSingleton(int beanId, Object singleton) {
+        singletonObjects.set(beanId, singleton);
+    }
+
+    /**
+     * 返回所有beanName（按beanId顺序，不含被删除的Bean）
+     */
+    public String[] getBeanNames() {
+        if (count == beanNames.length) {
+            return beanNames.clone();
+        }
+        String[] names = new String[count];
+        int index = 0;
+        for (String beanName : beanNames) {
+            if (beanName != null) { names[index++] = beanName; }
+        }
+        return names;
+    }
+
+    /**
+     * 以当前注册表为基础派生新的注册表：复制按beanId索引的数组，单例对象保留（Builder只在重新加载的线程中使用，单例暂存在普通数组中）
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * 增量修改注册表：替换、删除、新增BeanDefinition，清除单例，修改别名。已有Bean的beanId保持不变。
+     * build()时在复制的哈希表上只删除、插入变化的键，耗时与变化的规模成正比
+     */
+    public static final class Builder {
+        private final FrozenBeanRegistry previous;
+        private String[] beanNames;
+        private BeanDefinition[] beanDefinitions;
+        private Object[] singletonObjects;
+        private int size;
+        private int count;
+        /**
+         * 本次修改涉及的beanName -> beanId，-1表示该名字已被删除
+         */
+        private final Map<String, Integer> changedNames = new LinkedHashMap<>();
+        /**
+         * 本次修改涉及的别名 -> 目标beanId，-1表示该别名已被删除
+         */
+        private final Map<String, Integer> changedAliases = new LinkedHashMap<>();
+
+        private Builder(FrozenBeanRegistry previous) {
+            this.previous = previous;
+            this.beanNames = previous.beanNames.clone();
+            this.beanDefinitions = previous.beanDefinitions.clone();
+            this.singletonObjects = new Object[beanNames.length];
+            for (int beanId = 0; beanId < singletonObjects.length; ++beanId) {
+                singletonObjects[beanId] = previous.singletonObjects.get(beanId);
+            }
+            this.size = beanNames.length;
+            this.count = previous.count;
+        }
+
+        /**
+         * 根据beanName（不含别名）查找beanId
+         */
+        public int getBeanId(String beanName) {
+            Integer changed = changedNames.get(beanName);
+            if (changed != null) {
+                return changed;
+            }
+            int beanId = previous.getBeanId(beanName);
+            return beanId >= 0 && beanName.equals(previous.beanNames[beanId]) ? beanId : -1;
+        }
+
+        /**
+         * 根据别名查找目标beanId
+         */
+        private int getAliasTarget(String alias) {
+            Integer changed = changedAliases.get(alias);
+            if (changed != null) {
+                return changed;
+            }
+            int beanId = previous.getBeanId(alias);
+            return beanId >= 0 && !alias.equals(previous.beanNames[beanId]) ? beanId : -1;
+        }
+
+        /**
+         * 替换beanId的BeanDefinition（beanName可以改变），并清除其单例
+         */
+        public void replace(int beanId, BeanDefinition beanDefinition) {
+            String beanName = beanDefinition.getBeanName();
+            int existing = getBeanId(beanName);
+            if (existing >= 0 && existing != beanId) {
+                throw new RuntimeException(beanName + " is already exists!");
+            }
+            changedNames.put(beanNames[beanId], -1);
+            changedNames.put(beanName, beanId);
+            beanNames[beanId] = beanName;
+            beanDefinitions[beanId] = beanDefinition;
+            singletonObjects[beanId] = null;
+        }
+
+        /**
+         * 删除beanId的BeanDefinition，beanId留下空位不再复用
+         */
+        public void remove(int beanId) {
+            changedNames.put(beanNames[beanId], -1);
+            beanNames[beanId] = null;
+            beanDefinitions[beanId] = null;
+            singletonObjects[beanId] = null;
+            --count;
+        }
+
+        /**
+         * 新增BeanDefinition
+         * @return 分配的beanId
+         */
+        public int add(BeanDefinition beanDefinition) {
+            String beanName = beanDefinition.getBeanName();
+            if (getBeanId(beanName) >= 0) {
+                throw new RuntimeException(beanName + " is already exists!");
+            }
+            if (size == beanNames.length) {
+                int capacity = Math.max(4, size + (size >> 1));
+                beanNames = Arrays.copyOf(beanNames, capacity);
+                beanDefinitions = Arrays.copyOf(beanDefinitions, capacity);
+                singletonObjects = Arrays.copyOf(singletonObjects, capacity);
+            }
+            int beanId = size++;
+            beanNames[beanId] = beanName;
+            beanDefinitions[beanId] = beanDefinition;
+            changedNames.put(beanName, beanId);
+            ++count;
+            return beanId;
+        }
+
+        /**
+         * 清除单例，下次getBean时重新创建
+         */
+        public void clearSingleton(int beanId) {
+            singletonObjects[beanId] = null;
+        }
+
+        /**
+         * 删除aliases中指向beanId的别名
+         * @param beanId Bean
+         * @param aliases 候选别名，如Bean原来的类实现的接口对应的别名
+         */
+        public void removeAliases(int beanId, Collection<String> aliases) {
+            for (String alias : aliases) {
+                if (getAliasTarget(alias) == beanId) {
+                    changedAliases.put(alias, -1);
+                }
+            }
+        }
+
+        /**
+         * 注册别名；别名已指向其他Bean时无法确定，删除该别名。与beanName同名的别名和构造时一样被忽略，
+         * 否则build()删除变化的键时会把该beanName一起删除
+         */
+        public void registerAlias(String alias, String beanName) {
+            if (getBeanId(alias) >= 0) {
+                return;
+            }
+            int target = getBeanId(beanName);
+            int existing = getAliasTarget(alias);
+            changedAliases.put(alias, existing >= 0 && existing != target ? -1 : target);
+        }
+
+        /**
+         * 返回本次修改涉及的名字（beanName和别名），按这些名字解析的依赖可能发生变化
+         */
+        public Set<String> getChangedNames() {
+            Set<String> names = new LinkedHashSet<>(changedNames.keySet());
+            names.addAll(changedAliases.keySet());
+            return names;
+        }
+
+        public FrozenBeanRegistry build() {
+            int[] table = previous.table.clone();
+            String[] keys = previous.keys.clone();
+            int mask = previous.mask;
+            int entries = previous.entries;
+            for (String name : getChangedNames()) {
+                if (delete(table, keys, mask, name)) {
+                    --entries;
+                }
+            }
+
+            // 只插入变化的键；键数超过容量的一半时才整表重建
+            List<String> newKeys = new ArrayList<>();
+            List<Integer> newIds = new ArrayList<>();
+            for (Map.Entry<String, Integer> name : changedNames.entrySet()) {
+                if (name.getValue() >= 0) {
+                    newKeys.add(name.getKey());
+                    newIds.add(name.getValue());
+                }
+            }
+            for (Map.Entry<String, Integer> alias : changedAliases.entrySet()) {
+                int target = alias.getValue();
+                if (target >= 0 && beanNames[target] != null && getBeanId(alias.getKey()) < 0) {
+                    newKeys.add(alias.getKey());
+                    newIds.add(target);
+                }
+            }
+            if ((entries + newKeys.size()) * 2 > table.length) {
+                int capacity = capacityFor(entries + newKeys.size());
+                int[] grownTable = new int[capacity];
+                String[] grownKeys = new String[capacity];
+                for (int i = 0; i < table.length; ++i) {
+                    if (table[i] != 0) {
+                        put(grownTable, grownKeys, capacity - 1, keys[i], table[i] - 1);
+                    }
+                }
+                table = grownTable;
+                keys = grownKeys;
+                mask = capacity - 1;
+            }
+            for (int i = 0; i < newKeys.size(); ++i) {
+                put(table, keys, mask, newKeys.get(i), newIds.get(i));
+                ++entries;
+            }
+            return new FrozenBeanRegistry(Arrays.copyOf(beanNames, size), Arrays.copyOf(beanDefinitions, size),
+                    Arrays.copyOf(singletonObjects, size), count, table, keys, entries);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.whi5p3r.spring.beans.support;
+
+import com.whi5p3r.spring.annotations.Autowired;
+import com.whi5p3r.spring.beans.config.ScopeType;
+import com.whi5p3r.spring.core.ObjectProvider;
+import com.whi5p3r.spring.utils.StringUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @description: 某个BeanDefinition的依赖注入计划：实例化使用的构造器及其各形参依赖的beanId，需要注入的字段及其依赖的beanId，
+ *               在第一次创建该Bean时解析一次，之后每次创建只按beanId取Bean，不再反射扫描注解，也不再按名字查找。
+ *               构造器通过MethodHandle调用，形参依赖的Bean在构造器执行之前取得，因此可以赋值给final字段。
+ *               类型为ObjectProvider<T>的字段或形参按T解析，注入绑定到该beanId的ObjectProvider，而不是Bean本身。
+ *               配置类上的@Bean方法创建的Bean以该方法代替构造器，实例方法所在的配置类Bean同样解析为beanId，不注入字段。
+ * @author: whi5p3r
+ * @date: 2026年10月19日 17:40
+ */
+public final class InjectionPlan {
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    private static final Field[] NO_FIELDS = new Field[0];
+
+    private final Class<?> beanClass;
+    /**
+     * 构造器或@Bean方法
+     */
+    private final Executable executable;
+    /**
+     * 构造器或@Bean方法的调用器，类型为 (Object, Object[])Object，第一个参数为配置类Bean（构造器和静态@Bean方法忽略）
+     */
+    private final MethodHandle invoker;
+    /**
+     * 实例@Bean方法所在的配置类Bean，其他为null、-1
+     */
+    private final String factoryBeanName;
+    private final int factoryBeanId;
+    private final Class<?>[] argumentTypes;
+    private final String[] argumentNames;
+    private final int[] argumentIds;
+    private final boolean[] argumentRequired;
+    /**
+     * ObjectProvider<T>形参的T，其他形参为null
+     */
+    private final Class<?>[] argumentProvidedTypes;
+
+    private final Field[] fields;
+    private final String[] dependencyNames;
+    private final int[] dependencyIds;
+    private final boolean[] required;
+    /**
+     * ObjectProvider<T>字段的T，其他字段为null
+     */
+    private final Class<?>[] providedTypes;
+
+    private InjectionPlan(Class<?> beanClass, Executable executable, MethodHandle invoker, String factoryBeanName, int factoryBeanId,
+                          FrozenBeanRegistry registry, Field[] fields) {
+        this.beanClass = beanClass;
+        this.executable = executable;
+        this.invoker = invoker;
+        this.factoryBeanName = factoryBeanName;
+        this.factoryBeanId = factoryBeanId;
+
+        // 形参按形参类型的简单类名（首字母小写）注入，形参上的@Autowired指定了value时按value注入
+        Parameter[] parameters = executable.getParameters();
+        int argumentCount = parameters.length;
+        this.argumentTypes = executable.getParameterTypes();
+        this.argumentNames = new String[argumentCount];
+        this.argumentIds = new int[argumentCount];
+        this.argumentRequired = new boolean[argumentCount];
+        this.argumentProvidedTypes = new Class<?>[argumentCount];
+        for (int i = 0; i < argumentCount; ++i) {
+            Autowired autowired = parameters[i].getAnnotation(Autowired.class);
+            argumentProvidedTypes[i] = providedType(argumentTypes[i], parameters[i].getParameterizedType(), describeArgument(executable, i));
+            argumentNames[i] = dependencyName(argumentProvidedTypes[i] != null ? argumentProvidedTypes[i] : argumentTypes[i], autowired);
+            argumentIds[i] = registry.getBeanId(argumentNames[i]);
+            argumentRequired[i] = autowired == null || autowired.required();
+            if (argumentIds[i] >= 0 && argumentProvidedTypes[i] == null) {
+                checkInjectable(registry, argumentIds[i], argumentNames[i], argumentTypes[i], describeArgument(executable, i));
+            }
+        }
+
+        int count = fields.length;
+        this.fields = fields;
+        this.dependencyNames = new String[count];
+        this.dependencyIds = new int[count];
+        this.required = new boolean[count];
+        this.providedTypes = new Class<?>[count];
+        for (int i = 0; i < count; ++i) {
+            Field field = fields[i];
+            Autowired autowired = field.getAnnotation(Autowired.class);
+            // 默认按字段类型（ObjectProvider<T>为T）的简单类名（首字母小写）注入，指定了value时按value注入
+            providedTypes[i] = providedType(field.getType(), field.getGenericType(), describeField(field));
+            String dependency = dependencyName(providedTypes[i] != null ? providedTypes[i] : field.getType(), autowired);
+            field.setAccessible(true);
+            dependencyNames[i] = dependency;
+            dependencyIds[i] = registry.getBeanId(dependency);
+            if (dependencyIds[i] >= 0 && providedTypes[i] == null) {
+                checkInjectable(registry, dependencyIds[i], dependency, field.getType(), describeField(field));
+            }
+            required[i] = autowired.required();
+        }
+    }
+
+    /**
+     * 解析beanClass的构造器和所有@Autowired字段的依赖
+     * @param beanClass bean的类型
+     * @param registry 冻结后的注册表
+     * @return 注入计划
+     */
+    public static InjectionPlan resolve(Class<?> beanClass, FrozenBeanRegistry registry) {
+        Constructor<?> constructor = selectConstructor(beanClass);
+        // 增强后的配置类自身没有@Autowired字段，字段声明在配置类中
+        Class<?> fieldsClass = ConfigurationClassEnhancer.isEnhanced(beanClass) ? beanClass.getSuperclass() : beanClass;
+        List<Field> fields = new ArrayList<>();
+        for (Field field : fieldsClass.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Autowired.class)) {
+                fields.add(field);
+            }
+        }
+        return new InjectionPlan(beanClass, constructor, invoker(constructor), null, -1, registry, fields.toArray(NO_FIELDS));
+    }
+
+    /**
+     * 解析@Bean方法各形参的依赖。实例方法通过增强后的配置类上的访问器执行原方法体，配置类Bean同样解析为beanId
+     * @param factoryMethod 配置类上的@Bean方法
+     * @param factoryBeanName 配置类Bean的beanName，静态方法为null
+     * @param registry 冻结后的注册表
+     * @return 注入计划
+     */
+    public static InjectionPlan resolveFactoryMethod(Method factoryMethod, String factoryBeanName, FrozenBeanRegistry registry) {
+        int factoryBeanId = -1;
+        MethodHandle invoker;
+        try {
+            if (factoryBeanName == null) {
+                factoryMethod.setAccessible(true);
+                invoker = MethodHandles.dropArguments(MethodHandles.lookup().unreflect(factoryMethod)
+                        .asSpreader(Object[].class, factoryMethod.getParameterCount())
+                        .asType(MethodType.methodType(Object.class, Object[].class)), 0, Object.class);
+            } else {
+                factoryBeanId = registry.getBeanId(factoryBeanName);
+                if (factoryBeanId < 0) {
+                    throw new IllegalStateException("Configuration bean " + factoryBeanName + " of @Bean method "
+                            + factoryMethod.getDeclaringClass().getName() + "." + factoryMethod.getName() + " is not exist.");
+                }
+                Method accessor = ConfigurationClassEnhancer.getSuperAccessor(
+                        registry.getBeanDefinition(factoryBeanId).getBeanClass(), factoryMethod);
+                invoker = MethodHandles.lookup().unreflect(accessor)
+                        .asSpreader(Object[].class, accessor.getParameterCount())
+                        .asType(INVOKER_TYPE);
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        return new InjectionPlan(factoryMethod.getReturnType(), factoryMethod, invoker, factoryBeanName, factoryBeanId,
+                registry, NO_FIELDS);
+    }
+
+    /**
+     * 选择实例化使用的构造器：标注了@Autowired的构造器；没有时，唯一的构造器；否则为无参构造器
+     */
+    private static Constructor<?> selectConstructor(Class<?> beanClass) {
+        Constructor<?>[] constructors = beanClass.getDeclaredConstructors();
+        Constructor<?> selected = null;
+        for (Constructor<?> constructor : constructors) {
+            if (!constructor.isAnnotationPresent(Autowired.class)) { continue; }
+            if (selected != null) {
+                throw new IllegalStateException(beanClass.getName() + " has more than one @Autowired constructor.");
+            }
+            selected = constructor;
+        }
+        if (selected == null && constructors.length == 1) {
+            selected = constructors[0];
+        }
+        if (selected == null) {
+            try {
+                selected = beanClass.getDeclaredConstructor();
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(beanClass.getName()
+                        + " has several constructors but no default one, mark the one to use with @Autowired.");
+            }
+        }
+        return selected;
+    }
+
+    private static MethodHandle invoker(Constructor<?> constructor) {
+        try {
+            constructor.setAccessible(true);
+            return MethodHandles.dropArguments(MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class)), 0, Object.class);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return ObjectProvider<T>的T，不是ObjectProvider时返回null
+     */
+    private static Class<?> providedType(Class<?> type, Type genericType, String target) {
+        if (type != ObjectProvider.class) {
+            return null;
+        }
+        if (genericType instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+            if (argument instanceof Class) {
+                return (Class<?>) argument;
+            }
+            if (argument instanceof ParameterizedType) {
+                return (Class<?>) ((ParameterizedType) argument).getRawType();
+            }
+        }
+        throw new IllegalStateException(target + " must declare the provided bean type, e.g. ObjectProvider<FooService>.");
+    }
+
+    private static String dependencyName(Class<?> type, Autowired autowired) {
+        if (autowired != null && !"".equals(autowired.value())) {
+            return autowired.value().trim();
+        }
+        return StringUtil.toLowerFirstCase(type.getSimpleName());
+    }
+
+    private static String describeArgument(Executable executable, int index) {
+        if (executable instanceof Method) {
+            return executable.getDeclaringClass().getName() + "." + executable.getName() + "() parameter #" + index;
+        }
+        return executable.getDeclaringClass().getName() + " constructor parameter #" + index;
+    }
+
+    private static String describeField(Field field) {
+        return field.getDeclaringClass().getName() + "." + field.getName();
+    }
+
+    /**
+     * 构造器（或@Bean方法）第index个形参的描述，用于异常信息
+     */
+    public String describeArgument(int index) {
+        return describeArgument(executable, index);
+    }
+
+    /**
+     * 第index个注入字段的描述，用于异常信息
+     */
+    public String describeField(int index) {
+        return describeField(fields[index]);
+    }
+
+    /**
+     * 校验beanId能否注入到target中
+     * @param registry 依赖所在的注册表
+     * @param beanId 依赖的beanId
+     * @param dependencyName 依赖的名字
+     * @param type 字段或形参的类型
+     * @param target 注入目标的描述，用于异常信息
+     */
+    public static void checkInjectable(FrozenBeanRegistry registry, int beanId, String dependencyName, Class<?> type, String target) {
+        ScopeType scope = registry.getBeanDefinition(beanId).getScope();
+        // 池化的Bean必须借出后归还，注入到字段中会被长期占用，不允许注入
+        if (scope == ScopeType.POOLED) {
+            throw new IllegalStateException("Pooled bean " + dependencyName + " cannot be injected into "
+                    + target + ", borrow it with getBean and return it with releaseBean.");
+        }
+        // 请求/线程作用域的Bean通过JDK动态代理注入，字段类型必须是接口
+        if (scope.isScopedProxyRequired() && !type.isInterface()) {
+            throw new IllegalStateException(scope + " scoped bean " + dependencyName
+                    + " can only be injected into an interface-typed field, " + target
+                    + " is declared as " + type.getName() + ".");
+        }
+    }
+
+    /**
+     * 通过构造器或@Bean方法创建实例
+     * @param factory 实例@Bean方法所在的配置类Bean，构造器和静态@Bean方法为null
+     * @param arguments 构造器或@Bean方法的实参，与getArgumentCount()等长
+     * @return 实例
+     */
+    public Object newInstance(Object factory, Object[] arguments) {
+        try {
+            return (Object) invoker.invokeExact(factory, arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 返回存放构造器实参的数组，无参构造器返回共享的空数组
+     */
+    public Object[] newArguments() {
+        return argumentNames.length == 0 ? NO_ARGUMENTS : new Object[argumentNames.length];
+    }
+
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * 实例@Bean方法所在的配置类Bean的beanName，其他为null
+     */
+    public String getFactoryBeanName() {
+        return factoryBeanName;
+    }
+
+    /**
+     * 实例@Bean方法所在的配置类Bean的beanId，其他为-1
+     */
+    public int getFactoryBeanId() {
+        return factoryBeanId;
+    }
+
+    public int getArgumentCount() {
+        return argumentNames.length;
+    }
+
+    public Class<?> getArgumentType(int index) {
+        return argumentTypes[index];
+    }
+
+    public String getArgumentName(int index) {
+        return argumentNames[index];
+    }
+
+    /**
+     * 构造器形参依赖的beanId，依赖不存在时为-1
+     */
+    public int getArgumentId(int index) {
+        return argumentIds[index];
+    }
+
+    public boolean isArgumentRequired(int index) {
+        return argumentRequired[index];
+    }
+
+    /**
+     * 构造器形参为ObjectProvider<T>时返回T，否则返回null
+     */
+    public Class<?> getArgumentProvidedType(int index) {
+        return argumentProvidedTypes[index];
+    }
+
+    public int size() {
+        return fields.length;
+    }
+
+    public Field getField(int index) {
+        return fields[index];
+    }
+
+    public String getDependencyName(int index) {
+        return dependencyNames[index];
+    }
+
+    /**
+     * 依赖的beanId，依赖不存在时为-1
+     */
+    public int getDependencyId(int index) {
+        return dependencyIds[index];
+    }
+
+    public boolean isRequired(int index) {
+        return required[index];
+    }
+
+    /**
+     * 字段为ObjectProvider<T>时返回T，否则返回null
+     */
+    public Class<?> getProvidedType(int index) {
+        return providedTypes[index];
+    }
+}
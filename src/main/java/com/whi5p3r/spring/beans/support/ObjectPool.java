@@ -0,0 +1,340 @@
+package com.whi5p3r.spring.beans.support;
+
+import com.whi5p3r.spring.beans.config.PooledBean;
+import com.whi5p3r.spring.metrics.PoolMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * @description: 有界的对象池。空闲实例优先放在按线程ID选择的槽位中（同一线程借还通常落在同一个槽位，只有一次CAS），
+ *               槽位被占用时放入共享的无锁队列。实例总数不超过maxSize，池耗尽时借出方最多等待maxWaitNanos。
+ *               关闭后取出所有空闲实例交给调用方销毁，此后归还的实例不再入池，直接交给destroyer。
+ *               借出中的实例登记在按identityHashCode开放寻址的表中，重复归还或归还不是从本池借出的实例时抛出IllegalStateException
+ * @author: whi5p3r
+ * @date: 2026年10月19日 18:50
+ */
+public final class ObjectPool<T> {
+    /**
+     * 池耗尽时每次重试之间的休眠时间
+     */
+    private static final long WAIT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    /**
+     * 借出表中已归还的槽位，插入时可以复用，查找时跳过
+     */
+    private static final Object RETURNED = new Object();
+
+    private final String name;
+    private final Supplier<T> factory;
+    private final int maxSize;
+    private final long maxWaitNanos;
+    private final PoolMetrics metrics;
+    private final Consumer<? super T> destroyer;
+    private volatile boolean closed;
+
+    private final AtomicReferenceArray<T> slots;
+    private final int slotMask;
+    private final ConcurrentLinkedQueue<T> idle = new ConcurrentLinkedQueue<>();
+    /**
+     * 借出中的实例，线性探测。槽位数不小于maxSize的两倍，借出中的实例不超过maxSize，插入总能找到空位；
+     * 槽位只会从空变为实例、实例变为RETURNED、RETURNED变为实例，不会重新变空，查找遇到空槽即可停止
+     */
+    private final AtomicReferenceArray<Object> borrowed;
+    private final int borrowedMask;
+    /**
+     * 已创建且未被丢弃的实例数（空闲 + 借出）
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * @param name 池的名字（beanName），用于异常信息
+     * @param factory 创建新实例
+     * @param maxSize 最多同时存在的实例数
+     * @param maxWaitNanos 池耗尽时的最长等待时间
+     * @param metrics 该池的指标
+     * @param destroyer 销毁池关闭后归还的实例
+     */
+    public ObjectPool(String name, Supplier<T> factory, int maxSize, long maxWaitNanos, PoolMetrics metrics,
+                      Consumer<? super T> destroyer) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize of pool " + name + " must be positive: " + maxSize);
+        }
+        this.name = name;
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.maxWaitNanos = Math.max(0, maxWaitNanos);
+        this.metrics = metrics;
+        this.destroyer = destroyer;
+
+        // 槽位数为不小于min(maxSize, CPU核数)的2的幂
+        int slotCount = Integer.highestOneBit(Math.max(1, Math.min(maxSize, Runtime.getRuntime().availableProcessors()) * 2 - 1));
+        this.slots = new AtomicReferenceArray<>(slotCount);
+        this.slotMask = slotCount - 1;
+        int borrowedCount = Integer.highestOneBit(Math.max(2, maxSize) * 2 - 1) << 1;
+        this.borrowed = new AtomicReferenceArray<>(borrowedCount);
+        this.borrowedMask = borrowedCount - 1;
+    }
+
+    /**
+     * 借出一个实例：先取本线程的槽位，再取共享队列，都没有时新建；实例数已达上限时等待其他线程归还
+     * @return 借出的实例
+     * @throws PoolExhaustedException 等待超时
+     * @throws IllegalStateException 池已关闭
+     */
+    public T borrow() {
+        if (closed) {
+            throw new IllegalStateException("Pool of bean " + name + " has been closed.");
+        }
+        T instance = pollIdle();
+        if (instance != null) {
+            metrics.onHit();
+        } else {
+            instance = tryCreate();
+            if (instance == null) {
+                instance = awaitIdle();
+            }
+        }
+        markBorrowed(instance);
+        return instance;
+    }
+
+    /**
+     * 归还一个实例。实现了PooledBean时先重置，重置失败的实例被丢弃，腾出的容量可以新建实例；池已关闭时销毁实例
+     * @param instance borrow借出的实例，不能重复归还
+     * @throws IllegalStateException 实例不是从本池借出的，或者已经归还过
+     */
+    public void release(T instance) {
+        if (!releaseIfBorrowed(instance)) {
+            throw notBorrowed(instance);
+        }
+    }
+
+    /**
+     * 实例是从本池借出、尚未归还的实例时归还，否则不做任何事
+     * @return 是否归还了实例
+     */
+    public boolean releaseIfBorrowed(T instance) {
+        if (!unmarkBorrowed(instance)) {
+            return false;
+        }
+        if (closed) {
+            size.decrementAndGet();
+            metrics.onReturn();
+            destroyer.accept(instance);
+            return true;
+        }
+        if (instance instanceof PooledBean) {
+            try {
+                ((PooledBean) instance).reset();
+            } catch (RuntimeException e) {
+                size.decrementAndGet();
+                metrics.onDiscard();
+                return true;
+            }
+        }
+        metrics.onReturn();
+
+        int index = slotIndex();
+        if (slots.get(index) == null && slots.compareAndSet(index, null, instance)) {
+            destroyIfClosed();
+            return true;
+        }
+        idle.offer(instance);
+        destroyIfClosed();
+        return true;
+    }
+
+    /**
+     * @return 归还的实例不是从本池借出的，或者已经归还过
+     */
+    public IllegalStateException notBorrowed(Object instance) {
+        return new IllegalStateException(instance.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(instance))
+                + " was not borrowed from the pool of bean " + name + " or has already been released.");
+    }
+
+    /**
+     * @return instance是否是从本池借出、尚未归还的实例
+     */
+    public boolean isBorrowed(T instance) {
+        return findBorrowed(instance) >= 0;
+    }
+
+    private void markBorrowed(T instance) {
+        int index = System.identityHashCode(instance) & borrowedMask;
+        for (;;) {
+            Object current = borrowed.get(index);
+            if ((current == null || current == RETURNED) && borrowed.compareAndSet(index, current, instance)) {
+                return;
+            }
+            index = (index + 1) & borrowedMask;
+        }
+    }
+
+    private boolean unmarkBorrowed(T instance) {
+        for (;;) {
+            int index = findBorrowed(instance);
+            if (index < 0) {
+                return false;
+            }
+            if (borrowed.compareAndSet(index, instance, RETURNED)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return instance在借出表中的槽位，不在表中时返回-1。所有槽位都用过之后最多探测整张表
+     */
+    private int findBorrowed(Object instance) {
+        int index = System.identityHashCode(instance) & borrowedMask;
+        for (int probes = 0; probes <= borrowedMask; ++probes) {
+            Object current = borrowed.get(index);
+            if (current == instance) {
+                return index;
+            }
+            if (current == null) {
+                return -1;
+            }
+            index = (index + 1) & borrowedMask;
+        }
+        return -1;
+    }
+
+    /**
+     * 关闭对象池：此后借出抛出IllegalStateException，归还的实例交给destroyer
+     * @return 关闭时的空闲实例，由调用方销毁（借出未归还的实例在归还时销毁）
+     */
+    public List<T> close() {
+        closed = true;
+        List<T> instances = new ArrayList<>();
+        T instance;
+        while ((instance = pollAny()) != null) {
+            size.decrementAndGet();
+            instances.add(instance);
+        }
+        return instances;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 入池与close()并发时，close()可能已经取完空闲实例，此时由归还方取出并销毁
+     */
+    private void destroyIfClosed() {
+        if (!closed) {
+            return;
+        }
+        T instance;
+        while ((instance = pollAny()) != null) {
+            size.decrementAndGet();
+            destroyer.accept(instance);
+        }
+    }
+
+    private int slotIndex() {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 32)) & slotMask;
+    }
+
+    private T pollIdle() {
+        int index = slotIndex();
+        T instance = slots.get(index);
+        if (instance != null && slots.compareAndSet(index, instance, null)) {
+            return instance;
+        }
+        return idle.poll();
+    }
+
+    /**
+     * 池耗尽时使用：扫描所有槽位（其他线程归还的实例可能放在它们自己的槽位中）以及共享队列
+     */
+    private T pollAny() {
+        T instance = idle.poll();
+        if (instance != null) {
+            return instance;
+        }
+        for (int i = 0; i < slots.length(); ++i) {
+            instance = slots.get(i);
+            if (instance != null && slots.compareAndSet(i, instance, null)) {
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 实例数未达上限时新建一个实例，否则返回null
+     */
+    private T tryCreate() {
+        for (;;) {
+            int current = size.get();
+            if (current >= maxSize) {
+                return null;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        try {
+            T instance = factory.get();
+            metrics.onCreate();
+            return instance;
+        } catch (RuntimeException e) {
+            size.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private T awaitIdle() {
+        long start = System.nanoTime();
+        for (;;) {
+            T instance = pollAny();
+            if (instance != null) {
+                metrics.onHit();
+                metrics.onWait(System.nanoTime() - start);
+                return instance;
+            }
+            // 等待期间可能有实例被丢弃，腾出了容量
+            instance = tryCreate();
+            if (instance != null) {
+                metrics.onWait(System.nanoTime() - start);
+                return instance;
+            }
+            long waited = System.nanoTime() - start;
+            if (waited >= maxWaitNanos) {
+                metrics.onTimeout(waited);
+                throw new PoolExhaustedException("Pool of bean " + name + " is exhausted (maxSize=" + maxSize
+                        + "), no instance was returned within " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + "ms.");
+            }
+            LockSupport.parkNanos(WAIT_PARK_NANOS);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 已创建且未被丢弃的实例数（空闲 + 借出）
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public PoolMetrics getMetrics() {
+        return metrics;
+    }
+}
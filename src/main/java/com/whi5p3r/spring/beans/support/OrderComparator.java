@@ -0,0 +1,33 @@
+package com.whi5p3r.spring.beans.support;
+
+import com.whi5p3r.spring.annotations.Order;
+import com.whi5p3r.spring.beans.config.Ordered;
+
+import java.util.Comparator;
+
+/**
+ * @description: 按Ordered接口或@Order注解排序，都没有时排在最后；order相同时保持原有顺序（List.sort是稳定排序）
+ * @author: whi5p3r
+ * @date: 2026年10月19日 18:20
+ */
+public class OrderComparator implements Comparator<Object> {
+    public static final OrderComparator INSTANCE = new OrderComparator();
+
+    @Override
+    public int compare(Object o1, Object o2) {
+        return Integer.compare(getOrder(o1), getOrder(o2));
+    }
+
+    /**
+     * 获取对象的order：优先Ordered接口，其次类上的@Order注解
+     * @param object
+     * @return
+     */
+    public static int getOrder(Object object) {
+        if (object instanceof Ordered) {
+            return ((Ordered) object).getOrder();
+        }
+        Order order = object.getClass().getAnnotation(Order.class);
+        return order == null ? Ordered.LOWEST_PRECEDENCE : order.value();
+    }
+}
@@ -0,0 +1,14 @@
+package com.whi5p3r.spring.beans.support;
+
+/**
+ * @description: 对象池已耗尽，且在最长等待时间内没有实例被归还
+ * @author: whi5p3r
+ * @date: 2026年10月19日 18:50
+ */
+public class PoolExhaustedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PoolExhaustedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,296 @@
+package com.whi5p3r.spring.beans.support;
+
+import com.whi5p3r.spring.annotations.Bean;
+import com.whi5p3r.spring.beans.config.DisposableBean;
+import com.whi5p3r.spring.core.env.Environment;
+import com.whi5p3r.spring.utils.DaemonThreadFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 容器关闭时销毁单例：一个单例在所有依赖它的单例销毁之后才销毁（依赖关系的逆序），
+ *               互不依赖的分支在线程池中并行销毁，全部销毁受一个总的截止时间约束，超时后不再等待，未销毁的单例打印到标准错误。
+ *               销毁回调依次是DisposableBean.destroy()和销毁方法；没有回调的单例不占用线程，只用于传递顺序。
+ *               依赖关系存在环时（字段注入的循环依赖），从剩余的单例中选依赖方最少、登记最晚的一个先销毁。
+ *               池化Bean的空闲实例同样登记在这里，与单例一起按依赖关系销毁
+ * @author: whi5p3r
+ * @date: 2026年10月20日 02:10
+ */
+public final class SingletonDestroyer {
+    /**
+     * 关闭容器的总时间（毫秒），默认10000
+     */
+    public static final String TIMEOUT_PROPERTY = "whspring.shutdown.timeout-millis";
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10000L;
+    /**
+     * 并行执行销毁回调的线程数。销毁回调大多阻塞在IO上（关闭连接、等待线程结束）而不占用CPU，默认16
+     */
+    public static final String THREADS_PROPERTY = "whspring.shutdown.threads";
+    public static final int DEFAULT_THREADS = 16;
+
+    /**
+     * @return 运行环境中的whspring.shutdown.timeout-millis
+     */
+    public static long getTimeoutMillis(Environment environment) {
+        return Long.parseLong(environment.getProperty(TIMEOUT_PROPERTY, String.valueOf(DEFAULT_TIMEOUT_MILLIS)));
+    }
+
+    /**
+     * @return 运行环境中的whspring.shutdown.threads
+     */
+    public static int getThreads(Environment environment) {
+        return Integer.parseInt(environment.getProperty(THREADS_PROPERTY, String.valueOf(DEFAULT_THREADS)));
+    }
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Object> beans = new ArrayList<>();
+    private final List<Method> destroyMethods = new ArrayList<>();
+    /**
+     * 第i个单例的依赖（销毁第i个之后才能销毁的单例）
+     */
+    private final List<BitSet> dependencies = new ArrayList<>();
+
+    /**
+     * 登记一个单例
+     * @param beanName beanName，用于日志
+     * @param bean 单例对象
+     * @param destroyMethodName 销毁方法名：为null或空时只调用DisposableBean.destroy()，为Bean.INFER_METHOD时推断close()或shutdown()
+     * @return 单例的序号，用于addDependency
+     */
+    public int register(String beanName, Object bean, String destroyMethodName) {
+        names.add(beanName);
+        beans.add(bean);
+        destroyMethods.add(findDestroyMethod(beanName, bean, destroyMethodName));
+        dependencies.add(new BitSet());
+        return names.size() - 1;
+    }
+
+    /**
+     * 登记依赖关系：dependent依赖dependency，dependent销毁之后才销毁dependency
+     */
+    public void addDependency(int dependent, int dependency) {
+        if (dependent != dependency) {
+            dependencies.get(dependent).set(dependency);
+        }
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * 按依赖关系的逆序并行销毁所有登记的单例
+     * @param timeout 总的截止时间
+     * @param unit 时间单位
+     * @param threads 最多同时执行的销毁回调数
+     * @return 是否在截止时间内全部销毁（销毁回调抛出异常也算作已销毁）
+     */
+    public boolean destroy(long timeout, TimeUnit unit, int threads) {
+        int n = names.size();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        // pendingDependents[i]：还没有销毁的依赖方数量，为0时可以销毁
+        int[] pendingDependents = new int[n];
+        for (BitSet dependency : dependencies) {
+            for (int i = dependency.nextSetBit(0); i >= 0; i = dependency.nextSetBit(i + 1)) {
+                ++pendingDependents[i];
+            }
+        }
+        ArrayDeque<Integer> ready = new ArrayDeque<>();
+        for (int i = n - 1; i >= 0; --i) {
+            if (pendingDependents[i] == 0) { ready.add(i); }
+        }
+
+        BitSet started = new BitSet(n);
+        BitSet finished = new BitSet(n);
+        BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+        ExecutorService executor = null;
+        int running = 0;
+        try {
+            while (finished.cardinality() < n) {
+                while (!ready.isEmpty()) {
+                    int i = ready.poll();
+                    started.set(i);
+                    if (!hasCallback(i)) {
+                        finish(i, finished, pendingDependents, started, ready);
+                        continue;
+                    }
+                    if (executor == null) {
+                        executor = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 0L, TimeUnit.MILLISECONDS,
+                                new LinkedBlockingQueue<>(), new DaemonThreadFactory("whspring-shutdown"));
+                    }
+                    executor.execute(() -> {
+                        try {
+                            invokeCallbacks(i);
+                        } finally {
+                            completed.add(i);
+                        }
+                    });
+                    ++running;
+                }
+                if (finished.cardinality() == n) { break; }
+                if (running == 0) {
+                    ready.add(breakCycle(started, pendingDependents));
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                Integer done = remaining > 0 ? completed.poll(remaining, TimeUnit.NANOSECONDS) : completed.poll();
+                if (done == null) {
+                    reportTimeout(timeout, unit, finished);
+                    return false;
+                }
+                --running;
+                finish(done, finished, pendingDependents, started, ready);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reportTimeout(timeout, unit, finished);
+            return false;
+        } finally {
+            if (executor != null) { executor.shutdownNow(); }
+        }
+    }
+
+    private void finish(int i, BitSet finished, int[] pendingDependents, BitSet started, ArrayDeque<Integer> ready) {
+        finished.set(i);
+        BitSet dependency = dependencies.get(i);
+        for (int d = dependency.nextSetBit(0); d >= 0; d = dependency.nextSetBit(d + 1)) {
+            if (--pendingDependents[d] == 0 && !started.get(d)) {
+                ready.add(d);
+            }
+        }
+    }
+
+    /**
+     * 没有可以销毁的单例、也没有正在销毁的单例时，剩余的单例之间存在环
+     */
+    private int breakCycle(BitSet started, int[] pendingDependents) {
+        int candidate = -1;
+        for (int i = started.nextClearBit(0); i < names.size(); i = started.nextClearBit(i + 1)) {
+            if (candidate < 0 || pendingDependents[i] <= pendingDependents[candidate]) {
+                candidate = i;
+            }
+        }
+        return candidate;
+    }
+
+    private boolean hasCallback(int i) {
+        return beans.get(i) instanceof DisposableBean || destroyMethods.get(i) != null;
+    }
+
+    private void invokeCallbacks(int i) {
+        invokeCallbacks(names.get(i), beans.get(i), destroyMethods.get(i));
+    }
+
+    /**
+     * 在当前线程中销毁单个实例，用于不经过容器关闭的实例（如对象池关闭后归还的池化Bean）
+     * @param beanName beanName，用于日志
+     * @param bean 实例
+     * @param destroyMethodName 销毁方法名，含义同register
+     */
+    public static void destroyBean(String beanName, Object bean, String destroyMethodName) {
+        invokeCallbacks(beanName, bean, findDestroyMethod(beanName, bean, destroyMethodName));
+    }
+
+    /**
+     * 调用一个实例的销毁回调，异常打印到标准错误，不影响其他实例的销毁
+     */
+    private static void invokeCallbacks(String beanName, Object bean, Method method) {
+        if (bean instanceof DisposableBean) {
+            try {
+                ((DisposableBean) bean).destroy();
+            } catch (Throwable e) {
+                System.err.println("[whspring] destroy() of bean " + beanName + " failed: " + e);
+                e.printStackTrace();
+            }
+        }
+        if (method != null) {
+            try {
+                method.invoke(bean);
+            } catch (InvocationTargetException e) {
+                System.err.println("[whspring] Destroy method " + method.getName() + " of bean " + beanName + " failed: " + e.getTargetException());
+                e.getTargetException().printStackTrace();
+            } catch (Throwable e) {
+                System.err.println("[whspring] Destroy method " + method.getName() + " of bean " + beanName + " failed: " + e);
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void reportTimeout(long timeout, TimeUnit unit, BitSet finished) {
+        List<String> remaining = new ArrayList<>();
+        for (int i = finished.nextClearBit(0); i < names.size(); i = finished.nextClearBit(i + 1)) {
+            remaining.add(names.get(i));
+        }
+        System.err.println("[whspring] Singletons were not destroyed within " + unit.toMillis(timeout) + "ms: " + remaining);
+    }
+
+    /**
+     * 解析销毁方法：推断时取public无参的close()或shutdown()（DisposableBean不推断），DisposableBean已经覆盖的destroy()不重复调用；
+     * 指定的方法不存在时打印到标准错误并忽略
+     */
+    private static Method findDestroyMethod(String beanName, Object bean, String destroyMethodName) {
+        if (destroyMethodName == null || destroyMethodName.isEmpty()) {
+            return null;
+        }
+        if (Bean.INFER_METHOD.equals(destroyMethodName)) {
+            if (bean instanceof DisposableBean) {
+                return null;
+            }
+            Method method = findPublicNoArgMethod(bean.getClass(), "close");
+            return method != null ? method : findPublicNoArgMethod(bean.getClass(), "shutdown");
+        }
+        if (bean instanceof DisposableBean && "destroy".equals(destroyMethodName)) {
+            return null;
+        }
+        Method method = findPublicNoArgMethod(bean.getClass(), destroyMethodName);
+        if (method == null) {
+            System.err.println("[whspring] Destroy method " + destroyMethodName + " is not found on bean " + beanName
+                    + " (" + bean.getClass().getName() + "), it must be public and take no arguments.");
+        }
+        return method;
+    }
+
+    private static Method findPublicNoArgMethod(Class<?> type, String name) {
+        try {
+            Method method = type.getMethod(name);
+            if (Modifier.isStatic(method.getModifiers())) {
+                return null;
+            }
+            // 非public类（如JDK内部的实现类）上的public方法，改为通过可访问的接口或父类方法调用
+            if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method = findAccessibleMethod(type, name);
+            }
+            return method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Method findAccessibleMethod(Class<?> type, String name) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            if (Modifier.isPublic(c.getModifiers())) {
+                try {
+                    return c.getMethod(name);
+                } catch (NoSuchMethodException ignored) {
+                }
+            }
+            for (Class<?> i : c.getInterfaces()) {
+                Method method = findAccessibleMethod(i, name);
+                if (method != null) { return method; }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,59 @@
+package com.whi5p3r.spring.context;
+
+import com.whi5p3r.spring.core.ObjectProvider;
+
+import java.util.stream.Stream;
+
+/**
+ * @description: 绑定到某个容器中预先解析好的beanId的ObjectProvider，getObject直接调用getBean(int)，不再按名字查找
+ * @author: whi5p3r
+ * @date: 2026年10月19日 21:40
+ */
+final class BeanSlotObjectProvider<T> implements ObjectProvider<T> {
+    /**
+     * owner：beanId所在的容器（可能是注入方容器的父容器）；requester：注入方所在的容器，stream从它开始查找
+     */
+    private final WhAnnotationApplicationContext owner;
+    private final WhAnnotationApplicationContext requester;
+    private final int beanId;
+    private final String beanName;
+    private final Class<T> type;
+
+    BeanSlotObjectProvider(WhAnnotationApplicationContext owner, WhAnnotationApplicationContext requester,
+                           int beanId, String beanName, Class<T> type) {
+        this.owner = owner;
+        this.requester = requester;
+        this.beanId = beanId;
+        this.beanName = beanName;
+        this.type = type;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getObject() {
+        if (beanId < 0) {
+            throw new NullPointerException(beanName + " is not exist.");
+        }
+        return (T) owner.getBean(beanId);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getIfAvailable() {
+        // 增量重新加载删除了该Bean时，getType返回null
+        if (beanId < 0 || owner.getType(beanId) == null) {
+            return null;
+        }
+        return (T) owner.getBean(beanId);
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return requester.streamBeansOfType(type);
+    }
+
+    @Override
+    public String toString() {
+        return "ObjectProvider<" + type.getName() + ">(" + beanName + ")";
+    }
+}
@@ -1,76 +1,521 @@
 package com.whi5p3r.spring.context;
 
-import com.whi5p3r.spring.annotations.Autowired;
+import com.whi5p3r.spring.annotations.Bean;
 import com.whi5p3r.spring.beans.config.BeanDefinition;
+import com.whi5p3r.spring.beans.config.BeanPostProcessor;
 import com.whi5p3r.spring.beans.config.InitializingBean;
 import com.whi5p3r.spring.beans.config.ScopeType;
+import com.whi5p3r.spring.beans.support.BeanCurrentlyInCreationException;
 import com.whi5p3r.spring.beans.support.BeanDefinitionReader;
+import com.whi5p3r.spring.beans.support.BeanPostProcessorChain;
 import com.whi5p3r.spring.beans.support.BeanWrapper;
 import com.whi5p3r.spring.beans.support.DefaultListableBeanFactory;
+import com.whi5p3r.spring.beans.support.EnhancedConfiguration;
+import com.whi5p3r.spring.beans.support.FrozenBeanRegistry;
+import com.whi5p3r.spring.beans.support.InjectionPlan;
+import com.whi5p3r.spring.beans.support.ObjectPool;
+import com.whi5p3r.spring.beans.support.OrderComparator;
+import com.whi5p3r.spring.beans.support.SingletonDestroyer;
+import com.whi5p3r.spring.context.aot.ContextPlan;
+import com.whi5p3r.spring.context.async.AsyncAnnotationBeanPostProcessor;
+import com.whi5p3r.spring.context.async.AsyncExecutorRegistry;
+import com.whi5p3r.spring.context.event.ApplicationEventPublisher;
+import com.whi5p3r.spring.context.event.BatchingEventExecutor;
+import com.whi5p3r.spring.context.event.EventListenerIndex;
+import com.whi5p3r.spring.context.event.EventListenerMethod;
+import com.whi5p3r.spring.context.reload.ClassChanges;
+import com.whi5p3r.spring.context.reload.ClassDirectoryWatcher;
+import com.whi5p3r.spring.context.reload.DependencyIndex;
+import com.whi5p3r.spring.context.reload.RefreshEvent;
+import com.whi5p3r.spring.context.reload.RefreshListener;
+import com.whi5p3r.spring.context.reload.ReloadClassLoader;
+import com.whi5p3r.spring.context.scheduling.ScheduledTask;
+import com.whi5p3r.spring.context.scheduling.TaskScheduler;
+import com.whi5p3r.spring.context.scope.ScopeBackend;
+import com.whi5p3r.spring.context.scope.ScopeBackends;
+import com.whi5p3r.spring.context.scope.ScopeStorage;
+import com.whi5p3r.spring.context.scope.ScopedCallable;
+import com.whi5p3r.spring.context.scope.ScopedProxyHandler;
+import com.whi5p3r.spring.context.startup.StartupRecorder;
+import com.whi5p3r.spring.context.startup.StartupReport;
 import com.whi5p3r.spring.core.BeanFactory;
+import com.whi5p3r.spring.core.ObjectProvider;
+import com.whi5p3r.spring.core.env.Environment;
+import com.whi5p3r.spring.metrics.MetricsRegistry;
+import com.whi5p3r.spring.tracing.Span;
+import com.whi5p3r.spring.tracing.Tracer;
 import com.whi5p3r.spring.utils.StringUtil;
 
-import java.lang.reflect.Field;
-import java.util.*;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
- * @description: TODO
+ * @description: 基于注解的IoC容器。启动时扫描配置类的@ComponentScan（或使用未过期的启动计划），
+ *               注册BeanDefinition后冻结注册表：每个Bean分配一个beanId，BeanDefinition、单例、注入计划、对象池等都按beanId存放在数组中，
+ *               getBean(int)和预先解析好beanId的注入计划不再按名字查找。
+ *               支持单例、prototype、请求/线程作用域（注入作用域代理）和池化（POOLED）作用域，构造器/字段注入与循环依赖检测，
+ *               BeanPostProcessor链、@EventListener、@Async、@Scheduled，父子容器，增量重新加载，以及按依赖关系逆序并行销毁的close()
  * @author: whi5p3r
  * @date: 2023年04月12日 17:30
  */
-public class WhAnnotationApplicationContext implements BeanFactory {
+public class WhAnnotationApplicationContext implements BeanFactory, ApplicationEventPublisher, AutoCloseable {
+    /**
+     * 容器中存在这个名字的Executor类型的Bean时，异步监听方法在它上面执行
+     */
+    public static final String APPLICATION_EVENT_EXECUTOR_BEAN_NAME = "applicationEventExecutor";
+
     private final DefaultListableBeanFactory registry = new DefaultListableBeanFactory();
+    private final Class<?> configClass;
+
+    /**
+     * reader：扫描读取的BeanDefinitionReader。按启动计划启动时为null，第一次增量重新加载时才创建
+     * environment：判断条件和注入使用的运行环境
+     * excludedBeans：条件不满足而没有注册的组件类或@Bean方法 -> 不满足的条件
+     */
     private BeanDefinitionReader reader;
+    private final Environment environment = new Environment();
+    private Map<String, String> excludedBeans;
+
+    /**
+     * parent：父容器，自己的注册表中找不到的Bean（包括依赖注入）到父容器中查找；父容器不知道子容器的存在
+     */
+    private final WhAnnotationApplicationContext parent;
+
+    /**
+     * frozenRegistry：注册完成后冻结的注册表，按beanId存放BeanDefinition和单例对象（一级缓存）。
+     * 增量重新加载时整体替换，按beanId索引的其他数组先于它赋值，读取方先读它再读其他数组
+     */
+    private volatile FrozenBeanRegistry frozenRegistry;
+
+    /**
+     * singletonsCurrentlyInCreation：按beanId标记正在创建的单例
+     */
+    private boolean[] singletonsCurrentlyInCreation;
+
+    /**
+     * earlySingletonObjects：按beanId存储实例化后、但未依赖注入的纯净的单例，用于解决循环依赖
+     */
+    private Object[] earlySingletonObjects;
+
+    /**
+     * injectionPlans：按beanId缓存的依赖注入计划，第一次创建该Bean时解析
+     */
+    private InjectionPlan[] injectionPlans;
+
+    /**
+     * pools：按beanId存放POOLED作用域Bean的对象池，其他作用域为null
+     */
+    private ObjectPool<Object>[] pools;
+
+    /**
+     * beanMethodCalls：按beanId记录其@Bean方法中调用的其他@Bean方法（Bean间调用）对应的beanId，没有时为null，销毁时作为依赖关系
+     * beanMethodInvocation：每个线程中正在执行的@Bean方法所创建的Bean（beanId），没有时为-1
+     */
+    private int[][] beanMethodCalls;
+    private final ThreadLocal<int[]> beanMethodInvocation = ThreadLocal.withInitial(() -> new int[]{-1});
+
+    /**
+     * retiredPools：增量重新加载替换下来、仍有借出实例的旧对象池（beanId -> 旧的池），这些实例归还时由旧的池销毁
+     */
+    private final Map<Integer, List<ObjectPool<Object>>> retiredPools = new ConcurrentHashMap<>();
+
+    /**
+     * scopeSlots：REQUEST/THREAD作用域的Bean在其作用域存储（ScopeStorage）中的下标，其他作用域为-1
+     */
+    private int[] scopeSlots;
+    private int requestScopedCount;
+    private int threadScopedCount;
+
+    /**
+     * scopedProxies：按beanId缓存的作用域代理，注入到字段中的是代理，调用时才从当前作用域取出目标Bean
+     */
+    private Object[] scopedProxies;
+
+    /**
+     * requestScopeBackend：请求作用域的载体（ThreadLocal或ScopedValue），由系统属性whspring.scope.backend选择
+     */
+    private final ScopeBackend requestScopeBackend = ScopeBackends.create();
+
+    /**
+     * beansInConstruction：每个线程中构造器正在解析实参的非单例Bean（按beanId），用于发现构造器注入的循环依赖
+     */
+    private final ThreadLocal<BitSet> beansInConstruction = ThreadLocal.withInitial(BitSet::new);
+
+    /**
+     * threadScope：线程作用域的存储，每个线程一个按scopeSlot索引的数组
+     */
+    private final ThreadLocal<ScopeStorage> threadScope = ThreadLocal.withInitial(() -> new ScopeStorage(threadScopedCount));
+
+    /**
+     * postProcessorChains：按beanId预先计算的后处理器链，后处理器全部创建之后才赋值，此前创建的Bean（即后处理器本身）不经过后处理
+     */
+    private BeanPostProcessor[][] postProcessorChains;
+
+    /**
+     * postProcessors：容器中所有的后处理器（已排序），增量重新加载时为新的BeanDefinition计算后处理器链
+     */
+    private List<BeanPostProcessor> postProcessors;
+
+    /**
+     * 增量重新加载：最近一次使用的类加载器、类名和反向依赖的索引（第一次重新加载时建立，此后随注入计划增量维护）、回调
+     */
+    private ClassLoader currentClassLoader;
+    private volatile DependencyIndex dependencyIndex;
+    private final List<RefreshListener> refreshListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * beanIdsByType：类型 -> 类型匹配的Bean的beanId，getBean(Class)和ObjectProvider.stream()使用
+     */
+    private final Map<Class<?>, int[]> beanIdsByType = new ConcurrentHashMap<>();
+
+    /**
+     * eventListeners：所有@EventListener方法，按事件类型缓存分发列表
+     * eventExecutor：异步监听方法的执行器，第一次出现异步监听方法时确定
+     * ownedEventExecutor：容器自己创建的事件执行器（不是Bean），容器关闭时关闭
+     */
+    private final EventListenerIndex eventListeners = new EventListenerIndex();
+    private volatile Executor eventExecutor;
+    private volatile BatchingEventExecutor ownedEventExecutor;
+
+    /**
+     * asyncExecutors：@Async使用的具名执行器（配置类上的@AsyncExecutor或Executor类型的Bean）
+     */
+    private final AsyncExecutorRegistry asyncExecutors;
+
     /**
-     * singletonCurrentlyInCreation：存储正在创建的Bean的BeanName
+     * taskScheduler：所有@Scheduled任务共享的时间轮和工作线程池，第一次出现@Scheduled方法时创建
+     * scheduledTasks：beanId -> 该单例上正在调度的任务，增量重新加载时取消后重新登记
      */
-    private Set<String> singletonCurrentlyInCreation = new HashSet<>();
+    private volatile TaskScheduler taskScheduler;
+    private final Map<Integer, List<ScheduledTask>> scheduledTasks = new ConcurrentHashMap<>();
 
     /**
-     * singletonObjects：一级缓存，存储创建完毕的Bean（实例化->依赖注入->初始化）
+     * metricsRegistry：容器的指标注册表（路由指标等）
      */
-    private Map<String, Object> singletonObjects = new HashMap<>();
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
 
     /**
-     * earlySingletonObjects：二级缓存，存储实例化后、但未依赖注入的纯净的Bean
+     * tracer：请求追踪，由运行环境中的whspring.tracing.*属性配置；子容器与父容器共享同一个
      */
-    private Map<String, Object> earlySingletonObjects = new HashMap<>();
+    private final Tracer tracer;
 
     /**
-     * factoryBeanObjectCache：三级缓存，实际上存储的是BeanDefinition
+     * startupRecorder：记录启动各阶段以及每个Bean创建的耗时
      */
-    private Map<String, Object> factoryBeanObjectCache = new HashMap<>();
+    private final StartupRecorder startupRecorder;
+
+    /**
+     * closed：容器是否已经关闭（close只执行一次）
+     * destroyed：close开始销毁单例后为true，此后getBean抛出IllegalStateException（关闭过程中等待执行完的后台任务仍可获取Bean）
+     */
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean destroyed;
 
     public WhAnnotationApplicationContext(Class<?> configClazz) {
-        // 1. 读取配置文件
-        this.reader = new BeanDefinitionReader(configClazz);
+        this(configClazz, null);
+    }
+
+    /**
+     * 创建子容器：只扫描configClazz的@ComponentScan，父容器中已有的Bean不再重复扫描和创建，
+     * 多个子容器共享同一个父容器中的单例
+     * @param configClazz 配置类
+     * @param parent 父容器，为null时等同于WhAnnotationApplicationContext(configClazz)
+     */
+    public WhAnnotationApplicationContext(Class<?> configClazz, WhAnnotationApplicationContext parent) {
+        this.parent = parent;
+        this.configClass = configClazz;
+        this.tracer = parent != null ? parent.getTracer() : Tracer.fromEnvironment(environment, configClazz.getSimpleName());
+        this.asyncExecutors = new AsyncExecutorRegistry(configClazz, this::getExecutorBean, metricsRegistry, tracer);
+        this.startupRecorder = new StartupRecorder(getClass().getSimpleName() + "(" + configClazz.getName() + ")");
+
+        // 1. 读取配置文件：指定了启动计划且计划未过期时，校验classpath指纹代替扫描
+        File planFile = ContextPlan.getPlanFile(configClazz);
+        StartupRecorder.Phase phase = startupRecorder.beginPhase("scan");
+        ContextPlan plan = planFile == null ? null : ContextPlan.load(planFile, configClazz, environment);
+        if(plan == null){
+            this.reader = new BeanDefinitionReader(configClazz, configClazz.getClassLoader(), environment);
+        }
+        startupRecorder.endPhase(phase, plan != null ? plan.getScannedClassCount() : reader.getRegistryBeanClassCount());
 
-        // 2. 解析配置文件
-        List<BeanDefinition> beanDefinitionList = reader.loadBeanDefinition();
+        // 2. 解析配置文件，或直接使用启动计划中的BeanDefinition
+        phase = startupRecorder.beginPhase("loadBeanDefinition");
+        List<BeanDefinition> beanDefinitionList;
+        Map<String, String> aliases;
+        if(plan != null){
+            beanDefinitionList = plan.getBeanDefinitions();
+            aliases = plan.getAliases();
+            this.excludedBeans = plan.getExcludedBeans();
+        } else {
+            beanDefinitionList = reader.loadBeanDefinition();
+            aliases = reader.getAliases();
+            this.excludedBeans = reader.getExcludedBeans();
+            if(planFile != null) { writePlan(planFile, beanDefinitionList); }
+        }
+        startupRecorder.endPhase(phase, beanDefinitionList.size());
 
-        // 3. 注册BeanDefinition
+        // 3. 注册BeanDefinition，注册完成后冻结注册表
+        phase = startupRecorder.beginPhase("registration");
         this.registry.registerBeanDefinition(beanDefinitionList);
+        this.registry.registerAliases(aliases);
+        freezeRegistry();
+        startupRecorder.endPhase(phase, beanDefinitionList.size());
+
+        // 4. 先创建所有的BeanPostProcessor，并为每个BeanDefinition计算适用的后处理器链
+        phase = startupRecorder.beginPhase("registerBeanPostProcessors");
+        int postProcessorCount = registerBeanPostProcessors();
+        startupRecorder.endPhase(phase, postProcessorCount);
+
+        // 5. 登记所有Bean的@EventListener方法（监听方法所在的Bean仍按各自的作用域创建）
+        phase = startupRecorder.beginPhase("registerEventListeners");
+        int listenerCount = registerEventListeners();
+        startupRecorder.endPhase(phase, listenerCount);
+
+        // 6. 预加载所有非懒加载的Bean
+        phase = startupRecorder.beginPhase("preInstantiation");
+        int count = preInstantiateSingletons();
+        startupRecorder.endPhase(phase, count);
+
+        // 7. 单例创建完成后登记@Scheduled方法
+        phase = startupRecorder.beginPhase("registerScheduledTasks");
+        int taskCount = registerScheduledTasks();
+        startupRecorder.endPhase(phase, taskCount);
+
+        startupRecorder.finish();
+    }
+
+    /**
+     * 冻结注册表，按Bean的数量分配各个按beanId索引的数组，为池化的Bean创建对象池，为请求/线程作用域的Bean分配存储下标
+     */
+    @SuppressWarnings("unchecked")
+    private void freezeRegistry() {
+        this.frozenRegistry = this.registry.freezeConfiguration();
+        int size = frozenRegistry.size();
+        this.singletonsCurrentlyInCreation = new boolean[size];
+        this.earlySingletonObjects = new Object[size];
+        this.injectionPlans = new InjectionPlan[size];
+        this.pools = (ObjectPool<Object>[]) new ObjectPool<?>[size];
+        this.beanMethodCalls = new int[size][];
+        this.scopeSlots = new int[size];
+        this.scopedProxies = new Object[size];
+        for(int beanId = 0; beanId < size; ++ beanId){
+            BeanDefinition beanDefinition = frozenRegistry.getBeanDefinition(beanId);
+            // 请求/线程作用域的Bean在各自的作用域存储中依次分配下标
+            scopeSlots[beanId] = beanDefinition.getScope() == ScopeType.REQUEST ? requestScopedCount ++
+                    : beanDefinition.getScope() == ScopeType.THREAD ? threadScopedCount ++ : -1;
+            if(beanDefinition.getScope() == ScopeType.POOLED){
+                pools[beanId] = createPool(beanId, beanDefinition);
+            }
+        }
+    }
+
+    private ObjectPool<Object> createPool(int beanId, BeanDefinition beanDefinition) {
+        return new ObjectPool<>(beanDefinition.getBeanName(), () -> doCreateBean(beanId, beanDefinition),
+                beanDefinition.getPoolMaxSize(), TimeUnit.MILLISECONDS.toNanos(beanDefinition.getPoolMaxWaitMillis()),
+                metricsRegistry.poolMetrics(beanDefinition.getBeanName()),
+                instance -> SingletonDestroyer.destroyBean(beanDefinition.getBeanName(), instance, getDestroyMethodName(beanDefinition)));
+    }
+
+    /**
+     * 创建容器中所有的BeanPostProcessor，加上容器内置的后处理器（@Async）并按order排序，再为每个BeanDefinition筛选出适用的后处理器链
+     * @return 后处理器的数量
+     */
+    private int registerBeanPostProcessors() {
+        List<BeanPostProcessor> postProcessors = new ArrayList<>();
+        for(int beanId = 0; beanId < frozenRegistry.size(); ++ beanId){
+            if(BeanPostProcessor.class.isAssignableFrom(frozenRegistry.getBeanDefinition(beanId).getBeanClass())){
+                postProcessors.add((BeanPostProcessor) getBean(beanId));
+            }
+        }
+        postProcessors.add(new AsyncAnnotationBeanPostProcessor(asyncExecutors));
+        postProcessors.sort(OrderComparator.INSTANCE);
+
+        BeanPostProcessor[][] chains = new BeanPostProcessor[frozenRegistry.size()][];
+        for(int beanId = 0; beanId < chains.length; ++ beanId){
+            chains[beanId] = BeanPostProcessorChain.resolve(frozenRegistry.getBeanDefinition(beanId).getBeanClass(), postProcessors);
+        }
+        this.postProcessorChains = chains;
+        this.postProcessors = postProcessors;
+        return postProcessors.size();
+    }
 
-        // 4. 预加载所有非懒加载的Bean
-        preInstantiateSingletons();
+    /**
+     * 为每个BeanDefinition中的@EventListener方法创建调用器并加入索引
+     * @return 监听方法的数量
+     */
+    private int registerEventListeners() {
+        List<EventListenerMethod> listeners = new ArrayList<>();
+        for(int beanId = 0; beanId < frozenRegistry.size(); ++ beanId){
+            collectEventListeners(beanId, frozenRegistry.getBeanDefinition(beanId), listeners);
+        }
+        eventListeners.addListeners(listeners);
+        return listeners.size();
+    }
+
+    private void collectEventListeners(int beanId, BeanDefinition beanDefinition, List<EventListenerMethod> listeners) {
+        for(Method method : beanDefinition.getEventListenerMethods()){
+            EventListenerMethod listener = new EventListenerMethod(beanId, method);
+            if(listener.isAsync() && eventExecutor == null) { this.eventExecutor = createEventExecutor(); }
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * 容器中有名为applicationEventExecutor的Executor时使用它，否则创建有界队列、批量执行的BatchingEventExecutor
+     */
+    private Executor createEventExecutor() {
+        Executor executor = getExecutorBean(APPLICATION_EVENT_EXECUTOR_BEAN_NAME);
+        if(executor != null) { return executor; }
+        BatchingEventExecutor created = BatchingEventExecutor.fromSystemProperties("whspring-events-" + Integer.toHexString(System.identityHashCode(this)));
+        this.ownedEventExecutor = created;
+        return created;
+    }
+
+    /**
+     * 按名字查找Executor类型的Bean（@Async的执行器），没有时返回null
+     */
+    private Executor getExecutorBean(String name) {
+        int beanId = frozenRegistry.getBeanId(name);
+        if(beanId < 0 || !Executor.class.isAssignableFrom(frozenRegistry.getBeanDefinition(beanId).getBeanClass())){
+            return null;
+        }
+        return (Executor) getBean(beanId);
+    }
 
+    /**
+     * 发布事件：按事件的具体类型取出预先计算的分发列表，同步监听方法按order依次在当前线程调用，
+     * 异步监听方法打包成一个任务提交给事件执行器；之后再发布到父容器
+     * @param event 事件对象
+     */
+    @Override
+    public void publishEvent(Object event) {
+        if(event == null){
+            throw new IllegalArgumentException("Event must not be null.");
+        }
+        EventListenerIndex.Dispatch dispatch = eventListeners.getDispatch(event.getClass());
+        if(!dispatch.isEmpty()){
+            for(EventListenerMethod listener : dispatch.getSyncListeners()){
+                invokeListener(listener, event);
+            }
+            EventListenerMethod[] asyncListeners = dispatch.getAsyncListeners();
+            if(asyncListeners.length > 0){
+                eventExecutor.execute(tracer.wrap(() -> invokeAsyncListeners(asyncListeners, event)));
+            }
+        }
+        if(parent != null) { parent.publishEvent(event); }
+    }
+
+    private void invokeListener(EventListenerMethod listener, Object event) {
+        int beanId = listener.getBeanId();
+        Object bean = getBean(beanId);
+        Span span = tracer.isTracing()
+                ? tracer.startSpan(frozenRegistry.getBeanDefinition(beanId).getBeanName(), listener.getMethod().getName()) : Span.NOOP;
+        try {
+            listener.invoke(bean, event);
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.close();
+            if(pools[beanId] != null) { releaseBean(beanId, bean); }
+        }
+    }
+
+    /**
+     * 依次调用一个事件的异步监听方法，某个监听方法失败不影响其他监听方法
+     */
+    private void invokeAsyncListeners(EventListenerMethod[] listeners, Object event) {
+        for(EventListenerMethod listener : listeners){
+            try {
+                invokeListener(listener, event);
+            } catch (Throwable e) {
+                System.err.println("[whspring] async event listener " + listener + " failed: " + e);
+                e.printStackTrace();
+            }
+        }
     }
 
     /**
      * 预加载非懒加载的Bean
+     * @return 预加载的Bean数量
      */
-    private void preInstantiateSingletons() {
-        for(Map.Entry<String, BeanDefinition> entry : this.registry.beanDefinitionMap.entrySet()){
-            String beanName = entry.getKey();
-            BeanDefinition beanDefinition = entry.getValue();
+    private int preInstantiateSingletons() {
+        int count = 0;
+        for(int beanId = 0; beanId < frozenRegistry.size(); ++ beanId){
+            BeanDefinition beanDefinition = frozenRegistry.getBeanDefinition(beanId);
             // 判断是否懒加载
             if(beanDefinition.isLazyInit()) { continue; }
             // 判断是否为单例
-            if(beanDefinition.getScope().equals(ScopeType.SINGLETON)){
+            if(beanDefinition.getScope() == ScopeType.SINGLETON){
                 // 创建Bean
-                getBean(beanName);
+                getBean(beanId);
+                ++ count;
             }
         }
+        return count;
+    }
+
+    /**
+     * 为所有单例上的@Scheduled方法创建任务并开始调度
+     * @return 任务的数量
+     */
+    private int registerScheduledTasks() {
+        int count = 0;
+        for(int beanId = 0; beanId < frozenRegistry.size(); ++ beanId){
+            List<ScheduledTask> tasks = createScheduledTasks(beanId, frozenRegistry.getBeanDefinition(beanId));
+            if(tasks.isEmpty()) { continue; }
+            startScheduledTasks(beanId, tasks);
+            count += tasks.size();
+        }
+        return count;
+    }
+
+    /**
+     * 解析并校验BeanDefinition中的@Scheduled方法，只有单例可以有@Scheduled方法
+     */
+    private List<ScheduledTask> createScheduledTasks(int beanId, BeanDefinition beanDefinition) {
+        Method[] methods = beanDefinition.getScheduledMethods();
+        if(methods.length == 0) { return Collections.emptyList(); }
+        if(beanDefinition.getScope() != ScopeType.SINGLETON){
+            throw new IllegalStateException("@Scheduled methods are only supported on singletons, "
+                    + beanDefinition.getBeanName() + " is " + beanDefinition.getScope() + ".");
+        }
+        List<ScheduledTask> tasks = new ArrayList<>(methods.length);
+        for(Method method : methods){
+            tasks.add(new ScheduledTask(beanId, beanDefinition.getBeanName(), method));
+        }
+        return tasks;
+    }
+
+    private void startScheduledTasks(int beanId, List<ScheduledTask> tasks) {
+        TaskScheduler scheduler = this.taskScheduler;
+        if(scheduler == null){
+            scheduler = TaskScheduler.fromSystemProperties("whspring-scheduler-" + Integer.toHexString(System.identityHashCode(this)));
+            this.taskScheduler = scheduler;
+        }
+        Object bean = getBean(beanId);
+        for(ScheduledTask task : tasks){
+            task.start(scheduler, bean, metricsRegistry.scheduledTaskMetrics(task.getName()));
+        }
+        scheduledTasks.put(beanId, tasks);
     }
 
     /**
@@ -83,189 +528,1366 @@ public class WhAnnotationApplicationContext implements BeanFactory {
         if(StringUtil.isEmpty(beanName)){
             throw new IllegalArgumentException("Empty beanName is not permitted.");
         }
-        // 通过BeanName找到BeanDefinition
-        if(!this.registry.beanDefinitionMap.containsKey(beanName)){
-            throw new NullPointerException(beanName + "is not exist.");
+        // 通过BeanName找到beanId
+        int beanId = frozenRegistry.getBeanId(beanName);
+        if(beanId < 0){
+            // 子容器中没有时到父容器中查找
+            if(parent != null) { return parent.getBean(beanName); }
+            throw new NullPointerException(beanName + " is not exist.");
+        }
+        return getBean(beanId);
+    }
+
+    /**
+     * 通过beanId从IoC容器中获取Bean，跳过名字查找，供预先解析好beanId的注入计划和请求处理计划使用
+     * @param beanId getBeanId返回的beanId
+     * @return 所需的Bean对象
+     */
+    public Object getBean(int beanId) {
+        if(destroyed) {
+            throw new IllegalStateException("Context of " + configClass.getName() + " has been closed.");
+        }
+        // 单例创建完成后直接从数组中取
+        Object singleton = frozenRegistry.getSingleton(beanId);
+        if(singleton != null) {
+            return singleton;
         }
-        BeanDefinition beanDefinition = this.registry.beanDefinitionMap.get(beanName);
 
+        BeanDefinition beanDefinition = frozenRegistry.getBeanDefinition(beanId);
+        if(beanDefinition == null) {
+            throw new NullPointerException("bean #" + beanId + " has been removed.");
+        }
         // 判断是否是单例
-        if(beanDefinition.getScope().equals(ScopeType.SINGLETON)) {
+        if(beanDefinition.getScope() == ScopeType.SINGLETON) {
+            return getOrCreateSingleton(beanId, beanDefinition);
+        }
 
-            // 先从缓存中拿
-            Object singleton = getSingleton(beanName, beanDefinition);
-            if (singleton != null) {
-                return singleton;
-            }
+        // 池化的Bean从对象池中借出，调用方用完后通过releaseBean归还
+        if(beanDefinition.getScope() == ScopeType.POOLED) {
+            return pools[beanId].borrow();
+        }
 
-            // 缓存中也没有，说明这个bean还没开始创建，添加创建标识
-            if(!singletonCurrentlyInCreation.contains(beanName)){
-                singletonCurrentlyInCreation.add(beanName);
+        // 请求/线程作用域的Bean从当前作用域的存储中取，没有时创建
+        if(beanDefinition.getScope() == ScopeType.REQUEST) {
+            ScopeStorage storage = requestScopeBackend.current();
+            if(storage == null){
+                throw new IllegalStateException("No request scope is bound to the current thread, "
+                        + beanDefinition.getBeanName() + " can only be used inside callInRequestScope.");
             }
+            return getScopedBean(storage, beanId, beanDefinition);
+        }
+        if(beanDefinition.getScope() == ScopeType.THREAD) {
+            return getScopedBean(threadScope.get(), beanId, beanDefinition);
+        }
 
-            // 创建这个bean（实例化、依赖注入、初始化）
-            singleton = doCreateBean(beanName, beanDefinition);
+        // 如果是prototype，则直接创建一个新的实例
+        return doCreateBean(beanId, beanDefinition);
+    }
+
+    private Object getScopedBean(ScopeStorage storage, int beanId, BeanDefinition beanDefinition) {
+        int slot = scopeSlots[beanId];
+        Object bean = storage.get(slot);
+        if(bean == null) {
+            bean = doCreateBean(beanId, beanDefinition);
+            storage.put(slot, bean);
+        }
+        return bean;
+    }
+
+    /**
+     * 在一个新的请求作用域中执行task：期间REQUEST作用域的Bean每个只创建一次，task返回后按创建的逆序关闭（AutoCloseable）。
+     * 容器中没有REQUEST作用域的Bean时直接执行task
+     * @param task 任务
+     * @return 任务的返回值
+     * @throws Exception 任务抛出的异常
+     */
+    public <T> T callInRequestScope(ScopedCallable<T> task) throws Exception {
+        // 父容器中REQUEST作用域的Bean也需要在同一个请求作用域中
+        if(parent != null) {
+            return parent.callInRequestScope(() -> callInOwnRequestScope(task));
+        }
+        return callInOwnRequestScope(task);
+    }
+
+    private <T> T callInOwnRequestScope(ScopedCallable<T> task) throws Exception {
+        if(requestScopedCount == 0) {
+            return task.call();
+        }
+        ScopeStorage storage = new ScopeStorage(requestScopedCount);
+        Throwable failure = null;
+        try {
+            return requestScopeBackend.call(storage, task);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            closeScope(storage, failure);
+        }
+    }
+
+    /**
+     * 关闭当前线程的线程作用域：按创建的逆序关闭（AutoCloseable）该线程创建的THREAD作用域的Bean，
+     * 之后该线程再获取时会创建新的实例。线程池中的线程在任务结束时调用
+     */
+    public void closeThreadScope() {
+        if(parent != null) {
+            parent.closeThreadScope();
+        }
+        if(threadScopedCount == 0) {
+            return;
+        }
+        closeScope(threadScope.get(), null);
+    }
+
+    /**
+     * 关闭作用域；已有异常时关闭失败作为suppressed附加在原异常上，不掩盖原异常
+     */
+    private static void closeScope(ScopeStorage storage, Throwable failure) {
+        try {
+            storage.close();
+        } catch (RuntimeException e) {
+            if(failure == null) { throw e; }
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * 返回请求作用域载体的名字（threadlocal或scopedvalue）
+     * @return
+     */
+    public String getRequestScopeBackendName() {
+        return requestScopeBackend.getName();
+    }
 
-            // 创建完成后删除 创建标识
-            if(!singletonCurrentlyInCreation.contains(beanName)){
-                singletonCurrentlyInCreation.remove(beanName);
+    /**
+     * 将通过getBean借出的池化Bean归还到对象池
+     * @param beanName beanName
+     * @param bean getBean借出的实例，不能重复归还
+     */
+    public void releaseBean(String beanName, Object bean) {
+        int beanId = frozenRegistry.getBeanId(beanName);
+        if(beanId < 0){
+            if(parent != null) {
+                parent.releaseBean(beanName, bean);
+                return;
+            }
+            throw new NullPointerException(beanName + " is not exist.");
+        }
+        releaseBean(beanId, bean);
+    }
+
+    /**
+     * 将通过getBean借出的池化Bean归还到对象池。增量重新加载之前借出的实例归还到旧的对象池，由它销毁
+     * @param beanId getBeanId返回的beanId
+     * @param bean getBean借出的实例，不能重复归还
+     * @throws IllegalStateException 实例不是从这个Bean的对象池借出的，或者已经归还过
+     */
+    public void releaseBean(int beanId, Object bean) {
+        if(bean == null){
+            throw new IllegalArgumentException("Cannot release null to the pool of " + frozenRegistry.getBeanName(beanId) + ".");
+        }
+        ObjectPool<Object> pool = pools[beanId];
+        if(pool != null && pool.releaseIfBorrowed(bean)){
+            return;
+        }
+        List<ObjectPool<Object>> retired = retiredPools.get(beanId);
+        if(retired != null){
+            for(ObjectPool<Object> retiredPool : retired){
+                if(!retiredPool.releaseIfBorrowed(bean)) { continue; }
+                if(retiredPool.size() == 0) { retired.remove(retiredPool); }
+                return;
             }
+        }
+        if(pool == null){
+            throw new IllegalArgumentException(frozenRegistry.getBeanName(beanId) + " is not a pooled bean.");
+        }
+        throw pool.notBorrowed(bean);
+    }
 
-            // 将这个创建好的bean，放入一级缓存
-            this.singletonObjects.put(beanName, singleton);
+    /**
+     * 根据beanName或别名查找beanId
+     * @param beanName beanName或别名
+     * @return beanId，不存在时返回-1
+     */
+    public int getBeanId(String beanName) {
+        return frozenRegistry.getBeanId(beanName);
+    }
 
+    /**
+     * 获取单例，尚未创建时创建
+     * @param beanId
+     * @param beanDefinition
+     * @return
+     */
+    private synchronized Object getOrCreateSingleton(int beanId, BeanDefinition beanDefinition) {
+        // 先从缓存中拿
+        Object singleton = getSingleton(beanId);
+        if (singleton != null) {
             return singleton;
         }
+        // 等待锁期间可能发生了增量重新加载，以当前的BeanDefinition为准
+        beanDefinition = frozenRegistry.getBeanDefinition(beanId);
+        // 有创建标识却没有提前暴露的早期对象：构造器还没有返回，又被依赖
+        if (singletonsCurrentlyInCreation[beanId]) {
+            throw new BeanCurrentlyInCreationException(beanDefinition.getBeanName());
+        }
 
-        // 如果是prototype，则直接创建一个新的实例
-        return doCreateBean(beanName, beanDefinition);
+        // 缓存中也没有，说明这个bean还没开始创建，添加创建标识
+        singletonsCurrentlyInCreation[beanId] = true;
+        try {
+            // 创建这个bean（实例化、依赖注入、初始化）
+            singleton = doCreateBean(beanId, beanDefinition);
+        } finally {
+            // 创建完成后删除 创建标识 和 提前暴露的早期对象
+            singletonsCurrentlyInCreation[beanId] = false;
+            earlySingletonObjects[beanId] = null;
+        }
+
+        // 将这个创建好的bean，放入一级缓存
+        frozenRegistry.setSingleton(beanId, singleton);
+        return singleton;
     }
 
     /**
      * 创建Bean
-     * @param beanName
+     * @param beanId
      * @param beanDefinition
      * @return
      */
-    private Object doCreateBean(String beanName, BeanDefinition beanDefinition){
+    private Object doCreateBean(int beanId, BeanDefinition beanDefinition){
+        InjectionPlan plan = getInjectionPlan(beanId, beanDefinition);
+        // 非单例的Bean没有创建标识，按线程记录构造器正在解析实参的Bean，构造器依赖又回到自身时报告循环依赖
+        BitSet constructing = null;
+        if(plan.getArgumentCount() > 0 && beanDefinition.getScope() != ScopeType.SINGLETON){
+            constructing = beansInConstruction.get();
+            if(constructing.get(beanId)){
+                throw new BeanCurrentlyInCreationException(beanDefinition.getBeanName());
+            }
+        }
+
+        startupRecorder.beginBean(beanDefinition.getBeanName(), beanDefinition.getBeanClass());
+        // 请求中创建的非单例Bean记录为一个跨度
+        Span span = tracer.startSpan(beanDefinition.getBeanName(), "<init>");
+        try {
+            // 实例化对象（构造器注入）
+            Object instance;
+            if(constructing == null){
+                instance = doInstantiate(beanId, beanDefinition, plan);
+            } else {
+                constructing.set(beanId);
+                try {
+                    instance = doInstantiate(beanId, beanDefinition, plan);
+                } finally {
+                    constructing.clear(beanId);
+                }
+            }
+            startupRecorder.instantiated();
 
-        // 实例化对象
-        Object instance = doInstantiate(beanName, beanDefinition);
+            // 依赖注入
+            populateBean(instance, plan);
+            startupRecorder.populated();
 
-        // 依赖注入
-        populateBean(instance, beanDefinition);
+            // 初始化对象（初始化 + 放入Wrapper）
+            BeanWrapper beanWrapper = initializeBean(instance, beanId, beanDefinition);
+            startupRecorder.endBean();
 
-        // 初始化对象（初始化 + 放入Wrapper）
-        BeanWrapper beanWrapper = initializeBean(instance, beanDefinition);
+            return beanWrapper.getWrappedInstance();
+        } catch (BeanCurrentlyInCreationException e) {
+            startupRecorder.abortBean();
+            e.addBean(beanDefinition.getBeanName());
+            span.error(e);
+            throw e;
+        } catch (RuntimeException e) {
+            startupRecorder.abortBean();
+            span.error(e);
+            throw e;
+        } finally {
+            span.close();
+        }
+    }
 
-        return beanWrapper.getWrappedInstance();
+    /**
+     * 获取Bean的注入计划，第一次创建该Bean时解析
+     */
+    private InjectionPlan getInjectionPlan(int beanId, BeanDefinition beanDefinition) {
+        InjectionPlan plan = injectionPlans[beanId];
+        if(plan == null) {
+            plan = beanDefinition.getFactoryMethod() != null
+                    ? InjectionPlan.resolveFactoryMethod(beanDefinition.getFactoryMethod(), beanDefinition.getFactoryBeanName(), frozenRegistry)
+                    : InjectionPlan.resolve(beanDefinition.getBeanClass(), frozenRegistry);
+            injectionPlans[beanId] = plan;
+            DependencyIndex index = this.dependencyIndex;
+            if(index != null) { indexDependencies(index, beanId, plan); }
+        }
+        return plan;
     }
 
     /**
      * 获取单例Bean
-     * @param beanName
-     * @param beanDefinition
+     * @param beanId
      * @return
      */
-    private Object getSingleton(String beanName, BeanDefinition beanDefinition) {
+    private Object getSingleton(int beanId) {
         // 先从一级缓存中取
-        Object bean = singletonObjects.get(beanName);
+        Object bean = frozenRegistry.getSingleton(beanId);
 
-        // 如果一级缓存中没有，但是有创建标识，说明存在循环依赖
-        if(bean == null && singletonCurrentlyInCreation.contains(beanName)){
-            // 在二级缓存中找
-            bean = earlySingletonObjects.get(beanName);
-            // 如果二级缓存也没有,在三级缓存中获取
-            if(bean == null) {
-                bean = doInstantiate(beanName, beanDefinition);
-            }
+        // 如果一级缓存中没有，但是有创建标识，说明存在循环依赖，取提前暴露的早期对象
+        if(bean == null && singletonsCurrentlyInCreation[beanId]){
+            bean = earlySingletonObjects[beanId];
         }
 
         return bean;
     }
 
     /**
-     * 初始化Bean
+     * 初始化Bean，前后执行该Bean适用的后处理器链
      * @param instance
+     * @param beanId
      * @param beanDefinition
      * @return
      */
-    private BeanWrapper initializeBean(Object instance, BeanDefinition beanDefinition) {
-        BeanWrapper beanWrapper = null;
-        try {
-            Class<?> clazz = Class.forName(beanDefinition.getBeanClassName());
-            if(clazz.isAssignableFrom(InitializingBean.class)){
+    private BeanWrapper initializeBean(Object instance, int beanId, BeanDefinition beanDefinition) {
+        BeanPostProcessor[][] chains = this.postProcessorChains;
+        BeanPostProcessor[] chain = chains == null ? BeanPostProcessorChain.EMPTY : chains[beanId];
+        // 没有适用的后处理器时跳过整个后处理流程
+        if(chain.length == 0){
+            if(instance instanceof InitializingBean){
                 ((InitializingBean)instance).afterPropertiesSet();
             }
-            beanWrapper = new BeanWrapper(instance, clazz);
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(e);
+            return new BeanWrapper(instance, beanDefinition.getBeanClass());
+        }
+
+        String beanName = beanDefinition.getBeanName();
+        Object bean = BeanPostProcessorChain.applyBeforeInitialization(chain, instance, beanName);
+        if(bean instanceof InitializingBean){
+            ((InitializingBean)bean).afterPropertiesSet();
         }
-        return beanWrapper;
+        bean = BeanPostProcessorChain.applyAfterInitialization(chain, bean, beanName);
+        return new BeanWrapper(bean, beanDefinition.getBeanClass());
     }
 
     /**
-     * 依赖注入
+     * 字段注入
      * @param instance
-     * @param beanDefinition
+     * @param plan
      */
-    private void populateBean(Object instance, BeanDefinition beanDefinition) {
+    private void populateBean(Object instance, InjectionPlan plan) {
         try {
-            Class<?> clazz = Class.forName(beanDefinition.getBeanClassName());
-
-            Field[] fields = clazz.getDeclaredFields();
-            for(Field field: fields){
-                if (!field.isAnnotationPresent(Autowired.class)) {
-                    continue;
-                }
-
-                Autowired autowired = field.getAnnotation(Autowired.class);
-                String dependency = StringUtil.toLowerFirstCase(field.getType().getSimpleName());
-                // String dependency = StringUtil.toLowerFirstCase(field.getType().getName());
-                if(!"".equals(autowired.value())) {
-                    dependency = autowired.value().trim();
+            for(int i = 0; i < plan.size(); ++ i){
+                int dependencyId = plan.getDependencyId(i);
+                Object dependency = plan.getProvidedType(i) != null
+                        ? getObjectProvider(dependencyId, plan.getDependencyName(i), plan.getProvidedType(i))
+                        : dependencyId >= 0 ? getInjectableBean(dependencyId)
+                        : getUnregisteredDependency(plan.getDependencyName(i), plan, i, false);
+                if(dependency == null) {
+                    if(!plan.isRequired(i)) { continue; }
+                    throw new NullPointerException(plan.getDependencyName(i) + " is not exist.");
                 }
-
-
-                field.setAccessible(true);
-                field.set(instance, getBean(dependency));
+                plan.getField(i).set(instance, dependency);
             }
-
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(e);
         } catch (IllegalAccessException e) {
             throw new RuntimeException(e);
         }
     }
 
     /**
-     * 实例化Bean
-     * @param beanDefinition
-     * @return
+     * 请求/线程作用域的依赖注入作用域代理，其他的直接注入Bean
      */
-    private Object doInstantiate(String beanName, BeanDefinition beanDefinition) {
-        if(factoryBeanObjectCache.containsKey(beanName)){
-            return factoryBeanObjectCache.get(beanName);
-        }
-
-        String beanClassName = beanDefinition.getBeanClassName();
-        Object instance = null;
-        try {
-            // 原生对象
-            Class<?> clazz = Class.forName(beanClassName);
-            instance = clazz.newInstance();
-
-            factoryBeanObjectCache.put(beanDefinition.getBeanName(), instance);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-        return instance;
+    private Object getInjectableBean(int beanId) {
+        return frozenRegistry.getBeanDefinition(beanId).getScope().isScopedProxyRequired()
+                ? getScopedProxy(beanId) : getBean(beanId);
     }
 
     /**
-     * 通过类型获取Bean
-     * @param beanName
-     * @return
+     * 注册表中不存在的依赖：ApplicationEventPublisher类型的注入容器本身，Environment类型的注入运行环境，其他的到父容器中解析
+     */
+    private Object getUnregisteredDependency(String dependencyName, InjectionPlan plan, int index, boolean argument) {
+        Class<?> type = argument ? plan.getArgumentType(index) : plan.getField(index).getType();
+        if(type == ApplicationEventPublisher.class) { return this; }
+        if(type == Environment.class) { return environment; }
+        return parent == null ? null : parent.getInjectableBean(dependencyName, plan, index, argument);
+    }
+
+    /**
+     * 子容器的依赖在子容器中不存在时，按名字在父容器（及其祖先）中解析，校验规则与InjectionPlan相同
+     * @param dependencyName 依赖的名字
+     * @param plan 注入方的注入计划
+     * @param index 形参或字段的下标
+     * @param argument 是否为构造器的形参
+     * @return 注入的对象，整个父容器链中都不存在时返回null
+     */
+    private Object getInjectableBean(String dependencyName, InjectionPlan plan, int index, boolean argument) {
+        int beanId = frozenRegistry.getBeanId(dependencyName);
+        if(beanId < 0) {
+            return parent == null ? null : parent.getInjectableBean(dependencyName, plan, index, argument);
+        }
+        ScopeType scope = frozenRegistry.getBeanDefinition(beanId).getScope();
+        if(scope == ScopeType.POOLED || scope.isScopedProxyRequired()) {
+            InjectionPlan.checkInjectable(frozenRegistry, beanId, dependencyName,
+                    argument ? plan.getArgumentType(index) : plan.getField(index).getType(),
+                    argument ? plan.describeArgument(index) : plan.describeField(index));
+        }
+        return getInjectableBean(beanId);
+    }
+
+    /**
+     * 获取（不存在则创建）作用域代理，代理实现目标Bean类型的所有接口
+     * @param beanId 请求/线程作用域的Bean
+     * @return 代理
+     */
+    private synchronized Object getScopedProxy(int beanId) {
+        Object proxy = scopedProxies[beanId];
+        if(proxy == null) {
+            BeanDefinition beanDefinition = frozenRegistry.getBeanDefinition(beanId);
+            Set<Class<?>> interfaces = new LinkedHashSet<>();
+            for(Class<?> c = beanDefinition.getBeanClass(); c != null; c = c.getSuperclass()){
+                for(Class<?> i : c.getInterfaces()){
+                    interfaces.add(i);
+                }
+            }
+            proxy = Proxy.newProxyInstance(beanDefinition.getBeanClass().getClassLoader(), interfaces.toArray(new Class<?>[0]),
+                    new ScopedProxyHandler(beanDefinition.getBeanName(), () -> getBean(beanId), tracer));
+            scopedProxies[beanId] = proxy;
+        }
+        return proxy;
+    }
+
+    /**
+     * 实例化Bean：按注入计划取得构造器（或@Bean方法）的实参，再通过调用器创建实例。
+     * 实例@Bean方法先取得所在的配置类Bean；增强后的配置类实例化后设置拦截器，@Bean方法互相调用时按beanId取容器中的Bean
+     * @param beanId
+     * @param beanDefinition
+     * @param plan
+     * @return
+     */
+    private Object doInstantiate(int beanId, BeanDefinition beanDefinition, InjectionPlan plan) {
+        Object[] arguments = plan.newArguments();
+        for(int i = 0; i < arguments.length; ++ i){
+            int dependencyId = plan.getArgumentId(i);
+            Object argument = plan.getArgumentProvidedType(i) != null
+                    ? getObjectProvider(dependencyId, plan.getArgumentName(i), plan.getArgumentProvidedType(i))
+                    : dependencyId >= 0 ? getInjectableBean(dependencyId)
+                    : getUnregisteredDependency(plan.getArgumentName(i), plan, i, true);
+            if(argument == null && plan.isArgumentRequired(i)) {
+                throw new NullPointerException(plan.getArgumentName(i) + " is not exist.");
+            }
+            arguments[i] = argument;
+        }
+        // 原生对象
+        Object factory = plan.getFactoryBeanId() >= 0 ? getBean(plan.getFactoryBeanId()) : null;
+        Object instance;
+        if(factory instanceof EnhancedConfiguration) {
+            // 记录正在执行的@Bean方法，方法体中的Bean间调用登记为该Bean的依赖
+            int[] invocation = beanMethodInvocation.get();
+            int outer = invocation[0];
+            invocation[0] = beanId;
+            try {
+                instance = plan.newInstance(factory, arguments);
+            } finally {
+                invocation[0] = outer;
+            }
+        } else {
+            instance = plan.newInstance(factory, arguments);
+        }
+        if(instance == null) {
+            throw new IllegalStateException("@Bean method for " + beanDefinition.getBeanName() + " returned null.");
+        }
+        if(instance instanceof EnhancedConfiguration) {
+            String[] beanMethodNames = beanDefinition.getBeanMethodNames();
+            int[] beanMethodIds = new int[beanMethodNames.length];
+            for(int i = 0; i < beanMethodNames.length; ++ i){
+                beanMethodIds[i] = frozenRegistry.getBeanId(beanMethodNames[i]);
+            }
+            ((EnhancedConfiguration) instance).setBeanMethodInterceptor((methodIndex, args) -> {
+                if(beanMethodIds[methodIndex] < 0) {
+                    throw new IllegalStateException("Bean " + beanMethodNames[methodIndex] + " is not registered, see getExcludedBeans().");
+                }
+                // 借出的池化实例没有调用方负责归还
+                BeanDefinition target = frozenRegistry.getBeanDefinition(beanMethodIds[methodIndex]);
+                if(target != null && target.getScope() == ScopeType.POOLED) {
+                    throw new IllegalStateException("Pooled bean " + beanMethodNames[methodIndex]
+                            + " cannot be obtained by calling its @Bean method, borrow it with getBean and return it with releaseBean.");
+                }
+                recordBeanMethodCall(beanMethodInvocation.get()[0], beanMethodIds[methodIndex]);
+                return getBean(beanMethodIds[methodIndex]);
+            });
+        }
+        // 只有正在创建的单例才会提前暴露，prototype每次都实例化新的对象
+        if(beanDefinition.getScope() == ScopeType.SINGLETON) {
+            earlySingletonObjects[beanId] = instance;
+        }
+        return instance;
+    }
+
+    /**
+     * 登记Bean间调用：dependent的@Bean方法调用了dependency的@Bean方法。不在@Bean方法中的调用（dependent为-1）不登记
+     */
+    private synchronized void recordBeanMethodCall(int dependent, int dependency) {
+        int[][] calls = this.beanMethodCalls;
+        if(dependent < 0 || dependent == dependency || dependent >= calls.length) { return; }
+        int[] dependencies = calls[dependent];
+        if(dependencies == null) {
+            calls[dependent] = new int[]{dependency};
+            return;
+        }
+        for(int id : dependencies){
+            if(id == dependency) { return; }
+        }
+        int[] grown = Arrays.copyOf(dependencies, dependencies.length + 1);
+        grown[dependencies.length] = dependency;
+        calls[dependent] = grown;
+    }
+
+    /**
+     * 通过类型获取Bean：只有一个类型匹配的Bean时返回它；有多个时返回beanName为类型简单类名（首字母小写）的那个；
+     * 子容器中没有时到父容器中查找
+     * @param beanType 类型（类或接口）
+     * @return
      */
     @Override
-    public Object getBean(Class<?> beanName) {
-        return null;
+    public Object getBean(Class<?> beanType) {
+        int[] beanIds = getBeanIdsForType(beanType);
+        if(beanIds.length == 1) {
+            return getBean(beanIds[0]);
+        }
+        if(beanIds.length == 0) {
+            if(parent != null) { return parent.getBean(beanType); }
+            throw new NullPointerException("No bean of type " + beanType.getName() + " is exist.");
+        }
+        int beanId = frozenRegistry.getBeanId(StringUtil.toLowerFirstCase(beanType.getSimpleName()));
+        for(int candidate : beanIds) {
+            if(candidate == beanId) { return getBean(beanId); }
+        }
+        List<String> names = new ArrayList<>();
+        for(int candidate : beanIds) {
+            names.add(frozenRegistry.getBeanName(candidate));
+        }
+        throw new IllegalStateException("Expected a single bean of type " + beanType.getName() + " but found " + names + ".");
+    }
+
+    /**
+     * 返回类型匹配的Bean的beanId（按beanId顺序，不含父容器），结果按类型缓存，增量重新加载后清空
+     * @param beanType 类型（类或接口）
+     * @return
+     */
+    public int[] getBeanIdsForType(Class<?> beanType) {
+        int[] beanIds = beanIdsByType.get(beanType);
+        if(beanIds == null) {
+            FrozenBeanRegistry registry = this.frozenRegistry;
+            List<Integer> matches = new ArrayList<>();
+            for(int beanId = 0; beanId < registry.size(); ++ beanId){
+                BeanDefinition beanDefinition = registry.getBeanDefinition(beanId);
+                if(beanDefinition != null && beanType.isAssignableFrom(beanDefinition.getBeanClass())) { matches.add(beanId); }
+            }
+            beanIds = new int[matches.size()];
+            for(int i = 0; i < beanIds.length; ++ i){
+                beanIds[i] = matches.get(i);
+            }
+            // 计算期间发生了增量重新加载时不缓存
+            if(registry == this.frozenRegistry) { beanIdsByType.putIfAbsent(beanType, beanIds); }
+        }
+        return beanIds;
     }
 
     /**
-     * 返回已注册的Bean定义的数量（委派IoC管理的Bean的总量）
+     * 返回容器（及其父容器）中所有类型匹配的Bean，子容器在前
+     * @param beanType 类型（类或接口）
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> streamBeansOfType(Class<T> beanType) {
+        Stream<T> beans = IntStream.of(getBeanIdsForType(beanType)).mapToObj(beanId -> (T) getBean(beanId));
+        return parent == null ? beans : Stream.concat(beans, parent.streamBeansOfType(beanType));
+    }
+
+    /**
+     * 创建注入到ObjectProvider<T>字段或形参的对象：绑定到按名字预先解析好的beanId（子容器中没有时为父容器中的beanId）
+     * @param dependencyId 注入计划中解析好的beanId，-1表示子容器中不存在
+     * @param dependencyName 依赖的名字
+     * @param providedType T
+     * @return
+     */
+    private ObjectProvider<?> getObjectProvider(int dependencyId, String dependencyName, Class<?> providedType) {
+        WhAnnotationApplicationContext owner = this;
+        while(dependencyId < 0 && owner.parent != null) {
+            owner = owner.parent;
+            dependencyId = owner.frozenRegistry.getBeanId(dependencyName);
+        }
+        return new BeanSlotObjectProvider<>(owner, this, dependencyId, dependencyName, providedType);
+    }
+
+    /**
+     * 开启增量重新加载：监听扫描的class目录，class文件变化时调用reload，结果打印到标准错误
+     * @return 监听器，close后停止监听
+     * @throws IOException
+     */
+    public ClassDirectoryWatcher enableHotReload() throws IOException {
+        BeanDefinitionReader reader = reader();
+        File scanRoot = reader.getScanRoot();
+        if(scanRoot == null){
+            throw new IllegalStateException("Hot reload requires a @ComponentScan class directory.");
+        }
+        return new ClassDirectoryWatcher(reader.getClassRoot().toPath(), scanRoot.toPath(), changes -> {
+            RefreshEvent event = reload(changes);
+            System.err.println("[whspring] " + event);
+        }).start();
+    }
+
+    public void addRefreshListener(RefreshListener listener) {
+        refreshListeners.add(listener);
+    }
+
+    /**
+     * 增量重新加载：只用新的子优先类加载器重新读取变化的类（以及依赖它们的Bean的类），重新注册受影响的BeanDefinition，
+     * 重新创建这些Bean和（沿依赖图传递地）依赖它们的单例，其余Bean保持不变，已有Bean的beanId也保持不变。
+     * 重新创建失败时恢复到重新加载之前的状态；成功时销毁被替换的单例和对象池。后处理器本身发生变化时需要重启
+     * @param changes class文件的变化
+     * @return 重新加载的结果
+     */
+    public synchronized RefreshEvent reload(ClassChanges changes) {
+        long start = System.nanoTime();
+        FrozenBeanRegistry previous = this.frozenRegistry;
+        DependencyIndex index = dependencyIndex();
+
+        // 1. 变化和删除的类，内部类的变化视为外部类的变化
+        Set<String> changedClasses = new LinkedHashSet<>();
+        Set<String> deletedClasses = new LinkedHashSet<>();
+        collectChangedClasses(changes, changedClasses, deletedClasses);
+
+        // 2. 定义发生变化的Bean，以及沿依赖图传递地依赖它们的Bean
+        Set<Integer> refreshed = collectAffectedBeans(index, changedClasses, deletedClasses);
+
+        // 3. 用新的类加载器加载变化的类和依赖方的类（依赖方的字段类型可能引用了变化的类）
+        ReloadClassLoader classLoader = createReloadClassLoader(previous, refreshed, changedClasses, deletedClasses);
+
+        // 4. 派生新的注册表：替换或删除受影响的BeanDefinition，注册新增的
+        FrozenBeanRegistry.Builder builder = previous.toBuilder();
+        Set<String> removedBeanNames = reloadBeanDefinitions(builder, previous, index, classLoader, refreshed, changedClasses, deletedClasses);
+        FrozenBeanRegistry next = builder.build();
+
+        // 5. 别名变化或新增的Bean可能改变其他Bean的依赖解析结果，这些Bean（及其依赖方）也需要重新创建
+        Set<Integer> resolutionChanged = collectResolutionChanges(index, next, builder.getChangedNames(), refreshed);
+        if(!resolutionChanged.isEmpty()){
+            for(int beanId : index.collectDependents(resolutionChanged)){
+                if(refreshed.add(beanId)) {
+                    assertNotPostProcessor(previous.getBeanDefinition(beanId).getBeanClass());
+                    builder.clearSingleton(beanId);
+                }
+            }
+            next = builder.build();
+        }
+        // @Bean方法按原来的类编译，形参类型必须仍能接收重新加载后的依赖
+        for(int beanId : refreshed){
+            BeanDefinition beanDefinition = next.getBeanDefinition(beanId);
+            if(beanDefinition != null && beanDefinition.getFactoryMethod() != null) { assertFactoryMethodReloadable(beanDefinition, next); }
+        }
+
+        // 6. 为受影响的Bean重新解析@EventListener、@Scheduled方法（第8步提交时替换），再按新的注册表调整按beanId索引的数组
+        List<EventListenerMethod> listeners = new ArrayList<>();
+        Map<Integer, List<ScheduledTask>> tasks = new HashMap<>();
+        collectListenersAndTasks(next, refreshed, listeners, tasks);
+        BeanArrays old = captureBeanArrays();
+        installBeanArrays(resizeBeanArrays(old, previous, next, index, refreshed), next);
+
+        // 7. 重新创建受影响的非懒加载单例，失败时恢复
+        int recreated;
+        try {
+            recreated = recreateSingletons(next, refreshed);
+        } catch (RuntimeException e) {
+            installBeanArrays(old, previous);
+            // 索引中可能已记录了新的注入计划，下次重新加载时重建
+            this.dependencyIndex = null;
+            throw e;
+        }
+
+        // 8. 提交：记录新的类加载器和类名索引，替换受影响的Bean的监听方法和定时任务
+        commitReload(classLoader, previous, next, index, refreshed, listeners, tasks);
+
+        // 9. 新的Bean安装完成后销毁被替换的单例和对象池，再通知回调
+        destroyReplacedBeans(previous, old, refreshed);
+        RefreshEvent event = new RefreshEvent(refreshed, removedBeanNames, recreated, System.nanoTime() - start);
+        for(RefreshListener listener : refreshListeners){
+            listener.onRefresh(event);
+        }
+        return event;
+    }
+
+    /**
+     * 重新加载第1步：内部类的变化视为外部类的变化，删除的内部类也视为外部类的变化。
+     * 声明了@Bean方法的配置类不能重新加载
+     */
+    private void collectChangedClasses(ClassChanges changes, Set<String> changedClasses, Set<String> deletedClasses) {
+        for(String className : changes.getChangedClasses()){
+            changedClasses.add(outerClassName(className));
+        }
+        for(String className : changes.getDeletedClasses()){
+            String outer = outerClassName(className);
+            if(outer.equals(className)) { deletedClasses.add(className); } else { changedClasses.add(outer); }
+        }
+        changedClasses.removeAll(deletedClasses);
+        String configClassName = configClass.getName();
+        if(declaresBeanMethods(configClass) && (changedClasses.contains(configClassName) || deletedClasses.contains(configClassName))){
+            throw new IllegalStateException("Configuration class " + configClassName
+                    + " declares @Bean methods and cannot be reloaded, restart the application.");
+        }
+    }
+
+    /**
+     * 重新加载第2步：类发生变化或被删除的Bean，以及沿依赖图传递地依赖它们的Bean
+     */
+    private static Set<Integer> collectAffectedBeans(DependencyIndex index, Set<String> changedClasses, Set<String> deletedClasses) {
+        Set<Integer> affected = new LinkedHashSet<>();
+        for(String className : changedClasses){
+            Integer beanId = index.getBeanId(className);
+            if(beanId != null) { affected.add(beanId); }
+        }
+        for(String className : deletedClasses){
+            Integer beanId = index.getBeanId(className);
+            if(beanId != null) { affected.add(beanId); }
+        }
+        return index.collectDependents(affected);
+    }
+
+    /**
+     * 重新加载第3步：子优先的类加载器，重新读取变化的类和受影响的Bean的类（@Bean方法创建的Bean除外）
+     */
+    private ReloadClassLoader createReloadClassLoader(FrozenBeanRegistry previous, Set<Integer> refreshed,
+                                                      Set<String> changedClasses, Set<String> deletedClasses) {
+        Set<String> reloadClasses = new HashSet<>(changedClasses);
+        for(int beanId : refreshed){
+            if(isBeanMethodDefinition(previous.getBeanDefinition(beanId))) { continue; }
+            String className = previous.getBeanDefinition(beanId).getBeanClassName();
+            if(!deletedClasses.contains(className)) { reloadClasses.add(className); }
+        }
+        return new ReloadClassLoader(currentClassLoader(), reader().getClassRoot().toPath(), reloadClasses);
+    }
+
+    /**
+     * 重新加载第4步：在builder上替换或删除受影响的BeanDefinition，注册新增的类（新增的beanId加入refreshed）
+     * @return 被删除的Bean的beanName
+     */
+    private Set<String> reloadBeanDefinitions(FrozenBeanRegistry.Builder builder, FrozenBeanRegistry previous, DependencyIndex index,
+                                              ClassLoader classLoader, Set<Integer> refreshed,
+                                              Set<String> changedClasses, Set<String> deletedClasses) {
+        BeanDefinitionReader reader = reader();
+        Set<String> removedBeanNames = new LinkedHashSet<>();
+        for(int beanId : new ArrayList<>(refreshed)){
+            BeanDefinition old = previous.getBeanDefinition(beanId);
+            assertNotPostProcessor(old.getBeanClass());
+            // @Bean方法创建的Bean和配置类Bean只因依赖变化而重新创建，定义不变
+            if(isBeanMethodDefinition(old)){
+                builder.clearSingleton(beanId);
+                continue;
+            }
+            builder.removeAliases(beanId, reader.getInterfaceAliases(old.getBeanClass()));
+            BeanDefinition beanDefinition = deletedClasses.contains(old.getBeanClassName()) ? null
+                    : reader.loadBeanDefinition(loadClass(classLoader, old.getBeanClassName()));
+            if(beanDefinition == null){
+                builder.remove(beanId);
+                removedBeanNames.add(old.getBeanName());
+                continue;
+            }
+            assertNotPostProcessor(beanDefinition.getBeanClass());
+            builder.replace(beanId, beanDefinition);
+            for(String alias : reader.getInterfaceAliases(beanDefinition.getBeanClass())){
+                builder.registerAlias(alias, beanDefinition.getBeanName());
+            }
+        }
+        for(String className : changedClasses){
+            if(index.getBeanId(className) != null) { continue; }
+            BeanDefinition beanDefinition = reader.loadBeanDefinition(loadClass(classLoader, className));
+            if(beanDefinition == null) { continue; }
+            assertNotPostProcessor(beanDefinition.getBeanClass());
+            refreshed.add(builder.add(beanDefinition));
+            for(String alias : reader.getInterfaceAliases(beanDefinition.getBeanClass())){
+                builder.registerAlias(alias, beanDefinition.getBeanName());
+            }
+        }
+        return removedBeanNames;
+    }
+
+    /**
+     * 重新加载第5步：按变化的名字注入、且在新的注册表中解析到不同Bean的Bean（不含已在refreshed中的）
+     */
+    private Set<Integer> collectResolutionChanges(DependencyIndex index, FrozenBeanRegistry next, Set<String> changedNames, Set<Integer> refreshed) {
+        Set<Integer> resolutionChanged = new LinkedHashSet<>();
+        for(int beanId : index.getDependentsByNames(changedNames)){
+            InjectionPlan plan = injectionPlans[beanId];
+            if(plan == null || refreshed.contains(beanId)) { continue; }
+            if(plan.getFactoryBeanName() != null && next.getBeanId(plan.getFactoryBeanName()) != plan.getFactoryBeanId()) {
+                resolutionChanged.add(beanId);
+                continue;
+            }
+            for(int i = 0; i < plan.getArgumentCount(); ++ i){
+                if(next.getBeanId(plan.getArgumentName(i)) != plan.getArgumentId(i)) {
+                    resolutionChanged.add(beanId);
+                    break;
+                }
+            }
+            for(int i = 0; i < plan.size(); ++ i){
+                if(next.getBeanId(plan.getDependencyName(i)) != plan.getDependencyId(i)) {
+                    resolutionChanged.add(beanId);
+                    break;
+                }
+            }
+        }
+        return resolutionChanged;
+    }
+
+    /**
+     * 重新加载第6步：为受影响的Bean重新解析@EventListener和@Scheduled方法
+     */
+    private void collectListenersAndTasks(FrozenBeanRegistry next, Set<Integer> refreshed,
+                                          List<EventListenerMethod> listeners, Map<Integer, List<ScheduledTask>> tasks) {
+        for(int beanId : refreshed){
+            BeanDefinition beanDefinition = next.getBeanDefinition(beanId);
+            if(beanDefinition == null) { continue; }
+            collectEventListeners(beanId, beanDefinition, listeners);
+            List<ScheduledTask> beanTasks = createScheduledTasks(beanId, beanDefinition);
+            if(!beanTasks.isEmpty()) { tasks.put(beanId, beanTasks); }
+        }
+    }
+
+    /**
+     * 重新加载第6步：按新的注册表扩展按beanId索引的数组，只重置受影响的Bean（旧的注入计划从索引中移除，池化Bean创建新的对象池）
+     */
+    private BeanArrays resizeBeanArrays(BeanArrays old, FrozenBeanRegistry previous, FrozenBeanRegistry next,
+                                        DependencyIndex index, Set<Integer> refreshed) {
+        int size = next.size();
+        BeanArrays arrays = new BeanArrays(Arrays.copyOf(old.injectionPlans, size), Arrays.copyOf(old.pools, size),
+                Arrays.copyOf(old.beanMethodCalls, size), Arrays.copyOf(old.scopeSlots, size), Arrays.copyOf(old.scopedProxies, size), Arrays.copyOf(old.postProcessorChains, size),
+                new boolean[size], new Object[size]);
+        for(int beanId : refreshed){
+            BeanDefinition beanDefinition = next.getBeanDefinition(beanId);
+            ScopeType oldScope = beanId < previous.size() && previous.getBeanDefinition(beanId) != null
+                    ? previous.getBeanDefinition(beanId).getScope() : null;
+            if(beanId < old.injectionPlans.length && old.injectionPlans[beanId] != null){
+                unindexDependencies(index, beanId, old.injectionPlans[beanId]);
+            }
+            arrays.injectionPlans[beanId] = null;
+            arrays.pools[beanId] = null;
+            arrays.beanMethodCalls[beanId] = null;
+            if(beanDefinition == null){
+                arrays.scopeSlots[beanId] = -1;
+                arrays.scopedProxies[beanId] = null;
+                arrays.postProcessorChains[beanId] = BeanPostProcessorChain.EMPTY;
+                continue;
+            }
+            ScopeType scope = beanDefinition.getScope();
+            arrays.postProcessorChains[beanId] = BeanPostProcessorChain.resolve(beanDefinition.getBeanClass(), postProcessors);
+            if(scope == ScopeType.POOLED){
+                arrays.pools[beanId] = createPool(beanId, beanDefinition);
+            }
+            // 作用域不变时沿用原来的存储下标和作用域代理（代理按beanId取目标Bean，不受类变化影响）
+            if(scope != oldScope){
+                arrays.scopeSlots[beanId] = scope == ScopeType.REQUEST ? requestScopedCount ++
+                        : scope == ScopeType.THREAD ? threadScopedCount ++ : -1;
+                arrays.scopedProxies[beanId] = null;
+            }
+        }
+        return arrays;
+    }
+
+    private BeanArrays captureBeanArrays() {
+        return new BeanArrays(injectionPlans, pools, beanMethodCalls, scopeSlots, scopedProxies, postProcessorChains,
+                singletonsCurrentlyInCreation, earlySingletonObjects);
+    }
+
+    /**
+     * 替换按beanId索引的数组和注册表。数组先于注册表赋值，读取方先读注册表再读数组
+     */
+    private void installBeanArrays(BeanArrays arrays, FrozenBeanRegistry registry) {
+        this.injectionPlans = arrays.injectionPlans;
+        this.pools = arrays.pools;
+        this.beanMethodCalls = arrays.beanMethodCalls;
+        this.scopeSlots = arrays.scopeSlots;
+        this.scopedProxies = arrays.scopedProxies;
+        this.postProcessorChains = arrays.postProcessorChains;
+        this.singletonsCurrentlyInCreation = arrays.singletonsCurrentlyInCreation;
+        this.earlySingletonObjects = arrays.earlySingletonObjects;
+        this.registry.replaceFrozenRegistry(registry);
+        this.frozenRegistry = registry;
+        this.beanIdsByType.clear();
+    }
+
+    /**
+     * 重新加载第7步：重新创建受影响的非懒加载单例
+     * @return 重新创建的单例数量
+     */
+    private int recreateSingletons(FrozenBeanRegistry next, Set<Integer> refreshed) {
+        int recreated = 0;
+        for(int beanId : refreshed){
+            BeanDefinition beanDefinition = next.getBeanDefinition(beanId);
+            if(beanDefinition != null && beanDefinition.getScope() == ScopeType.SINGLETON && !beanDefinition.isLazyInit()){
+                getBean(beanId);
+                ++ recreated;
+            }
+        }
+        return recreated;
+    }
+
+    /**
+     * 重新加载第8步：记录新的类加载器，替换受影响的Bean的监听方法和定时任务，更新类名索引
+     */
+    private void commitReload(ClassLoader classLoader, FrozenBeanRegistry previous, FrozenBeanRegistry next, DependencyIndex index,
+                              Set<Integer> refreshed, List<EventListenerMethod> listeners, Map<Integer, List<ScheduledTask>> tasks) {
+        this.currentClassLoader = classLoader;
+        eventListeners.replaceListeners(refreshed, listeners);
+        for(int beanId : refreshed){
+            List<ScheduledTask> old = scheduledTasks.remove(beanId);
+            if(old != null) { old.forEach(ScheduledTask::cancel); }
+        }
+        for(Map.Entry<Integer, List<ScheduledTask>> entry : tasks.entrySet()){
+            startScheduledTasks(entry.getKey(), entry.getValue());
+        }
+        for(int beanId : refreshed){
+            BeanDefinition old = beanId < previous.size() ? previous.getBeanDefinition(beanId) : null;
+            if(old != null && !isBeanMethodDefinition(old)){
+                index.removeClass(old.getBeanClassName());
+            }
+        }
+        for(int beanId : refreshed){
+            BeanDefinition beanDefinition = next.getBeanDefinition(beanId);
+            if(beanDefinition != null && !isBeanMethodDefinition(beanDefinition)) {
+                index.putClass(beanDefinition.getBeanClassName(), beanId);
+            }
+        }
+    }
+
+    /**
+     * 重新加载第9步：按原来的依赖关系销毁被替换或删除的单例，关闭旧的对象池并销毁其中的空闲实例（借出的实例归还时销毁）
+     */
+    private void destroyReplacedBeans(FrozenBeanRegistry previous, BeanArrays old, Set<Integer> refreshed) {
+        SingletonDestroyer destroyer = new SingletonDestroyer();
+        int[] indexes = new int[previous.size()];
+        Arrays.fill(indexes, -1);
+        for(int beanId : refreshed){
+            if(beanId >= previous.size()) { continue; }
+            Object singleton = previous.getSingleton(beanId);
+            BeanDefinition beanDefinition = previous.getBeanDefinition(beanId);
+            if(singleton != null && beanDefinition != null){
+                indexes[beanId] = destroyer.register(beanDefinition.getBeanName(), singleton, getDestroyMethodName(beanDefinition));
+            }
+        }
+        for(int beanId : refreshed){
+            if(beanId < indexes.length && indexes[beanId] >= 0) {
+                addDestroyDependencies(destroyer, indexes, indexes[beanId], old.injectionPlans[beanId], old.beanMethodCalls[beanId]);
+            }
+        }
+        for(int beanId : refreshed){
+            ObjectPool<Object> pool = beanId < old.pools.length ? old.pools[beanId] : null;
+            if(pool == null) { continue; }
+            String destroyMethod = getDestroyMethodName(previous.getBeanDefinition(beanId));
+            for(Object instance : pool.close()){
+                addDestroyDependencies(destroyer, indexes, destroyer.register(pool.getName(), instance, destroyMethod),
+                        old.injectionPlans[beanId], old.beanMethodCalls[beanId]);
+            }
+            if(pool.size() > 0){
+                retiredPools.computeIfAbsent(beanId, id -> new CopyOnWriteArrayList<>()).add(pool);
+            }
+        }
+        if(destroyer.size() > 0){
+            destroyer.destroy(SingletonDestroyer.getTimeoutMillis(environment), TimeUnit.MILLISECONDS, SingletonDestroyer.getThreads(environment));
+        }
+    }
+
+    /**
+     * 返回增量重新加载的索引，第一次调用时根据注册表和已解析的注入计划建立
+     */
+    private DependencyIndex dependencyIndex() {
+        DependencyIndex index = this.dependencyIndex;
+        if(index == null){
+            index = new DependencyIndex();
+            for(int beanId = 0; beanId < frozenRegistry.size(); ++ beanId){
+                BeanDefinition beanDefinition = frozenRegistry.getBeanDefinition(beanId);
+                if(beanDefinition == null) { continue; }
+                if(!isBeanMethodDefinition(beanDefinition)) { index.putClass(beanDefinition.getBeanClassName(), beanId); }
+                if(injectionPlans[beanId] != null) { indexDependencies(index, beanId, injectionPlans[beanId]); }
+            }
+            this.dependencyIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * @Bean方法不随依赖重新加载：形参声明为被重新加载的类（而不是接口）时无法传入新的实例，需要重启
+     */
+    private static void assertFactoryMethodReloadable(BeanDefinition beanDefinition, FrozenBeanRegistry registry) {
+        InjectionPlan plan = InjectionPlan.resolveFactoryMethod(beanDefinition.getFactoryMethod(), beanDefinition.getFactoryBeanName(), registry);
+        for(int i = 0; i < plan.getArgumentCount(); ++ i){
+            int dependencyId = plan.getArgumentId(i);
+            if(dependencyId < 0 || plan.getArgumentProvidedType(i) != null) { continue; }
+            Class<?> dependencyClass = registry.getBeanDefinition(dependencyId).getBeanClass();
+            if(!plan.getArgumentType(i).isAssignableFrom(dependencyClass)){
+                throw new IllegalStateException(plan.describeArgument(i) + " is declared as reloaded class "
+                        + dependencyClass.getName() + ", declare it as an interface or restart the application.");
+            }
+        }
+    }
+
+    /**
+     * @Bean方法创建的Bean或配置类Bean：不按类名索引，类变化时不重新加载
+     */
+    private static boolean isBeanMethodDefinition(BeanDefinition beanDefinition) {
+        return beanDefinition.getFactoryMethod() != null || beanDefinition.getBeanMethodNames() != null;
+    }
+
+    /**
+     * 把注入计划中的依赖记入索引。通过作用域代理或ObjectProvider注入的依赖只按名字记录，目标变化时依赖方不需要重新创建。
+     * 实例@Bean方法依赖所在的配置类Bean
+     */
+    private void indexDependencies(DependencyIndex index, int beanId, InjectionPlan plan) {
+        if(plan.getFactoryBeanName() != null){
+            index.addDependency(beanId, plan.getFactoryBeanName(), plan.getFactoryBeanId(), true);
+        }
+        for(int i = 0; i < plan.getArgumentCount(); ++ i){
+            int dependencyId = plan.getArgumentId(i);
+            BeanDefinition dependency = dependencyId < 0 ? null : frozenRegistry.getBeanDefinition(dependencyId);
+            index.addDependency(beanId, plan.getArgumentName(i), dependencyId, dependency != null
+                    && !dependency.getScope().isScopedProxyRequired() && plan.getArgumentProvidedType(i) == null);
+        }
+        for(int i = 0; i < plan.size(); ++ i){
+            int dependencyId = plan.getDependencyId(i);
+            BeanDefinition dependency = dependencyId < 0 ? null : frozenRegistry.getBeanDefinition(dependencyId);
+            index.addDependency(beanId, plan.getDependencyName(i), dependencyId, dependency != null
+                    && !dependency.getScope().isScopedProxyRequired() && plan.getProvidedType(i) == null);
+        }
+    }
+
+    private static void unindexDependencies(DependencyIndex index, int beanId, InjectionPlan plan) {
+        if(plan.getFactoryBeanName() != null){
+            index.removeDependency(beanId, plan.getFactoryBeanName(), plan.getFactoryBeanId());
+        }
+        for(int i = 0; i < plan.getArgumentCount(); ++ i){
+            index.removeDependency(beanId, plan.getArgumentName(i), plan.getArgumentId(i));
+        }
+        for(int i = 0; i < plan.size(); ++ i){
+            index.removeDependency(beanId, plan.getDependencyName(i), plan.getDependencyId(i));
+        }
+    }
+
+    private ClassLoader currentClassLoader() {
+        return currentClassLoader != null ? currentClassLoader : configClass.getClassLoader();
+    }
+
+    /**
+     * 返回BeanDefinitionReader，按启动计划启动时在这里才扫描（只有增量重新加载需要），沿用计划中条件不满足的Bean
+     */
+    private synchronized BeanDefinitionReader reader() {
+        if(reader == null){
+            BeanDefinitionReader created = new BeanDefinitionReader(configClass, configClass.getClassLoader(), environment);
+            created.getExcludedBeans().putAll(excludedBeans);
+            this.excludedBeans = created.getExcludedBeans();
+            this.reader = created;
+        }
+        return reader;
+    }
+
+    /**
+     * 把扫描结果写入启动计划，写入失败不影响启动
+     */
+    private void writePlan(File planFile, List<BeanDefinition> beanDefinitionList) {
+        try {
+            ContextPlan.write(planFile, reader, beanDefinitionList);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[whspring] Failed to write context plan " + planFile + ": " + e);
+        }
+    }
+
+    private static boolean declaresBeanMethods(Class<?> configClass) {
+        for(Method method : configClass.getDeclaredMethods()){
+            if(method.isAnnotationPresent(Bean.class)) { return true; }
+        }
+        return false;
+    }
+
+    private static String outerClassName(String className) {
+        int index = className.indexOf('$');
+        return index < 0 ? className : className.substring(0, index);
+    }
+
+    private static Class<?> loadClass(ClassLoader classLoader, String className) {
+        try {
+            return Class.forName(className, true, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void assertNotPostProcessor(Class<?> beanClass) {
+        if(BeanPostProcessor.class.isAssignableFrom(beanClass)){
+            throw new IllegalStateException("BeanPostProcessor " + beanClass.getName()
+                    + " is affected by the change, the context must be restarted.");
+        }
+    }
+
+    /**
+     * 返回Bean的类型，不会创建Bean；子容器中没有时到父容器中查找
+     * @param beanName beanName或别名
+     * @return bean的类型，不存在时返回null
+     */
+    public Class<?> getType(String beanName) {
+        int beanId = frozenRegistry.getBeanId(beanName);
+        if(beanId < 0) {
+            return parent == null ? null : parent.getType(beanName);
+        }
+        return frozenRegistry.getBeanDefinition(beanId).getBeanClass();
+    }
+
+    /**
+     * 返回Bean的类型，不会创建Bean
+     * @param beanId getBeanId返回的beanId
+     * @return bean的类型，Bean已被删除时返回null
+     */
+    public Class<?> getType(int beanId) {
+        BeanDefinition beanDefinition = frozenRegistry.getBeanDefinition(beanId);
+        return beanDefinition == null ? null : beanDefinition.getBeanClass();
+    }
+
+    /**
+     * 返回beanId对应的beanName
+     * @param beanId getBeanId返回的beanId
+     * @return beanName，Bean已被删除时返回null
+     */
+    public String getBeanName(int beanId) {
+        return frozenRegistry.getBeanName(beanId);
+    }
+
+    /**
+     * 返回父容器，没有时返回null
+     * @return
+     */
+    public WhAnnotationApplicationContext getParent(){
+        return this.parent;
+    }
+
+    /**
+     * 返回已注册的Bean定义的数量（委派IoC管理的Bean的总量，不含父容器中的Bean）
      * @return
      */
     public int beanDefinitionCount(){
-        return this.registry.beanDefinitionMap.size();
+        return this.registry.getBeanDefinitionCount();
     }
 
     /**
-     * 返回已注册的所有BeanName
+     * 返回已注册的所有BeanName（不含父容器中的Bean）
      * @return
      */
     public String[] getBeanDefinitionNames(){
-        return this.registry.beanDefinitionMap.keySet().toArray(new String[0]);
+        return this.registry.getBeanDefinitionNames();
     }
 
+    /**
+     * 关闭容器，总时间由运行环境中的whspring.shutdown.timeout-millis指定（默认10秒）
+     */
+    @Override
+    public void close() {
+        close(SingletonDestroyer.getTimeoutMillis(environment), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 关闭容器，各步骤共享一个截止时间：
+     * 1. 取消@Scheduled任务，等待正在执行的任务结束；
+     * 2. 关闭容器创建的异步事件执行器和@Async执行器，等待已提交的任务执行完毕；
+     * 3. 关闭对象池，按依赖关系的逆序并行销毁单例和池中的空闲实例（DisposableBean、@Bean的destroyMethod），步骤1、2超时或被中断也会执行，此后getBean抛出IllegalStateException；
+     * 4. 关闭请求追踪并导出剩余的跨度（子容器与父容器共享追踪，由父容器关闭）。
+     * 只执行一次，不关闭父容器
+     * @param timeout 总的截止时间
+     * @param unit 时间单位
+     * @return 是否在截止时间内全部完成
+     */
+    public boolean close(long timeout, TimeUnit unit) {
+        if(!closed.compareAndSet(false, true)) { return true; }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean completed = true;
+        for(List<ScheduledTask> tasks : scheduledTasks.values()){
+            for(ScheduledTask task : tasks){
+                task.cancel();
+            }
+        }
+        scheduledTasks.clear();
+        // 每个执行器单独关闭：等待被中断时，其余的执行器仍然关闭（不再接受新任务），只是不再等待
+        boolean interrupted = false;
+        TaskScheduler scheduler = this.taskScheduler;
+        if(scheduler != null){
+            try {
+                completed = scheduler.shutdown(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        BatchingEventExecutor events = this.ownedEventExecutor;
+        if(events != null){
+            try {
+                completed &= events.shutdown(interrupted ? 0L : remainingNanos(deadline), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        try {
+            completed &= asyncExecutors.shutdown(interrupted ? System.nanoTime() : deadline);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        // 中断只取消等待：先清除中断状态让单例仍然销毁，返回前恢复
+        if(Thread.interrupted() || interrupted){
+            interrupted = true;
+            completed = false;
+        }
+        if(!completed){
+            System.err.println("[whspring] Background tasks of " + configClass.getName() + " did not finish before the shutdown deadline.");
+        }
+
+        destroyed = true;
+        completed &= createSingletonDestroyer().destroy(remainingNanos(deadline), TimeUnit.NANOSECONDS, SingletonDestroyer.getThreads(environment));
+        if(parent == null) { tracer.close(); }
+        if(interrupted) { Thread.currentThread().interrupt(); }
+        return completed;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    private static long remainingNanos(long deadline) {
+        return Math.max(0L, deadline - System.nanoTime());
+    }
+
+    /**
+     * 登记所有已创建的单例及其依赖关系：注入计划中的字段、构造器/@Bean方法的实参、实例@Bean方法所在的配置类Bean、@Bean方法中的Bean间调用。
+     * 同时关闭对象池，池中的空闲实例按同样的依赖关系登记，借出未归还的实例在归还时销毁
+     */
+    private SingletonDestroyer createSingletonDestroyer() {
+        FrozenBeanRegistry registry = this.frozenRegistry;
+        SingletonDestroyer destroyer = new SingletonDestroyer();
+        int[] indexes = new int[registry.size()];
+        Arrays.fill(indexes, -1);
+        for(int beanId = 0; beanId < registry.size(); ++ beanId){
+            Object singleton = registry.getSingleton(beanId);
+            BeanDefinition beanDefinition = registry.getBeanDefinition(beanId);
+            if(singleton == null || beanDefinition == null) { continue; }
+            indexes[beanId] = destroyer.register(beanDefinition.getBeanName(), singleton, getDestroyMethodName(beanDefinition));
+        }
+        for(int beanId = 0; beanId < registry.size(); ++ beanId){
+            if(indexes[beanId] >= 0) { addDestroyDependencies(destroyer, indexes, indexes[beanId], injectionPlans[beanId], beanMethodCalls[beanId]); }
+        }
+        for(int beanId = 0; beanId < registry.size(); ++ beanId){
+            ObjectPool<Object> pool = pools[beanId];
+            if(pool == null) { continue; }
+            String destroyMethod = getDestroyMethodName(registry.getBeanDefinition(beanId));
+            for(Object instance : pool.close()){
+                addDestroyDependencies(destroyer, indexes, destroyer.register(pool.getName(), instance, destroyMethod),
+                        injectionPlans[beanId], beanMethodCalls[beanId]);
+            }
+        }
+        return destroyer;
+    }
+
+    /**
+     * @Bean方法创建的Bean使用@Bean的destroyMethod（默认推断），组件只调用DisposableBean.destroy()
+     */
+    private static String getDestroyMethodName(BeanDefinition beanDefinition) {
+        Method factoryMethod = beanDefinition.getFactoryMethod();
+        return factoryMethod == null ? null : factoryMethod.getAnnotation(Bean.class).destroyMethod();
+    }
+
+    /**
+     * 登记dependent（销毁器中的序号）对注入计划中、以及其@Bean方法调用的已登记的单例的依赖
+     */
+    private static void addDestroyDependencies(SingletonDestroyer destroyer, int[] indexes, int dependent, InjectionPlan plan, int[] beanMethodCalls) {
+        if(beanMethodCalls != null) {
+            for(int dependencyId : beanMethodCalls){
+                addDestroyDependency(destroyer, indexes, dependent, dependencyId);
+            }
+        }
+        if(plan == null) { return; }
+        for(int i = 0; i < plan.size(); ++ i){
+            addDestroyDependency(destroyer, indexes, dependent, plan.getDependencyId(i));
+        }
+        for(int i = 0; i < plan.getArgumentCount(); ++ i){
+            addDestroyDependency(destroyer, indexes, dependent, plan.getArgumentId(i));
+        }
+        addDestroyDependency(destroyer, indexes, dependent, plan.getFactoryBeanId());
+    }
+
+    private static void addDestroyDependency(SingletonDestroyer destroyer, int[] indexes, int dependent, int dependencyId) {
+        if(dependencyId >= 0 && dependencyId < indexes.length && indexes[dependencyId] >= 0){
+            destroyer.addDependency(dependent, indexes[dependencyId]);
+        }
+    }
+
+    /**
+     * 返回启动报告（各阶段耗时，以及按自身耗时排序的Bean创建耗时）
+     * @return
+     */
+    public StartupReport getStartupReport(){
+        return this.startupRecorder.getReport();
+    }
+
+    /**
+     * 返回容器的指标注册表
+     * @return
+     */
+    public MetricsRegistry getMetricsRegistry(){
+        return this.metricsRegistry;
+    }
+
+    /**
+     * 返回@Async使用的具名执行器
+     * @return
+     */
+    public AsyncExecutorRegistry getAsyncExecutors(){
+        return this.asyncExecutors;
+    }
+
+    /**
+     * 返回请求追踪
+     * @return
+     */
+    public Tracer getTracer(){
+        return tracer;
+    }
+
+    /**
+     * 返回运行环境（属性和激活的profile）
+     * @return
+     */
+    public Environment getEnvironment(){
+        return environment;
+    }
+
+    /**
+     * 返回因@Profile、@Conditional...条件不满足而没有注册的组件类或@Bean方法，以及不满足的条件
+     * @return
+     */
+    public Map<String, String> getExcludedBeans(){
+        return Collections.unmodifiableMap(excludedBeans);
+    }
+
+
+    /**
+     * 按beanId索引的数组，增量重新加载时整体替换，失败时恢复
+     */
+    private static final class BeanArrays {
+        private final InjectionPlan[] injectionPlans;
+        private final ObjectPool<Object>[] pools;
+        private final int[][] beanMethodCalls;
+        private final int[] scopeSlots;
+        private final Object[] scopedProxies;
+        private final BeanPostProcessor[][] postProcessorChains;
+        private final boolean[] singletonsCurrentlyInCreation;
+        private final Object[] earlySingletonObjects;
+
+        private BeanArrays(InjectionPlan[] injectionPlans, ObjectPool<Object>[] pools, int[][] beanMethodCalls, int[] scopeSlots, Object[] scopedProxies,
+                           BeanPostProcessor[][] postProcessorChains, boolean[] singletonsCurrentlyInCreation, Object[] earlySingletonObjects) {
+            this.injectionPlans = injectionPlans;
+            this.pools = pools;
+            this.beanMethodCalls = beanMethodCalls;
+            this.scopeSlots = scopeSlots;
+            this.scopedProxies = scopedProxies;
+            this.postProcessorChains = postProcessorChains;
+            this.singletonsCurrentlyInCreation = singletonsCurrentlyInCreation;
+            this.earlySingletonObjects = earlySingletonObjects;
+        }
+    }
 }
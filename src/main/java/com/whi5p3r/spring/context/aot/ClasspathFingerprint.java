@@ -0,0 +1,80 @@
+package com.whi5p3r.spring.context.aot;
+
+import com.whi5p3r.spring.beans.support.BeanDefinitionReader;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @description: classpath指纹：配置类的class文件（或所在的jar）以及@ComponentScan目录下所有class文件（或basePackage所在的jar）的相对路径、长度和修改时间的64位FNV-1a哈希。
+ *               只读取目录和文件属性，不读取文件内容
+ * @author: whi5p3r
+ * @date: 2026年10月20日 00:40
+ */
+final class ClasspathFingerprint {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ClasspathFingerprint() {
+    }
+
+    /**
+     * @param configClass 配置类
+     * @param scanLocation @ComponentScan的basePackage对应的目录或所在的jar文件，没有时为null
+     * @return 指纹
+     */
+    static long compute(Class<?> configClass, File scanLocation) {
+        long hash = mix(FNV_OFFSET, configClass.getName());
+        URL resource = configClass.getResource(configClass.getSimpleName() + ".class");
+        File configFile = resource == null ? null : BeanDefinitionReader.toFile(resource);
+        if (configFile != null) {
+            hash = mixFile(hash, configFile.getPath(), configFile);
+        }
+        if (scanLocation != null && scanLocation.isDirectory()) {
+            hash = mixDirectory(hash, scanLocation, "");
+        } else if (scanLocation != null) {
+            hash = mixFile(hash, scanLocation.getPath(), scanLocation);
+        }
+        return hash;
+    }
+
+    private static long mixDirectory(long hash, File directory, String path) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return hash;
+        }
+        // listFiles的顺序与文件系统有关
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.isDirectory()) {
+                hash = mixDirectory(hash, file, path + file.getName() + "/");
+            } else if (file.getName().endsWith(".class")) {
+                hash = mixFile(hash, path + file.getName(), file);
+            }
+        }
+        return hash;
+    }
+
+    private static long mixFile(long hash, String path, File file) {
+        hash = mix(hash, path);
+        hash = mix(hash, file.length());
+        return mix(hash, file.lastModified());
+    }
+
+    private static long mix(long hash, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        // 分隔相邻的字符串
+        return (hash ^ 0xFF) * FNV_PRIME;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
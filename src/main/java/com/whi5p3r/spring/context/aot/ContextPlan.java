@@ -0,0 +1,407 @@
+package com.whi5p3r.spring.context.aot;
+
+import com.whi5p3r.spring.beans.config.BeanDefinition;
+import com.whi5p3r.spring.beans.config.ScopeType;
+import com.whi5p3r.spring.beans.support.BeanDefinitionReader;
+import com.whi5p3r.spring.beans.support.ConditionEvaluator;
+import com.whi5p3r.spring.beans.support.ConfigurationClassEnhancer;
+import com.whi5p3r.spring.core.env.Environment;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * @description: 启动计划：BeanDefinitionReader扫描和解析的结果（按注册顺序的BeanDefinition、别名、条件不满足的Bean）写成的紧凑二进制文件，
+ *               以classpath指纹为键。WhAnnotationApplicationContext启动时，指纹以及条件判断读取过的环境（激活的profile、属性、类是否存在）
+ *               都与文件中的一致，就直接按计划注册BeanDefinition，不再使用BeanDefinitionReader；否则回退到扫描，并重写计划文件。
+ *               系统属性whspring.aot.plan指定计划文件，每个配置类一个文件（文件名中插入配置类的全限定名，父子容器各自读写自己的计划），
+ *               可以在第一次启动时写入，也可以在构建时通过main方法生成（不创建任何Bean）
+ * @author: whi5p3r
+ * @date: 2026年10月20日 00:40
+ */
+public final class ContextPlan {
+    /**
+     * 计划文件的路径，没有指定时不使用启动计划。实际的文件按配置类区分：context.plan -> context.com.example.AppConfig.plan
+     */
+    public static final String PLAN_PROPERTY = "whspring.aot.plan";
+
+    private static final int MAGIC = 0x57485350;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte COMPONENT = 0;
+    private static final byte CONFIGURATION = 1;
+    private static final byte FACTORY_METHOD = 2;
+
+    private static final Method[] NO_METHODS = new Method[0];
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+    static {
+        for (Class<?> type : new Class<?>[]{boolean.class, byte.class, char.class, short.class, int.class,
+                long.class, float.class, double.class}) {
+            PRIMITIVES.put(type.getName(), type);
+        }
+    }
+
+    private final int scannedClassCount;
+    private final List<BeanDefinition> beanDefinitions;
+    private final Map<String, String> aliases;
+    private final Map<String, String> excludedBeans;
+
+    private ContextPlan(int scannedClassCount, List<BeanDefinition> beanDefinitions,
+                        Map<String, String> aliases, Map<String, String> excludedBeans) {
+        this.scannedClassCount = scannedClassCount;
+        this.beanDefinitions = beanDefinitions;
+        this.aliases = aliases;
+        this.excludedBeans = excludedBeans;
+    }
+
+    /**
+     * @param configClass 配置类
+     * @return 系统属性whspring.aot.plan指定的、这个配置类的计划文件，没有指定时返回null
+     */
+    public static File getPlanFile(Class<?> configClass) {
+        String path = System.getProperty(PLAN_PROPERTY);
+        return path == null || path.trim().isEmpty() ? null : getPlanFile(new File(path.trim()), configClass.getName());
+    }
+
+    /**
+     * 配置类的计划文件：在base的扩展名之前插入配置类的全限定名，没有扩展名时追加在后面
+     * @param base whspring.aot.plan指定的路径
+     * @param configClassName 配置类的全限定名
+     * @return 计划文件
+     */
+    public static File getPlanFile(File base, String configClassName) {
+        String name = base.getName();
+        int dot = name.lastIndexOf('.');
+        String fileName = dot > 0 ? name.substring(0, dot) + "." + configClassName + name.substring(dot)
+                : name + "." + configClassName;
+        return new File(base.getParentFile(), fileName);
+    }
+
+    /**
+     * 读取计划文件
+     * @param file 计划文件
+     * @param configClass 配置类
+     * @param environment 运行环境
+     * @return 计划；文件不存在、已过期（指纹或环境不一致）或无法读取时返回null，由调用方回退到扫描
+     */
+    public static ContextPlan load(File file, Class<?> configClass, Environment environment) {
+        if (!file.isFile()) {
+            return null;
+        }
+        ClassLoader classLoader = configClass.getClassLoader();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            String reason = checkUpToDate(in, configClass, environment);
+            if (reason == null) {
+                return readPlan(in, configClass, classLoader);
+            }
+            System.err.println("[whspring] Context plan " + file + " is out of date (" + reason + "), scanning.");
+        } catch (IOException | ReflectiveOperationException | RuntimeException | LinkageError e) {
+            System.err.println("[whspring] Context plan " + file + " cannot be used (" + e + "), scanning.");
+        }
+        return null;
+    }
+
+    /**
+     * 把reader的扫描结果写入计划文件（先写临时文件再替换，并发启动的进程不会读到写了一半的文件）
+     * @param file 计划文件
+     * @param reader 已执行loadBeanDefinition的reader
+     * @param beanDefinitions loadBeanDefinition的结果
+     */
+    public static void write(File file, BeanDefinitionReader reader, List<BeanDefinition> beanDefinitions) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(directory.toPath());
+        File temp = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+                writePlan(out, reader, beanDefinitions);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    /**
+     * 构建时生成计划文件：ContextPlan 配置类全限定名 计划文件路径（与whspring.aot.plan相同，按配置类插入文件名）。只扫描和解析BeanDefinition，不创建Bean。
+     * 需要与运行时相同的classpath、激活的profile和属性
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Usage: ContextPlan <config class> <plan file>");
+            System.exit(2);
+        }
+        Class<?> configClass = Class.forName(args[0]);
+        BeanDefinitionReader reader = new BeanDefinitionReader(configClass);
+        List<BeanDefinition> beanDefinitions = reader.loadBeanDefinition();
+        File file = getPlanFile(new File(args[1]), configClass.getName());
+        write(file, reader, beanDefinitions);
+        System.out.println("Wrote context plan " + file + ": " + beanDefinitions.size() + " beans, "
+                + reader.getExcludedBeans().size() + " excluded.");
+    }
+
+    /**
+     * 扫描到的类的数量（写入计划时）
+     */
+    public int getScannedClassCount() {
+        return scannedClassCount;
+    }
+
+    public List<BeanDefinition> getBeanDefinitions() {
+        return beanDefinitions;
+    }
+
+    public Map<String, String> getAliases() {
+        return aliases;
+    }
+
+    public Map<String, String> getExcludedBeans() {
+        return excludedBeans;
+    }
+
+    private static void writePlan(DataOutputStream out, BeanDefinitionReader reader, List<BeanDefinition> beanDefinitions)
+            throws IOException {
+        Class<?> configClass = reader.getConfigClass();
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(configClass.getName());
+        out.writeLong(ClasspathFingerprint.compute(configClass,
+                BeanDefinitionReader.findScanLocation(configClass, reader.getClassLoader())));
+        // 默认的池大小与处理器数量有关
+        out.writeInt(Runtime.getRuntime().availableProcessors());
+
+        // 条件判断读取过的环境
+        ConditionEvaluator conditions = reader.getConditionEvaluator();
+        Set<String> profiles = reader.getEnvironment().getActiveProfiles();
+        out.writeInt(profiles.size());
+        for (String profile : profiles) {
+            out.writeUTF(profile);
+        }
+        out.writeInt(conditions.getCheckedProperties().size());
+        for (Map.Entry<String, String> entry : conditions.getCheckedProperties().entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeNullableString(out, entry.getValue());
+        }
+        out.writeInt(conditions.getCheckedClasses().size());
+        for (Map.Entry<String, Boolean> entry : conditions.getCheckedClasses().entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeBoolean(entry.getValue());
+        }
+
+        out.writeInt(reader.getRegistryBeanClassCount());
+        out.writeInt(beanDefinitions.size());
+        for (BeanDefinition beanDefinition : beanDefinitions) {
+            writeBeanDefinition(out, beanDefinition);
+        }
+        writeStringMap(out, reader.getAliases());
+        writeStringMap(out, reader.getExcludedBeans());
+    }
+
+    private static void writeBeanDefinition(DataOutputStream out, BeanDefinition beanDefinition) throws IOException {
+        if (beanDefinition.getFactoryMethod() != null) {
+            out.writeByte(FACTORY_METHOD);
+        } else {
+            out.writeByte(beanDefinition.getBeanMethodNames() != null ? CONFIGURATION : COMPONENT);
+        }
+        out.writeUTF(beanDefinition.getBeanName());
+        out.writeUTF(beanDefinition.getBeanClassName());
+        out.writeUTF(beanDefinition.getScope().name());
+        out.writeBoolean(beanDefinition.isLazyInit());
+        out.writeBoolean(beanDefinition.isFactoryBean());
+        out.writeInt(beanDefinition.getPoolMaxSize());
+        out.writeLong(beanDefinition.getPoolMaxWaitMillis());
+        writeMethods(out, beanDefinition.getEventListenerMethods());
+        writeMethods(out, beanDefinition.getScheduledMethods());
+        if (beanDefinition.getFactoryMethod() != null) {
+            writeMethod(out, beanDefinition.getFactoryMethod());
+            writeNullableString(out, beanDefinition.getFactoryBeanName());
+        } else if (beanDefinition.getBeanMethodNames() != null) {
+            String[] beanMethodNames = beanDefinition.getBeanMethodNames();
+            out.writeInt(beanMethodNames.length);
+            for (String name : beanMethodNames) {
+                out.writeUTF(name);
+            }
+        }
+    }
+
+    private static String checkUpToDate(DataInputStream in, Class<?> configClass, Environment environment) throws IOException {
+        if (in.readInt() != MAGIC) {
+            return "not a context plan";
+        }
+        if (in.readInt() != FORMAT_VERSION) {
+            return "format version changed";
+        }
+        String configClassName = in.readUTF();
+        if (!configClassName.equals(configClass.getName())) {
+            return "written for " + configClassName;
+        }
+        ClassLoader classLoader = configClass.getClassLoader();
+        long fingerprint = ClasspathFingerprint.compute(configClass, BeanDefinitionReader.findScanLocation(configClass, classLoader));
+        if (in.readLong() != fingerprint) {
+            return "classpath changed";
+        }
+        if (in.readInt() != Runtime.getRuntime().availableProcessors()) {
+            return "available processors changed";
+        }
+
+        Set<String> profiles = new LinkedHashSet<>();
+        for (int count = in.readInt(); count > 0; --count) {
+            profiles.add(in.readUTF());
+        }
+        if (!profiles.equals(environment.getActiveProfiles())) {
+            return "active profiles changed";
+        }
+        for (int count = in.readInt(); count > 0; --count) {
+            String name = in.readUTF();
+            if (!Objects.equals(readNullableString(in), environment.getProperty(name))) {
+                return "property " + name + " changed";
+            }
+        }
+        for (int count = in.readInt(); count > 0; --count) {
+            String className = in.readUTF();
+            boolean present = classLoader.getResource(className.replace('.', '/') + ".class") != null;
+            if (in.readBoolean() != present) {
+                return "class " + className + (present ? " appeared" : " disappeared");
+            }
+        }
+        return null;
+    }
+
+    private static ContextPlan readPlan(DataInputStream in, Class<?> configClass, ClassLoader classLoader)
+            throws IOException, ReflectiveOperationException {
+        int scannedClassCount = in.readInt();
+        int count = in.readInt();
+        List<BeanDefinition> beanDefinitions = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            beanDefinitions.add(readBeanDefinition(in, configClass, classLoader));
+        }
+        Map<String, String> aliases = readStringMap(in);
+        Map<String, String> excludedBeans = readStringMap(in);
+        return new ContextPlan(scannedClassCount, Collections.unmodifiableList(beanDefinitions), aliases, excludedBeans);
+    }
+
+    private static BeanDefinition readBeanDefinition(DataInputStream in, Class<?> configClass, ClassLoader classLoader)
+            throws IOException, ReflectiveOperationException {
+        byte kind = in.readByte();
+        BeanDefinition beanDefinition = new BeanDefinition();
+        beanDefinition.setBeanName(in.readUTF());
+        beanDefinition.setBeanClassName(in.readUTF());
+        beanDefinition.setScope(ScopeType.valueOf(in.readUTF()));
+        beanDefinition.setLazyInit(in.readBoolean());
+        beanDefinition.setFactoryBean(in.readBoolean());
+        beanDefinition.setPoolMaxSize(in.readInt());
+        beanDefinition.setPoolMaxWaitMillis(in.readLong());
+        beanDefinition.setEventListenerMethods(readMethods(in, classLoader));
+        beanDefinition.setScheduledMethods(readMethods(in, classLoader));
+        switch (kind) {
+            case COMPONENT:
+                beanDefinition.setBeanClass(Class.forName(beanDefinition.getBeanClassName(), true, classLoader));
+                break;
+            case CONFIGURATION:
+                beanDefinition.setBeanClass(ConfigurationClassEnhancer.enhance(configClass));
+                String[] beanMethodNames = new String[in.readInt()];
+                for (int i = 0; i < beanMethodNames.length; ++i) {
+                    beanMethodNames[i] = in.readUTF();
+                }
+                beanDefinition.setBeanMethodNames(beanMethodNames);
+                break;
+            case FACTORY_METHOD:
+                Method factoryMethod = readMethod(in, classLoader);
+                beanDefinition.setFactoryMethod(factoryMethod);
+                beanDefinition.setBeanClass(factoryMethod.getReturnType());
+                beanDefinition.setFactoryBeanName(readNullableString(in));
+                break;
+            default:
+                throw new IOException("Unknown bean definition kind " + kind + ".");
+        }
+        return beanDefinition;
+    }
+
+    private static void writeMethods(DataOutputStream out, Method[] methods) throws IOException {
+        out.writeInt(methods.length);
+        for (Method method : methods) {
+            writeMethod(out, method);
+        }
+    }
+
+    private static Method[] readMethods(DataInputStream in, ClassLoader classLoader) throws IOException, ReflectiveOperationException {
+        int count = in.readInt();
+        if (count == 0) {
+            return NO_METHODS;
+        }
+        Method[] methods = new Method[count];
+        for (int i = 0; i < count; ++i) {
+            methods[i] = readMethod(in, classLoader);
+        }
+        return methods;
+    }
+
+    /**
+     * 方法按声明类、方法名和形参类型记录
+     */
+    private static void writeMethod(DataOutputStream out, Method method) throws IOException {
+        out.writeUTF(method.getDeclaringClass().getName());
+        out.writeUTF(method.getName());
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        out.writeByte(parameterTypes.length);
+        for (Class<?> type : parameterTypes) {
+            out.writeUTF(type.getName());
+        }
+    }
+
+    private static Method readMethod(DataInputStream in, ClassLoader classLoader) throws IOException, ReflectiveOperationException {
+        Class<?> declaringClass = Class.forName(in.readUTF(), false, classLoader);
+        String name = in.readUTF();
+        Class<?>[] parameterTypes = new Class<?>[in.readUnsignedByte()];
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            String typeName = in.readUTF();
+            Class<?> primitive = PRIMITIVES.get(typeName);
+            parameterTypes[i] = primitive != null ? primitive : Class.forName(typeName, false, classLoader);
+        }
+        return declaringClass.getDeclaredMethod(name, parameterTypes);
+    }
+
+    private static void writeStringMap(DataOutputStream out, Map<String, String> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeUTF(entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readStringMap(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        Map<String, String> map = new LinkedHashMap<>(count * 2);
+        for (int i = 0; i < count; ++i) {
+            map.put(in.readUTF(), in.readUTF());
+        }
+        return map;
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,149 @@
+package com.whi5p3r.spring.context.async;
+
+import com.whi5p3r.spring.annotations.Async;
+import com.whi5p3r.spring.annotations.Controller;
+import com.whi5p3r.spring.annotations.EventListener;
+import com.whi5p3r.spring.beans.config.BeanPostProcessor;
+import com.whi5p3r.spring.beans.config.Ordered;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+
+/**
+ * @description: 容器内置的后处理器：为带有@Async方法的Bean创建实现其所有接口的JDK动态代理。
+ *               不是扫描到的Bean，由容器在registerBeanPostProcessors阶段加入，排在最后，包装其他后处理器的结果。
+ *               每个类的异步方法只解析一次（ClassValue，增量重新加载的新类单独解析），没有@Async的Bean的后处理器链中不包含它
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:30
+ */
+public final class AsyncAnnotationBeanPostProcessor implements BeanPostProcessor, Ordered {
+    private final AsyncExecutorRegistry executors;
+    private final ClassValue<Map<Method, AsyncInvocationHandler.AsyncMethod>> asyncMethods =
+            new ClassValue<Map<Method, AsyncInvocationHandler.AsyncMethod>>() {
+                @Override
+                protected Map<Method, AsyncInvocationHandler.AsyncMethod> computeValue(Class<?> type) {
+                    return findAsyncMethods(type);
+                }
+            };
+
+    public AsyncAnnotationBeanPostProcessor(AsyncExecutorRegistry executors) {
+        this.executors = executors;
+    }
+
+    @Override
+    public boolean supports(Class<?> beanClass) {
+        return !asyncMethods.get(beanClass).isEmpty();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Map<Method, AsyncInvocationHandler.AsyncMethod> methods = asyncMethods.get(bean.getClass());
+        if (methods.isEmpty()) {
+            return bean;
+        }
+        // 创建代理时就解析执行器，名字写错时启动失败，而不是第一次调用时
+        for (AsyncInvocationHandler.AsyncMethod method : methods.values()) {
+            executors.getExecutor(method.executorName);
+        }
+        return Proxy.newProxyInstance(bean.getClass().getClassLoader(), collectInterfaces(bean.getClass()),
+                new AsyncInvocationHandler(bean, beanName, methods, executors));
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    /**
+     * 找出类的接口方法中的异步方法（实现方法、接口方法或类上标注了@Async），并校验：
+     * 标注了@Async的方法必须声明在接口中，返回类型只能是void、CompletableFuture、CompletionStage、Future，Controller不支持
+     */
+    private static Map<Method, AsyncInvocationHandler.AsyncMethod> findAsyncMethods(Class<?> beanClass) {
+        Async classLevel = beanClass.getAnnotation(Async.class);
+        Map<Method, AsyncInvocationHandler.AsyncMethod> result = new HashMap<>();
+        Set<Method> implementations = new HashSet<>();
+        for (Class<?> i : collectInterfaces(beanClass)) {
+            for (Method method : i.getMethods()) {
+                Method implementation;
+                try {
+                    implementation = beanClass.getMethod(method.getName(), method.getParameterTypes());
+                } catch (NoSuchMethodException e) {
+                    continue;
+                }
+                Async async = implementation.getAnnotation(Async.class);
+                if (async == null) { async = method.getAnnotation(Async.class); }
+                if (async == null) { async = classLevel; }
+                if (async == null) { continue; }
+                checkReturnType(implementation);
+                implementation.setAccessible(true);
+                result.put(method, new AsyncInvocationHandler.AsyncMethod(implementation, async.value()));
+                implementations.add(implementation);
+            }
+        }
+        for (Method method : beanClass.getMethods()) {
+            if (method.isAnnotationPresent(Async.class) && !implementations.contains(method)) {
+                throw new IllegalStateException("@Async method " + beanClass.getName() + "." + method.getName()
+                        + " must be declared in an interface implemented by the bean, @Async beans are proxied by their interfaces.");
+            }
+        }
+        if (!result.isEmpty() && beanClass.isAnnotationPresent(Controller.class)) {
+            throw new IllegalStateException("@Async is not supported on controller " + beanClass.getName()
+                    + ", move the asynchronous work into a @Service.");
+        }
+        if (!result.isEmpty()) {
+            checkEventListenersReachable(beanClass);
+        }
+        return result.isEmpty() ? Collections.emptyMap() : result;
+    }
+
+    /**
+     * 代理只实现接口，@EventListener方法由EventListenerMethod通过代理的接口方法调用，必须声明在接口中
+     */
+    private static void checkEventListenersReachable(Class<?> beanClass) {
+        Class<?>[] interfaces = collectInterfaces(beanClass);
+        for (Class<?> c = beanClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(EventListener.class) && !isDeclaredInInterface(method, interfaces)) {
+                    throw new IllegalStateException("@EventListener method " + beanClass.getName() + "." + method.getName()
+                            + " must be declared in an interface implemented by the bean, the bean has @Async methods and is proxied by its interfaces.");
+                }
+            }
+        }
+    }
+
+    private static boolean isDeclaredInInterface(Method method, Class<?>[] interfaces) {
+        for (Class<?> i : interfaces) {
+            try {
+                i.getMethod(method.getName(), method.getParameterTypes());
+                return true;
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        return false;
+    }
+
+    private static void checkReturnType(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type != void.class && type != CompletableFuture.class && type != CompletionStage.class && type != Future.class) {
+            throw new IllegalStateException("@Async method " + method.getDeclaringClass().getName() + "." + method.getName()
+                    + " must return void, CompletableFuture, CompletionStage or Future, not " + type.getName() + ".");
+        }
+    }
+
+    private static Class<?>[] collectInterfaces(Class<?> beanClass) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> c = beanClass; c != null; c = c.getSuperclass()) {
+            Collections.addAll(interfaces, c.getInterfaces());
+        }
+        return interfaces.toArray(new Class<?>[0]);
+    }
+}
@@ -0,0 +1,179 @@
+package com.whi5p3r.spring.context.async;
+
+import com.whi5p3r.spring.annotations.AsyncExecutor;
+import com.whi5p3r.spring.metrics.MetricsRegistry;
+import com.whi5p3r.spring.tracing.Tracer;
+import com.whi5p3r.spring.utils.DaemonThreadFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * @description: @Async使用的具名执行器：优先使用同名的Executor类型的Bean，其次是配置类上@AsyncExecutor声明的有界执行器，
+ *               名为default的执行器没有声明时使用默认配置。执行器第一次使用时创建，全部经过MeteredExecutor统计指标、传递追踪的当前跨度
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:30
+ */
+public final class AsyncExecutorRegistry {
+    public static final String DEFAULT_EXECUTOR = "default";
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final Map<String, AsyncExecutor> declarations = new LinkedHashMap<>();
+    private final Function<String, Executor> beanLookup;
+    private final MetricsRegistry metricsRegistry;
+    private final Tracer tracer;
+    private final Map<String, MeteredExecutor> executors = new ConcurrentHashMap<>();
+    /**
+     * 由这里创建（不是Bean）的执行器，容器关闭时由shutdown关闭；Executor类型的Bean随Bean销毁
+     */
+    private final List<ExecutorService> ownedExecutors = new ArrayList<>();
+    private boolean shutdown;
+
+    /**
+     * @param configClass 配置类，读取其上的@AsyncExecutor
+     * @param beanLookup 按名字查找Executor类型的Bean，没有时返回null
+     * @param metricsRegistry 执行器指标的注册表
+     * @param tracer 请求追踪，提交任务时的当前跨度传递到执行任务的线程
+     */
+    public AsyncExecutorRegistry(Class<?> configClass, Function<String, Executor> beanLookup, MetricsRegistry metricsRegistry, Tracer tracer) {
+        for (AsyncExecutor declaration : configClass.getAnnotationsByType(AsyncExecutor.class)) {
+            if (declarations.put(declaration.name(), declaration) != null) {
+                throw new IllegalStateException("Duplicate @AsyncExecutor name " + declaration.name() + " on " + configClass.getName() + ".");
+            }
+        }
+        this.beanLookup = beanLookup;
+        this.metricsRegistry = metricsRegistry;
+        this.tracer = tracer;
+    }
+
+    /**
+     * 返回（不存在则创建）具名的执行器
+     * @param name 执行器的名字，为空时为default
+     * @return 执行器
+     */
+    public MeteredExecutor getExecutor(String name) {
+        String key = name.isEmpty() ? DEFAULT_EXECUTOR : name;
+        MeteredExecutor executor = executors.get(key);
+        if (executor != null) {
+            return executor;
+        }
+        synchronized (this) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Async executor " + key + " is shut down, the context is closed.");
+            }
+            executor = executors.get(key);
+            if (executor == null) {
+                executor = new MeteredExecutor(key, createExecutor(key), metricsRegistry.executorMetrics(key), tracer);
+                executors.put(key, executor);
+            }
+            return executor;
+        }
+    }
+
+    private Executor createExecutor(String name) {
+        Executor bean = beanLookup.apply(name);
+        if (bean != null) {
+            return bean;
+        }
+        AsyncExecutor declaration = declarations.get(name);
+        if (declaration == null && !DEFAULT_EXECUTOR.equals(name)) {
+            throw new IllegalStateException("No async executor named " + name
+                    + ", declare it with @AsyncExecutor on the config class or register an Executor bean with that name.");
+        }
+        int queueCapacity = declaration == null ? DEFAULT_QUEUE_CAPACITY : declaration.queueCapacity();
+        if (queueCapacity <= 0) {
+            throw new IllegalStateException("queueCapacity of async executor " + name + " must be positive.");
+        }
+        if (declaration != null && declaration.virtualThreads()) {
+            VirtualThreadExecutor executor = new VirtualThreadExecutor(name, queueCapacity);
+            ownedExecutors.add(executor.delegate);
+            return executor;
+        }
+        int threads = declaration == null || declaration.threads() <= 0 ? Runtime.getRuntime().availableProcessors() : declaration.threads();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new DaemonThreadFactory("whspring-async-" + name),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        ownedExecutors.add(executor);
+        return executor;
+    }
+
+    /**
+     * 关闭由这里创建的执行器：不再接受新任务，等待已提交的任务执行完毕
+     * @param deadlineNanos 截止时间（System.nanoTime()）
+     * @return 是否在截止时间之前全部执行完毕
+     * @throws InterruptedException
+     */
+    public synchronized boolean shutdown(long deadlineNanos) throws InterruptedException {
+        shutdown = true;
+        for (ExecutorService executor : ownedExecutors) {
+            executor.shutdown();
+        }
+        boolean terminated = true;
+        for (ExecutorService executor : ownedExecutors) {
+            terminated &= executor.awaitTermination(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        return terminated;
+    }
+
+    public Tracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * 已创建的执行器
+     */
+    public Map<String, MeteredExecutor> getExecutors() {
+        return executors;
+    }
+
+    /**
+     * 每个任务一个虚拟线程，用信号量限制同时执行的任务数。通过反射创建，源码仍可按Java 8编译
+     */
+    private static final class VirtualThreadExecutor implements Executor {
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        VirtualThreadExecutor(String name, int maxConcurrency) {
+            try {
+                this.delegate = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Async executor " + name + " requires virtual threads, which are not available on this JDK ("
+                        + System.getProperty("java.version") + "), JDK 21+ is required.", e);
+            }
+            this.permits = new Semaphore(maxConcurrency);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException("Virtual thread executor is saturated.");
+            }
+            try {
+                delegate.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        }
+    }
+}
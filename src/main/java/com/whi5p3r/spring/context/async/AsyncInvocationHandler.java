@@ -0,0 +1,135 @@
+package com.whi5p3r.spring.context.async;
+
+import com.whi5p3r.spring.tracing.Span;
+import com.whi5p3r.spring.tracing.Tracer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * @description: @Async Bean的JDK动态代理：异步方法包装成任务交给具名执行器，立即返回CompletableFuture（void方法返回null），
+ *               其他方法直接调用目标Bean。在被采样的trace中每次调用记录一个跨度，异步方法的跨度在执行任务的线程上，父跨度是提交时的当前跨度
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:30
+ */
+public final class AsyncInvocationHandler implements InvocationHandler {
+    /**
+     * 一个异步方法：目标类上的实现方法、执行器的名字、是否为void
+     */
+    static final class AsyncMethod {
+        final Method method;
+        final String executorName;
+        final boolean returnsVoid;
+
+        AsyncMethod(Method method, String executorName) {
+            this.method = method;
+            this.executorName = executorName;
+            this.returnsVoid = method.getReturnType() == void.class;
+        }
+    }
+
+    private final Object target;
+    private final String beanName;
+    private final Map<Method, AsyncMethod> asyncMethods;
+    private final AsyncExecutorRegistry executors;
+    private final Tracer tracer;
+
+    /**
+     * @param target 目标Bean
+     * @param beanName 目标Bean的beanName，用于toString、异常信息和跨度的名字
+     * @param asyncMethods 接口方法 -> 异步方法
+     * @param executors 具名执行器
+     */
+    AsyncInvocationHandler(Object target, String beanName, Map<Method, AsyncMethod> asyncMethods, AsyncExecutorRegistry executors) {
+        this.target = target;
+        this.beanName = beanName;
+        this.asyncMethods = asyncMethods;
+        this.executors = executors;
+        this.tracer = executors.getTracer();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        AsyncMethod asyncMethod = asyncMethods.get(method);
+        if (asyncMethod == null) {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals": return proxy == args[0];
+                    case "hashCode": return System.identityHashCode(proxy);
+                    case "toString": return "AsyncProxy(" + beanName + ")";
+                    default: break;
+                }
+            }
+            Span span = tracer.startSpan(beanName, method.getName());
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                span.error(e.getTargetException());
+                throw e.getTargetException();
+            } finally {
+                span.close();
+            }
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        // 执行器饱和时RejectedExecutionException直接抛给调用方
+        executors.getExecutor(asyncMethod.executorName).execute(() -> run(asyncMethod, args, future));
+        return asyncMethod.returnsVoid ? null : future;
+    }
+
+    private void run(AsyncMethod asyncMethod, Object[] args, CompletableFuture<Object> future) {
+        Span span = tracer.startSpan(beanName, asyncMethod.method.getName());
+        try {
+            span.tag("async.executor", asyncMethod.executorName.isEmpty() ? AsyncExecutorRegistry.DEFAULT_EXECUTOR : asyncMethod.executorName);
+            invokeAsync(asyncMethod, args, future, span);
+        } finally {
+            span.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void invokeAsync(AsyncMethod asyncMethod, Object[] args, CompletableFuture<Object> future, Span span) {
+        Object result;
+        try {
+            result = asyncMethod.method.invoke(target, args);
+            if (result instanceof CompletionStage) {
+                ((CompletionStage<Object>) result).whenComplete((value, e) -> {
+                    if (e == null) { future.complete(value); } else { future.completeExceptionally(e); }
+                });
+                return;
+            }
+            if (result instanceof Future) {
+                result = ((Future<Object>) result).get();
+            }
+        } catch (InvocationTargetException e) {
+            fail(asyncMethod, future, span, e.getTargetException());
+            return;
+        } catch (ExecutionException e) {
+            fail(asyncMethod, future, span, e.getCause());
+            return;
+        } catch (Throwable e) {
+            fail(asyncMethod, future, span, e);
+            return;
+        }
+        future.complete(result);
+    }
+
+    /**
+     * 异常交给调用方持有的CompletableFuture；void方法没有调用方处理，打印到标准错误。再抛出让执行器指标记为失败
+     */
+    private void fail(AsyncMethod asyncMethod, CompletableFuture<Object> future, Span span, Throwable e) {
+        span.error(e);
+        future.completeExceptionally(e);
+        if (asyncMethod.returnsVoid) {
+            System.err.println("[whspring] @Async method " + beanName + "." + asyncMethod.method.getName() + " failed: " + e);
+            e.printStackTrace();
+        }
+        throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+    }
+}
@@ -0,0 +1,65 @@
+package com.whi5p3r.spring.context.async;
+
+import com.whi5p3r.spring.metrics.ExecutorMetrics;
+import com.whi5p3r.spring.tracing.Tracer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * @description: 给任意Executor加上ExecutorMetrics：记录提交、拒绝、开始（含排队等待时间）、结束。
+ *               队列深度由计数器得出，与被包装的执行器的实现无关（配置类声明的执行器和Executor类型的Bean一样统计）。
+ *               任务抛出的异常计入失败数后不再抛出，由提交方（AsyncInvocationHandler）负责交给调用方或打印。
+ *               提交时的当前跨度传递到执行任务的线程，任务中开启的跨度与提交方在同一个trace中
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:30
+ */
+public final class MeteredExecutor implements Executor {
+    private final String name;
+    private final Executor delegate;
+    private final ExecutorMetrics metrics;
+    private final Tracer tracer;
+
+    public MeteredExecutor(String name, Executor delegate, ExecutorMetrics metrics, Tracer tracer) {
+        this.name = name;
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Runnable task = tracer.wrap(command);
+        long submittedAt = System.nanoTime();
+        metrics.onSubmit();
+        try {
+            delegate.execute(() -> {
+                metrics.onStart(System.nanoTime() - submittedAt);
+                boolean success = false;
+                try {
+                    task.run();
+                    success = true;
+                } catch (RuntimeException | Error e) {
+                    // 已由任务自己处理，不让线程池的工作线程因此退出
+                } finally {
+                    metrics.onComplete(success);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            metrics.onReject();
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Executor getDelegate() {
+        return delegate;
+    }
+
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,14 @@
+package com.whi5p3r.spring.context.event;
+
+/**
+ * @description: 事件发布者。容器本身实现该接口，类型为ApplicationEventPublisher的字段或构造器形参注入所在的容器
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:00
+ */
+public interface ApplicationEventPublisher {
+    /**
+     * 发布事件：同步监听方法在当前线程中依次调用，异步监听方法交给事件执行器；之后再发布到父容器
+     * @param event 事件，任意对象
+     */
+    void publishEvent(Object event);
+}
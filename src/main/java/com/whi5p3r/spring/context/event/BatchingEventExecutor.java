@@ -0,0 +1,141 @@
+package com.whi5p3r.spring.context.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 异步事件的执行器：固定数量的守护线程共享一个有界队列，每个线程一次取出最多batchSize个任务依次执行，
+ *               队列的锁和线程的唤醒按批次而不是按任务摊销。队列满时由提交任务的线程自己执行（背压），不丢弃事件。
+ *               线程数、队列容量、批大小可通过系统属性 whspring.events.threads / queueCapacity / batchSize 配置
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:00
+ */
+public final class BatchingEventExecutor implements Executor {
+    public static final String THREADS_PROPERTY = "whspring.events.threads";
+    public static final String QUEUE_CAPACITY_PROPERTY = "whspring.events.queueCapacity";
+    public static final String BATCH_SIZE_PROPERTY = "whspring.events.batchSize";
+
+    private final BlockingQueue<Runnable> queue;
+    private final int batchSize;
+    private final Thread[] workers;
+    private final LongAdder callerRuns = new LongAdder();
+    private volatile boolean shutdown;
+
+    /**
+     * @param name 线程名前缀
+     * @param threads 线程数
+     * @param queueCapacity 队列容量
+     * @param batchSize 每个线程一次取出的最多任务数
+     */
+    public BatchingEventExecutor(String name, int threads, int queueCapacity, int batchSize) {
+        if (threads <= 0 || queueCapacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("threads, queueCapacity and batchSize must be positive.");
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.workers = new Thread[threads];
+        for (int i = 0; i < threads; ++i) {
+            workers[i] = new Thread(this::runWorker, name + "-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * 按系统属性创建执行器：线程数默认为CPU核数（最多4），队列容量默认1024，批大小默认64
+     * @param name 线程名前缀
+     * @return 执行器
+     */
+    public static BatchingEventExecutor fromSystemProperties(String name) {
+        int threads = Integer.getInteger(THREADS_PROPERTY, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        int queueCapacity = Integer.getInteger(QUEUE_CAPACITY_PROPERTY, 1024);
+        int batchSize = Integer.getInteger(BATCH_SIZE_PROPERTY, 64);
+        return new BatchingEventExecutor(name, threads, queueCapacity, batchSize);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (shutdown || !queue.offer(task)) {
+            callerRuns.increment();
+            runSafely(task);
+            return;
+        }
+        // 与shutdown并发时，工作线程可能在入队之前看到shutdown且队列为空而退出，由提交线程执行队列中剩余的任务
+        if (shutdown) {
+            Runnable queued;
+            while ((queued = queue.poll()) != null) {
+                callerRuns.increment();
+                runSafely(queued);
+            }
+        }
+    }
+
+    private void runWorker() {
+        List<Runnable> batch = new ArrayList<>(batchSize);
+        while (!shutdown || !queue.isEmpty()) {
+            try {
+                Runnable first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) { continue; }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (Runnable task : batch) {
+                    runSafely(task);
+                }
+            } catch (InterruptedException e) {
+                if (shutdown) { break; }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable e) {
+            System.err.println("[whspring] async event listener failed: " + e);
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 不再接受新任务（之后提交的任务由提交线程执行），工作线程执行完队列中剩余的任务后退出
+     * @param timeout 最长等待时间
+     * @param unit 时间单位
+     * @return 是否在等待时间内执行完毕
+     * @throws InterruptedException
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        shutdown = true;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread worker : workers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.timedJoin(worker, remaining);
+            }
+        }
+        for (Thread worker : workers) {
+            if (worker.isAlive()) { return false; }
+        }
+        return true;
+    }
+
+    /**
+     * @return 队列中等待执行的任务数
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return 队列满时由提交线程执行的任务数
+     */
+    public long getCallerRunsCount() {
+        return callerRuns.sum();
+    }
+}
@@ -0,0 +1,120 @@
+package com.whi5p3r.spring.context.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @description: 写时复制的监听方法索引：按事件的具体类型缓存预先计算好的分发列表（同步、异步分开，已按order排序）。
+ *               发布时只读一个volatile引用并查一次HashMap，不加锁；注册或增量重新加载替换监听方法时整体替换
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:00
+ */
+public final class EventListenerIndex {
+    private static final EventListenerMethod[] NONE = new EventListenerMethod[0];
+    private static final Comparator<EventListenerMethod> ORDER = Comparator.comparingInt(EventListenerMethod::getOrder);
+
+    /**
+     * 某个事件类型的分发列表
+     */
+    public static final class Dispatch {
+        private static final Dispatch EMPTY = new Dispatch(NONE, NONE);
+
+        private final EventListenerMethod[] syncListeners;
+        private final EventListenerMethod[] asyncListeners;
+
+        private Dispatch(EventListenerMethod[] syncListeners, EventListenerMethod[] asyncListeners) {
+            this.syncListeners = syncListeners;
+            this.asyncListeners = asyncListeners;
+        }
+
+        public EventListenerMethod[] getSyncListeners() {
+            return syncListeners;
+        }
+
+        public EventListenerMethod[] getAsyncListeners() {
+            return asyncListeners;
+        }
+
+        public boolean isEmpty() {
+            return syncListeners.length == 0 && asyncListeners.length == 0;
+        }
+    }
+
+    private volatile List<EventListenerMethod> listeners = Collections.emptyList();
+    private volatile Map<Class<?>, Dispatch> dispatchByType = Collections.emptyMap();
+
+    /**
+     * 返回事件类型的分发列表，第一次发布该类型的事件时计算并加入索引
+     * @param eventType 事件的具体类型
+     * @return 分发列表
+     */
+    public Dispatch getDispatch(Class<?> eventType) {
+        Dispatch dispatch = dispatchByType.get(eventType);
+        if (dispatch != null) {
+            return dispatch;
+        }
+        synchronized (this) {
+            dispatch = dispatchByType.get(eventType);
+            if (dispatch == null) {
+                dispatch = computeDispatch(listeners, eventType);
+                Map<Class<?>, Dispatch> copy = new HashMap<>(dispatchByType);
+                copy.put(eventType, dispatch);
+                dispatchByType = copy;
+            }
+            return dispatch;
+        }
+    }
+
+    private static Dispatch computeDispatch(List<EventListenerMethod> listeners, Class<?> eventType) {
+        List<EventListenerMethod> sync = new ArrayList<>();
+        List<EventListenerMethod> async = new ArrayList<>();
+        for (EventListenerMethod listener : listeners) {
+            if (listener.supports(eventType)) {
+                (listener.isAsync() ? async : sync).add(listener);
+            }
+        }
+        if (sync.isEmpty() && async.isEmpty()) {
+            return Dispatch.EMPTY;
+        }
+        sync.sort(ORDER);
+        async.sort(ORDER);
+        return new Dispatch(sync.toArray(NONE), async.toArray(NONE));
+    }
+
+    /**
+     * 追加监听方法（容器启动时使用）
+     */
+    public synchronized void addListeners(Collection<EventListenerMethod> added) {
+        replaceListeners(Collections.emptySet(), added);
+    }
+
+    /**
+     * 删除某些Bean的监听方法并追加新的监听方法（增量重新加载时使用），已缓存的分发列表全部作废
+     * @param removedBeanIds 监听方法需要删除的Bean
+     * @param added 新的监听方法
+     */
+    public synchronized void replaceListeners(Set<Integer> removedBeanIds, Collection<EventListenerMethod> added) {
+        if (removedBeanIds.isEmpty() && added.isEmpty()) {
+            return;
+        }
+        List<EventListenerMethod> copy = new ArrayList<>(listeners.size() + added.size());
+        for (EventListenerMethod listener : listeners) {
+            if (!removedBeanIds.contains(listener.getBeanId())) {
+                copy.add(listener);
+            }
+        }
+        copy.addAll(added);
+        listeners = Collections.unmodifiableList(copy);
+        dispatchByType = Collections.emptyMap();
+    }
+
+    public List<EventListenerMethod> getListeners() {
+        return listeners;
+    }
+}
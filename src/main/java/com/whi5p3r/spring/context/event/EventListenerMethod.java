@@ -0,0 +1,130 @@
+package com.whi5p3r.spring.context.event;
+
+import com.whi5p3r.spring.annotations.EventListener;
+import com.whi5p3r.spring.annotations.Order;
+import com.whi5p3r.spring.beans.config.Ordered;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * @description: Bean上的一个@EventListener方法：监听的事件类型、是否异步、顺序，以及 (Object, Object)void 类型的调用器。
+ *               Bean被包装为JDK动态代理时（如带有@Async方法的Bean），改为通过代理实现的接口方法调用，第一次调用时按代理类解析并缓存
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:00
+ */
+public final class EventListenerMethod {
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final int beanId;
+    private final Method method;
+    private final Class<?> eventType;
+    private final boolean async;
+    private final int order;
+    private final MethodHandle invoker;
+    /**
+     * 最近一次解析的代理类的调用器
+     */
+    private volatile ProxyInvoker proxyInvoker;
+
+    private static final class ProxyInvoker {
+        final Class<?> proxyClass;
+        final MethodHandle invoker;
+
+        ProxyInvoker(Class<?> proxyClass, MethodHandle invoker) {
+            this.proxyClass = proxyClass;
+            this.invoker = invoker;
+        }
+    }
+
+    public EventListenerMethod(int beanId, Method method) {
+        if (method.getParameterCount() != 1) {
+            throw new IllegalStateException("@EventListener method " + method.getDeclaringClass().getName() + "." + method.getName()
+                    + " must declare exactly one parameter, the event type.");
+        }
+        this.beanId = beanId;
+        this.method = method;
+        this.eventType = method.getParameterTypes()[0];
+        this.async = method.getAnnotation(EventListener.class).async();
+        Order order = method.getAnnotation(Order.class);
+        this.order = order == null ? Ordered.LOWEST_PRECEDENCE : order.value();
+        try {
+            method.setAccessible(true);
+            this.invoker = MethodHandles.lookup().unreflect(method).asType(INVOKER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 调用监听方法
+     * @param bean 监听方法所在的Bean
+     * @param event 事件
+     */
+    public void invoke(Object bean, Object event) {
+        MethodHandle handle = method.getDeclaringClass().isInstance(bean) ? invoker : resolveProxyInvoker(bean.getClass());
+        try {
+            handle.invokeExact(bean, event);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private MethodHandle resolveProxyInvoker(Class<?> proxyClass) {
+        ProxyInvoker cached = this.proxyInvoker;
+        if (cached != null && cached.proxyClass == proxyClass) {
+            return cached.invoker;
+        }
+        for (Class<?> i : proxyClass.getInterfaces()) {
+            Method interfaceMethod;
+            try {
+                interfaceMethod = i.getMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException e) {
+                continue;
+            }
+            try {
+                interfaceMethod.setAccessible(true);
+                MethodHandle handle = MethodHandles.lookup().unreflect(interfaceMethod).asType(INVOKER_TYPE);
+                this.proxyInvoker = new ProxyInvoker(proxyClass, handle);
+                return handle;
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        throw new IllegalStateException("@EventListener method " + this + " is not reachable on the proxied bean of type "
+                + proxyClass.getName() + ", declare it in an interface implemented by the bean.");
+    }
+
+    public boolean supports(Class<?> type) {
+        return eventType.isAssignableFrom(type);
+    }
+
+    public int getBeanId() {
+        return beanId;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public Class<?> getEventType() {
+        return eventType;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public String toString() {
+        return method.getDeclaringClass().getName() + "." + method.getName() + "(" + eventType.getSimpleName() + ")";
+    }
+}
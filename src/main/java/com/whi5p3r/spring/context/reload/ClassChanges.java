@@ -0,0 +1,28 @@
+package com.whi5p3r.spring.context.reload;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * @description: 一批class文件的变化（全限定类名）
+ * @author: whi5p3r
+ * @date: 2026年10月19日 20:10
+ */
+@Getter
+@AllArgsConstructor
+public class ClassChanges {
+    /**
+     * 新增或修改的类
+     */
+    private final Set<String> changedClasses;
+    /**
+     * 被删除的类
+     */
+    private final Set<String> deletedClasses;
+
+    public boolean isEmpty() {
+        return changedClasses.isEmpty() && deletedClasses.isEmpty();
+    }
+}
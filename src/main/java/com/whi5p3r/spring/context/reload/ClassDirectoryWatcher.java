@@ -0,0 +1,159 @@
+package com.whi5p3r.spring.context.reload;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * @description: 用NIO WatchService监听扫描的class目录（递归注册子目录），把一批class文件的变化转换为类名交给回调。
+ *               编译通常会在短时间内写入多个文件，收到第一个事件后等待一段安静期，再合并为一批
+ * @author: whi5p3r
+ * @date: 2026年10月19日 20:10
+ */
+public class ClassDirectoryWatcher implements Closeable {
+    /**
+     * 系统属性：安静期（毫秒），默认200
+     */
+    public static final String QUIET_PERIOD_PROPERTY = "whspring.reload.quietPeriodMillis";
+
+    private final Path classRoot;
+    private final Path watchedDir;
+    private final Consumer<ClassChanges> callback;
+    private final long quietPeriodMillis = Long.getLong(QUIET_PERIOD_PROPERTY, 200);
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    private final Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * @param classRoot classpath的根目录，用于由文件路径得到全限定类名
+     * @param watchedDir 监听的目录（basePackage对应的目录）
+     * @param callback 收到一批变化时调用（在监听线程中）
+     * @throws IOException
+     */
+    public ClassDirectoryWatcher(Path classRoot, Path watchedDir, Consumer<ClassChanges> callback) throws IOException {
+        this.classRoot = classRoot;
+        this.watchedDir = watchedDir;
+        this.callback = callback;
+        this.watchService = watchedDir.getFileSystem().newWatchService();
+        registerAll(watchedDir);
+        this.thread = new Thread(this::run, "whspring-class-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    public ClassDirectoryWatcher start() {
+        thread.start();
+        return this;
+    }
+
+    private void registerAll(Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path d, BasicFileAttributes attrs) throws IOException {
+                keys.put(d.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), d);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void run() {
+        while (!closed) {
+            try {
+                WatchKey key = watchService.take();
+                Set<Path> changed = new LinkedHashSet<>();
+                Set<Path> deleted = new LinkedHashSet<>();
+                // 合并安静期内的所有事件
+                while (key != null) {
+                    collect(key, changed, deleted);
+                    key = watchService.poll(quietPeriodMillis, TimeUnit.MILLISECONDS);
+                }
+                ClassChanges changes = toClassChanges(changed, deleted);
+                if (!changes.isEmpty()) {
+                    callback.accept(changes);
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (RuntimeException e) {
+                // 单次重新加载失败不影响后续的监听
+                System.err.println("[whspring] reload failed: " + e);
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed, Set<Path> deleted) {
+        Path dir = keys.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW || dir == null) {
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                // 新建的包：注册监听，并把其中已有的class文件视为新增
+                try {
+                    registerAll(path);
+                    try (Stream<Path> files = Files.walk(path)) {
+                        files.filter(p -> p.toString().endsWith(".class")).forEach(changed::add);
+                    }
+                } catch (IOException e) {
+                    System.err.println("[whspring] cannot watch " + path + ": " + e);
+                }
+                continue;
+            }
+            if (!path.toString().endsWith(".class")) {
+                continue;
+            }
+            if (event.kind() == ENTRY_DELETE) {
+                changed.remove(path);
+                deleted.add(path);
+            } else {
+                deleted.remove(path);
+                changed.add(path);
+            }
+        }
+        if (!key.reset()) {
+            keys.remove(key);
+        }
+    }
+
+    private ClassChanges toClassChanges(Set<Path> changed, Set<Path> deleted) {
+        Set<String> changedClasses = new LinkedHashSet<>();
+        for (Path path : changed) {
+            // 写入过程中可能又被删除
+            if (Files.exists(path)) {
+                changedClasses.add(toClassName(path));
+            }
+        }
+        Set<String> deletedClasses = new LinkedHashSet<>();
+        for (Path path : deleted) {
+            deletedClasses.add(toClassName(path));
+        }
+        return new ClassChanges(changedClasses, deletedClasses);
+    }
+
+    private String toClassName(Path classFile) {
+        String relative = classRoot.relativize(classFile).toString().replace(classFile.getFileSystem().getSeparator(), ".");
+        return relative.substring(0, relative.length() - ".class".length());
+    }
+
+    public Path getWatchedDir() {
+        return watchedDir;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watchService.close();
+        thread.interrupt();
+    }
+}
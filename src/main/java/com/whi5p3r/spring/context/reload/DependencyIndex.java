@@ -0,0 +1,105 @@
+package com.whi5p3r.spring.context.reload;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @description: 增量重新加载使用的索引：全限定类名 -> beanId，以及由注入计划得到的反向依赖（按beanId和按依赖名）。
+ *               第一次重新加载时建立，之后随注入计划的解析和失效增量维护，重新加载时只访问与变化相关的条目
+ * @author: whi5p3r
+ * @date: 2026年10月19日 20:10
+ */
+public final class DependencyIndex {
+    private final Map<String, Integer> beanIdsByClassName = new HashMap<>();
+    /**
+     * dependentsById.get(d)：直接注入了d的Bean（不含通过作用域代理注入的）
+     */
+    private final List<Set<Integer>> dependentsById = new ArrayList<>();
+    /**
+     * 依赖名（beanName或别名） -> 按该名字注入的Bean
+     */
+    private final Map<String, Set<Integer>> dependentsByName = new HashMap<>();
+
+    public synchronized Integer getBeanId(String className) {
+        return beanIdsByClassName.get(className);
+    }
+
+    public synchronized void putClass(String className, int beanId) {
+        beanIdsByClassName.put(className, beanId);
+    }
+
+    public synchronized void removeClass(String className) {
+        beanIdsByClassName.remove(className);
+    }
+
+    /**
+     * 记录beanId按名字依赖了dependencyName（解析结果为dependencyId，-1表示不存在）
+     * @param direct 是否直接注入（false表示通过作用域代理注入，目标变化时依赖方不需要重新创建）
+     */
+    public synchronized void addDependency(int beanId, String dependencyName, int dependencyId, boolean direct) {
+        dependentsByName.computeIfAbsent(dependencyName, k -> new HashSet<>()).add(beanId);
+        if (dependencyId >= 0 && direct) {
+            while (dependentsById.size() <= dependencyId) {
+                dependentsById.add(null);
+            }
+            if (dependentsById.get(dependencyId) == null) {
+                dependentsById.set(dependencyId, new HashSet<>());
+            }
+            dependentsById.get(dependencyId).add(beanId);
+        }
+    }
+
+    public synchronized void removeDependency(int beanId, String dependencyName, int dependencyId) {
+        Set<Integer> byName = dependentsByName.get(dependencyName);
+        if (byName != null) {
+            byName.remove(beanId);
+        }
+        if (dependencyId >= 0 && dependencyId < dependentsById.size() && dependentsById.get(dependencyId) != null) {
+            dependentsById.get(dependencyId).remove(beanId);
+        }
+    }
+
+    /**
+     * @return 按这些名字注入的Bean
+     */
+    public synchronized Set<Integer> getDependentsByNames(Collection<String> names) {
+        Set<Integer> result = new LinkedHashSet<>();
+        for (String name : names) {
+            Set<Integer> byName = dependentsByName.get(name);
+            if (byName != null) {
+                result.addAll(byName);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 从roots出发沿反向依赖做广度优先遍历
+     * @return roots以及所有传递地直接注入了它们的Bean
+     */
+    public synchronized Set<Integer> collectDependents(Set<Integer> roots) {
+        Set<Integer> result = new LinkedHashSet<>(roots);
+        Deque<Integer> queue = new ArrayDeque<>(roots);
+        while (!queue.isEmpty()) {
+            int beanId = queue.poll();
+            Set<Integer> direct = beanId < dependentsById.size() ? dependentsById.get(beanId) : null;
+            if (direct == null) {
+                continue;
+            }
+            for (int dependent : direct) {
+                if (result.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+        return result;
+    }
+}
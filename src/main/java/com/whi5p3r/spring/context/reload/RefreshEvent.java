@@ -0,0 +1,32 @@
+package com.whi5p3r.spring.context.reload;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * @description: 一次增量重新加载的结果：重新注册（含新增）和删除的Bean、重新创建的单例数量以及耗时
+ * @author: whi5p3r
+ * @date: 2026年10月19日 20:10
+ */
+@Getter
+@AllArgsConstructor
+public class RefreshEvent {
+    /**
+     * 重新注册或新增的Bean的beanId（定义或依赖发生了变化）
+     */
+    private final Set<Integer> refreshedBeanIds;
+    /**
+     * 被删除的Bean的beanName
+     */
+    private final Set<String> removedBeanNames;
+    private final int recreatedSingletons;
+    private final long durationNanos;
+
+    @Override
+    public String toString() {
+        return String.format("refreshed %d bean(s), removed %d, recreated %d singleton(s) in %.3fms",
+                refreshedBeanIds.size(), removedBeanNames.size(), recreatedSingletons, durationNanos / 1e6);
+    }
+}
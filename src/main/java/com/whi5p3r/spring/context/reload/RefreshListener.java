@@ -0,0 +1,11 @@
+package com.whi5p3r.spring.context.reload;
+
+/**
+ * @description: 增量重新加载完成后的回调（如WhDispatchServlet替换受影响的路由），在重新加载的线程中调用
+ * @author: whi5p3r
+ * @date: 2026年10月19日 20:10
+ */
+@FunctionalInterface
+public interface RefreshListener {
+    void onRefresh(RefreshEvent event);
+}
@@ -0,0 +1,64 @@
+package com.whi5p3r.spring.context.reload;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * @description: 增量重新加载使用的类加载器：只对指定的类子优先（从class目录重新读取字节码定义），其余类委派给父加载器。
+ *               每次重新加载创建一个新的加载器，父加载器是上一次的加载器，因此未变化的类仍然是同一个Class，
+ *               之前重新加载过的类使用最近一次的版本
+ * @author: whi5p3r
+ * @date: 2026年10月19日 20:10
+ */
+public final class ReloadClassLoader extends ClassLoader {
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final Path classRoot;
+    private final Set<String> classNames;
+
+    /**
+     * @param parent 父加载器（上一次的加载器）
+     * @param classRoot class目录（classpath的根目录）
+     * @param classNames 需要重新定义的类的全限定类名
+     */
+    public ReloadClassLoader(ClassLoader parent, Path classRoot, Set<String> classNames) {
+        super(parent);
+        this.classRoot = classRoot;
+        this.classNames = classNames;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!classNames.contains(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> c = findLoadedClass(name);
+            if (c == null) {
+                c = findClass(name);
+            }
+            if (resolve) {
+                resolveClass(c);
+            }
+            return c;
+        }
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        if (!classNames.contains(name)) {
+            throw new ClassNotFoundException(name);
+        }
+        Path file = classRoot.resolve(name.replace('.', '/') + ".class");
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            return defineClass(name, bytes, 0, bytes.length);
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.whi5p3r.spring.context.scheduling;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+
+/**
+ * @description: cron表达式：秒 分 时 日 月 周（6段，省略秒时为5段）。每段支持 * ? 数字 a-b 列表 和 /步长，
+ *               月份支持JAN-DEC，星期支持SUN-SAT（0和7都是周日）；日和周需要同时满足。解析为BitSet，计算下一次时间时逐级跳过不匹配的月、日、时、分、秒
+ * @author: whi5p3r
+ * @date: 2026年10月19日 23:00
+ */
+public final class CronExpression {
+    private static final String[] MONTHS = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final String[] DAYS_OF_WEEK = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    /**
+     * 在这么多年之内找不到匹配的时间（如2月30日）时认为表达式永远不会触发
+     */
+    private static final int MAX_YEARS = 4;
+
+    private final String expression;
+    private final BitSet seconds;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet daysOfMonth;
+    private final BitSet months;
+    private final BitSet daysOfWeek;
+
+    private CronExpression(String expression, String[] fields) {
+        this.expression = expression;
+        this.seconds = parseField(fields[0], 0, 59, null, 0);
+        this.minutes = parseField(fields[1], 0, 59, null, 0);
+        this.hours = parseField(fields[2], 0, 23, null, 0);
+        this.daysOfMonth = parseField(fields[3], 1, 31, null, 0);
+        this.months = parseField(fields[4], 1, 12, MONTHS, 1);
+        this.daysOfWeek = parseField(fields[5], 0, 7, DAYS_OF_WEEK, 0);
+        // 7也表示周日
+        if (daysOfWeek.get(7)) {
+            daysOfWeek.set(0);
+            daysOfWeek.clear(7);
+        }
+    }
+
+    /**
+     * @param expression cron表达式
+     * @return 解析结果
+     * @throws IllegalArgumentException 表达式不合法
+     */
+    public static CronExpression parse(String expression) {
+        String[] fields = expression.trim().split("\\s+");
+        if (fields.length == 5) {
+            String[] withSeconds = new String[6];
+            withSeconds[0] = "0";
+            System.arraycopy(fields, 0, withSeconds, 1, 5);
+            fields = withSeconds;
+        }
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Cron expression must have 5 or 6 fields: " + expression);
+        }
+        try {
+            return new CronExpression(expression, fields);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cron expression \"" + expression + "\": " + e.getMessage(), e);
+        }
+    }
+
+    private static BitSet parseField(String field, int min, int max, String[] names, int nameOffset) {
+        BitSet bits = new BitSet(max + 1);
+        for (String part : field.split(",")) {
+            String range = part;
+            int step = 1;
+            int slash = part.indexOf('/');
+            if (slash >= 0) {
+                step = Integer.parseInt(part.substring(slash + 1));
+                range = part.substring(0, slash);
+                if (step <= 0) {
+                    throw new IllegalArgumentException("step must be positive in " + part);
+                }
+            }
+            int from;
+            int to;
+            if ("*".equals(range) || "?".equals(range)) {
+                from = min;
+                to = max;
+            } else {
+                int dash = range.indexOf('-');
+                if (dash >= 0) {
+                    from = parseValue(range.substring(0, dash), names, nameOffset);
+                    to = parseValue(range.substring(dash + 1), names, nameOffset);
+                } else {
+                    from = parseValue(range, names, nameOffset);
+                    // a/n 表示从a开始到最大值
+                    to = slash >= 0 ? max : from;
+                }
+            }
+            if (from < min || to > max || from > to) {
+                throw new IllegalArgumentException(part + " is out of range " + min + "-" + max);
+            }
+            for (int value = from; value <= to; value += step) {
+                bits.set(value);
+            }
+        }
+        return bits;
+    }
+
+    private static int parseValue(String value, String[] names, int nameOffset) {
+        if (names != null) {
+            for (int i = 0; i < names.length; ++i) {
+                if (names[i].equalsIgnoreCase(value)) {
+                    return i + nameOffset;
+                }
+            }
+        }
+        return Integer.parseInt(value);
+    }
+
+    /**
+     * 返回严格晚于after的下一个匹配时间（精确到秒）
+     * @param after 起始时间
+     * @return 下一个匹配的时间
+     * @throws IllegalStateException MAX_YEARS年内没有匹配的时间
+     */
+    public ZonedDateTime next(ZonedDateTime after) {
+        ZonedDateTime time = after.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        int lastYear = after.getYear() + MAX_YEARS;
+        while (time.getYear() <= lastYear) {
+            if (!months.get(time.getMonthValue())) {
+                time = time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1).plusMonths(1);
+                continue;
+            }
+            if (!daysOfMonth.get(time.getDayOfMonth()) || !daysOfWeek.get(time.getDayOfWeek().getValue() % 7)) {
+                time = time.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+                continue;
+            }
+            if (!hours.get(time.getHour())) {
+                time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                continue;
+            }
+            if (!minutes.get(time.getMinute())) {
+                time = time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+                continue;
+            }
+            int second = seconds.nextSetBit(time.getSecond());
+            if (second < 0) {
+                time = time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+                continue;
+            }
+            return time.withSecond(second);
+        }
+        throw new IllegalStateException("Cron expression \"" + expression + "\" never fires within " + MAX_YEARS + " years.");
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
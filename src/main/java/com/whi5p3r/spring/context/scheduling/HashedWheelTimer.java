@@ -0,0 +1,199 @@
+package com.whi5p3r.spring.context.scheduling;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @description: 时间轮：一个线程每tick推进一格，每格是一个到期时间落在该格的Timeout链表（超过一圈的记录剩余圈数）。
+ *               登记和取消只向无锁队列中追加，由时间轮线程在下一个tick处理，所以登记是O(1)且不与时间轮线程竞争；
+ *               到期的任务在时间轮线程上执行，必须很快（TaskScheduler只在这里把任务交给工作线程池）。精度为一个tick
+ * @author: whi5p3r
+ * @date: 2026年10月19日 23:00
+ */
+public final class HashedWheelTimer {
+    /**
+     * 一次登记：到期时间（相对时间轮启动的纳秒数）、剩余圈数，以及在所在格中的双向链表指针（只由时间轮线程访问）
+     */
+    public final class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+        private Timeout next;
+        private Timeout prev;
+        private Bucket bucket;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 取消，之后不会再执行；已经开始执行的不受影响
+         */
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                cancelledTimeouts.add(this);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        Timeout remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) { timeout.prev.next = next; }
+            if (next != null) { next.prev = timeout.prev; }
+            if (timeout == head) { head = next; }
+            if (timeout == tail) { tail = timeout.prev; }
+            timeout.prev = timeout.next = null;
+            timeout.bucket = null;
+            return next;
+        }
+    }
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final long startTime;
+    private final Thread worker;
+    private volatile boolean stopped;
+    private long tick;
+
+    /**
+     * @param name 时间轮线程的名字
+     * @param tickDuration 每格的时长
+     * @param unit 时间单位
+     * @param wheelSize 格数，向上取整为2的幂
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickDuration and wheelSize must be positive.");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.wheel = new Bucket[Math.max(size, 1)];
+        for (int i = 0; i < wheel.length; ++i) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 登记一个任务，delay之后（精度为一个tick）在时间轮线程上执行
+     * @param task 任务，必须很快
+     * @param delay 延迟
+     * @param unit 时间单位
+     * @return 可以取消的Timeout
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("Timer has been stopped.");
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() + Math.max(0, unit.toNanos(delay)) - startTime);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    private void run() {
+        while (!stopped) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos;
+            while ((sleepNanos = deadline - (System.nanoTime() - startTime)) > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+                if (stopped) { return; }
+            }
+            processCancelled();
+            transferPending();
+            expire(wheel[(int) (tick & mask)], deadline);
+            ++tick;
+        }
+    }
+
+    private void processCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.cancelled) { continue; }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // 已经过期的放到当前格，本次tick就执行
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Bucket bucket, long deadline) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                Timeout next = bucket.remove(timeout);
+                if (!timeout.cancelled) {
+                    runSafely(timeout.task);
+                }
+                timeout = next;
+            } else {
+                if (timeout.remainingRounds > 0) { --timeout.remainingRounds; }
+                timeout = timeout.next;
+            }
+        }
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable e) {
+            System.err.println("[whspring] timer task failed: " + e);
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 停止时间轮线程，未到期的任务不再执行
+     */
+    public void stop() {
+        stopped = true;
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * @return 登记后尚未被时间轮线程处理的任务数
+     */
+    public int getPendingCount() {
+        return pendingTimeouts.size();
+    }
+}
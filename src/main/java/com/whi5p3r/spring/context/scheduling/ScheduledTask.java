@@ -0,0 +1,217 @@
+package com.whi5p3r.spring.context.scheduling;
+
+import com.whi5p3r.spring.annotations.Scheduled;
+import com.whi5p3r.spring.metrics.ScheduledTaskMetrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @description: 单例上的一个@Scheduled方法。创建时解析并校验注解（cron在此解析），start之后在时间轮上登记下一次执行：
+ *               fixedRate和cron在到期时（先于执行）登记下一次，计划时间不随执行耗时漂移，上一次还在排队或执行时跳过本次（overrun）；
+ *               fixedDelay在执行结束后登记下一次
+ * @author: whi5p3r
+ * @date: 2026年10月19日 23:00
+ */
+public final class ScheduledTask {
+    private enum Kind { CRON, FIXED_RATE, FIXED_DELAY }
+
+    private final int beanId;
+    private final String name;
+    private final Method method;
+    private final Kind kind;
+    private final long periodNanos;
+    private final long initialDelayNanos;
+    private final CronExpression cron;
+    private final ZoneId zone;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean overrunReported = new AtomicBoolean();
+    private TaskScheduler scheduler;
+    private Object bean;
+    private Method invoker;
+    private ScheduledTaskMetrics metrics;
+    private ZonedDateTime lastCronTime;
+    private volatile HashedWheelTimer.Timeout timeout;
+    private volatile boolean cancelled;
+
+    /**
+     * @param beanId 方法所在的单例
+     * @param beanName 单例的beanName，与方法名组成任务名
+     * @param method 标注了@Scheduled的方法
+     * @throws IllegalStateException 注解或方法签名不合法
+     */
+    public ScheduledTask(int beanId, String beanName, Method method) {
+        this.beanId = beanId;
+        this.name = beanName + "." + method.getName();
+        this.method = method;
+        if (method.getParameterCount() != 0) {
+            throw new IllegalStateException("@Scheduled method " + name + " must not declare parameters.");
+        }
+        Scheduled scheduled = method.getAnnotation(Scheduled.class);
+        int kinds = (scheduled.cron().isEmpty() ? 0 : 1) + (scheduled.fixedRate() == -1 ? 0 : 1) + (scheduled.fixedDelay() == -1 ? 0 : 1);
+        if (kinds != 1) {
+            throw new IllegalStateException("@Scheduled method " + name + " must declare exactly one of cron, fixedRate and fixedDelay.");
+        }
+        if (scheduled.initialDelay() < 0) {
+            throw new IllegalStateException("initialDelay of @Scheduled method " + name + " must not be negative.");
+        }
+        this.initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(scheduled.initialDelay());
+        if (!scheduled.cron().isEmpty()) {
+            if (scheduled.initialDelay() != 0) {
+                throw new IllegalStateException("@Scheduled method " + name + " cannot combine cron with initialDelay.");
+            }
+            this.kind = Kind.CRON;
+            this.periodNanos = 0;
+            try {
+                this.cron = CronExpression.parse(scheduled.cron());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("@Scheduled method " + name + ": " + e.getMessage(), e);
+            }
+            this.zone = scheduled.zone().isEmpty() ? ZoneId.systemDefault() : ZoneId.of(scheduled.zone());
+            return;
+        }
+        long period = scheduled.fixedRate() != -1 ? scheduled.fixedRate() : scheduled.fixedDelay();
+        if (period <= 0) {
+            throw new IllegalStateException("Period of @Scheduled method " + name + " must be positive.");
+        }
+        this.kind = scheduled.fixedRate() != -1 ? Kind.FIXED_RATE : Kind.FIXED_DELAY;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(period);
+        this.cron = null;
+        this.zone = null;
+    }
+
+    /**
+     * 开始调度
+     * @param scheduler 共享的调度器
+     * @param bean 单例（可能是@Async等后处理器创建的代理，此时按方法名到代理实现的接口中查找）
+     * @param metrics 任务的指标
+     */
+    public synchronized void start(TaskScheduler scheduler, Object bean, ScheduledTaskMetrics metrics) {
+        this.scheduler = scheduler;
+        this.bean = bean;
+        this.metrics = metrics;
+        this.invoker = resolveInvoker(bean);
+        if (kind == Kind.CRON) {
+            lastCronTime = ZonedDateTime.now(zone);
+            scheduleNextCron();
+        } else {
+            scheduleAt(System.nanoTime() + initialDelayNanos);
+        }
+    }
+
+    private Method resolveInvoker(Object bean) {
+        if (method.getDeclaringClass().isInstance(bean)) {
+            method.setAccessible(true);
+            return method;
+        }
+        try {
+            return bean.getClass().getMethod(method.getName());
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("@Scheduled method " + name + " is not reachable on the proxied bean "
+                    + bean + ", declare it in an interface implemented by the bean.", e);
+        }
+    }
+
+    private void scheduleAt(long plannedNanos) {
+        if (cancelled) { return; }
+        timeout = scheduler.getTimer().newTimeout(() -> fire(plannedNanos), plannedNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 按上一次的计划时间（时钟回拨或错过时按当前时间）计算下一次cron时间
+     */
+    private void scheduleNextCron() {
+        ZonedDateTime now = ZonedDateTime.now(zone);
+        ZonedDateTime next = cron.next(lastCronTime.isAfter(now) ? lastCronTime : now);
+        lastCronTime = next;
+        scheduleAt(System.nanoTime() + Math.max(0, Duration.between(now, next).toNanos()));
+    }
+
+    /**
+     * 到期：在时间轮线程上执行，只做登记下一次和提交到工作线程池
+     */
+    private void fire(long plannedNanos) {
+        if (cancelled) { return; }
+        if (kind == Kind.FIXED_RATE) {
+            long next = plannedNanos + periodNanos;
+            long now = System.nanoTime();
+            // 时间轮线程被耽误时跳到下一个周期，不补执行
+            if (next <= now) { next += ((now - next) / periodNanos + 1) * periodNanos; }
+            scheduleAt(next);
+        } else if (kind == Kind.CRON) {
+            scheduleNextCron();
+        }
+        if (!running.compareAndSet(false, true)) {
+            metrics.onOverrun();
+            if (overrunReported.compareAndSet(false, true)) {
+                System.err.println("[whspring] scheduled task " + name + " is still queued or running when its next execution is due, "
+                        + "skipping executions until it finishes.");
+            }
+            return;
+        }
+        try {
+            scheduler.getWorkers().execute(() -> execute(plannedNanos));
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            metrics.onRejected();
+            if (kind == Kind.FIXED_DELAY) { scheduleAt(System.nanoTime() + periodNanos); }
+        }
+    }
+
+    private void execute(long plannedNanos) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            invoker.invoke(bean);
+            success = true;
+        } catch (InvocationTargetException e) {
+            report(e.getTargetException());
+        } catch (Throwable e) {
+            report(e);
+        } finally {
+            long end = System.nanoTime();
+            metrics.onRun(start - plannedNanos, end - start, success);
+            running.set(false);
+            if (kind == Kind.FIXED_DELAY) { scheduleAt(end + periodNanos); }
+        }
+    }
+
+    private void report(Throwable e) {
+        System.err.println("[whspring] scheduled task " + name + " failed: " + e);
+        e.printStackTrace();
+    }
+
+    /**
+     * 取消，之后不再执行；正在执行的不受影响
+     */
+    public void cancel() {
+        cancelled = true;
+        HashedWheelTimer.Timeout current = timeout;
+        if (current != null) { current.cancel(); }
+    }
+
+    public int getBeanId() {
+        return beanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @Override
+    public String toString() {
+        return name + (kind == Kind.CRON ? " cron(" + cron + ")" : kind == Kind.FIXED_RATE
+                ? " fixedRate(" + TimeUnit.NANOSECONDS.toMillis(periodNanos) + "ms)" : " fixedDelay(" + TimeUnit.NANOSECONDS.toMillis(periodNanos) + "ms)");
+    }
+}
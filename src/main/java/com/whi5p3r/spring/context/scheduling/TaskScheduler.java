@@ -0,0 +1,80 @@
+package com.whi5p3r.spring.context.scheduling;
+
+import com.whi5p3r.spring.utils.DaemonThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 容器中所有@Scheduled任务共享的调度器：一个时间轮线程负责计时，到期的任务交给固定大小、有界队列的工作线程池执行，
+ *               不再是每个Bean一个ScheduledExecutorService。工作线程数、队列容量、tick、时间轮格数可通过系统属性
+ *               whspring.scheduler.threads / queueCapacity / tickMillis / wheelSize 配置
+ * @author: whi5p3r
+ * @date: 2026年10月19日 23:00
+ */
+public final class TaskScheduler {
+    public static final String THREADS_PROPERTY = "whspring.scheduler.threads";
+    public static final String QUEUE_CAPACITY_PROPERTY = "whspring.scheduler.queueCapacity";
+    public static final String TICK_MILLIS_PROPERTY = "whspring.scheduler.tickMillis";
+    public static final String WHEEL_SIZE_PROPERTY = "whspring.scheduler.wheelSize";
+
+    private final HashedWheelTimer timer;
+    private final ThreadPoolExecutor workers;
+
+    /**
+     * @param name 线程名前缀
+     * @param threads 工作线程数
+     * @param queueCapacity 工作线程池的队列容量，满时到期的任务跳过本次执行
+     * @param tickMillis 时间轮每格的时长（毫秒），即调度精度
+     * @param wheelSize 时间轮的格数
+     */
+    public TaskScheduler(String name, int threads, int queueCapacity, long tickMillis, int wheelSize) {
+        this.timer = new HashedWheelTimer(name + "-timer", tickMillis, TimeUnit.MILLISECONDS, wheelSize);
+        this.workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                new DaemonThreadFactory(name + "-worker"), new ThreadPoolExecutor.AbortPolicy());
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 按系统属性创建调度器：工作线程数默认为4（定时任务多为I/O），队列容量默认256，tick默认10ms，时间轮默认512格
+     * @param name 线程名前缀
+     * @return 调度器
+     */
+    public static TaskScheduler fromSystemProperties(String name) {
+        int threads = Integer.getInteger(THREADS_PROPERTY, 4);
+        int queueCapacity = Integer.getInteger(QUEUE_CAPACITY_PROPERTY, 256);
+        long tickMillis = Long.getLong(TICK_MILLIS_PROPERTY, 10);
+        int wheelSize = Integer.getInteger(WHEEL_SIZE_PROPERTY, 512);
+        return new TaskScheduler(name, threads, queueCapacity, tickMillis, wheelSize);
+    }
+
+    HashedWheelTimer getTimer() {
+        return timer;
+    }
+
+    Executor getWorkers() {
+        return workers;
+    }
+
+    /**
+     * @return 工作线程池中排队的任务数
+     */
+    public int getQueueSize() {
+        return workers.getQueue().size();
+    }
+
+    /**
+     * 停止计时，不再开始新的执行，等待正在执行的任务结束
+     * @param timeout 最长等待时间
+     * @param unit 时间单位
+     * @return 是否在等待时间内全部结束
+     * @throws InterruptedException
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        timer.stop();
+        workers.shutdown();
+        return workers.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,28 @@
+package com.whi5p3r.spring.context.scope;
+
+/**
+ * @description: 请求作用域的载体：把一个ScopeStorage绑定到一段代码的执行期间。绑定是词法范围的（call返回即解绑），
+ *               因此既可以用ThreadLocal实现，也可以用JDK 21+的ScopedValue实现。通过ScopeBackends选择。
+ * @author: whi5p3r
+ * @date: 2026年10月19日 19:30
+ */
+public interface ScopeBackend {
+    /**
+     * @return 当前绑定的存储，没有绑定时返回null
+     */
+    ScopeStorage current();
+
+    /**
+     * 在绑定了storage的情况下执行task，返回后恢复原来的绑定
+     * @param storage 要绑定的存储
+     * @param task 任务
+     * @return 任务的返回值
+     * @throws Exception 任务抛出的异常
+     */
+    <T> T call(ScopeStorage storage, ScopedCallable<T> task) throws Exception;
+
+    /**
+     * @return 后端名字，用于诊断
+     */
+    String getName();
+}
@@ -0,0 +1,58 @@
+package com.whi5p3r.spring.context.scope;
+
+/**
+ * @description: 根据系统属性whspring.scope.backend选择请求作用域的载体：
+ *               threadlocal、scopedvalue，或auto（默认，当前JDK可用ScopedValue时使用，否则使用ThreadLocal）
+ * @author: whi5p3r
+ * @date: 2026年10月19日 19:30
+ */
+public final class ScopeBackends {
+    public static final String BACKEND_PROPERTY = "whspring.scope.backend";
+    public static final String AUTO = "auto";
+
+    private ScopeBackends() {
+    }
+
+    public static ScopeBackend create() {
+        return create(System.getProperty(BACKEND_PROPERTY, AUTO).trim());
+    }
+
+    /**
+     * @param name threadlocal、scopedvalue或auto
+     * @return 作用域载体
+     */
+    public static ScopeBackend create(String name) {
+        if (ThreadLocalScopeBackend.NAME.equalsIgnoreCase(name)) {
+            return new ThreadLocalScopeBackend();
+        }
+        if (ScopedValueScopeBackend.NAME.equalsIgnoreCase(name)) {
+            ScopeBackend backend = tryScopedValue();
+            if (backend == null) {
+                throw new IllegalStateException("ScopedValue is not available on this JDK ("
+                        + System.getProperty("java.version") + "), JDK 21+ is required (21~24 with --enable-preview).");
+            }
+            return backend;
+        }
+        if (AUTO.equalsIgnoreCase(name)) {
+            ScopeBackend backend = tryScopedValue();
+            return backend != null ? backend : new ThreadLocalScopeBackend();
+        }
+        throw new IllegalArgumentException("Unknown scope backend: " + name);
+    }
+
+    /**
+     * 创建ScopedValue载体并试绑定一次（预览版未开启时调用会失败），不可用时返回null
+     */
+    private static ScopeBackend tryScopedValue() {
+        try {
+            ScopeBackend backend = new ScopedValueScopeBackend();
+            ScopeStorage probe = new ScopeStorage(0);
+            if (backend.call(probe, backend::current) != probe) {
+                return null;
+            }
+            return backend;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.whi5p3r.spring.context.scope;
+
+import java.util.Arrays;
+
+/**
+ * @description: 一个作用域实例（一次请求或一个线程）中的Bean存储：按scopeSlot索引的数组，不使用Map；
+ *               关闭时按创建顺序的逆序关闭实现了AutoCloseable的Bean。增量重新加载可能新增作用域Bean，下标超出时数组自动扩容
+ * @author: whi5p3r
+ * @date: 2026年10月19日 19:30
+ */
+public final class ScopeStorage implements AutoCloseable {
+    private Object[] beans;
+    /**
+     * 按创建顺序记录的scopeSlot
+     */
+    private int[] creationOrder;
+    private int created;
+
+    public ScopeStorage(int slotCount) {
+        this.beans = new Object[slotCount];
+        this.creationOrder = new int[slotCount];
+    }
+
+    public Object get(int slot) {
+        return slot < beans.length ? beans[slot] : null;
+    }
+
+    public void put(int slot, Object bean) {
+        if (slot >= beans.length) {
+            beans = Arrays.copyOf(beans, slot + 1);
+            creationOrder = Arrays.copyOf(creationOrder, slot + 1);
+        }
+        if (beans[slot] == null) {
+            creationOrder[created++] = slot;
+        }
+        beans[slot] = bean;
+    }
+
+    /**
+     * 逆序关闭该作用域中创建的Bean，某个Bean关闭失败不影响其他Bean，第一个异常在最后抛出（其余作为suppressed）
+     */
+    @Override
+    public void close() {
+        RuntimeException failure = null;
+        for (int i = created - 1; i >= 0; --i) {
+            int slot = creationOrder[i];
+            Object bean = beans[slot];
+            beans[slot] = null;
+            if (!(bean instanceof AutoCloseable)) {
+                continue;
+            }
+            try {
+                ((AutoCloseable) bean).close();
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = new RuntimeException("Failed to destroy scoped bean " + bean, e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        created = 0;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.whi5p3r.spring.context.scope;
+
+/**
+ * @description: 在绑定的作用域中执行的任务
+ * @author: whi5p3r
+ * @date: 2026年10月19日 19:30
+ */
+@FunctionalInterface
+public interface ScopedCallable<T> {
+    T call() throws Exception;
+}
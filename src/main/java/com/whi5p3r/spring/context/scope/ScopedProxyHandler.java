@@ -0,0 +1,54 @@
+package com.whi5p3r.spring.context.scope;
+
+import com.whi5p3r.spring.tracing.Span;
+import com.whi5p3r.spring.tracing.Tracer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+/**
+ * @description: 作用域代理：注入到长生命周期Bean中的是这个JDK动态代理，每次方法调用时才从当前作用域中取出目标Bean。
+ *               在被采样的trace中，每次调用记录一个跨度
+ * @author: whi5p3r
+ * @date: 2026年10月19日 19:30
+ */
+public final class ScopedProxyHandler implements InvocationHandler {
+    private final String beanName;
+    private final Supplier<Object> target;
+    private final Tracer tracer;
+
+    /**
+     * @param beanName 目标Bean的beanName，用于toString和跨度的名字
+     * @param target 从当前作用域中取出目标Bean
+     * @param tracer 请求追踪
+     */
+    public ScopedProxyHandler(String beanName, Supplier<Object> target, Tracer tracer) {
+        this.beanName = beanName;
+        this.target = target;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        // equals/hashCode按代理本身处理，不需要绑定作用域
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "toString": return "ScopedProxy(" + beanName + ")";
+                default: break;
+            }
+        }
+        Span span = tracer.startSpan(beanName, method.getName());
+        try {
+            return method.invoke(target.get(), args);
+        } catch (InvocationTargetException e) {
+            span.error(e.getTargetException());
+            throw e.getTargetException();
+        } finally {
+            span.close();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.whi5p3r.spring.context.scope;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * @description: 基于java.lang.ScopedValue的作用域载体（JDK 21起，21~24需要--enable-preview）。
+ *               项目以Java 8编译，通过MethodHandle反射调用；绑定不依赖ThreadLocalMap，适合大量虚拟线程的场景
+ * @author: whi5p3r
+ * @date: 2026年10月19日 19:30
+ */
+public final class ScopedValueScopeBackend implements ScopeBackend {
+    public static final String NAME = "scopedvalue";
+
+    private final MethodHandle isBound;
+    private final MethodHandle get;
+    private final MethodHandle where;
+    private final MethodHandle run;
+
+    /**
+     * @throws ReflectiveOperationException 当前JDK没有ScopedValue
+     */
+    public ScopedValueScopeBackend() throws ReflectiveOperationException {
+        Class<?> scopedValueClass = Class.forName("java.lang.ScopedValue");
+        Class<?> carrierClass = Class.forName("java.lang.ScopedValue$Carrier");
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        Object key;
+        try {
+            key = lookup.findStatic(scopedValueClass, "newInstance", MethodType.methodType(scopedValueClass)).invoke();
+        } catch (ReflectiveOperationException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        this.isBound = lookup.findVirtual(scopedValueClass, "isBound", MethodType.methodType(boolean.class)).bindTo(key);
+        this.get = lookup.findVirtual(scopedValueClass, "get", MethodType.methodType(Object.class)).bindTo(key);
+        this.where = MethodHandles.insertArguments(lookup.findStatic(scopedValueClass, "where",
+                MethodType.methodType(carrierClass, scopedValueClass, Object.class)), 0, key);
+        this.run = lookup.findVirtual(carrierClass, "run", MethodType.methodType(void.class, Runnable.class));
+    }
+
+    @Override
+    public ScopeStorage current() {
+        try {
+            return (boolean) isBound.invoke() ? (ScopeStorage) get.invoke() : null;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T call(ScopeStorage storage, ScopedCallable<T> task) throws Exception {
+        // Carrier.run只接受Runnable，任务的返回值和受检异常通过数组带出
+        Object[] result = new Object[1];
+        Exception[] failure = new Exception[1];
+        Runnable body = () -> {
+            try {
+                result[0] = task.call();
+            } catch (Exception e) {
+                failure[0] = e;
+            }
+        };
+        try {
+            run.invoke(where.invoke(storage), body);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return (T) result[0];
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+}
@@ -0,0 +1,34 @@
+package com.whi5p3r.spring.context.scope;
+
+/**
+ * @description: 基于ThreadLocal的作用域载体，适用于所有JDK版本。每个后端只有一个ThreadLocal，
+ *               解绑时恢复为原来的值而不是remove()，线程的ThreadLocalMap中的条目被复用，不会反复插入和删除
+ * @author: whi5p3r
+ * @date: 2026年10月19日 19:30
+ */
+public final class ThreadLocalScopeBackend implements ScopeBackend {
+    public static final String NAME = "threadlocal";
+
+    private final ThreadLocal<ScopeStorage> current = new ThreadLocal<>();
+
+    @Override
+    public ScopeStorage current() {
+        return current.get();
+    }
+
+    @Override
+    public <T> T call(ScopeStorage storage, ScopedCallable<T> task) throws Exception {
+        ScopeStorage previous = current.get();
+        current.set(storage);
+        try {
+            return task.call();
+        } finally {
+            current.set(previous);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+}
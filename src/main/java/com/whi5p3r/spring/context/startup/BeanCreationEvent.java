@@ -0,0 +1,51 @@
+package com.whi5p3r.spring.context.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * @description: JFR事件：单个Bean的创建，事件时长包含因依赖注入而嵌套创建的Bean，selfTime不包含
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:05
+ */
+@Name("com.whi5p3r.spring.BeanCreation")
+@Label("Bean Creation")
+@Category({"mini-spring", "Startup"})
+@Description("Creation of one bean during application context startup")
+class BeanCreationEvent extends Event {
+    @Label("Context")
+    String context;
+
+    @Label("Bean Name")
+    String beanName;
+
+    @Label("Bean Class")
+    String beanClass;
+
+    @Label("Parent Bean")
+    @Description("Bean whose dependency injection triggered this creation")
+    String parentBean;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Instantiate Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long instantiateTime;
+
+    @Label("Populate Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long populateTime;
+
+    @Label("Initialize Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long initializeTime;
+
+    @Label("Self Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long selfTime;
+}
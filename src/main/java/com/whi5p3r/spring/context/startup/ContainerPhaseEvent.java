@@ -0,0 +1,28 @@
+package com.whi5p3r.spring.context.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @description: JFR事件：容器启动阶段（scan、loadBeanDefinition、registration、preInstantiation）
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:05
+ */
+@Name("com.whi5p3r.spring.ContainerPhase")
+@Label("Container Startup Phase")
+@Category({"mini-spring", "Startup"})
+@Description("One phase of application context startup")
+class ContainerPhaseEvent extends Event {
+    @Label("Context")
+    String context;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Count")
+    @Description("Number of classes, bean definitions or beans handled by the phase")
+    int count;
+}
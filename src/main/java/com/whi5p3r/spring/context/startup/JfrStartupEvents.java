@@ -0,0 +1,66 @@
+package com.whi5p3r.spring.context.startup;
+
+/**
+ * @description: 通过JFR发出启动事件，JFR未初始化时所有方法都是空操作。
+ *               只由StartupEvents在确认jdk.jfr.Event存在之后反射创建，事件类只在这里被引用，保证没有JFR的JVM上不会加载它们。
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:05
+ */
+final class JfrStartupEvents extends StartupEvents {
+    JfrStartupEvents() {
+    }
+
+    /**
+     * 只有JFR已经初始化（正在或曾经录制）时才创建事件，避免仅仅为了判断isEnabled而在启动时初始化整个JFR
+     */
+    private static boolean recording() {
+        return jdk.jfr.FlightRecorder.isInitialized();
+    }
+
+    @Override
+    Object beginPhase() {
+        if (!recording()) { return null; }
+        ContainerPhaseEvent event = new ContainerPhaseEvent();
+        if (!event.isEnabled()) { return null; }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void commitPhase(Object handle, String contextName, String phase, int count) {
+        if (handle == null) { return; }
+        ContainerPhaseEvent event = (ContainerPhaseEvent) handle;
+        event.end();
+        event.context = contextName;
+        event.phase = phase;
+        event.count = count;
+        event.commit();
+    }
+
+    @Override
+    Object beginBean() {
+        if (!recording()) { return null; }
+        BeanCreationEvent event = new BeanCreationEvent();
+        if (!event.isEnabled()) { return null; }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void commitBean(Object handle, String contextName, String beanName, String beanClass, String parentBean, int depth,
+                    long instantiateNanos, long populateNanos, long initializeNanos, long selfNanos) {
+        if (handle == null) { return; }
+        BeanCreationEvent event = (BeanCreationEvent) handle;
+        event.end();
+        event.context = contextName;
+        event.beanName = beanName;
+        event.beanClass = beanClass;
+        event.parentBean = parentBean;
+        event.depth = depth;
+        event.instantiateTime = instantiateNanos;
+        event.populateTime = populateNanos;
+        event.initializeTime = initializeNanos;
+        event.selfTime = selfNanos;
+        event.commit();
+    }
+}
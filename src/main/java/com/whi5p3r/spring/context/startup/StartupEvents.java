@@ -0,0 +1,51 @@
+package com.whi5p3r.spring.context.startup;
+
+/**
+ * @description: 启动事件的发出入口，本身是没有JFR时使用的空实现。运行时存在jdk.jfr.Event时通过反射创建子类JfrStartupEvents，
+ *               引用jdk.jfr的类（JfrStartupEvents和事件类）只在这时才加载，没有JFR的JVM（如旧版JDK 8）上不会被加载或校验
+ * @author: whi5p3r
+ * @date: 2026年10月20日 03:10
+ */
+class StartupEvents {
+    private static final String JFR_EVENTS_CLASS = "com.whi5p3r.spring.context.startup.JfrStartupEvents";
+
+    private static final StartupEvents INSTANCE = create();
+
+    StartupEvents() {
+    }
+
+    static StartupEvents get() {
+        return INSTANCE;
+    }
+
+    private static StartupEvents create() {
+        ClassLoader classLoader = StartupEvents.class.getClassLoader();
+        try {
+            Class.forName("jdk.jfr.Event", false, classLoader);
+            return (StartupEvents) Class.forName(JFR_EVENTS_CLASS, true, classLoader).getDeclaredConstructor().newInstance();
+        } catch (Throwable e) {
+            return new StartupEvents();
+        }
+    }
+
+    /**
+     * @return 阶段事件的句柄，没有记录时为null
+     */
+    Object beginPhase() {
+        return null;
+    }
+
+    void commitPhase(Object handle, String contextName, String phase, int count) {
+    }
+
+    /**
+     * @return Bean创建事件的句柄，没有记录时为null
+     */
+    Object beginBean() {
+        return null;
+    }
+
+    void commitBean(Object handle, String contextName, String beanName, String beanClass, String parentBean, int depth,
+                    long instantiateNanos, long populateNanos, long initializeNanos, long selfNanos) {
+    }
+}
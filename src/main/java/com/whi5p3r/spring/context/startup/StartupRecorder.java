@@ -0,0 +1,176 @@
+package com.whi5p3r.spring.context.startup;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * @description: 容器启动过程的计时器。记录每个启动阶段的耗时，以及每个Bean的实例化、依赖注入、初始化耗时和因依赖而产生的嵌套关系，
+ *               同时发出JFR事件（运行时支持JFR时），启动完成后生成按自身耗时排序的StartupReport。
+ *               只在refresh期间记录，refresh结束后调用finish()，之后的Bean创建不再记录。
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:05
+ */
+public class StartupRecorder {
+    /**
+     * 系统属性：为true时，容器启动完成后将启动报告打印到标准输出
+     */
+    public static final String REPORT_PROPERTY = "whspring.startup.report";
+
+    /**
+     * JFR事件，运行时不支持JFR时为空实现
+     */
+    private static final StartupEvents EVENTS = StartupEvents.get();
+
+    private final String contextName;
+    private final long startNanos = System.nanoTime();
+    private final List<StartupReport.PhaseTiming> phases = new ArrayList<>();
+    private final List<StartupReport.BeanTiming> beans = new ArrayList<>();
+    /**
+     * 正在创建的Bean，栈顶为当前Bean，下面的是因依赖注入而触发它创建的Bean
+     */
+    private final Deque<BeanFrame> creationStack = new ArrayDeque<>();
+    private volatile boolean recording = true;
+    private StartupReport report;
+
+    public StartupRecorder(String contextName) {
+        this.contextName = contextName;
+    }
+
+    /**
+     * 阶段开始
+     * @param phase 阶段名
+     * @return 阶段句柄，交给endPhase
+     */
+    public Phase beginPhase(String phase) {
+        return new Phase(phase, EVENTS.beginPhase());
+    }
+
+    /**
+     * 阶段结束
+     * @param phase beginPhase的返回值
+     * @param count 该阶段处理的对象数量（类、BeanDefinition、Bean等）
+     */
+    public void endPhase(Phase phase, int count) {
+        long duration = System.nanoTime() - phase.start;
+        phases.add(new StartupReport.PhaseTiming(phase.name, duration, count));
+        EVENTS.commitPhase(phase.event, contextName, phase.name, count);
+    }
+
+    /**
+     * 开始创建Bean，嵌套调用时（依赖注入触发的创建）自动记录父Bean和深度
+     * @param beanName beanName
+     * @param beanClass bean的类型
+     */
+    public void beginBean(String beanName, Class<?> beanClass) {
+        if (!recording) { return; }
+        BeanFrame parent = creationStack.peek();
+        BeanFrame frame = new BeanFrame(beanName, beanClass, parent == null ? null : parent.beanName,
+                creationStack.size(), EVENTS.beginBean());
+        creationStack.push(frame);
+    }
+
+    /**
+     * 当前Bean实例化完成
+     */
+    public void instantiated() {
+        BeanFrame frame = current();
+        if (frame == null) { return; }
+        frame.instantiateNanos = System.nanoTime() - frame.start;
+    }
+
+    /**
+     * 当前Bean依赖注入完成
+     */
+    public void populated() {
+        BeanFrame frame = current();
+        if (frame == null) { return; }
+        frame.populateNanos = System.nanoTime() - frame.start - frame.instantiateNanos;
+    }
+
+    /**
+     * 当前Bean初始化完成，Bean创建结束
+     */
+    public void endBean() {
+        BeanFrame frame = current();
+        if (frame == null) { return; }
+        creationStack.pop();
+        long total = System.nanoTime() - frame.start;
+        long initialize = total - frame.instantiateNanos - frame.populateNanos;
+        long self = total - frame.childNanos;
+        BeanFrame parent = creationStack.peek();
+        if (parent != null) {
+            parent.childNanos += total;
+        }
+        beans.add(new StartupReport.BeanTiming(frame.beanName, frame.beanClass.getName(), frame.parentBean, frame.depth,
+                frame.instantiateNanos, frame.populateNanos, initialize, total, self));
+        EVENTS.commitBean(frame.event, contextName, frame.beanName, frame.beanClass.getName(), frame.parentBean,
+                frame.depth, frame.instantiateNanos, frame.populateNanos, initialize, self);
+    }
+
+    /**
+     * Bean创建失败时丢弃当前的记录帧，保证栈的平衡
+     */
+    public void abortBean() {
+        if (current() != null) {
+            creationStack.pop();
+        }
+    }
+
+    /**
+     * refresh结束，停止记录并生成启动报告
+     * @return 启动报告
+     */
+    public StartupReport finish() {
+        recording = false;
+        creationStack.clear();
+        report = new StartupReport(contextName, System.nanoTime() - startNanos, phases, beans);
+        if (Boolean.getBoolean(REPORT_PROPERTY)) {
+            System.out.println(report);
+        }
+        return report;
+    }
+
+    public StartupReport getReport() {
+        return report;
+    }
+
+    private BeanFrame current() {
+        return recording ? creationStack.peek() : null;
+    }
+
+    /**
+     * 启动阶段句柄
+     */
+    public static final class Phase {
+        private final String name;
+        private final long start = System.nanoTime();
+        private final Object event;
+
+        private Phase(String name, Object event) {
+            this.name = name;
+            this.event = event;
+        }
+    }
+
+    private static final class BeanFrame {
+        private final String beanName;
+        private final Class<?> beanClass;
+        private final String parentBean;
+        private final int depth;
+        private final Object event;
+        private final long start = System.nanoTime();
+        private long instantiateNanos;
+        private long populateNanos;
+        private long childNanos;
+
+        private BeanFrame(String beanName, Class<?> beanClass, String parentBean, int depth, Object event) {
+            this.beanName = beanName;
+            this.beanClass = beanClass;
+            this.parentBean = parentBean;
+            this.depth = depth;
+            this.event = event;
+        }
+    }
+}
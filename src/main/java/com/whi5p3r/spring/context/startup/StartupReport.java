@@ -0,0 +1,117 @@
+package com.whi5p3r.spring.context.startup;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * @description: 容器启动报告：各阶段耗时，以及按自身耗时（不含嵌套创建的依赖）降序排列的Bean创建耗时
+ * @author: whi5p3r
+ * @date: 2026年10月19日 16:05
+ */
+public class StartupReport {
+    private final String contextName;
+    private final long totalNanos;
+    private final List<PhaseTiming> phases;
+    private final List<BeanTiming> beans;
+
+    StartupReport(String contextName, long totalNanos, List<PhaseTiming> phases, List<BeanTiming> beans) {
+        this.contextName = contextName;
+        this.totalNanos = totalNanos;
+        this.phases = Collections.unmodifiableList(new ArrayList<>(phases));
+        List<BeanTiming> sorted = new ArrayList<>(beans);
+        sorted.sort(Comparator.comparingLong(BeanTiming::getSelfNanos).reversed());
+        this.beans = Collections.unmodifiableList(sorted);
+    }
+
+    public String getContextName() {
+        return contextName;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public List<PhaseTiming> getPhases() {
+        return phases;
+    }
+
+    /**
+     * 按自身耗时降序排列的Bean创建耗时
+     */
+    public List<BeanTiming> getBeans() {
+        return beans;
+    }
+
+    /**
+     * 某个阶段的耗时，没有该阶段时返回-1
+     */
+    public long getPhaseNanos(String phase) {
+        for (PhaseTiming timing : phases) {
+            if (timing.getPhase().equals(phase)) {
+                return timing.getNanos();
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Startup report of %s: %.3f ms%n", contextName, totalNanos / 1e6));
+        for (PhaseTiming phase : phases) {
+            sb.append(String.format("  %-20s %10.3f ms  (%d)%n", phase.getPhase(), phase.getNanos() / 1e6, phase.getCount()));
+        }
+        sb.append(String.format("  %-40s %10s %10s %10s %10s %10s  %s%n",
+                "bean", "self(ms)", "total", "inst", "populate", "init", "parent"));
+        for (BeanTiming bean : beans) {
+            sb.append(String.format("  %-40s %10.3f %10.3f %10.3f %10.3f %10.3f  %s%n",
+                    indent(bean.getDepth()) + bean.getBeanName(),
+                    bean.getSelfNanos() / 1e6, bean.getTotalNanos() / 1e6, bean.getInstantiateNanos() / 1e6,
+                    bean.getPopulateNanos() / 1e6, bean.getInitializeNanos() / 1e6,
+                    bean.getParentBean() == null ? "-" : bean.getParentBean()));
+        }
+        return sb.toString();
+    }
+
+    private static String indent(int depth) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; ++i) {
+            sb.append("  ");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 某个启动阶段的耗时
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    public static final class PhaseTiming {
+        private final String phase;
+        private final long nanos;
+        private final int count;
+    }
+
+    /**
+     * 某个Bean的创建耗时，totalNanos包含嵌套创建的依赖，selfNanos不包含
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    public static final class BeanTiming {
+        private final String beanName;
+        private final String beanClassName;
+        private final String parentBean;
+        private final int depth;
+        private final long instantiateNanos;
+        private final long populateNanos;
+        private final long initializeNanos;
+        private final long totalNanos;
+        private final long selfNanos;
+    }
+}
@@ -0,0 +1,38 @@
+package com.whi5p3r.spring.core;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * @description: 延迟、可重复的依赖查找。注入时绑定到预先解析好的beanId，每次调用直接按beanId从容器中取Bean，
+ *               不再按名字查找：prototype每次得到新的实例，请求/线程作用域得到当前作用域中的实例，
+ *               池化的Bean每次借出一个实例，用完后需通过releaseBean归还
+ * @author: whi5p3r
+ * @date: 2026年10月19日 21:40
+ */
+public interface ObjectProvider<T> {
+    /**
+     * @return 绑定的Bean
+     * @throws NullPointerException Bean不存在时
+     */
+    T getObject();
+
+    /**
+     * @return 绑定的Bean，不存在时返回null
+     */
+    T getIfAvailable();
+
+    /**
+     * @param defaultSupplier Bean不存在时的默认值
+     * @return 绑定的Bean，不存在时返回defaultSupplier提供的对象
+     */
+    default T getIfAvailable(Supplier<T> defaultSupplier) {
+        T object = getIfAvailable();
+        return object != null ? object : defaultSupplier.get();
+    }
+
+    /**
+     * @return 容器（及其父容器）中所有类型匹配的Bean，按beanId顺序，子容器在前
+     */
+    Stream<T> stream();
+}
@@ -0,0 +1,75 @@
+package com.whi5p3r.spring.core.env;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * @description: 容器的运行环境：属性（系统属性，其次是环境变量，如 feature.audit.enabled 对应 FEATURE_AUDIT_ENABLED）
+ *               和激活的profile（系统属性whspring.profiles.active，逗号分隔，没有指定时为default）。
+ *               读取BeanDefinition时用于判断@Profile、@ConditionalOnProperty，也可以注入到Bean中
+ * @author: whi5p3r
+ * @date: 2026年10月20日 00:10
+ */
+public final class Environment {
+    public static final String ACTIVE_PROFILES_PROPERTY = "whspring.profiles.active";
+    public static final String DEFAULT_PROFILE = "default";
+
+    private final Set<String> activeProfiles;
+
+    public Environment() {
+        Set<String> profiles = new LinkedHashSet<>();
+        String value = getProperty(ACTIVE_PROFILES_PROPERTY);
+        if (value != null) {
+            for (String profile : value.split(",")) {
+                if (!profile.trim().isEmpty()) {
+                    profiles.add(profile.trim());
+                }
+            }
+        }
+        if (profiles.isEmpty()) {
+            profiles.add(DEFAULT_PROFILE);
+        }
+        this.activeProfiles = Collections.unmodifiableSet(profiles);
+    }
+
+    /**
+     * @param name 属性名
+     * @return 系统属性；没有时为对应的环境变量；都没有时返回null
+     */
+    public String getProperty(String name) {
+        String value = System.getProperty(name);
+        if (value != null) {
+            return value;
+        }
+        return System.getenv(name.replace('.', '_').replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+
+    public String getProperty(String name, String defaultValue) {
+        String value = getProperty(name);
+        return value == null ? defaultValue : value;
+    }
+
+    public Set<String> getActiveProfiles() {
+        return activeProfiles;
+    }
+
+    /**
+     * @param profiles @Profile的值，"!dev"表示dev未激活
+     * @return 任意一个匹配时返回true
+     */
+    public boolean acceptsProfiles(String... profiles) {
+        for (String profile : profiles) {
+            String name = profile.trim();
+            boolean negated = name.startsWith("!");
+            if (negated) {
+                name = name.substring(1).trim();
+            }
+            if (activeProfiles.contains(name) != negated) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
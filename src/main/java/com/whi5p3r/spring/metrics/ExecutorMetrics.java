@@ -0,0 +1,90 @@
+package com.whi5p3r.spring.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 单个@Async执行器的指标：提交、拒绝、开始、完成、失败的任务数，由此得出排队中和执行中的任务数，以及任务在队列中的等待时间
+ * @author: whi5p3r
+ * @date: 2026年10月19日 22:30
+ */
+public class ExecutorMetrics {
+    private final String executorName;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+
+    public ExecutorMetrics(String executorName) {
+        this.executorName = executorName;
+    }
+
+    public void onSubmit() {
+        submitted.increment();
+    }
+
+    /**
+     * 任务被执行器拒绝（已通过onSubmit计数）
+     */
+    public void onReject() {
+        rejected.increment();
+    }
+
+    /**
+     * 任务开始执行，waitNanos为提交到开始执行的时间
+     */
+    public void onStart(long waitNanos) {
+        started.increment();
+        queueWait.record(waitNanos);
+    }
+
+    /**
+     * 任务执行结束
+     * @param success 是否正常结束
+     */
+    public void onComplete(boolean success) {
+        completed.increment();
+        if (!success) {
+            failed.increment();
+        }
+    }
+
+    public String getExecutorName() {
+        return executorName;
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * 已提交、未被拒绝、尚未开始执行的任务数（各计数器分别读取，并发时是近似值）
+     */
+    public long getQueueDepth() {
+        return Math.max(0, submitted.sum() - rejected.sum() - started.sum());
+    }
+
+    /**
+     * 正在执行的任务数
+     */
+    public long getActive() {
+        return Math.max(0, started.sum() - completed.sum());
+    }
+
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+}
@@ -0,0 +1,102 @@
+package com.whi5p3r.spring.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 对数分桶的延迟直方图。桶边界为2的幂（纳秒），记录时只做一次位运算定位桶，
+ *               每个桶是一个LongAdder（内部按线程分段累加），记录路径无锁、无分配。
+ * @author: whi5p3r
+ * @date: 2026年10月19日 15:30
+ */
+public class LatencyHistogram {
+    /**
+     * 最小桶上界为 2^MIN_EXPONENT 纳秒（约1微秒）
+     */
+    private static final int MIN_EXPONENT = 10;
+    /**
+     * 最大桶上界为 2^MAX_EXPONENT 纳秒（约68秒），更大的值落入+Inf桶
+     */
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKET_COUNT = MAX_EXPONENT - MIN_EXPONENT + 2;
+
+    private static final double[] UPPER_BOUNDS_SECONDS = new double[BUCKET_COUNT - 1];
+
+    static {
+        for (int i = 0; i < UPPER_BOUNDS_SECONDS.length; ++i) {
+            UPPER_BOUNDS_SECONDS[i] = (1L << (MIN_EXPONENT + i)) / 1e9;
+        }
+    }
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一次耗时
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(long nanos) {
+        if (nanos < 0) { nanos = 0; }
+        buckets[bucketIndex(nanos)].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * 计算耗时所属的桶：上界为不小于nanos的最小2的幂
+     */
+    static int bucketIndex(long nanos) {
+        if (nanos <= (1L << MIN_EXPONENT)) { return 0; }
+        int exponent = 64 - Long.numberOfLeadingZeros(nanos - 1);
+        return Math.min(exponent - MIN_EXPONENT, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * 返回各桶（非累计）的计数快照，最后一个为+Inf桶
+     */
+    public long[] snapshotBuckets() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long sumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * 以Prometheus histogram格式输出（累计桶 + _sum + _count）
+     * @param writer 输出
+     * @param name 指标名（不含_bucket等后缀）
+     * @param labels 标签键值对，可为空
+     */
+    public void writeTo(PrometheusTextWriter writer, String name, String... labels) {
+        long[] counts = snapshotBuckets();
+        long cumulative = 0;
+        String[] bucketLabels = new String[labels.length + 2];
+        System.arraycopy(labels, 0, bucketLabels, 0, labels.length);
+        bucketLabels[labels.length] = "le";
+        for (int i = 0; i < counts.length; ++i) {
+            cumulative += counts[i];
+            bucketLabels[labels.length + 1] = i < UPPER_BOUNDS_SECONDS.length
+                    ? Double.toString(UPPER_BOUNDS_SECONDS[i]) : "+Inf";
+            writer.sample(name + "_bucket", cumulative, bucketLabels);
+        }
+        writer.sample(name + "_sum", sumNanos() / 1e9, labels);
+        writer.sample(name + "_count", cumulative, labels);
+    }
+}
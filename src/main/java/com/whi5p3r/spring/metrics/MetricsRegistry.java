@@ -0,0 +1,209 @@
+package com.whi5p3r.spring.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @description: 容器的指标注册表，按路由保存RouteMetrics、按池化Bean保存PoolMetrics、按@Async执行器保存ExecutorMetrics、按@Scheduled任务保存ScheduledTaskMetrics，并输出为Prometheus文本格式
+ * @author: whi5p3r
+ * @date: 2026年10月19日 15:30
+ */
+public class MetricsRegistry {
+    /**
+     * 未匹配到任何路由的请求统一记在该路由名下，避免标签基数膨胀
+     */
+    public static final String UNMATCHED_ROUTE = "<unmatched>";
+
+    private final Map<String, RouteMetrics> routeMetrics = new ConcurrentHashMap<>();
+    private final Map<String, PoolMetrics> poolMetrics = new ConcurrentHashMap<>();
+    private final Map<String, ExecutorMetrics> executorMetrics = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledTaskMetrics> scheduledTaskMetrics = new ConcurrentHashMap<>();
+
+    /**
+     * 获取（不存在则创建）某个路由的指标，应在初始化路由时调用一次并缓存结果
+     * @param route 路由
+     * @return 该路由的指标
+     */
+    public RouteMetrics routeMetrics(String route) {
+        return routeMetrics.computeIfAbsent(route, RouteMetrics::new);
+    }
+
+    /**
+     * 获取（不存在则创建）某个池化Bean的对象池指标，应在创建对象池时调用一次并缓存结果
+     * @param beanName 池化Bean的beanName
+     * @return 该对象池的指标
+     */
+    public PoolMetrics poolMetrics(String beanName) {
+        return poolMetrics.computeIfAbsent(beanName, PoolMetrics::new);
+    }
+
+    /**
+     * 获取（不存在则创建）某个@Async执行器的指标，应在创建执行器时调用一次并缓存结果
+     * @param executorName 执行器的名字
+     * @return 该执行器的指标
+     */
+    public ExecutorMetrics executorMetrics(String executorName) {
+        return executorMetrics.computeIfAbsent(executorName, ExecutorMetrics::new);
+    }
+
+    /**
+     * 获取（不存在则创建）某个@Scheduled任务的指标，应在登记任务时调用一次并缓存结果
+     * @param taskName 任务名（beanName.方法名）
+     * @return 该任务的指标
+     */
+    public ScheduledTaskMetrics scheduledTaskMetrics(String taskName) {
+        return scheduledTaskMetrics.computeIfAbsent(taskName, ScheduledTaskMetrics::new);
+    }
+
+    /**
+     * 输出所有指标
+     */
+    public void writeTo(PrometheusTextWriter writer) {
+        List<RouteMetrics> routes = new ArrayList<>(new TreeMap<>(routeMetrics).values());
+
+        writer.header("whspring_http_requests_total", "counter", "Total requests handled per route.");
+        for (RouteMetrics metrics : routes) {
+            writer.sample("whspring_http_requests_total", metrics.getRequests(), "route", metrics.getRoute());
+        }
+        writer.header("whspring_http_request_errors_total", "counter", "Requests that ended with an exception per route.");
+        for (RouteMetrics metrics : routes) {
+            writer.sample("whspring_http_request_errors_total", metrics.getErrors(), "route", metrics.getRoute());
+        }
+        writer.header("whspring_http_requests_in_flight", "gauge", "Requests currently being handled per route.");
+        for (RouteMetrics metrics : routes) {
+            writer.sample("whspring_http_requests_in_flight", metrics.getInFlight(), "route", metrics.getRoute());
+        }
+        writer.header("whspring_http_request_duration_seconds", "histogram", "Request latency per route.");
+        for (RouteMetrics metrics : routes) {
+            metrics.getLatency().writeTo(writer, "whspring_http_request_duration_seconds", "route", metrics.getRoute());
+        }
+        writePoolMetrics(writer);
+        writeExecutorMetrics(writer);
+        writeScheduledTaskMetrics(writer);
+    }
+
+    /**
+     * 输出对象池指标，没有池化Bean时不输出
+     */
+    private void writePoolMetrics(PrometheusTextWriter writer) {
+        if (poolMetrics.isEmpty()) {
+            return;
+        }
+        List<PoolMetrics> pools = new ArrayList<>(new TreeMap<>(poolMetrics).values());
+
+        writer.header("whspring_pool_borrows_total", "counter", "Borrow attempts per pooled bean.");
+        for (PoolMetrics metrics : pools) {
+            writer.sample("whspring_pool_borrows_total", metrics.getBorrows(), "bean", metrics.getBeanName());
+        }
+        writer.header("whspring_pool_hits_total", "counter", "Borrows served by an idle pooled instance.");
+        for (PoolMetrics metrics : pools) {
+            writer.sample("whspring_pool_hits_total", metrics.getHits(), "bean", metrics.getBeanName());
+        }
+        writer.header("whspring_pool_creations_total", "counter", "Instances created because no idle instance was available.");
+        for (PoolMetrics metrics : pools) {
+            writer.sample("whspring_pool_creations_total", metrics.getCreations(), "bean", metrics.getBeanName());
+        }
+        writer.header("whspring_pool_timeouts_total", "counter", "Borrows that timed out on an exhausted pool.");
+        for (PoolMetrics metrics : pools) {
+            writer.sample("whspring_pool_timeouts_total", metrics.getTimeouts(), "bean", metrics.getBeanName());
+        }
+        writer.header("whspring_pool_discards_total", "counter", "Instances discarded because their reset hook failed.");
+        for (PoolMetrics metrics : pools) {
+            writer.sample("whspring_pool_discards_total", metrics.getDiscards(), "bean", metrics.getBeanName());
+        }
+        writer.header("whspring_pool_in_use", "gauge", "Pooled instances currently borrowed.");
+        for (PoolMetrics metrics : pools) {
+            writer.sample("whspring_pool_in_use", metrics.getInUse(), "bean", metrics.getBeanName());
+        }
+        writer.header("whspring_pool_wait_seconds", "histogram", "Time spent waiting on an exhausted pool.");
+        for (PoolMetrics metrics : pools) {
+            metrics.getWaitTime().writeTo(writer, "whspring_pool_wait_seconds", "bean", metrics.getBeanName());
+        }
+    }
+
+    /**
+     * 输出@Async执行器指标，没有执行器时不输出
+     */
+    private void writeExecutorMetrics(PrometheusTextWriter writer) {
+        if (executorMetrics.isEmpty()) {
+            return;
+        }
+        List<ExecutorMetrics> executors = new ArrayList<>(new TreeMap<>(executorMetrics).values());
+
+        writer.header("whspring_executor_submitted_total", "counter", "Tasks submitted per async executor.");
+        for (ExecutorMetrics metrics : executors) {
+            writer.sample("whspring_executor_submitted_total", metrics.getSubmitted(), "executor", metrics.getExecutorName());
+        }
+        writer.header("whspring_executor_rejected_total", "counter", "Tasks rejected because the executor was saturated.");
+        for (ExecutorMetrics metrics : executors) {
+            writer.sample("whspring_executor_rejected_total", metrics.getRejected(), "executor", metrics.getExecutorName());
+        }
+        writer.header("whspring_executor_completed_total", "counter", "Tasks finished per async executor.");
+        for (ExecutorMetrics metrics : executors) {
+            writer.sample("whspring_executor_completed_total", metrics.getCompleted(), "executor", metrics.getExecutorName());
+        }
+        writer.header("whspring_executor_failed_total", "counter", "Tasks that ended with an exception per async executor.");
+        for (ExecutorMetrics metrics : executors) {
+            writer.sample("whspring_executor_failed_total", metrics.getFailed(), "executor", metrics.getExecutorName());
+        }
+        writer.header("whspring_executor_queue_depth", "gauge", "Tasks waiting to start per async executor.");
+        for (ExecutorMetrics metrics : executors) {
+            writer.sample("whspring_executor_queue_depth", metrics.getQueueDepth(), "executor", metrics.getExecutorName());
+        }
+        writer.header("whspring_executor_active", "gauge", "Tasks currently running per async executor.");
+        for (ExecutorMetrics metrics : executors) {
+            writer.sample("whspring_executor_active", metrics.getActive(), "executor", metrics.getExecutorName());
+        }
+        writer.header("whspring_executor_queue_wait_seconds", "histogram", "Time from submission to start per async executor.");
+        for (ExecutorMetrics metrics : executors) {
+            metrics.getQueueWait().writeTo(writer, "whspring_executor_queue_wait_seconds", "executor", metrics.getExecutorName());
+        }
+    }
+
+    /**
+     * 输出@Scheduled任务指标，没有任务时不输出
+     */
+    private void writeScheduledTaskMetrics(PrometheusTextWriter writer) {
+        if (scheduledTaskMetrics.isEmpty()) {
+            return;
+        }
+        List<ScheduledTaskMetrics> tasks = new ArrayList<>(new TreeMap<>(scheduledTaskMetrics).values());
+
+        writer.header("whspring_scheduled_runs_total", "counter", "Executions per scheduled task.");
+        for (ScheduledTaskMetrics metrics : tasks) {
+            writer.sample("whspring_scheduled_runs_total", metrics.getRuns(), "task", metrics.getTaskName());
+        }
+        writer.header("whspring_scheduled_failures_total", "counter", "Executions that ended with an exception per scheduled task.");
+        for (ScheduledTaskMetrics metrics : tasks) {
+            writer.sample("whspring_scheduled_failures_total", metrics.getFailures(), "task", metrics.getTaskName());
+        }
+        writer.header("whspring_scheduled_overruns_total", "counter", "Executions skipped because the previous one was still running.");
+        for (ScheduledTaskMetrics metrics : tasks) {
+            writer.sample("whspring_scheduled_overruns_total", metrics.getOverruns(), "task", metrics.getTaskName());
+        }
+        writer.header("whspring_scheduled_rejections_total", "counter", "Executions skipped because the worker pool was full.");
+        for (ScheduledTaskMetrics metrics : tasks) {
+            writer.sample("whspring_scheduled_rejections_total", metrics.getRejections(), "task", metrics.getTaskName());
+        }
+        writer.header("whspring_scheduled_lateness_seconds", "histogram", "Delay between the planned and the actual start per scheduled task.");
+        for (ScheduledTaskMetrics metrics : tasks) {
+            metrics.getLateness().writeTo(writer, "whspring_scheduled_lateness_seconds", "task", metrics.getTaskName());
+        }
+        writer.header("whspring_scheduled_duration_seconds", "histogram", "Execution time per scheduled task.");
+        for (ScheduledTaskMetrics metrics : tasks) {
+            metrics.getDuration().writeTo(writer, "whspring_scheduled_duration_seconds", "task", metrics.getTaskName());
+        }
+    }
+
+    /**
+     * 以Prometheus文本格式返回所有指标
+     */
+    public String scrape() {
+        PrometheusTextWriter writer = new PrometheusTextWriter();
+        writeTo(writer);
+        return writer.toString();
+    }
+}
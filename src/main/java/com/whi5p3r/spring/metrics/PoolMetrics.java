@@ -0,0 +1,112 @@
+package com.whi5p3r.spring.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 单个池化Bean的对象池指标：借出次数、命中次数（借到空闲实例）、新建、超时、丢弃次数，借出中的实例数，以及需要等待时的等待时间
+ * @author: whi5p3r
+ * @date: 2026年10月19日 18:50
+ */
+public class PoolMetrics {
+    private final String beanName;
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder creations = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder discards = new LongAdder();
+    private final LongAdder inUse = new LongAdder();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+
+    public PoolMetrics(String beanName) {
+        this.beanName = beanName;
+    }
+
+    /**
+     * 借到了空闲实例
+     */
+    public void onHit() {
+        borrows.increment();
+        hits.increment();
+        inUse.increment();
+    }
+
+    /**
+     * 没有空闲实例，新建了一个
+     */
+    public void onCreate() {
+        borrows.increment();
+        creations.increment();
+        inUse.increment();
+    }
+
+    /**
+     * 池耗尽，等待waitNanos后借到了实例（已通过onHit/onCreate计数）
+     */
+    public void onWait(long waitNanos) {
+        waitTime.record(waitNanos);
+    }
+
+    /**
+     * 池耗尽，等待超时
+     */
+    public void onTimeout(long waitNanos) {
+        borrows.increment();
+        timeouts.increment();
+        waitTime.record(waitNanos);
+    }
+
+    /**
+     * 实例归还到池中
+     */
+    public void onReturn() {
+        inUse.decrement();
+    }
+
+    /**
+     * 实例在归还时被丢弃（重置失败）
+     */
+    public void onDiscard() {
+        inUse.decrement();
+        discards.increment();
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    public long getBorrows() {
+        return borrows.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getCreations() {
+        return creations.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public long getDiscards() {
+        return discards.sum();
+    }
+
+    public long getInUse() {
+        return inUse.sum();
+    }
+
+    /**
+     * 命中率：借到空闲实例的次数 / 借出次数
+     */
+    public double getHitRate() {
+        long total = borrows.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+}
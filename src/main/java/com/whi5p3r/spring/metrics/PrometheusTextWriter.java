@@ -0,0 +1,78 @@
+package com.whi5p3r.spring.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * @description: Prometheus文本格式（0.0.4）输出工具
+ * @author: whi5p3r
+ * @date: 2026年10月19日 15:30
+ */
+public class PrometheusTextWriter {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder out = new StringBuilder(4096);
+
+    /**
+     * 输出指标的HELP和TYPE头
+     * @param name 指标名
+     * @param type counter / gauge / histogram
+     * @param help 说明
+     */
+    public PrometheusTextWriter header(String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    /**
+     * 输出一条样本
+     * @param name 指标名
+     * @param value 值
+     * @param labels 标签键值对：key1, value1, key2, value2 ...
+     */
+    public PrometheusTextWriter sample(String name, double value, String... labels) {
+        out.append(name);
+        if (labels.length > 0) {
+            out.append('{');
+            for (int i = 0; i + 1 < labels.length; i += 2) {
+                if (i > 0) { out.append(','); }
+                out.append(labels[i]).append("=\"");
+                escape(labels[i + 1]);
+                out.append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+        return this;
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    public void writeTo(Writer writer) throws IOException {
+        writer.write(out.toString());
+        writer.flush();
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
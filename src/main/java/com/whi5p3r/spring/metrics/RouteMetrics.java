@@ -0,0 +1,60 @@
+package com.whi5p3r.spring.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 单个路由的请求数、错误数、处理中请求数和延迟直方图
+ * @author: whi5p3r
+ * @date: 2026年10月19日 15:30
+ */
+public class RouteMetrics {
+    private final String route;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public RouteMetrics(String route) {
+        this.route = route;
+    }
+
+    /**
+     * 请求开始，返回开始时间，交给onComplete
+     */
+    public long onStart() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * 请求结束
+     * @param startNanos onStart的返回值
+     * @param failed 是否抛出异常
+     */
+    public void onComplete(long startNanos, boolean failed) {
+        latency.record(System.nanoTime() - startNanos);
+        requests.increment();
+        if (failed) { errors.increment(); }
+        inFlight.decrement();
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
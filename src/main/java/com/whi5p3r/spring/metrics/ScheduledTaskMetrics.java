@@ -0,0 +1,80 @@
+package com.whi5p3r.spring.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 单个@Scheduled任务的指标：执行、失败、overrun（上一次未结束而跳过）、被工作线程池拒绝的次数，
+ *               以及开始时间相对计划时间的延迟和执行耗时
+ * @author: whi5p3r
+ * @date: 2026年10月19日 23:00
+ */
+public class ScheduledTaskMetrics {
+    private final String taskName;
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder overruns = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LatencyHistogram lateness = new LatencyHistogram();
+    private final LatencyHistogram duration = new LatencyHistogram();
+
+    public ScheduledTaskMetrics(String taskName) {
+        this.taskName = taskName;
+    }
+
+    /**
+     * 一次执行结束
+     * @param latenessNanos 实际开始时间与计划时间之差
+     * @param durationNanos 执行耗时
+     * @param success 是否正常结束
+     */
+    public void onRun(long latenessNanos, long durationNanos, boolean success) {
+        runs.increment();
+        if (!success) {
+            failures.increment();
+        }
+        lateness.record(latenessNanos);
+        duration.record(durationNanos);
+    }
+
+    /**
+     * 到期时上一次执行还没有结束，跳过本次
+     */
+    public void onOverrun() {
+        overruns.increment();
+    }
+
+    /**
+     * 到期时工作线程池已满，跳过本次
+     */
+    public void onRejected() {
+        rejections.increment();
+    }
+
+    public String getTaskName() {
+        return taskName;
+    }
+
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getOverruns() {
+        return overruns.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    public LatencyHistogram getLateness() {
+        return lateness;
+    }
+
+    public LatencyHistogram getDuration() {
+        return duration;
+    }
+}
@@ -0,0 +1,141 @@
+package com.whi5p3r.spring.tracing;
+
+import java.util.Arrays;
+
+/**
+ * @description: 一个调用的跨度：所在的trace、父跨度、名字（组件.操作）、开始时间和耗时、标签。
+ *               由Tracer创建，在同一个线程上close；close时记录到Tracer的环形缓冲区，并恢复该线程上之前的当前跨度。
+ *               没有被采样时为NOOP，所有方法都不做任何事
+ * @author: whi5p3r
+ * @date: 2026年10月20日 01:40
+ */
+public final class Span implements AutoCloseable {
+    /**
+     * 没有被采样的调用使用的跨度
+     */
+    public static final Span NOOP = new Span(null, null, 0L, 0L, 0L, null, null, null);
+
+    public static final String KIND_SERVER = "SERVER";
+
+    private final Tracer tracer;
+    private final Span previous;
+    private final long traceId;
+    private final long spanId;
+    private final long parentId;
+    private final String component;
+    private final String operation;
+    private final String kind;
+    private final long startNanos;
+    private final long timestampMicros;
+    private long durationMicros = -1;
+    /**
+     * 标签：key、value交替存放，第一次加标签时创建
+     */
+    private String[] tags;
+    private int tagCount;
+
+    Span(Tracer tracer, Span previous, long traceId, long spanId, long parentId, String component, String operation, String kind) {
+        this.tracer = tracer;
+        this.previous = previous;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.component = component;
+        this.operation = operation;
+        this.kind = kind;
+        this.startNanos = tracer == null ? 0L : System.nanoTime();
+        this.timestampMicros = tracer == null ? 0L : tracer.epochMicros(startNanos);
+    }
+
+    /**
+     * 加一个标签（Zipkin的tags）
+     * @return this
+     */
+    public Span tag(String key, String value) {
+        if (tracer == null || value == null) {
+            return this;
+        }
+        if (tags == null) {
+            tags = new String[8];
+        } else if (tagCount * 2 == tags.length) {
+            tags = Arrays.copyOf(tags, tags.length * 2);
+        }
+        tags[tagCount * 2] = key;
+        tags[tagCount * 2 + 1] = value;
+        ++tagCount;
+        return this;
+    }
+
+    /**
+     * 标记为失败，异常记录在error标签中
+     * @return this
+     */
+    public Span error(Throwable e) {
+        return tag("error", String.valueOf(e));
+    }
+
+    /**
+     * 结束并记录跨度，恢复之前的当前跨度。重复调用只记录一次
+     */
+    @Override
+    public void close() {
+        if (tracer == null || durationMicros >= 0) {
+            return;
+        }
+        durationMicros = Math.max(1L, (System.nanoTime() - startNanos) / 1000);
+        tracer.finish(this, previous);
+    }
+
+    public boolean isSampled() {
+        return tracer != null;
+    }
+
+    public long getTraceId() {
+        return traceId;
+    }
+
+    public long getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * @return 父跨度的spanId，根跨度为0
+     */
+    public long getParentId() {
+        return parentId;
+    }
+
+    /**
+     * @return 组件.操作，如 userService.findUser；SERVER跨度为 方法 路径，如 GET /user/find；没有操作时为组件
+     */
+    public String getName() {
+        if (operation == null) {
+            return component;
+        }
+        return component + (KIND_SERVER.equals(kind) ? " " : ".") + operation;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public long getTimestampMicros() {
+        return timestampMicros;
+    }
+
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public int getTagCount() {
+        return tagCount;
+    }
+
+    public String getTagKey(int index) {
+        return tags[index * 2];
+    }
+
+    public String getTagValue(int index) {
+        return tags[index * 2 + 1];
+    }
+}
@@ -0,0 +1,85 @@
+package com.whi5p3r.spring.tracing;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 结束的跨度的有界环形缓冲区：创建时分配好全部槽位，多个线程无锁写入（CAS领取序号后发布到槽位），
+ *               只有导出线程一个读者。读者还没取走的槽位不会被覆盖：缓冲区满时丢弃新的跨度并计数，记录跨度的线程从不阻塞
+ * @author: whi5p3r
+ * @date: 2026年10月20日 01:40
+ */
+final class SpanRingBuffer {
+    private final AtomicReferenceArray<Span> slots;
+    private final int mask;
+    /**
+     * 下一个领取的序号
+     */
+    private final AtomicLong producerSequence = new AtomicLong();
+    /**
+     * 下一个读取的序号，之前的槽位都已经取走（置为null），可以再次写入
+     */
+    private volatile long consumerSequence;
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param capacity 容量，向上取整为2的幂
+     */
+    SpanRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 写入一个跨度
+     * @return 缓冲区满时返回false，跨度被丢弃
+     */
+    boolean offer(Span span) {
+        long sequence;
+        do {
+            sequence = producerSequence.get();
+            if (sequence - consumerSequence >= slots.length()) {
+                dropped.increment();
+                return false;
+            }
+        } while (!producerSequence.compareAndSet(sequence, sequence + 1));
+        slots.lazySet((int) sequence & mask, span);
+        return true;
+    }
+
+    /**
+     * 按写入顺序取出已发布的跨度（只能由一个线程调用）。遇到已领取但还没有发布的槽位时停止，下次再取
+     * @param out 取出的跨度加入的列表
+     * @param max 最多取出的数量
+     * @return 取出的数量
+     */
+    int drainTo(List<Span> out, int max) {
+        long sequence = consumerSequence;
+        long limit = producerSequence.get();
+        int count = 0;
+        while (sequence < limit && count < max) {
+            int index = (int) sequence & mask;
+            Span span = slots.get(index);
+            if (span == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            out.add(span);
+            ++sequence;
+            ++count;
+        }
+        consumerSequence = sequence;
+        return count;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,221 @@
+package com.whi5p3r.spring.tracing;
+
+import com.whi5p3r.spring.core.env.Environment;
+import com.whi5p3r.spring.utils.DaemonThreadFactory;
+
+import java.io.File;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 轻量的请求追踪：每次分发按采样率决定是否开启一个trace，只有被采样的trace创建跨度；
+ *               当前跨度存放在线程的ThreadLocal中，子跨度以它为父，容器的异步执行器通过wrap把它传递到工作线程。
+ *               结束的跨度写入预先分配的无锁环形缓冲区，由守护线程定期以Zipkin v2 JSON格式导出到本地文件。
+ *               采样率为0（默认）时不分配缓冲区、不启动导出线程，开启和结束跨度只是一次字段判断
+ * @author: whi5p3r
+ * @date: 2026年10月20日 01:40
+ */
+public final class Tracer {
+    /**
+     * 采样率，0~1，默认0（关闭）
+     */
+    public static final String SAMPLE_RATE_PROPERTY = "whspring.tracing.sample-rate";
+    /**
+     * 导出文件，默认为工作目录下的whspring-spans.json
+     */
+    public static final String FILE_PROPERTY = "whspring.tracing.file";
+    /**
+     * 环形缓冲区容量（跨度数），默认8192
+     */
+    public static final String BUFFER_SIZE_PROPERTY = "whspring.tracing.buffer-size";
+    /**
+     * 导出间隔（毫秒），默认1000
+     */
+    public static final String EXPORT_INTERVAL_PROPERTY = "whspring.tracing.export-interval-millis";
+
+    private final double sampleRate;
+    private final boolean enabled;
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final SpanRingBuffer buffer;
+    private final ZipkinJsonExporter exporter;
+    private final ScheduledExecutorService exportThread;
+    /**
+     * System.nanoTime()与纪元微秒的对应关系，跨度的开始时间由nanoTime换算，不必每次读取墙钟
+     */
+    private final long epochMicrosBase;
+    private final long nanosBase;
+
+    /**
+     * @param sampleRate 采样率，不大于0时关闭追踪
+     * @param bufferSize 环形缓冲区容量
+     * @param file 导出文件
+     * @param serviceName Zipkin的服务名
+     * @param exportIntervalMillis 导出间隔
+     */
+    public Tracer(double sampleRate, int bufferSize, File file, String serviceName, long exportIntervalMillis) {
+        this.sampleRate = Math.min(1.0, sampleRate);
+        this.enabled = sampleRate > 0;
+        this.epochMicrosBase = System.currentTimeMillis() * 1000;
+        this.nanosBase = System.nanoTime();
+        if (!enabled) {
+            this.buffer = null;
+            this.exporter = null;
+            this.exportThread = null;
+            return;
+        }
+        this.buffer = new SpanRingBuffer(bufferSize);
+        this.exporter = new ZipkinJsonExporter(buffer, file, serviceName);
+        this.exportThread = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("whspring-tracing"));
+        exportThread.scheduleWithFixedDelay(exporter::export, exportIntervalMillis, exportIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 按运行环境中的属性创建
+     * @param environment 运行环境
+     * @param serviceName Zipkin的服务名
+     * @return 追踪器
+     */
+    public static Tracer fromEnvironment(Environment environment, String serviceName) {
+        double sampleRate = Double.parseDouble(environment.getProperty(SAMPLE_RATE_PROPERTY, "0"));
+        int bufferSize = Integer.parseInt(environment.getProperty(BUFFER_SIZE_PROPERTY, "8192"));
+        File file = new File(environment.getProperty(FILE_PROPERTY, "whspring-spans.json"));
+        long interval = Long.parseLong(environment.getProperty(EXPORT_INTERVAL_PROPERTY, "1000"));
+        return new Tracer(sampleRate, bufferSize, file, serviceName, interval);
+    }
+
+    /**
+     * 开启一个trace的根跨度（每次分发调用一次），按采样率决定是否采样；当前线程已经在trace中时开启子跨度
+     * @param component 组件，如请求方法
+     * @param operation 操作，如路由，可以为null
+     * @param kind Zipkin的kind，可以为null
+     * @return 跨度，没有被采样时为NOOP
+     */
+    public Span startTrace(String component, String operation, String kind) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        Span parent = current.get();
+        if (parent != null) {
+            return start(parent, component, operation, kind);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (sampleRate < 1.0 && random.nextDouble() >= sampleRate) {
+            return Span.NOOP;
+        }
+        Span span = new Span(this, null, nonZero(random.nextLong()), nonZero(random.nextLong()), 0L, component, operation, kind);
+        current.set(span);
+        return span;
+    }
+
+    /**
+     * 在当前跨度下开启子跨度
+     * @param component 组件，如beanName
+     * @param operation 操作，如方法名，可以为null
+     * @return 跨度，当前线程不在被采样的trace中时为NOOP
+     */
+    public Span startSpan(String component, String operation) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        Span parent = current.get();
+        return parent == null ? Span.NOOP : start(parent, component, operation, null);
+    }
+
+    /**
+     * @return 当前线程是否在被采样的trace中
+     */
+    public boolean isTracing() {
+        return enabled && current.get() != null;
+    }
+
+    /**
+     * @return 当前线程上的跨度，没有时返回null
+     */
+    public Span currentSpan() {
+        return enabled ? current.get() : null;
+    }
+
+    /**
+     * 把提交时的当前跨度传递到执行任务的线程，任务中开启的跨度以它为父
+     * @param task 任务
+     * @return 包装后的任务，当前线程不在trace中时为task本身
+     */
+    public Runnable wrap(Runnable task) {
+        Span parent = currentSpan();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = current.get();
+            current.set(parent);
+            try {
+                task.run();
+            } finally {
+                current.set(previous);
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @return 缓冲区满而丢弃的跨度数
+     */
+    public long getDroppedSpans() {
+        return enabled ? buffer.getDropped() : 0L;
+    }
+
+    /**
+     * @return 已导出的跨度数
+     */
+    public long getExportedSpans() {
+        return enabled ? exporter.getExported() : 0L;
+    }
+
+    /**
+     * 立即导出缓冲区中的跨度
+     */
+    public void flush() {
+        if (enabled) {
+            exporter.export();
+        }
+    }
+
+    /**
+     * 停止定期导出，并导出剩余的跨度
+     */
+    public void close() {
+        if (enabled) {
+            exportThread.shutdown();
+            exporter.export();
+        }
+    }
+
+    private Span start(Span parent, String component, String operation, String kind) {
+        Span span = new Span(this, parent, parent.getTraceId(), nonZero(ThreadLocalRandom.current().nextLong()),
+                parent.getSpanId(), component, operation, kind);
+        current.set(span);
+        return span;
+    }
+
+    void finish(Span span, Span previous) {
+        current.set(previous);
+        buffer.offer(span);
+    }
+
+    long epochMicros(long nanos) {
+        return epochMicrosBase + (nanos - nanosBase) / 1000;
+    }
+
+    private static long nonZero(long id) {
+        return id == 0L ? 1L : id;
+    }
+}
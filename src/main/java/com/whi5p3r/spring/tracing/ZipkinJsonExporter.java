@@ -0,0 +1,136 @@
+package com.whi5p3r.spring.tracing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @description: 把环形缓冲区中的跨度以Zipkin v2 JSON格式追加到本地文件：每次导出写一行，是一个跨度的JSON数组，
+ *               可以直接作为请求体POST到Zipkin的/api/v2/spans
+ * @author: whi5p3r
+ * @date: 2026年10月20日 01:40
+ */
+final class ZipkinJsonExporter {
+    private static final int BATCH_SIZE = 512;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final SpanRingBuffer buffer;
+    private final File file;
+    private final String serviceName;
+    private final List<Span> batch = new ArrayList<>(BATCH_SIZE);
+    private long exported;
+
+    ZipkinJsonExporter(SpanRingBuffer buffer, File file, String serviceName) {
+        this.buffer = buffer;
+        this.file = file;
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * 取出缓冲区中所有已发布的跨度并写入文件，写入失败时打印到标准错误，这批跨度丢弃
+     * @return 导出的跨度数量
+     */
+    synchronized int export() {
+        int total = 0;
+        while (buffer.drainTo(batch, BATCH_SIZE) > 0) {
+            try {
+                write(batch);
+                total += batch.size();
+            } catch (IOException e) {
+                System.err.println("[whspring] Failed to export " + batch.size() + " spans to " + file + ": " + e);
+            } finally {
+                batch.clear();
+            }
+        }
+        exported += total;
+        return total;
+    }
+
+    synchronized long getExported() {
+        return exported;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    private void write(List<Span> spans) throws IOException {
+        StringBuilder json = new StringBuilder(spans.size() * 256);
+        json.append('[');
+        for (int i = 0; i < spans.size(); ++i) {
+            if (i > 0) { json.append(','); }
+            appendSpan(json, spans.get(i));
+        }
+        json.append("]\n");
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.append(json);
+        }
+    }
+
+    private void appendSpan(StringBuilder json, Span span) {
+        json.append("{\"traceId\":\"");
+        appendHex(json, span.getTraceId());
+        json.append("\",\"id\":\"");
+        appendHex(json, span.getSpanId());
+        json.append('"');
+        if (span.getParentId() != 0L) {
+            json.append(",\"parentId\":\"");
+            appendHex(json, span.getParentId());
+            json.append('"');
+        }
+        if (span.getKind() != null) {
+            json.append(",\"kind\":\"").append(span.getKind()).append('"');
+        }
+        json.append(",\"name\":");
+        appendString(json, span.getName());
+        json.append(",\"timestamp\":").append(span.getTimestampMicros());
+        json.append(",\"duration\":").append(span.getDurationMicros());
+        json.append(",\"localEndpoint\":{\"serviceName\":");
+        appendString(json, serviceName);
+        json.append('}');
+        if (span.getTagCount() > 0) {
+            json.append(",\"tags\":{");
+            for (int i = 0; i < span.getTagCount(); ++i) {
+                if (i > 0) { json.append(','); }
+                appendString(json, span.getTagKey(i));
+                json.append(':');
+                appendString(json, span.getTagValue(i));
+            }
+            json.append('}');
+        }
+        json.append('}');
+    }
+
+    private static void appendHex(StringBuilder json, long value) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            json.append(HEX[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
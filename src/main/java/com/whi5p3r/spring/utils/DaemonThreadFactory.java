@@ -0,0 +1,25 @@
+package com.whi5p3r.spring.utils;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @description: 创建名为 prefix-序号 的守护线程，容器内部的执行器（@Async、@Scheduled）使用，不阻止JVM退出
+ * @author: whi5p3r
+ * @date: 2026年10月19日 23:00
+ */
+public final class DaemonThreadFactory implements ThreadFactory {
+    private final String prefix;
+    private final AtomicInteger count = new AtomicInteger();
+
+    public DaemonThreadFactory(String prefix) {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, prefix + "-" + count.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,282 @@
+package com.whi5p3r.spring.beans.support;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: ClassMetadataReader：常量池的每种tag（long/double占两项），各种注解元素值，以及省略的元素取注解上的默认值
+ * @author: whi5p3r
+ * @date: 2026年10月20日 19:00
+ */
+public class ClassMetadataReaderTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Marker {
+        int i() default 0;
+
+        long j() default 0L;
+
+        double d() default 0d;
+
+        float f() default 0f;
+
+        String s() default "";
+    }
+
+    public enum Color { RED, GREEN }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Nested {
+        String value() default "n";
+
+        int[] numbers() default {};
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Everything {
+        String s() default "ds";
+
+        boolean z() default true;
+
+        byte b() default 1;
+
+        char c() default 'c';
+
+        short sh() default 2;
+
+        int i() default 3;
+
+        long j() default 4L;
+
+        float f() default 5f;
+
+        double d() default 6d;
+
+        Color color() default Color.RED;
+
+        Class<?> type() default Object.class;
+
+        Class<?>[] types() default {Integer.class, long[].class, String[].class};
+
+        String[] names() default {"x", "y"};
+
+        int[] ints() default {7, 8};
+
+        Color[] colors() default {Color.GREEN};
+
+        Nested nested() default @Nested(numbers = {9});
+
+        Nested[] nestedArray() default {};
+    }
+
+    @Everything(s = "hello", z = false, b = -2, c = 'q', sh = 300, i = 70000, j = 1L << 40, f = 1.5f, d = 2.25,
+            color = Color.GREEN, type = int.class, types = {String.class, int[].class, Object[][].class}, names = {"a"},
+            ints = {}, colors = {Color.RED, Color.GREEN},
+            nested = @Nested(value = "inner", numbers = {1, 2}), nestedArray = {@Nested("a"), @Nested})
+    public static class Explicit {
+    }
+
+    @Everything
+    public abstract static class Defaults {
+    }
+
+    public interface Plain {
+    }
+
+    private static ClassMetadata read(Class<?> type) throws IOException {
+        try (InputStream in = type.getResourceAsStream("/" + type.getName().replace('.', '/') + ".class")) {
+            return ClassMetadataReader.read(in);
+        }
+    }
+
+    private static Map<String, Object> nested(String value, List<Integer> numbers) {
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("value", value);
+        expected.put("numbers", numbers);
+        return expected;
+    }
+
+    @Test
+    public void readsEveryExplicitElementValue() throws IOException {
+        ClassMetadata metadata = read(Explicit.class);
+        assertEquals(Explicit.class.getName(), metadata.getClassName());
+        assertTrue(metadata.hasAnnotation(Everything.class));
+        assertFalse(metadata.hasAnnotation(Marker.class));
+
+        assertEquals("hello", metadata.getAttribute(Everything.class, "s"));
+        assertEquals(false, metadata.getAttribute(Everything.class, "z"));
+        assertEquals((byte) -2, metadata.getAttribute(Everything.class, "b"));
+        assertEquals('q', metadata.getAttribute(Everything.class, "c"));
+        assertEquals((short) 300, metadata.getAttribute(Everything.class, "sh"));
+        assertEquals(70000, metadata.getAttribute(Everything.class, "i"));
+        assertEquals(1L << 40, metadata.getAttribute(Everything.class, "j"));
+        assertEquals(1.5f, metadata.getAttribute(Everything.class, "f"));
+        assertEquals(2.25, metadata.getAttribute(Everything.class, "d"));
+    }
+
+    @Test
+    public void readsEnumClassArrayAndNestedElements() throws IOException {
+        ClassMetadata metadata = read(Explicit.class);
+        assertEquals("GREEN", metadata.getAttribute(Everything.class, "color"));
+        assertEquals("int", metadata.getAttribute(Everything.class, "type"));
+        assertEquals(Arrays.asList(String.class.getName(), int[].class.getName(), Object[][].class.getName()),
+                metadata.getAttribute(Everything.class, "types"));
+        assertArrayEquals(new String[]{"a"}, metadata.getStringArrayAttribute(Everything.class, "names"));
+        assertEquals(Collections.emptyList(), metadata.getAttribute(Everything.class, "ints"));
+        assertEquals(Arrays.asList("RED", "GREEN"), metadata.getAttribute(Everything.class, "colors"));
+
+        assertEquals(nested("inner", Arrays.asList(1, 2)), metadata.getAttribute(Everything.class, "nested"));
+        // 嵌套注解只有显式写出的元素
+        Map<String, Object> onlyValue = new HashMap<>();
+        onlyValue.put("value", "a");
+        assertEquals(Arrays.asList(onlyValue, Collections.emptyMap()), metadata.getAttribute(Everything.class, "nestedArray"));
+    }
+
+    @Test
+    public void omittedElementsUseDeclaredDefaults() throws IOException {
+        ClassMetadata metadata = read(Defaults.class);
+        assertTrue(metadata.isAbstract());
+        assertFalse(metadata.isInterface());
+        assertEquals(Collections.emptyMap(), metadata.getAnnotationAttributes(Everything.class));
+
+        assertEquals("ds", metadata.getAttribute(Everything.class, "s"));
+        assertEquals(true, metadata.getAttribute(Everything.class, "z"));
+        assertEquals((byte) 1, metadata.getAttribute(Everything.class, "b"));
+        assertEquals('c', metadata.getAttribute(Everything.class, "c"));
+        assertEquals((short) 2, metadata.getAttribute(Everything.class, "sh"));
+        assertEquals(3, metadata.getAttribute(Everything.class, "i"));
+        assertEquals(4L, metadata.getAttribute(Everything.class, "j"));
+        assertEquals(5f, metadata.getAttribute(Everything.class, "f"));
+        assertEquals(6d, metadata.getAttribute(Everything.class, "d"));
+        assertEquals("RED", metadata.getAttribute(Everything.class, "color"));
+        assertEquals(Object.class.getName(), metadata.getAttribute(Everything.class, "type"));
+        assertEquals(Arrays.asList(Integer.class.getName(), long[].class.getName(), String[].class.getName()),
+                metadata.getAttribute(Everything.class, "types"));
+        assertArrayEquals(new String[]{"x", "y"}, metadata.getStringArrayAttribute(Everything.class, "names"));
+        assertEquals(Arrays.asList(7, 8), metadata.getAttribute(Everything.class, "ints"));
+        assertEquals(Collections.singletonList("GREEN"), metadata.getAttribute(Everything.class, "colors"));
+        assertEquals(nested("n", Collections.singletonList(9)), metadata.getAttribute(Everything.class, "nested"));
+        assertEquals(Collections.emptyList(), metadata.getAttribute(Everything.class, "nestedArray"));
+
+        assertThrows(IllegalArgumentException.class, () -> metadata.getAttribute(Everything.class, "missing"));
+    }
+
+    @Test
+    public void classWithoutAnnotations() throws IOException {
+        ClassMetadata metadata = read(Plain.class);
+        assertTrue(metadata.isInterface());
+        assertNull(metadata.getAnnotationAttributes(Everything.class));
+        assertNull(metadata.getAttribute(Everything.class, "s"));
+        assertNull(metadata.getStringArrayAttribute(Everything.class, "names"));
+    }
+
+    /**
+     * 手写的class文件，常量池包含每一种tag；long和double之后的常量下标都要跳过一项
+     */
+    private static byte[] syntheticClass(boolean unknownTag) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(55);
+        out.writeShort(36);
+        out.writeByte(1); out.writeUTF("test/Synthetic");               // 1
+        out.writeByte(7); out.writeShort(1);                            // 2 Class
+        out.writeByte(1); out.writeUTF("java/lang/Object");             // 3
+        out.writeByte(7); out.writeShort(3);                            // 4 Class
+        out.writeByte(3); out.writeInt(42);                             // 5 Integer
+        out.writeByte(4); out.writeFloat(1.5f);                         // 6 Float
+        out.writeByte(5); out.writeLong(1L << 40);                      // 7-8 Long
+        out.writeByte(6); out.writeDouble(2.5);                         // 9-10 Double
+        out.writeByte(8); out.writeShort(12);                           // 11 String
+        out.writeByte(1); out.writeUTF("text 中文 \u0000");     // 12 modified UTF-8
+        out.writeByte(12); out.writeShort(14); out.writeShort(15);      // 13 NameAndType
+        out.writeByte(1); out.writeUTF("name");                         // 14
+        out.writeByte(1); out.writeUTF("I");                            // 15
+        out.writeByte(9); out.writeShort(2); out.writeShort(13);        // 16 Fieldref
+        out.writeByte(10); out.writeShort(2); out.writeShort(13);       // 17 Methodref
+        out.writeByte(11); out.writeShort(2); out.writeShort(13);       // 18 InterfaceMethodref
+        out.writeByte(15); out.writeByte(1); out.writeShort(16);        // 19 MethodHandle
+        out.writeByte(16); out.writeShort(15);                          // 20 MethodType
+        out.writeByte(17); out.writeShort(0); out.writeShort(13);       // 21 Dynamic
+        out.writeByte(18); out.writeShort(0); out.writeShort(13);       // 22 InvokeDynamic
+        out.writeByte(19); out.writeShort(24);                          // 23 Module
+        out.writeByte(1); out.writeUTF("mod");                          // 24
+        out.writeByte(unknownTag ? 2 : 20); out.writeShort(26);         // 25 Package
+        out.writeByte(1); out.writeUTF("pkg");                          // 26
+        out.writeByte(1); out.writeUTF("RuntimeVisibleAnnotations");    // 27
+        out.writeByte(1); out.writeUTF("L" + Marker.class.getName().replace('.', '/') + ";"); // 28
+        out.writeByte(1); out.writeUTF("i");                            // 29
+        out.writeByte(1); out.writeUTF("j");                            // 30
+        out.writeByte(1); out.writeUTF("d");                            // 31
+        out.writeByte(1); out.writeUTF("f");                            // 32
+        out.writeByte(1); out.writeUTF("s");                            // 33
+        out.writeByte(1); out.writeUTF("SourceFile");                   // 34
+        out.writeByte(1); out.writeUTF("ConstantValue");                // 35
+
+        out.writeShort(Modifier.PUBLIC | 0x0020);
+        out.writeShort(2);
+        out.writeShort(4);
+        out.writeShort(0);
+        // 一个带ConstantValue属性的字段，没有方法
+        out.writeShort(1);
+        out.writeShort(Modifier.STATIC | Modifier.FINAL);
+        out.writeShort(14);
+        out.writeShort(15);
+        out.writeShort(1);
+        out.writeShort(35); out.writeInt(2); out.writeShort(5);
+        out.writeShort(0);
+        // 类属性：SourceFile，RuntimeVisibleAnnotations
+        out.writeShort(2);
+        out.writeShort(34); out.writeInt(2); out.writeShort(12);
+        out.writeShort(27); out.writeInt(2 + 2 + 2 + 5 * 5);
+        out.writeShort(1);
+        out.writeShort(28);
+        out.writeShort(5);
+        out.writeShort(29); out.writeByte('I'); out.writeShort(5);
+        out.writeShort(30); out.writeByte('J'); out.writeShort(7);
+        out.writeShort(31); out.writeByte('D'); out.writeShort(9);
+        out.writeShort(32); out.writeByte('F'); out.writeShort(6);
+        out.writeShort(33); out.writeByte('s'); out.writeShort(12);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void parsesEveryConstantPoolTag() throws IOException {
+        ClassMetadata metadata = ClassMetadataReader.read(new ByteArrayInputStream(syntheticClass(false)));
+        assertEquals("test.Synthetic", metadata.getClassName());
+        assertFalse(metadata.isInterface());
+        assertEquals(42, metadata.getAttribute(Marker.class, "i"));
+        assertEquals(1L << 40, metadata.getAttribute(Marker.class, "j"));
+        assertEquals(2.5, metadata.getAttribute(Marker.class, "d"));
+        assertEquals(1.5f, metadata.getAttribute(Marker.class, "f"));
+        assertEquals("text 中文 \u0000", metadata.getAttribute(Marker.class, "s"));
+    }
+
+    @Test
+    public void rejectsUnknownTagsAndNonClassFiles() {
+        assertThrows(IllegalArgumentException.class, () -> ClassMetadataReader.read(new ByteArrayInputStream(syntheticClass(true))));
+        assertThrows(IllegalArgumentException.class, () -> ClassMetadataReader.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8})));
+    }
+}
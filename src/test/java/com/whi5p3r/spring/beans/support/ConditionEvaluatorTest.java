@@ -0,0 +1,209 @@
+package com.whi5p3r.spring.beans.support;
+
+import com.whi5p3r.spring.annotations.Bean;
+import com.whi5p3r.spring.annotations.ConditionalOnClass;
+import com.whi5p3r.spring.annotations.ConditionalOnMissingBean;
+import com.whi5p3r.spring.annotations.ConditionalOnProperty;
+import com.whi5p3r.spring.annotations.Profile;
+import com.whi5p3r.spring.context.WhAnnotationApplicationContext;
+import com.whi5p3r.spring.core.env.Environment;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: ConditionEvaluator：@Profile（含!profile）、@ConditionalOnProperty、@ConditionalOnClass及其组合，
+ *               class文件元数据和反射两条路径的结果相同；@ConditionalOnMissingBean由BeanDefinitionReader判断
+ * @author: whi5p3r
+ * @date: 2026年10月20日 19:20
+ */
+public class ConditionEvaluatorTest {
+    private static final String FEATURE = "whspring.test.feature";
+
+    @After
+    public void clearProperties() {
+        System.clearProperty(Environment.ACTIVE_PROFILES_PROPERTY);
+        System.clearProperty(FEATURE);
+    }
+
+    @Profile("dev")
+    public static class DevOnly {
+    }
+
+    @Profile("!dev")
+    public static class NotDev {
+    }
+
+    @Profile({"dev", "!prod"})
+    public static class DevOrNotProd {
+    }
+
+    @ConditionalOnProperty(name = FEATURE)
+    public static class FeatureOn {
+    }
+
+    @ConditionalOnProperty(name = FEATURE, havingValue = "audit")
+    public static class FeatureAudit {
+    }
+
+    @ConditionalOnProperty(name = FEATURE, havingValue = "audit", matchIfMissing = true)
+    public static class FeatureAuditOrMissing {
+    }
+
+    @ConditionalOnClass(value = String.class, name = "java.util.List")
+    public static class ClassesPresent {
+    }
+
+    @ConditionalOnClass(name = {"java.util.Map", "com.example.DoesNotExist"})
+    public static class ClassMissing {
+    }
+
+    @Profile("dev")
+    @ConditionalOnProperty(name = FEATURE)
+    @ConditionalOnClass(name = "com.example.DoesNotExist")
+    public static class AllConditions {
+    }
+
+    public static class Unconditional {
+    }
+
+    /**
+     * 同时按class文件元数据和反射判断，两者结果必须相同
+     */
+    private static String evaluate(Class<?> type) throws IOException {
+        Environment environment = new Environment();
+        ClassLoader classLoader = ConditionEvaluatorTest.class.getClassLoader();
+        String byMetadata;
+        try (InputStream in = type.getResourceAsStream("/" + type.getName().replace('.', '/') + ".class")) {
+            byMetadata = new ConditionEvaluator(environment, classLoader).evaluate(ClassMetadataReader.read(in));
+        }
+        String byReflection = new ConditionEvaluator(environment, classLoader).evaluate(type);
+        assertEquals(byReflection, byMetadata);
+        return byMetadata;
+    }
+
+    @Test
+    public void profiles() throws IOException {
+        assertTrue(evaluate(DevOnly.class).startsWith("@Profile[dev]: active profiles are [default]"));
+        assertNull(evaluate(NotDev.class));
+        assertNull(evaluate(DevOrNotProd.class));
+
+        System.setProperty(Environment.ACTIVE_PROFILES_PROPERTY, "dev, prod");
+        assertNull(evaluate(DevOnly.class));
+        assertTrue(evaluate(NotDev.class).startsWith("@Profile[!dev]"));
+        assertNull(evaluate(DevOrNotProd.class));
+
+        System.setProperty(Environment.ACTIVE_PROFILES_PROPERTY, "prod");
+        assertTrue(evaluate(DevOnly.class).startsWith("@Profile[dev]: active profiles are [prod]"));
+        assertNull(evaluate(NotDev.class));
+        assertTrue(evaluate(DevOrNotProd.class).startsWith("@Profile[dev, !prod]"));
+    }
+
+    @Test
+    public void propertyPresence() throws IOException {
+        assertEquals("@ConditionalOnProperty: " + FEATURE + " is not set", evaluate(FeatureOn.class));
+        System.setProperty(FEATURE, "FALSE");
+        assertEquals("@ConditionalOnProperty: " + FEATURE + "=FALSE", evaluate(FeatureOn.class));
+        System.setProperty(FEATURE, "anything");
+        assertNull(evaluate(FeatureOn.class));
+    }
+
+    @Test
+    public void propertyValue() throws IOException {
+        assertEquals("@ConditionalOnProperty: " + FEATURE + " is not set", evaluate(FeatureAudit.class));
+        assertNull(evaluate(FeatureAuditOrMissing.class));
+
+        System.setProperty(FEATURE, "AUDIT");
+        assertNull(evaluate(FeatureAudit.class));
+        assertNull(evaluate(FeatureAuditOrMissing.class));
+
+        System.setProperty(FEATURE, "trace");
+        assertEquals("@ConditionalOnProperty: " + FEATURE + "=trace", evaluate(FeatureAudit.class));
+        assertEquals("@ConditionalOnProperty: " + FEATURE + "=trace", evaluate(FeatureAuditOrMissing.class));
+    }
+
+    @Test
+    public void classes() throws IOException {
+        assertNull(evaluate(ClassesPresent.class));
+        assertEquals("@ConditionalOnClass: com.example.DoesNotExist is not present", evaluate(ClassMissing.class));
+    }
+
+    @Test
+    public void combinedConditionsReportTheFirstFailure() throws IOException {
+        assertTrue(evaluate(AllConditions.class).startsWith("@Profile[dev]"));
+        System.setProperty(Environment.ACTIVE_PROFILES_PROPERTY, "dev");
+        assertEquals("@ConditionalOnProperty: " + FEATURE + " is not set", evaluate(AllConditions.class));
+        System.setProperty(FEATURE, "true");
+        assertEquals("@ConditionalOnClass: com.example.DoesNotExist is not present", evaluate(AllConditions.class));
+        assertNull(evaluate(Unconditional.class));
+    }
+
+    @Test
+    public void recordsCheckedPropertiesAndClasses() {
+        System.setProperty(Environment.ACTIVE_PROFILES_PROPERTY, "dev");
+        System.setProperty(FEATURE, "on");
+        ConditionEvaluator evaluator = new ConditionEvaluator(new Environment(), getClass().getClassLoader());
+        evaluator.evaluate(AllConditions.class);
+        evaluator.evaluate(ClassesPresent.class);
+        assertEquals("on", evaluator.getCheckedProperties().get(FEATURE));
+        assertFalse(evaluator.getCheckedClasses().get("com.example.DoesNotExist"));
+        assertTrue(evaluator.getCheckedClasses().get(String.class.getName()));
+        assertTrue(evaluator.getCheckedClasses().get("java.util.List"));
+    }
+
+    public static class Greeter {
+        private final String greeting;
+
+        public Greeter(String greeting) {
+            this.greeting = greeting;
+        }
+    }
+
+    public static class DefaultGreeterConfig {
+        @Bean
+        @ConditionalOnMissingBean
+        public Greeter defaultGreeter() {
+            return new Greeter("default");
+        }
+    }
+
+    public static class CustomGreeterConfig {
+        @Bean
+        @ConditionalOnMissingBean
+        public Greeter defaultGreeter() {
+            return new Greeter("default");
+        }
+
+        @Bean
+        @Profile("!dev")
+        public Greeter customGreeter() {
+            return new Greeter("custom");
+        }
+    }
+
+    @Test
+    public void missingBeanRegistersTheDefaultOnlyWhenNothingElseMatches() {
+        try (WhAnnotationApplicationContext context = new WhAnnotationApplicationContext(DefaultGreeterConfig.class)) {
+            assertEquals("default", ((Greeter) context.getBean(Greeter.class)).greeting);
+        }
+        try (WhAnnotationApplicationContext context = new WhAnnotationApplicationContext(CustomGreeterConfig.class)) {
+            assertEquals("custom", ((Greeter) context.getBean(Greeter.class)).greeting);
+            assertTrue(context.getExcludedBeans().get(CustomGreeterConfig.class.getName() + ".defaultGreeter()")
+                    .startsWith("@ConditionalOnMissingBean"));
+        }
+        // customGreeter被@Profile排除后，默认实现注册
+        System.setProperty(Environment.ACTIVE_PROFILES_PROPERTY, "dev");
+        try (WhAnnotationApplicationContext context = new WhAnnotationApplicationContext(CustomGreeterConfig.class)) {
+            assertEquals("default", ((Greeter) context.getBean(Greeter.class)).greeting);
+            assertTrue(context.getExcludedBeans().get(CustomGreeterConfig.class.getName() + ".customGreeter()")
+                    .startsWith("@Profile[!dev]"));
+        }
+    }
+}
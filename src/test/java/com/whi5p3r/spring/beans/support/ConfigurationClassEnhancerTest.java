@@ -0,0 +1,385 @@
+package com.whi5p3r.spring.beans.support;
+
+import com.whi5p3r.spring.annotations.Bean;
+import com.whi5p3r.spring.annotations.Pooled;
+import com.whi5p3r.spring.annotations.Scope;
+import com.whi5p3r.spring.beans.config.ScopeType;
+import com.whi5p3r.spring.context.WhAnnotationApplicationContext;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: ConfigurationClassEnhancer生成的子类：各种形参、返回类型的拦截和访问器，protected的@Bean方法，
+ *               容器中Bean间调用的单例/prototype语义，以及不能增强的配置类的校验
+ * @author: whi5p3r
+ * @date: 2026年10月20日 18:40
+ */
+public class ConfigurationClassEnhancerTest {
+
+    public static class ShapesConfig {
+        @Bean
+        public String primitives(boolean z, byte b, char c, short s, int i, float f) {
+            return "" + z + b + c + s + i + f;
+        }
+
+        @Bean
+        public String wide(long j, int i, double d, long k) {
+            return j + "/" + i + "/" + d + "/" + k;
+        }
+
+        @Bean
+        public String arrays(int[] ints, String[][] names, long[] longs, double... doubles) {
+            return ints[1] + "/" + names[1][0] + "/" + longs[0] + "/" + doubles[0];
+        }
+
+        @Bean
+        public Object[] objects(double d) {
+            return new Object[]{d};
+        }
+
+        @Bean
+        public String many(int a, long b, int c, double d, int e, float f, int g, long h, int i) {
+            return "" + a + b + c + d + e + f + g + h + i;
+        }
+
+        @Bean
+        protected String hidden() {
+            return "hidden";
+        }
+
+        public Object callHidden() {
+            return hidden();
+        }
+    }
+
+    /**
+     * 记录每次拦截的下标和实参，返回预设的结果
+     */
+    private static final class RecordingInterceptor implements BeanMethodInterceptor {
+        private final List<Integer> indexes = new ArrayList<>();
+        private final List<Object[]> arguments = new ArrayList<>();
+        private Object result = "intercepted";
+
+        @Override
+        public Object intercept(int methodIndex, Object[] arguments) {
+            this.indexes.add(methodIndex);
+            this.arguments.add(arguments);
+            return result;
+        }
+    }
+
+    private static Method beanMethod(Class<?> configClass, String name) {
+        for (Method method : ConfigurationClassEnhancer.getBeanMethods(configClass)) {
+            if (method.getName().equals(name)) { return method; }
+        }
+        throw new AssertionError(name);
+    }
+
+    private static int beanMethodIndex(Class<?> configClass, String name) {
+        return Arrays.asList(ConfigurationClassEnhancer.getBeanMethods(configClass)).indexOf(beanMethod(configClass, name));
+    }
+
+    private static ShapesConfig newEnhancedShapes(RecordingInterceptor interceptor) throws Exception {
+        Class<?> enhanced = ConfigurationClassEnhancer.enhance(ShapesConfig.class);
+        ShapesConfig config = (ShapesConfig) enhanced.getConstructor().newInstance();
+        ((EnhancedConfiguration) config).setBeanMethodInterceptor(interceptor);
+        return config;
+    }
+
+    private static Object invokeSuper(ShapesConfig config, String name, Object... arguments) throws Exception {
+        return ConfigurationClassEnhancer.getSuperAccessor(config.getClass(), beanMethod(ShapesConfig.class, name))
+                .invoke(config, arguments);
+    }
+
+    @Test
+    public void enhancesConfigurationWithInstanceBeanMethods() {
+        Class<?> enhanced = ConfigurationClassEnhancer.enhance(ShapesConfig.class);
+        assertSame(ShapesConfig.class, enhanced.getSuperclass());
+        assertTrue(ConfigurationClassEnhancer.isEnhanced(enhanced));
+        assertSame(enhanced, ConfigurationClassEnhancer.enhance(ShapesConfig.class));
+        assertEquals(6, ConfigurationClassEnhancer.getBeanMethods(ShapesConfig.class).length);
+    }
+
+    @Test
+    public void boxesEveryPrimitiveArgument() throws Exception {
+        RecordingInterceptor interceptor = new RecordingInterceptor();
+        ShapesConfig config = newEnhancedShapes(interceptor);
+
+        assertEquals("intercepted", config.primitives(true, (byte) -1, 'c', (short) 300, 70000, 4.5f));
+        assertEquals(Arrays.asList(beanMethodIndex(ShapesConfig.class, "primitives")), interceptor.indexes);
+        assertArrayEquals(new Object[]{true, (byte) -1, 'c', (short) 300, 70000, 4.5f}, interceptor.arguments.get(0));
+
+        assertEquals("true-1c300700004.5", invokeSuper(config, "primitives", true, (byte) -1, 'c', (short) 300, 70000, 4.5f));
+    }
+
+    @Test
+    public void longAndDoubleArgumentsTakeTwoSlots() throws Exception {
+        RecordingInterceptor interceptor = new RecordingInterceptor();
+        ShapesConfig config = newEnhancedShapes(interceptor);
+
+        config.wide(Long.MAX_VALUE, 7, 2.5, Long.MIN_VALUE);
+        assertArrayEquals(new Object[]{Long.MAX_VALUE, 7, 2.5, Long.MIN_VALUE}, interceptor.arguments.get(0));
+        assertEquals(Long.MAX_VALUE + "/7/2.5/" + Long.MIN_VALUE, invokeSuper(config, "wide", Long.MAX_VALUE, 7, 2.5, Long.MIN_VALUE));
+
+        // 超过5个形参时下标用bipush压栈，槽位超过参数个数
+        config.many(1, 2L, 3, 4.0, 5, 6f, 7, 8L, 9);
+        assertArrayEquals(new Object[]{1, 2L, 3, 4.0, 5, 6f, 7, 8L, 9}, interceptor.arguments.get(1));
+        assertEquals("1234.056.0789", invokeSuper(config, "many", 1, 2L, 3, 4.0, 5, 6f, 7, 8L, 9));
+    }
+
+    @Test
+    public void passesArraysAndCastsArrayResults() throws Exception {
+        RecordingInterceptor interceptor = new RecordingInterceptor();
+        ShapesConfig config = newEnhancedShapes(interceptor);
+        int[] ints = {1, 2};
+        String[][] names = {{"a"}, {"b"}};
+        long[] longs = {3L};
+        double[] doubles = {4.5};
+
+        config.arrays(ints, names, longs, doubles);
+        Object[] arguments = interceptor.arguments.get(0);
+        assertSame(ints, arguments[0]);
+        assertSame(names, arguments[1]);
+        assertSame(longs, arguments[2]);
+        assertSame(doubles, arguments[3]);
+        assertEquals("2/b/3/4.5", invokeSuper(config, "arrays", ints, names, longs, doubles));
+
+        Object[] result = {1.5};
+        interceptor.result = result;
+        assertSame(result, config.objects(1.5));
+        assertArrayEquals(new Object[]{1.5}, (Object[]) invokeSuper(config, "objects", 1.5));
+
+        // 返回值按@Bean方法的返回类型checkcast
+        interceptor.result = "not an array";
+        assertThrows(ClassCastException.class, () -> config.objects(1.5));
+    }
+
+    @Test
+    public void interceptsProtectedBeanMethods() throws Exception {
+        RecordingInterceptor interceptor = new RecordingInterceptor();
+        ShapesConfig config = newEnhancedShapes(interceptor);
+
+        assertEquals("intercepted", config.callHidden());
+        assertEquals(Arrays.asList(beanMethodIndex(ShapesConfig.class, "hidden")), interceptor.indexes);
+        assertEquals(0, interceptor.arguments.get(0).length);
+        assertEquals("hidden", invokeSuper(config, "hidden"));
+    }
+
+    @Test
+    public void callingBeforeInterceptorIsSetFails() throws Exception {
+        ShapesConfig config = (ShapesConfig) ConfigurationClassEnhancer.enhance(ShapesConfig.class).getConstructor().newInstance();
+        assertThrows(IllegalStateException.class, config::callHidden);
+    }
+
+    public static class Clock {
+        private static final AtomicInteger CREATED = new AtomicInteger();
+
+        public Clock() {
+            CREATED.incrementAndGet();
+        }
+    }
+
+    public static class Session {
+    }
+
+    public static class Pair {
+        private final Clock first;
+        private final Clock second;
+        private final Session firstSession;
+        private final Session secondSession;
+
+        public Pair(Clock first, Clock second, Session firstSession, Session secondSession) {
+            this.first = first;
+            this.second = second;
+            this.firstSession = firstSession;
+            this.secondSession = secondSession;
+        }
+    }
+
+    public static class IdentityConfig {
+        @Bean
+        public Clock clock() {
+            return new Clock();
+        }
+
+        @Bean
+        @Scope(ScopeType.PROTOTYPE)
+        public Session session() {
+            return new Session();
+        }
+
+        @Bean
+        public Pair pair() {
+            return new Pair(clock(), clock(), session(), session());
+        }
+    }
+
+    @Test
+    public void interBeanCallsKeepSingletonAndPrototypeSemantics() {
+        Clock.CREATED.set(0);
+        try (WhAnnotationApplicationContext context = new WhAnnotationApplicationContext(IdentityConfig.class)) {
+            Pair pair = (Pair) context.getBean("pair");
+            assertSame(context.getBean("clock"), pair.first);
+            assertSame(pair.first, pair.second);
+            assertEquals(1, Clock.CREATED.get());
+            assertNotSame(pair.firstSession, pair.secondSession);
+
+            IdentityConfig config = (IdentityConfig) context.getBean("identityConfig");
+            assertSame(pair.first, config.clock());
+            assertNotSame(config.session(), config.session());
+        }
+    }
+
+    public static class Buffer {
+    }
+
+    public static class PooledCallConfig {
+        @Bean
+        @Pooled(maxSize = 1)
+        public Buffer buffer() {
+            return new Buffer();
+        }
+
+        @Bean
+        public Object holder() {
+            return buffer();
+        }
+    }
+
+    @Test
+    public void rejectsInterBeanCallsToPooledBeans() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> new WhAnnotationApplicationContext(PooledCallConfig.class));
+        assertTrue(e.getMessage(), e.getMessage().contains("Pooled bean buffer"));
+    }
+
+    static class Hidden {
+    }
+
+    static class PackagePrivateConfig {
+        @Bean
+        public String value() {
+            return "";
+        }
+    }
+
+    public static final class FinalConfig {
+        @Bean
+        public String value() {
+            return "";
+        }
+    }
+
+    public static class NoDefaultConstructorConfig {
+        public NoDefaultConstructorConfig(int ignored) {
+        }
+
+        @Bean
+        public String value() {
+            return "";
+        }
+    }
+
+    public static class PrivateConstructorConfig {
+        private PrivateConstructorConfig() {
+        }
+
+        @Bean
+        public String value() {
+            return "";
+        }
+    }
+
+    public static class PackagePrivateMethodConfig {
+        @Bean
+        String value() {
+            return "";
+        }
+    }
+
+    public static class FinalMethodConfig {
+        @Bean
+        public final String value() {
+            return "";
+        }
+    }
+
+    public static class PrimitiveReturnConfig {
+        @Bean
+        public int value() {
+            return 0;
+        }
+    }
+
+    public static class HiddenReturnConfig {
+        @Bean
+        public Hidden value() {
+            return new Hidden();
+        }
+    }
+
+    public static class HiddenParameterConfig {
+        @Bean
+        public String value(Hidden hidden) {
+            return "";
+        }
+    }
+
+    public static class HiddenArrayConfig {
+        @Bean
+        public Hidden[][] value() {
+            return new Hidden[0][];
+        }
+    }
+
+    public static class StaticHiddenConfig {
+        @Bean
+        public static Hidden value() {
+            return new Hidden();
+        }
+    }
+
+    private static void assertRejected(Class<?> configClass, String message) {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> ConfigurationClassEnhancer.enhance(configClass));
+        assertTrue(e.getMessage(), e.getMessage().contains(message));
+    }
+
+    @Test
+    public void rejectsConfigurationsThatCannotBeSubclassed() {
+        assertRejected(PackagePrivateConfig.class, "must be public and non-final");
+        assertRejected(FinalConfig.class, "must be public and non-final");
+        assertRejected(NoDefaultConstructorConfig.class, "no-arg constructor");
+        assertRejected(PrivateConstructorConfig.class, "no-arg constructor");
+    }
+
+    @Test
+    public void rejectsBeanMethodsThatCannotBeOverridden() {
+        assertRejected(PackagePrivateMethodConfig.class, "must be public or protected and non-final");
+        assertRejected(FinalMethodConfig.class, "must be public or protected and non-final");
+        assertRejected(PrimitiveReturnConfig.class, "must return an object");
+    }
+
+    @Test
+    public void rejectsNonPublicTypesInBeanMethodSignatures() {
+        assertRejected(HiddenReturnConfig.class, "uses non-public type " + Hidden.class.getName());
+        assertRejected(HiddenParameterConfig.class, "uses non-public type " + Hidden.class.getName());
+        assertRejected(HiddenArrayConfig.class, "uses non-public type " + Hidden.class.getName());
+    }
+
+    @Test
+    public void staticBeanMethodsNeedNoEnhancement() {
+        assertSame(StaticHiddenConfig.class, ConfigurationClassEnhancer.enhance(StaticHiddenConfig.class));
+        assertEquals(0, ConfigurationClassEnhancer.getBeanMethods(StaticHiddenConfig.class).length);
+    }
+}
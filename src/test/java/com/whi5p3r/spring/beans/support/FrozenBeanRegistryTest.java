@@ -0,0 +1,216 @@
+package com.whi5p3r.spring.beans.support;
+
+import com.whi5p3r.spring.beans.config.BeanDefinition;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: FrozenBeanRegistry：开放寻址表的查找，哈希冲突下后移删除后再插入，Builder的增量重建和扩容，
+ *               以及别名与beanName、别名之间的冲突
+ * @author: whi5p3r
+ * @date: 2026年10月20日 20:40
+ */
+public class FrozenBeanRegistryTest {
+
+    private static BeanDefinition definition(String beanName) {
+        BeanDefinition beanDefinition = new BeanDefinition();
+        beanDefinition.setBeanName(beanName);
+        return beanDefinition;
+    }
+
+    private static FrozenBeanRegistry registry(List<String> beanNames, Map<String, String> aliases) {
+        Map<String, BeanDefinition> beanDefinitions = new LinkedHashMap<>();
+        for (String beanName : beanNames) {
+            beanDefinitions.put(beanName, definition(beanName));
+        }
+        return new FrozenBeanRegistry(beanDefinitions, aliases);
+    }
+
+    /**
+     * 由"Aa"和"BB"拼成的字符串hashCode都相同，2^n个键落在同一个起始槽位
+     */
+    private static List<String> collidingNames(int parts) {
+        List<String> names = new ArrayList<>();
+        for (int bits = 0; bits < 1 << parts; ++bits) {
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < parts; ++i) {
+                name.append((bits >> i & 1) == 0 ? "Aa" : "BB");
+            }
+            names.add(name.toString());
+        }
+        return names;
+    }
+
+    @Test
+    public void resolvesBeanNamesAndAliases() {
+        Map<String, String> aliases = new LinkedHashMap<>();
+        aliases.put("service", "serviceImpl");
+        // 与beanName同名的别名和指向不存在的Bean的别名被忽略
+        aliases.put("repository", "serviceImpl");
+        aliases.put("missing", "nothing");
+        FrozenBeanRegistry registry = registry(Arrays.asList("serviceImpl", "repository"), aliases);
+
+        assertEquals(0, registry.getBeanId("serviceImpl"));
+        assertEquals(0, registry.getBeanId(new String("serviceImpl")));
+        assertEquals(0, registry.getBeanId("service"));
+        assertEquals(1, registry.getBeanId("repository"));
+        assertEquals(-1, registry.getBeanId("missing"));
+        assertEquals(-1, registry.getBeanId("nothing"));
+        assertEquals(2, registry.size());
+        assertEquals(2, registry.count());
+        assertArrayEquals(new String[]{"serviceImpl", "repository"}, registry.getBeanNames());
+        assertEquals("repository", registry.getBeanDefinition(1).getBeanName());
+    }
+
+    @Test
+    public void collidingKeysSurviveBackwardShiftDeletes() {
+        List<String> names = collidingNames(4);
+        FrozenBeanRegistry registry = registry(names, Collections.emptyMap());
+        for (int beanId = 0; beanId < names.size(); ++beanId) {
+            assertEquals(beanId, registry.getBeanId(names.get(beanId)));
+        }
+
+        // 删除探测序列开头、中间的键，后面的键前移后仍能找到
+        FrozenBeanRegistry.Builder builder = registry.toBuilder();
+        for (int beanId : new int[]{0, 5, 6, 11}) {
+            builder.remove(beanId);
+        }
+        FrozenBeanRegistry removed = builder.build();
+        for (int beanId = 0; beanId < names.size(); ++beanId) {
+            boolean deleted = beanId == 0 || beanId == 5 || beanId == 6 || beanId == 11;
+            assertEquals(names.get(beanId), deleted ? -1 : beanId, removed.getBeanId(names.get(beanId)));
+        }
+        assertEquals(names.size(), removed.size());
+        assertEquals(names.size() - 4, removed.count());
+        assertEquals(names.size() - 4, removed.getBeanNames().length);
+        assertNull(removed.getBeanDefinition(5));
+
+        // 再插入同名的Bean，分配新的beanId，原来的空位不复用
+        builder = removed.toBuilder();
+        int reinserted = builder.add(definition(names.get(5)));
+        FrozenBeanRegistry rebuilt = builder.build();
+        assertEquals(names.size(), reinserted);
+        assertEquals(reinserted, rebuilt.getBeanId(names.get(5)));
+        assertEquals(-1, rebuilt.getBeanId(names.get(6)));
+        assertEquals(15, rebuilt.getBeanId(names.get(15)));
+    }
+
+    @Test
+    public void randomEditsMatchAMap() {
+        Random random = new Random(42);
+        List<String> pool = collidingNames(5);
+        for (int i = 0; i < 32; ++i) {
+            pool.add("bean" + i);
+        }
+        Map<String, Integer> expected = new HashMap<>();
+        FrozenBeanRegistry registry = registry(Collections.emptyList(), Collections.emptyMap());
+        for (int round = 0; round < 200; ++round) {
+            FrozenBeanRegistry.Builder builder = registry.toBuilder();
+            for (int op = random.nextInt(8); op >= 0; --op) {
+                String name = pool.get(random.nextInt(pool.size()));
+                Integer beanId = expected.get(name);
+                if (beanId == null) {
+                    expected.put(name, builder.add(definition(name)));
+                } else if (random.nextBoolean()) {
+                    builder.remove(beanId);
+                    expected.remove(name);
+                } else {
+                    // 改名为一个未使用的名字
+                    String renamed = pool.get(random.nextInt(pool.size()));
+                    if (!expected.containsKey(renamed)) {
+                        builder.replace(beanId, definition(renamed));
+                        expected.remove(name);
+                        expected.put(renamed, beanId);
+                    }
+                }
+            }
+            registry = builder.build();
+            for (String name : pool) {
+                Integer beanId = expected.get(name);
+                assertEquals("round " + round + " " + name, beanId == null ? -1 : (int) beanId, registry.getBeanId(name));
+            }
+            assertEquals(expected.size(), registry.count());
+        }
+    }
+
+    @Test
+    public void builderGrowsTheTableAndKeepsSingletons() {
+        FrozenBeanRegistry registry = registry(Arrays.asList("first", "second"), Collections.singletonMap("alias", "second"));
+        Object first = new Object();
+        Object second = new Object();
+        registry.setSingleton(0, first);
+        registry.setSingleton(1, second);
+
+        FrozenBeanRegistry.Builder builder = registry.toBuilder();
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(i + 2, builder.add(definition("added" + i)));
+        }
+        builder.replace(1, definition("renamed"));
+        FrozenBeanRegistry grown = builder.build();
+
+        assertEquals(102, grown.size());
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(i + 2, grown.getBeanId("added" + i));
+        }
+        assertEquals(1, grown.getBeanId("renamed"));
+        assertEquals(-1, grown.getBeanId("second"));
+        assertEquals(1, grown.getBeanId("alias"));
+        assertSame(first, grown.getSingleton(0));
+        assertNull(grown.getSingleton(1));
+        // 派生的注册表不影响原来的注册表
+        assertEquals(1, registry.getBeanId("second"));
+        assertSame(second, registry.getSingleton(1));
+        assertEquals(-1, registry.getBeanId("added0"));
+    }
+
+    @Test
+    public void aliasConflicts() {
+        Map<String, String> aliases = new LinkedHashMap<>();
+        aliases.put("shared", "a");
+        aliases.put("old", "b");
+        FrozenBeanRegistry registry = registry(Arrays.asList("a", "b", "c"), aliases);
+
+        FrozenBeanRegistry.Builder builder = registry.toBuilder();
+        // 指向两个不同Bean的别名无法确定，被删除
+        builder.registerAlias("shared", "c");
+        // 与已有beanName同名的别名被忽略，不影响该beanName
+        builder.registerAlias("b", "c");
+        builder.registerAlias("fresh", "c");
+        builder.removeAliases(1, Arrays.asList("old", "shared"));
+        FrozenBeanRegistry edited = builder.build();
+        assertEquals(-1, edited.getBeanId("shared"));
+        assertEquals(1, edited.getBeanId("b"));
+        assertEquals(2, edited.getBeanId("fresh"));
+        assertEquals(-1, edited.getBeanId("old"));
+
+        // 新增与别名同名的Bean时Bean优先；删除Bean时指向它的别名随之失效
+        builder = edited.toBuilder();
+        int beanId = builder.add(definition("fresh"));
+        builder.registerAlias("toRemoved", "a");
+        builder.remove(0);
+        FrozenBeanRegistry replaced = builder.build();
+        assertEquals(beanId, replaced.getBeanId("fresh"));
+        assertEquals(-1, replaced.getBeanId("toRemoved"));
+        assertEquals(-1, replaced.getBeanId("a"));
+
+        FrozenBeanRegistry.Builder conflicting = replaced.toBuilder();
+        assertThrows(RuntimeException.class, () -> conflicting.add(definition("b")));
+        assertThrows(RuntimeException.class, () -> conflicting.replace(1, definition("c")));
+        assertTrue(conflicting.getChangedNames().isEmpty());
+    }
+}
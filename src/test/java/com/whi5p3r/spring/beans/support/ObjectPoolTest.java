@@ -0,0 +1,234 @@
+package com.whi5p3r.spring.beans.support;
+
+import com.whi5p3r.spring.beans.config.PooledBean;
+import com.whi5p3r.spring.metrics.PoolMetrics;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: ObjectPool：并发借还时实例不被共享、总数不超过maxSize，耗尽时的等待和超时，重置失败的丢弃，
+ *               重复归还和归还外来实例，关闭后归还的实例被销毁
+ * @author: whi5p3r
+ * @date: 2026年10月20日 20:10
+ */
+public class ObjectPoolTest {
+
+    static class Resource implements PooledBean {
+        final AtomicBoolean inUse = new AtomicBoolean();
+        volatile boolean failReset;
+        int resets;
+
+        @Override
+        public void reset() {
+            ++resets;
+            if (failReset) {
+                throw new IllegalStateException("reset failed");
+            }
+        }
+    }
+
+    private static ObjectPool<Resource> pool(int maxSize, long maxWaitMillis, PoolMetrics metrics, List<Resource> destroyed) {
+        return new ObjectPool<>("resource", Resource::new, maxSize, TimeUnit.MILLISECONDS.toNanos(maxWaitMillis), metrics,
+                destroyed::add);
+    }
+
+    @Test
+    public void concurrentBorrowAndReleaseNeverShareAnInstance() throws Exception {
+        int threads = 8;
+        int iterations = 2000;
+        PoolMetrics metrics = new PoolMetrics("resource");
+        ObjectPool<Resource> pool = pool(4, 5000, metrics, new ArrayList<>());
+        CyclicBarrier start = new CyclicBarrier(threads);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger maxSize = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; ++t) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < iterations; ++i) {
+                        Resource resource = pool.borrow();
+                        if (!resource.inUse.compareAndSet(false, true)) {
+                            throw new AssertionError("instance borrowed twice");
+                        }
+                        maxSize.accumulateAndGet(pool.size(), Math::max);
+                        if ((i & 7) == 0) {
+                            Thread.yield();
+                        }
+                        resource.inUse.set(false);
+                        pool.release(resource);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertTrue(maxSize.get() <= 4);
+        assertTrue(metrics.getCreations() <= 4);
+        assertEquals((long) threads * iterations, metrics.getBorrows());
+        assertEquals(0, metrics.getInUse());
+        assertEquals(0, metrics.getTimeouts());
+        assertEquals(pool.size(), pool.close().size());
+    }
+
+    @Test
+    public void exhaustedPoolTimesOut() {
+        PoolMetrics metrics = new PoolMetrics("resource");
+        ObjectPool<Resource> pool = pool(1, 50, metrics, new ArrayList<>());
+        pool.borrow();
+        long start = System.nanoTime();
+        assertThrows(PoolExhaustedException.class, pool::borrow);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1, metrics.getTimeouts());
+        assertEquals(1, metrics.getInUse());
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void waiterGetsTheInstanceReleasedByAnotherThread() throws Exception {
+        PoolMetrics metrics = new PoolMetrics("resource");
+        ObjectPool<Resource> pool = pool(1, 5000, metrics, new ArrayList<>());
+        Resource first = pool.borrow();
+        CountDownLatch released = new CountDownLatch(1);
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            pool.release(first);
+            released.countDown();
+        });
+        releaser.start();
+        Resource second = pool.borrow();
+        assertTrue(released.await(5, TimeUnit.SECONDS));
+        assertSame(first, second);
+        assertEquals(1, metrics.getCreations());
+        assertEquals(1, metrics.getHits());
+        assertEquals(0, metrics.getTimeouts());
+    }
+
+    @Test
+    public void resetFailureDiscardsTheInstanceAndFreesCapacity() {
+        PoolMetrics metrics = new PoolMetrics("resource");
+        List<Resource> destroyed = new ArrayList<>();
+        ObjectPool<Resource> pool = pool(1, 0, metrics, destroyed);
+        Resource first = pool.borrow();
+        first.failReset = true;
+        pool.release(first);
+        assertEquals(1, first.resets);
+        assertEquals(0, pool.size());
+        assertEquals(1, metrics.getDiscards());
+        assertEquals(0, metrics.getInUse());
+        assertFalse(pool.isBorrowed(first));
+
+        // 丢弃后容量腾出，maxWait为0也能立刻新建
+        Resource second = pool.borrow();
+        assertNotSame(first, second);
+        assertEquals(2, metrics.getCreations());
+        pool.release(second);
+        assertSame(second, pool.borrow());
+        assertTrue(destroyed.isEmpty());
+    }
+
+    @Test
+    public void doubleAndForeignReleaseAreRejected() {
+        ObjectPool<Resource> pool = pool(2, 0, new PoolMetrics("resource"), new ArrayList<>());
+        Resource resource = pool.borrow();
+        assertTrue(pool.isBorrowed(resource));
+        pool.release(resource);
+        assertFalse(pool.isBorrowed(resource));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> pool.release(resource));
+        assertTrue(e.getMessage().contains("was not borrowed from the pool of bean resource"));
+        assertEquals(1, resource.resets);
+
+        Resource foreign = new Resource();
+        assertThrows(IllegalStateException.class, () -> pool.release(foreign));
+        assertFalse(pool.releaseIfBorrowed(foreign));
+        assertFalse(pool.isBorrowed(foreign));
+        assertEquals(0, foreign.resets);
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void borrowedTableReusesReturnedSlots() {
+        // 每次归还都丢弃实例，借出表中的每个实例都是新的，探测要跳过已归还的槽位并在表满之后复用它们
+        ObjectPool<Resource> pool = new ObjectPool<>("resource", () -> {
+            Resource resource = new Resource();
+            resource.failReset = true;
+            return resource;
+        }, 2, 0, new PoolMetrics("resource"), instance -> { });
+        for (int i = 0; i < 1000; ++i) {
+            Resource a = pool.borrow();
+            Resource b = pool.borrow();
+            assertTrue(pool.isBorrowed(a));
+            assertTrue(pool.isBorrowed(b));
+            pool.release(b);
+            pool.release(a);
+            assertFalse(pool.isBorrowed(a));
+            assertThrows(IllegalStateException.class, () -> pool.release(a));
+        }
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void factoryFailureDoesNotConsumeCapacity() {
+        AtomicBoolean fail = new AtomicBoolean(true);
+        ObjectPool<Resource> pool = new ObjectPool<>("resource", () -> {
+            if (fail.getAndSet(false)) {
+                throw new IllegalStateException("factory failed");
+            }
+            return new Resource();
+        }, 1, 0, new PoolMetrics("resource"), instance -> { });
+        assertThrows(IllegalStateException.class, pool::borrow);
+        assertEquals(0, pool.size());
+        pool.borrow();
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void releaseAfterCloseDestroysTheInstance() {
+        PoolMetrics metrics = new PoolMetrics("resource");
+        List<Resource> destroyed = new ArrayList<>();
+        ObjectPool<Resource> pool = pool(2, 0, metrics, destroyed);
+        Resource idle = pool.borrow();
+        Resource inUse = pool.borrow();
+        pool.release(idle);
+
+        assertEquals(Collections.singletonList(idle), pool.close());
+        assertTrue(pool.isClosed());
+        assertTrue(destroyed.isEmpty());
+        assertThrows(IllegalStateException.class, pool::borrow);
+
+        pool.release(inUse);
+        assertEquals(Collections.singletonList(inUse), destroyed);
+        assertEquals(0, inUse.resets);
+        assertEquals(0, pool.size());
+        assertEquals(0, metrics.getInUse());
+        assertThrows(IllegalStateException.class, () -> pool.release(inUse));
+    }
+}
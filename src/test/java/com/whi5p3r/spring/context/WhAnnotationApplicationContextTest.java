@@ -0,0 +1,161 @@
+package com.whi5p3r.spring.context;
+
+import com.whi5p3r.spring.annotations.Bean;
+import com.whi5p3r.spring.annotations.Scheduled;
+import com.whi5p3r.spring.annotations.Scope;
+import com.whi5p3r.spring.beans.config.ScopeType;
+import com.whi5p3r.spring.context.async.MeteredExecutor;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @description: WhAnnotationApplicationContext的关闭流程
+ * @author: whi5p3r
+ * @date: 2026年10月20日 18:10
+ */
+public class WhAnnotationApplicationContextTest {
+    private static final List<String> DESTROYED = new CopyOnWriteArrayList<>();
+
+    public static class Dep {
+        public void close() {
+            DESTROYED.add("dep");
+        }
+    }
+
+    public static class User {
+        private final Dep dep;
+
+        public User(Dep dep) {
+            this.dep = dep;
+        }
+
+        public Dep getDep() {
+            return dep;
+        }
+
+        public void shutdown() {
+            DESTROYED.add("user");
+        }
+    }
+
+    public static class InterBeanConfig {
+        @Bean
+        public User user() {
+            return new User(dep());
+        }
+
+        @Bean
+        public Dep dep() {
+            return new Dep();
+        }
+    }
+
+    @Test
+    public void destroysDependentBeforeItsInterBeanDependency() {
+        DESTROYED.clear();
+        WhAnnotationApplicationContext context = new WhAnnotationApplicationContext(InterBeanConfig.class);
+        User user = (User) context.getBean("user");
+        assertSame(context.getBean("dep"), user.getDep());
+
+        context.close();
+        assertEquals(Arrays.asList("user", "dep"), DESTROYED);
+    }
+
+    public static class Ticker {
+        private static final CountDownLatch STARTED = new CountDownLatch(1);
+        private static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+        @Scheduled(fixedDelay = 60000)
+        public void tick() throws InterruptedException {
+            STARTED.countDown();
+            RELEASE.await();
+        }
+    }
+
+    public static class BackgroundConfig {
+        @Bean
+        public Ticker ticker() {
+            return new Ticker();
+        }
+
+        @Bean
+        public Dep dep() {
+            return new Dep();
+        }
+    }
+
+    public static class PrototypeConfig {
+        @Bean
+        @Scope(ScopeType.PROTOTYPE)
+        public User user() {
+            return new User(dep());
+        }
+
+        @Bean
+        public Dep dep() {
+            return new Dep();
+        }
+    }
+
+    @Test
+    public void interruptedCloseStillShutsDownEveryExecutor() throws InterruptedException {
+        DESTROYED.clear();
+        WhAnnotationApplicationContext context = new WhAnnotationApplicationContext(BackgroundConfig.class);
+        MeteredExecutor async = context.getAsyncExecutors().getExecutor("");
+        async.execute(() -> { });
+        try {
+            // 定时任务一直执行，close等待调度器时被中断
+            assertTrue(Ticker.STARTED.await(10, TimeUnit.SECONDS));
+            Thread closing = Thread.currentThread();
+            Thread interrupter = new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException ignored) {
+                }
+                closing.interrupt();
+            });
+            interrupter.start();
+            boolean completed = context.close(10, TimeUnit.SECONDS);
+            assertTrue(Thread.interrupted());
+            interrupter.join();
+
+            assertFalse(completed);
+            assertTrue(((ExecutorService) async.getDelegate()).isShutdown());
+            assertEquals(Collections.singletonList("dep"), DESTROYED);
+        } finally {
+            Ticker.RELEASE.countDown();
+        }
+    }
+
+    @Test
+    public void getBeanAfterCloseThrows() {
+        WhAnnotationApplicationContext context = new WhAnnotationApplicationContext(PrototypeConfig.class);
+        int userId = context.getBeanId("user");
+        assertNotSame(context.getBean(userId), context.getBean(userId));
+        context.close();
+        try {
+            context.getBean(userId);
+            fail("getBean after close");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            context.getBean("dep");
+            fail("getBean after close");
+        } catch (IllegalStateException expected) {
+        }
+    }
+}
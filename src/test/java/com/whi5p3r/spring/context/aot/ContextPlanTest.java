@@ -0,0 +1,171 @@
+package com.whi5p3r.spring.context.aot;
+
+import com.whi5p3r.spring.beans.config.BeanDefinition;
+import com.whi5p3r.spring.beans.support.BeanDefinitionReader;
+import com.whi5p3r.spring.context.WhAnnotationApplicationContext;
+import com.whi5p3r.spring.context.aot.plan.PlanConfig;
+import com.whi5p3r.spring.context.aot.plan.PlanFeature;
+import com.whi5p3r.spring.context.aot.plan.PlanService;
+import com.whi5p3r.spring.core.env.Environment;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: ContextPlan：写入后读回的BeanDefinition、别名、排除的Bean与扫描结果一致；计划过期或损坏时load返回null，
+ *               容器回退到扫描并重写计划；classpath中带空格的路径按文件系统路径计算指纹
+ * @author: whi5p3r
+ * @date: 2026年10月20日 21:10
+ */
+public class ContextPlanTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void clearProperties() {
+        System.clearProperty(PlanConfig.FEATURE_PROPERTY);
+        System.clearProperty(ContextPlan.PLAN_PROPERTY);
+    }
+
+    private File planFile() {
+        return ContextPlan.getPlanFile(new File(folder.getRoot(), "context.plan"), PlanConfig.class.getName());
+    }
+
+    private static List<BeanDefinition> writePlan(File file) throws Exception {
+        BeanDefinitionReader reader = new BeanDefinitionReader(PlanConfig.class);
+        List<BeanDefinition> beanDefinitions = reader.loadBeanDefinition();
+        ContextPlan.write(file, reader, beanDefinitions);
+        return beanDefinitions;
+    }
+
+    @Test
+    public void planRoundTripsTheScanResult() throws Exception {
+        BeanDefinitionReader reader = new BeanDefinitionReader(PlanConfig.class);
+        List<BeanDefinition> scanned = reader.loadBeanDefinition();
+        File file = planFile();
+        ContextPlan.write(file, reader, scanned);
+
+        ContextPlan plan = ContextPlan.load(file, PlanConfig.class, new Environment());
+        assertNotNull(plan);
+        assertEquals(reader.getRegistryBeanClassCount(), plan.getScannedClassCount());
+        assertEquals(scanned.size(), plan.getBeanDefinitions().size());
+        for (int i = 0; i < scanned.size(); ++i) {
+            BeanDefinition expected = scanned.get(i);
+            BeanDefinition actual = plan.getBeanDefinitions().get(i);
+            assertEquals(expected.getBeanName(), actual.getBeanName());
+            assertEquals(expected.getBeanClassName(), actual.getBeanClassName());
+            assertEquals(expected.getScope(), actual.getScope());
+            assertEquals(expected.isLazyInit(), actual.isLazyInit());
+            assertEquals(expected.isFactoryBean(), actual.isFactoryBean());
+            assertEquals(expected.getPoolMaxSize(), actual.getPoolMaxSize());
+            assertEquals(expected.getPoolMaxWaitMillis(), actual.getPoolMaxWaitMillis());
+            assertArrayEquals(expected.getEventListenerMethods(), actual.getEventListenerMethods());
+            assertArrayEquals(expected.getScheduledMethods(), actual.getScheduledMethods());
+            assertEquals(expected.getFactoryMethod(), actual.getFactoryMethod());
+            assertEquals(expected.getFactoryBeanName(), actual.getFactoryBeanName());
+            assertArrayEquals(expected.getBeanMethodNames(), actual.getBeanMethodNames());
+            if (expected.getBeanMethodNames() != null) {
+                // 配置类每次增强都生成新的子类
+                assertSame(PlanConfig.class, actual.getBeanClass().getSuperclass());
+            } else {
+                assertSame(expected.getBeanClass(), actual.getBeanClass());
+            }
+        }
+        assertEquals(reader.getAliases(), plan.getAliases());
+        assertTrue(plan.getAliases().containsValue("planService"));
+        assertEquals(reader.getExcludedBeans(), plan.getExcludedBeans());
+        assertTrue(plan.getExcludedBeans().containsKey(PlanFeature.class.getName()));
+    }
+
+    @Test
+    public void stalePlansAreNotLoaded() throws Exception {
+        File file = planFile();
+        writePlan(file);
+        assertNotNull(ContextPlan.load(file, PlanConfig.class, new Environment()));
+
+        // 条件读取过的属性变化
+        System.setProperty(PlanConfig.FEATURE_PROPERTY, "on");
+        assertNull(ContextPlan.load(file, PlanConfig.class, new Environment()));
+        System.clearProperty(PlanConfig.FEATURE_PROPERTY);
+
+        // 为其他配置类写的计划
+        assertNull(ContextPlan.load(file, ContextPlanTest.class, new Environment()));
+
+        // 扫描目录中的class文件变化
+        File classFile = new File(PlanService.class.getResource("PlanService.class").toURI());
+        long lastModified = classFile.lastModified();
+        try {
+            assertTrue(classFile.setLastModified(lastModified + 2000));
+            assertNull(ContextPlan.load(file, PlanConfig.class, new Environment()));
+        } finally {
+            classFile.setLastModified(lastModified);
+        }
+        assertNotNull(ContextPlan.load(file, PlanConfig.class, new Environment()));
+
+        // 损坏或不存在的文件
+        Files.write(file.toPath(), "not a plan".getBytes(StandardCharsets.UTF_8));
+        assertNull(ContextPlan.load(file, PlanConfig.class, new Environment()));
+        assertNull(ContextPlan.load(new File(folder.getRoot(), "missing.plan"), PlanConfig.class, new Environment()));
+    }
+
+    @Test
+    public void contextFallsBackToScanningAndRewritesAStalePlan() throws Exception {
+        File base = new File(folder.getRoot(), "context.plan");
+        File file = planFile();
+        writePlan(file);
+        System.setProperty(ContextPlan.PLAN_PROPERTY, base.getPath());
+        System.setProperty(PlanConfig.FEATURE_PROPERTY, "on");
+
+        try (WhAnnotationApplicationContext context = new WhAnnotationApplicationContext(PlanConfig.class)) {
+            assertTrue(context.getBean("planFeature") instanceof PlanFeature);
+            assertNotNull(context.getBean("planMarker"));
+        }
+        ContextPlan rewritten = ContextPlan.load(file, PlanConfig.class, new Environment());
+        assertNotNull(rewritten);
+        assertTrue(rewritten.getExcludedBeans().isEmpty());
+
+        // 使用重写后的计划启动
+        try (WhAnnotationApplicationContext context = new WhAnnotationApplicationContext(PlanConfig.class)) {
+            assertTrue(context.getBean("planFeature") instanceof PlanFeature);
+            assertEquals("hello plan", ((PlanService) context.getBean("planService")).greet("plan"));
+        }
+    }
+
+    @Test
+    public void classpathLocationsWithSpacesAreDecoded() throws Exception {
+        File root = folder.newFolder("class root");
+        File scanDirectory = new File(root, "com/whi5p3r/spring/context/aot/plan");
+        assertTrue(scanDirectory.mkdirs());
+        File classFile = new File(scanDirectory, "PlanService.class");
+        Files.write(classFile.toPath(), new byte[]{1});
+        File jar = new File(root, "my app.jar");
+
+        assertEquals(classFile, BeanDefinitionReader.toFile(classFile.toURI().toURL()));
+        assertEquals(jar, BeanDefinitionReader.toFile(new URL("jar:" + jar.toURI() + "!/com/whi5p3r/Plan.class")));
+        assertNull(BeanDefinitionReader.toFile(new URL("http://localhost/Plan.class")));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{root.toURI().toURL()}, null)) {
+            File location = BeanDefinitionReader.findScanLocation(PlanConfig.class, classLoader);
+            assertEquals(scanDirectory.getCanonicalFile(), location.getCanonicalFile());
+            // 指纹随带空格的目录中的class文件变化
+            long before = ClasspathFingerprint.compute(PlanConfig.class, location);
+            Files.write(classFile.toPath(), new byte[]{1, 2});
+            assertTrue(before != ClasspathFingerprint.compute(PlanConfig.class, location));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.whi5p3r.spring.context.aot.plan;
+
+import com.whi5p3r.spring.annotations.Bean;
+import com.whi5p3r.spring.annotations.ComponentScan;
+import com.whi5p3r.spring.annotations.ConditionalOnProperty;
+
+/**
+ * @description: ContextPlanTest的配置类：扫描本包，另有一个@Bean方法和一个条件不满足的@Bean方法
+ * @author: whi5p3r
+ * @date: 2026年10月20日 21:10
+ */
+@ComponentScan(basePackages = "com.whi5p3r.spring.context.aot.plan")
+public class PlanConfig {
+    public static final String FEATURE_PROPERTY = "whspring.test.plan";
+
+    @Bean
+    public StringBuilder planLog() {
+        return new StringBuilder();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = FEATURE_PROPERTY, havingValue = "on")
+    public Object planMarker() {
+        return new Object();
+    }
+}
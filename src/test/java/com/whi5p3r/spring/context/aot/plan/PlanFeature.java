@@ -0,0 +1,14 @@
+package com.whi5p3r.spring.context.aot.plan;
+
+import com.whi5p3r.spring.annotations.Component;
+import com.whi5p3r.spring.annotations.ConditionalOnProperty;
+
+/**
+ * @description: 只在whspring.test.plan=on时注册的组件，用于验证属性变化后启动计划过期
+ * @author: whi5p3r
+ * @date: 2026年10月20日 21:10
+ */
+@Component
+@ConditionalOnProperty(name = PlanConfig.FEATURE_PROPERTY, havingValue = "on")
+public class PlanFeature {
+}
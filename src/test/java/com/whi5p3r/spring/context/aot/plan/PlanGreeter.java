@@ -0,0 +1,10 @@
+package com.whi5p3r.spring.context.aot.plan;
+
+/**
+ * @description: PlanService实现的接口，按接口名注册别名
+ * @author: whi5p3r
+ * @date: 2026年10月20日 21:10
+ */
+public interface PlanGreeter {
+    String greet(String name);
+}
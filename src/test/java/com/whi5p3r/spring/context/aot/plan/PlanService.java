@@ -0,0 +1,28 @@
+package com.whi5p3r.spring.context.aot.plan;
+
+import com.whi5p3r.spring.annotations.Component;
+import com.whi5p3r.spring.annotations.EventListener;
+
+/**
+ * @description: ContextPlanTest扫描到的组件，带有一个@EventListener方法
+ * @author: whi5p3r
+ * @date: 2026年10月20日 21:10
+ */
+@Component
+public class PlanService implements PlanGreeter {
+    private String lastEvent;
+
+    @Override
+    public String greet(String name) {
+        return "hello " + name;
+    }
+
+    @EventListener
+    public void onEvent(String event) {
+        this.lastEvent = event;
+    }
+
+    public String getLastEvent() {
+        return lastEvent;
+    }
+}
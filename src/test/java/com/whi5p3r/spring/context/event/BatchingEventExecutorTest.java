@@ -0,0 +1,92 @@
+package com.whi5p3r.spring.context.event;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: BatchingEventExecutor：队列满时由提交线程执行，任务失败不影响工作线程，关闭时执行完队列中的任务，
+ *               与关闭并发提交的任务不会滞留在队列中
+ * @author: whi5p3r
+ * @date: 2026年10月20日 21:40
+ */
+public class BatchingEventExecutorTest {
+
+    @Test
+    public void fullQueueRunsOnTheCaller() throws InterruptedException {
+        BatchingEventExecutor executor = new BatchingEventExecutor("test-events", 1, 1, 4);
+        CountDownLatch blocking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            blocking.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(blocking.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> { });
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+        assertSame(Thread.currentThread(), ranOn.get());
+        assertEquals(1, executor.getCallerRunsCount());
+        release.countDown();
+        assertTrue(executor.shutdown(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getQueueSize());
+    }
+
+    @Test
+    public void failingTaskDoesNotStopTheWorker() throws InterruptedException {
+        BatchingEventExecutor executor = new BatchingEventExecutor("test-events", 1, 16, 4);
+        CountDownLatch ran = new CountDownLatch(1);
+        executor.execute(() -> { throw new IllegalStateException("expected by the test"); });
+        executor.execute(ran::countDown);
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertTrue(executor.shutdown(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getCallerRunsCount());
+    }
+
+    @Test
+    public void shutdownRunsQueuedTasksAndLaterTasksRunOnTheCaller() throws InterruptedException {
+        BatchingEventExecutor executor = new BatchingEventExecutor("test-events", 2, 1024, 8);
+        AtomicInteger runs = new AtomicInteger();
+        for (int i = 0; i < 500; ++i) {
+            executor.execute(runs::incrementAndGet);
+        }
+        assertTrue(executor.shutdown(5, TimeUnit.SECONDS));
+        assertEquals(500, runs.get());
+
+        executor.execute(runs::incrementAndGet);
+        assertEquals(501, runs.get());
+    }
+
+    @Test
+    public void tasksSubmittedDuringShutdownAreNotStranded() throws Exception {
+        for (int round = 0; round < 200; ++round) {
+            BatchingEventExecutor executor = new BatchingEventExecutor("test-events", 2, 64, 8);
+            AtomicInteger runs = new AtomicInteger();
+            int tasks = 500;
+            CountDownLatch started = new CountDownLatch(1);
+            Thread submitter = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < tasks; ++i) {
+                    executor.execute(runs::incrementAndGet);
+                }
+            });
+            submitter.start();
+            started.await();
+            executor.shutdown(5, TimeUnit.SECONDS);
+            submitter.join(TimeUnit.SECONDS.toMillis(5));
+            assertEquals("round " + round, tasks, runs.get());
+            assertEquals(0, executor.getQueueSize());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.whi5p3r.spring.context.scheduling;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+/**
+ * @description: CronExpression.next：月末、2月29日、夏令时切换，以及名字、步长、范围和列表
+ * @author: whi5p3r
+ * @date: 2026年10月20日 19:40
+ */
+public class CronExpressionTest {
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    private static ZonedDateTime utc(int year, int month, int day, int hour, int minute, int second) {
+        return ZonedDateTime.of(year, month, day, hour, minute, second, 0, UTC);
+    }
+
+    private static ZonedDateTime next(String expression, ZonedDateTime after) {
+        return CronExpression.parse(expression).next(after);
+    }
+
+    @Test
+    public void nextIsStrictlyAfterTheGivenTime() {
+        assertEquals(utc(2024, 1, 1, 0, 0, 1), next("* * * * * *", utc(2024, 1, 1, 0, 0, 0)));
+        assertEquals(utc(2024, 1, 1, 0, 0, 1), next("* * * * * *", utc(2024, 1, 1, 0, 0, 0).plusNanos(999_999_999)));
+        assertEquals(utc(2024, 1, 1, 12, 1, 0), next("*/20 * * * * *", utc(2024, 1, 1, 12, 0, 41)));
+        assertEquals(utc(2024, 1, 1, 12, 0, 40), next("*/20 * * * * *", utc(2024, 1, 1, 12, 0, 20)));
+    }
+
+    @Test
+    public void rollsOverMonthAndYearEnds() {
+        // 2月没有31日，4月也没有
+        assertEquals(utc(2024, 3, 31, 12, 0, 0), next("0 0 12 31 * ?", utc(2024, 1, 31, 12, 0, 0)));
+        assertEquals(utc(2024, 5, 31, 12, 0, 0), next("0 0 12 31 * ?", utc(2024, 3, 31, 12, 0, 0)));
+        assertEquals(utc(2025, 1, 1, 0, 0, 0), next("0 0 0 1 * *", utc(2024, 12, 31, 23, 59, 59)));
+        assertEquals(utc(2025, 1, 1, 0, 0, 0), next("0 0 0 * * *", utc(2024, 12, 31, 0, 0, 0)));
+        assertEquals(utc(2024, 2, 1, 0, 0, 0), next("0 0 0 1 * *", utc(2024, 1, 1, 0, 0, 0)));
+    }
+
+    @Test
+    public void februaryTwentyNinthOnlyInLeapYears() {
+        assertEquals(utc(2024, 2, 29, 0, 0, 0), next("0 0 0 29 2 *", utc(2023, 3, 1, 0, 0, 0)));
+        assertEquals(utc(2028, 2, 29, 0, 0, 0), next("0 0 0 29 2 *", utc(2024, 2, 29, 0, 0, 0)));
+        assertEquals(utc(2024, 2, 29, 0, 0, 0), next("0 0 0 29 * *", utc(2024, 2, 28, 0, 0, 0)));
+        assertEquals(utc(2023, 3, 29, 0, 0, 0), next("0 0 0 29 * *", utc(2023, 2, 1, 0, 0, 0)));
+    }
+
+    @Test
+    public void neverFiringExpressionFails() {
+        assertThrows(IllegalStateException.class, () -> next("0 0 0 30 2 *", utc(2024, 1, 1, 0, 0, 0)));
+        assertThrows(IllegalStateException.class, () -> next("0 0 0 31 4,6,9,11 *", utc(2024, 1, 1, 0, 0, 0)));
+    }
+
+    @Test
+    public void springForwardSkipsTheMissingLocalTime() {
+        // 2024-03-10 02:00 EST直接跳到03:00 EDT，当天没有02:30
+        ZonedDateTime after = ZonedDateTime.of(2024, 3, 9, 2, 30, 0, 0, NEW_YORK);
+        assertEquals(ZonedDateTime.of(2024, 3, 11, 2, 30, 0, 0, NEW_YORK), next("0 30 2 * * *", after));
+        // 每小时的任务在跳过的一小时中不执行
+        ZonedDateTime beforeGap = ZonedDateTime.of(2024, 3, 10, 1, 0, 0, 0, NEW_YORK);
+        assertEquals(ZonedDateTime.of(2024, 3, 10, 3, 0, 0, 0, NEW_YORK), next("0 0 * * * *", beforeGap));
+    }
+
+    @Test
+    public void fallBackRunsHourlyTasksInBothRepeatedHours() {
+        // 2024-11-03 02:00 EDT回拨到01:00 EST，01:00出现两次
+        ZonedDateTime midnight = ZonedDateTime.of(2024, 11, 3, 0, 0, 0, 0, NEW_YORK);
+        ZonedDateTime first = next("0 0 * * * *", midnight);
+        ZonedDateTime second = next("0 0 * * * *", first);
+        ZonedDateTime third = next("0 0 * * * *", second);
+        assertEquals(1, first.getHour());
+        assertEquals(ZoneOffset.ofHours(-4), first.getOffset());
+        assertEquals(1, second.getHour());
+        assertEquals(ZoneOffset.ofHours(-5), second.getOffset());
+        assertEquals(2, third.getHour());
+        assertEquals(3600, second.toEpochSecond() - first.toEpochSecond());
+        assertEquals(3600, third.toEpochSecond() - second.toEpochSecond());
+    }
+
+    @Test
+    public void namesStepsRangesAndLists() {
+        // 1-3月工作日9点到17点每15分钟，2024-03-29是周五，之后的周末和4-12月都不匹配
+        String expression = "0 0/15 9-17 * JAN-MAR MON-FRI";
+        assertEquals(utc(2024, 3, 29, 17, 45, 0), next(expression, utc(2024, 3, 29, 17, 30, 0)));
+        assertEquals(utc(2025, 1, 1, 9, 0, 0), next(expression, utc(2024, 3, 29, 17, 45, 0)));
+        // 12月不匹配，2024-01-01是周一
+        assertEquals(utc(2024, 1, 1, 9, 0, 0), next(expression, utc(2023, 12, 30, 10, 0, 0)));
+
+        assertEquals(utc(2024, 1, 1, 10, 5, 0), next("0 5,35 10,22 * * *", utc(2024, 1, 1, 0, 0, 0)));
+        assertEquals(utc(2024, 1, 1, 10, 35, 0), next("0 5,35 10,22 * * *", utc(2024, 1, 1, 10, 5, 0)));
+        assertEquals(utc(2024, 1, 1, 22, 5, 0), next("0 5,35 10,22 * * *", utc(2024, 1, 1, 10, 35, 0)));
+        assertEquals(utc(2024, 1, 1, 0, 10, 0), next("0 10-30/10 * * * *", utc(2024, 1, 1, 0, 0, 0)));
+        assertEquals(utc(2024, 1, 1, 1, 10, 0), next("0 10-30/10 * * * *", utc(2024, 1, 1, 0, 30, 0)));
+        assertEquals(utc(2024, 1, 1, 0, 0, 45), next("15/30 * * * * *", utc(2024, 1, 1, 0, 0, 15)));
+    }
+
+    @Test
+    public void dayOfMonthAndDayOfWeekMustBothMatch() {
+        // 下一个13日星期五
+        assertEquals(utc(2024, 9, 13, 0, 0, 0), next("0 0 0 13 * FRI", utc(2024, 1, 1, 0, 0, 0)));
+        assertEquals(utc(2024, 12, 13, 0, 0, 0), next("0 0 0 13 * 5", utc(2024, 9, 13, 0, 0, 0)));
+    }
+
+    @Test
+    public void sundayIsZeroOrSevenAndFiveFieldsOmitSeconds() {
+        // 2024-01-07是周日
+        ZonedDateTime expected = utc(2024, 1, 7, 8, 30, 0);
+        assertEquals(expected, next("30 8 * * SUN", utc(2024, 1, 1, 0, 0, 0)));
+        assertEquals(expected, next("30 8 * * 0", utc(2024, 1, 1, 0, 0, 0)));
+        assertEquals(expected, next("30 8 * * 7", utc(2024, 1, 1, 0, 0, 0)));
+        assertEquals(expected, next("0 30 8 ? * sun", utc(2024, 1, 1, 0, 0, 0)));
+        assertEquals(utc(2024, 1, 6, 8, 30, 0), next("30 8 * * SAT,SUN", utc(2024, 1, 1, 0, 0, 0)));
+    }
+
+    @Test
+    public void rejectsInvalidExpressions() {
+        String[] invalid = {"* * *", "* * * * * * *", "60 * * * * *", "0 0 24 * * *", "0 0 0 0 * *", "0 0 0 * 13 *",
+                "0 0 0 * * 8", "0/0 * * * * *", "0 0 0 * FOO *", "0 30-10 * * * *", "a * * * * *"};
+        for (String expression : invalid) {
+            assertThrows(expression, IllegalArgumentException.class, () -> CronExpression.parse(expression));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.whi5p3r.spring.context.scheduling;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @description: HashedWheelTimer：超过一圈的Timeout按剩余圈数到期，时间轮线程处理登记前后的取消，停止后拒绝登记
+ * @author: whi5p3r
+ * @date: 2026年10月20日 19:40
+ */
+public class HashedWheelTimerTest {
+    private HashedWheelTimer timer;
+
+    @After
+    public void stop() {
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+
+    @Test
+    public void timeoutSpanningSeveralRoundsFiresNoEarlierThanItsDelay() throws InterruptedException {
+        // 4格 * 5ms，一圈20ms，100ms需要转5圈
+        timer = new HashedWheelTimer("test-timer", 5, TimeUnit.MILLISECONDS, 4);
+        CountDownLatch fired = new CountDownLatch(1);
+        long[] elapsed = new long[1];
+        long start = System.nanoTime();
+        timer.newTimeout(() -> {
+            elapsed[0] = System.nanoTime() - start;
+            fired.countDown();
+        }, 100, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue("fired after " + elapsed[0] + "ns", elapsed[0] >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void timeoutsInTheSameBucketFireInTheirOwnRound() throws InterruptedException {
+        // 10ms、30ms、50ms分别是第2、6、10个tick，都落在4格时间轮的第2格
+        timer = new HashedWheelTimer("test-timer", 5, TimeUnit.MILLISECONDS, 4);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        List<Long> elapsed = new CopyOnWriteArrayList<>();
+        CountDownLatch fired = new CountDownLatch(3);
+        long start = System.nanoTime();
+        for (int delay : new int[]{50, 10, 30}) {
+            timer.newTimeout(() -> {
+                order.add(delay);
+                elapsed.add(System.nanoTime() - start);
+                fired.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(10, 30, 50), order);
+        for (int i = 0; i < 3; ++i) {
+            assertTrue(order.get(i) + "ms timeout fired after " + elapsed.get(i) + "ns",
+                    elapsed.get(i) >= TimeUnit.MILLISECONDS.toNanos(order.get(i)));
+        }
+    }
+
+    @Test
+    public void cancelBeforeTransferNeverRuns() throws InterruptedException {
+        // tick为200ms，登记后立刻取消时时间轮线程还没有处理登记
+        timer = new HashedWheelTimer("test-timer", 200, TimeUnit.MILLISECONDS, 4);
+        AtomicBoolean ran = new AtomicBoolean();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> ran.set(true), 0, TimeUnit.MILLISECONDS);
+        timeout.cancel();
+        assertEquals(1, timer.getPendingCount());
+        assertTrue(timeout.isCancelled());
+        CountDownLatch later = new CountDownLatch(1);
+        timer.newTimeout(later::countDown, 250, TimeUnit.MILLISECONDS);
+        assertTrue(later.await(5, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+        assertEquals(0, timer.getPendingCount());
+    }
+
+    @Test
+    public void cancelAfterTransferRemovesFromTheBucket() throws InterruptedException {
+        timer = new HashedWheelTimer("test-timer", 5, TimeUnit.MILLISECONDS, 4);
+        AtomicBoolean ran = new AtomicBoolean();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> ran.set(true), 150, TimeUnit.MILLISECONDS);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (timer.getPendingCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, timer.getPendingCount());
+        timeout.cancel();
+        timeout.cancel();
+        CountDownLatch later = new CountDownLatch(1);
+        timer.newTimeout(later::countDown, 250, TimeUnit.MILLISECONDS);
+        assertTrue(later.await(5, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+    }
+
+    @Test
+    public void failingTaskDoesNotStopTheWheel() throws InterruptedException {
+        timer = new HashedWheelTimer("test-timer", 5, TimeUnit.MILLISECONDS, 1);
+        timer.newTimeout(() -> { throw new IllegalStateException("expected by the test"); }, 0, TimeUnit.MILLISECONDS);
+        CountDownLatch fired = new CountDownLatch(1);
+        timer.newTimeout(fired::countDown, 20, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void rejectsTimeoutsAfterStop() {
+        timer = new HashedWheelTimer("test-timer", 5, TimeUnit.MILLISECONDS, 8);
+        timer.stop();
+        assertThrows(IllegalStateException.class, () -> timer.newTimeout(() -> { }, 0, TimeUnit.MILLISECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer("test-timer", 0, TimeUnit.MILLISECONDS, 8));
+        assertThrows(IllegalArgumentException.class, () -> new HashedWheelTimer("test-timer", 5, TimeUnit.MILLISECONDS, 0));
+    }
+}
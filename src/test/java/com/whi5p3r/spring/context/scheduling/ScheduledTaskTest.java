@@ -0,0 +1,181 @@
+package com.whi5p3r.spring.context.scheduling;
+
+import com.whi5p3r.spring.annotations.Scheduled;
+import com.whi5p3r.spring.metrics.ScheduledTaskMetrics;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @description: ScheduledTask：fixedRate上一次未结束时跳过（overrun）而不是并发或补执行，fixedDelay在执行结束后重新登记，取消和注解校验
+ * @author: whi5p3r
+ * @date: 2026年10月20日 19:40
+ */
+public class ScheduledTaskTest {
+    private final TaskScheduler scheduler = new TaskScheduler("test-scheduler", 4, 16, 1, 64);
+
+    @After
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    public static class SlowRate {
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+
+        @Scheduled(fixedRate = 20)
+        public void tick() throws InterruptedException {
+            int current = active.incrementAndGet();
+            maxActive.accumulateAndGet(current, Math::max);
+            Thread.sleep(70);
+            active.decrementAndGet();
+        }
+    }
+
+    public static class Delayed {
+        final List<Long> starts = new CopyOnWriteArrayList<>();
+        final List<Long> ends = new CopyOnWriteArrayList<>();
+        final CountDownLatch fourRuns = new CountDownLatch(4);
+
+        @Scheduled(fixedDelay = 50, initialDelay = 30)
+        public void tick() throws InterruptedException {
+            starts.add(System.nanoTime());
+            Thread.sleep(20);
+            ends.add(System.nanoTime());
+            fourRuns.countDown();
+        }
+    }
+
+    public static class Counting {
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch threeRuns = new CountDownLatch(3);
+
+        @Scheduled(fixedRate = 10)
+        public void tick() {
+            runs.incrementAndGet();
+            threeRuns.countDown();
+        }
+    }
+
+    public static class Invalid {
+        @Scheduled(fixedRate = 10, fixedDelay = 10)
+        public void both() { }
+
+        @Scheduled
+        public void none() { }
+
+        @Scheduled(fixedRate = 10)
+        public void withParameter(int value) { }
+
+        @Scheduled(fixedRate = 10, initialDelay = -1)
+        public void negativeInitialDelay() { }
+
+        @Scheduled(cron = "0 * * * * *", initialDelay = 5)
+        public void cronWithInitialDelay() { }
+
+        @Scheduled(cron = "0 0 25 * * *")
+        public void badCron() { }
+
+        @Scheduled(fixedDelay = 0)
+        public void zeroPeriod() { }
+    }
+
+    private static Method method(Class<?> type, String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return type.getMethod(name, parameterTypes);
+    }
+
+    private static void awaitIdle(ScheduledTask task) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (task.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertFalse(task.isRunning());
+    }
+
+    @Test
+    public void fixedRateSkipsExecutionsWhileThePreviousOneRuns() throws Exception {
+        SlowRate bean = new SlowRate();
+        ScheduledTask task = new ScheduledTask(0, "slowRate", method(SlowRate.class, "tick"));
+        ScheduledTaskMetrics metrics = new ScheduledTaskMetrics(task.getName());
+        task.start(scheduler, bean, metrics);
+        Thread.sleep(400);
+        task.cancel();
+        awaitIdle(task);
+
+        // 每次执行70ms，周期20ms：工作线程有4个也不会并发执行，被跳过的周期不补执行
+        assertEquals(1, bean.maxActive.get());
+        assertTrue("overruns " + metrics.getOverruns(), metrics.getOverruns() > 0);
+        assertTrue("runs " + metrics.getRuns(), metrics.getRuns() >= 2 && metrics.getRuns() <= 400 / 70 + 1);
+        assertEquals(0, metrics.getRejections());
+    }
+
+    @Test
+    public void fixedDelayReschedulesAfterEachExecutionEnds() throws Exception {
+        Delayed bean = new Delayed();
+        ScheduledTask task = new ScheduledTask(0, "delayed", method(Delayed.class, "tick"));
+        ScheduledTaskMetrics metrics = new ScheduledTaskMetrics(task.getName());
+        long started = System.nanoTime();
+        task.start(scheduler, bean, metrics);
+        assertTrue(bean.fourRuns.await(5, TimeUnit.SECONDS));
+        task.cancel();
+        awaitIdle(task);
+
+        assertTrue(bean.starts.get(0) - started >= TimeUnit.MILLISECONDS.toNanos(30));
+        for (int i = 1; i < 4; ++i) {
+            long gap = bean.starts.get(i) - bean.ends.get(i - 1);
+            assertTrue("run " + i + " started " + gap + "ns after the previous one ended", gap >= TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        assertEquals(0, metrics.getOverruns());
+        assertEquals(0, metrics.getFailures());
+    }
+
+    @Test
+    public void cancelStopsFurtherExecutions() throws Exception {
+        Counting bean = new Counting();
+        ScheduledTask task = new ScheduledTask(0, "counting", method(Counting.class, "tick"));
+        task.start(scheduler, bean, new ScheduledTaskMetrics(task.getName()));
+        assertTrue(bean.threeRuns.await(5, TimeUnit.SECONDS));
+        task.cancel();
+        awaitIdle(task);
+        int runs = bean.runs.get();
+        Thread.sleep(100);
+        assertEquals(runs, bean.runs.get());
+    }
+
+    @Test
+    public void rejectsInvalidAnnotations() throws Exception {
+        String[][] cases = {
+                {"both", "exactly one of cron, fixedRate and fixedDelay"},
+                {"none", "exactly one of cron, fixedRate and fixedDelay"},
+                {"negativeInitialDelay", "must not be negative"},
+                {"cronWithInitialDelay", "cannot combine cron with initialDelay"},
+                {"badCron", "0 0 25 * * *"},
+                {"zeroPeriod", "must be positive"},
+        };
+        for (String[] testCase : cases) {
+            try {
+                new ScheduledTask(0, "invalid", method(Invalid.class, testCase[0]));
+                fail(testCase[0] + " should be rejected");
+            } catch (IllegalStateException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains(testCase[1]));
+            }
+        }
+        try {
+            new ScheduledTask(0, "invalid", method(Invalid.class, "withParameter", int.class));
+            fail("withParameter should be rejected");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("must not declare parameters"));
+        }
+    }
+}